@@ -30,6 +30,7 @@
 package com.mysql.cj;
 
 import java.util.Properties;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.conf.PropertySet;
 import com.mysql.cj.exceptions.ExceptionInterceptor;
@@ -55,8 +56,26 @@ public interface MysqlConnection {
      */
     Properties getProperties();
 
+    /**
+     * Returns the object whose monitor used to serialize access to this connection.
+     * 
+     * @return the logical connection object
+     * @deprecated the driver no longer synchronizes on this object: all of its own work is serialized by {@link #getConnectionLock()}. Code that does
+     *             {@code synchronized (conn.getConnectionMutex())} to keep the driver out while it works on the connection is <b>not</b> excluded from
+     *             driver work any more, and must use {@code getConnectionLock().lock()} instead.
+     */
+    @Deprecated
     Object getConnectionMutex();
 
+    /**
+     * Returns the lock that serializes access to this connection and the objects bound to it. It replaces the monitor of {@link #getConnectionMutex()} for
+     * code that may block on network I/O, so that virtual threads waiting for the server don't pin their carrier thread. This is the only lock the
+     * driver takes for connection-wide exclusion.
+     * 
+     * @return {@link Lock}
+     */
+    Lock getConnectionLock();
+
     Session getSession();
 
     String getURL();
@@ -31,6 +31,7 @@ package com.mysql.cj;
 
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.protocol.Message;
 import com.mysql.cj.protocol.ProtocolEntityFactory;
@@ -59,6 +60,14 @@ public interface Query {
 
     Object getCancelTimeoutMutex();
 
+    /**
+     * Lock held while a timed-out query is being killed and while the cancel status is checked. Replaces the monitor of {@link #getCancelTimeoutMutex()}
+     * because the kill is sent over the network while it is held.
+     * 
+     * @return {@link Lock}
+     */
+    Lock getCancelTimeoutLock();
+
     void resetCancelledState();
 
     void closeQuery();
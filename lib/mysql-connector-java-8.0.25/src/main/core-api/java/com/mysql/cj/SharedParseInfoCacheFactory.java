@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.mysql.cj.conf.PropertyDefinitions;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+
+/**
+ * A {@link CacheAdapterFactory} whose caches all share one process-wide, size-bounded store of {@link ParseInfo}s, so that connections of a pool parse
+ * each statement once instead of once per connection. Select it with "parseInfoCacheFactory=com.mysql.cj.SharedParseInfoCacheFactory".
+ * <p>
+ * Entries are keyed by the SQL together with everything the parsed form depends on: the character encoding, the identifier quote string (ANSI_QUOTES),
+ * NO_BACKSLASH_ESCAPES and the "rewriteBatchedStatements" and "dontCheckOnDuplicateKeyUpdateInSQL" properties. These are read from the connection on each
+ * lookup, so a session that changes sql_mode stops sharing entries with the others.
+ * <p>
+ * The store is split into shards, each with its own lock and a segmented LRU: new entries go to a probation segment and move to a protected segment on their
+ * first hit, so a burst of statements used once can't push out the ones that are used all the time. The total size defaults to
+ * {@value #DEFAULT_CAPACITY} entries and can be set with the system property {@value PropertyDefinitions#SYSP_sharedParseInfoCacheSize}; the
+ * "prepStmtCacheSize" property is not used, "prepStmtCacheSqlLimit" still is.
+ */
+public class SharedParseInfoCacheFactory implements CacheAdapterFactory<String, ParseInfo> {
+
+    static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int SHARD_COUNT = 16;
+
+    private static class StoreHolder {
+        static final Store INSTANCE = new Store(getConfiguredCapacity());
+
+        private static int getConfiguredCapacity() {
+            String capacity = System.getProperty(PropertyDefinitions.SYSP_sharedParseInfoCacheSize);
+            if (capacity != null) {
+                try {
+                    return Math.max(Integer.parseInt(capacity.trim()), 1);
+                } catch (NumberFormatException e) {
+                    // use the default
+                }
+            }
+            return DEFAULT_CAPACITY;
+        }
+    }
+
+    public CacheAdapter<String, ParseInfo> getInstance(Object syncMutex, String url, int cacheMaxSize, int maxKeySize) {
+        return new SharedParseInfoCache(StoreHolder.INSTANCE, syncMutex, url, maxKeySize);
+    }
+
+    /**
+     * Per-connection view of a {@link Store}.
+     */
+    static class SharedParseInfoCache implements CacheAdapter<String, ParseInfo> {
+        private final Store store;
+        private final Object syncMutex;
+        private final Context urlContext;
+        private final int cacheSqlLimit;
+        private Context lastContext;
+
+        SharedParseInfoCache(Store store, Object syncMutex, String url, int maxKeySize) {
+            this.store = store;
+            this.syncMutex = syncMutex;
+            this.urlContext = new Context(url, null, null, 0);
+            this.cacheSqlLimit = maxKeySize;
+        }
+
+        public ParseInfo get(String key) {
+            if (key == null || key.length() > this.cacheSqlLimit) {
+                return null;
+            }
+            Context context = getContext();
+            return context == null ? null : this.store.get(new Key(key, context));
+        }
+
+        public void put(String key, ParseInfo value) {
+            if (key == null || key.length() > this.cacheSqlLimit || value == null) {
+                return;
+            }
+            Context context = getContext();
+            if (context != null) {
+                this.store.put(new Key(key, context), value);
+            }
+        }
+
+        public void invalidate(String key) {
+            Context context = getContext();
+            if (key != null && context != null) {
+                this.store.remove(new Key(key, context));
+            }
+        }
+
+        public void invalidateAll(Set<String> keys) {
+            for (String key : keys) {
+                invalidate(key);
+            }
+        }
+
+        /**
+         * Removes the entries this connection would see; entries parsed for other encodings or SQL modes stay.
+         */
+        public void invalidateAll() {
+            Context context = getContext();
+            if (context != null) {
+                this.store.removeAll(context);
+            }
+        }
+
+        /**
+         * Describes the parse-affecting state of the owning connection. Falls back to the connection URL for owners that aren't a {@link MysqlConnection}.
+         * 
+         * @return the current context, or null if the connection has no session to read it from
+         */
+        private Context getContext() {
+            if (!(this.syncMutex instanceof MysqlConnection)) {
+                return this.urlContext;
+            }
+            Session session = ((MysqlConnection) this.syncMutex).getSession();
+            if (session == null || session.getServerSession() == null) {
+                return null;
+            }
+
+            PropertySet pset = session.getPropertySet();
+            int flags = 0;
+            if (session.getServerSession().isNoBackslashEscapesSet()) {
+                flags |= Context.NO_BACKSLASH_ESCAPES;
+            }
+            if (pset.getBooleanProperty(PropertyKey.rewriteBatchedStatements).getValue()) {
+                flags |= Context.REWRITE_BATCHED_STATEMENTS;
+            }
+            if (pset.getBooleanProperty(PropertyKey.dontCheckOnDuplicateKeyUpdateInSQL).getValue()) {
+                flags |= Context.DONT_CHECK_ODKU;
+            }
+            String encoding = pset.getStringProperty(PropertyKey.characterEncoding).getValue();
+            String quote = session.getIdentifierQuoteString();
+
+            Context context = this.lastContext;
+            if (context == null || !context.matches(encoding, quote, flags)) {
+                this.lastContext = context = new Context(null, encoding, quote, flags);
+            }
+            return context;
+        }
+    }
+
+    /**
+     * The connection state a {@link ParseInfo} was built for.
+     */
+    static final class Context {
+        static final int NO_BACKSLASH_ESCAPES = 1;
+        static final int REWRITE_BATCHED_STATEMENTS = 1 << 1;
+        static final int DONT_CHECK_ODKU = 1 << 2;
+
+        final String url;
+        final String encoding;
+        final String quote;
+        final int flags;
+        private final int hash;
+
+        Context(String url, String encoding, String quote, int flags) {
+            this.url = url;
+            this.encoding = encoding;
+            this.quote = quote;
+            this.flags = flags;
+            this.hash = Objects.hash(url, encoding, quote, flags);
+        }
+
+        boolean matches(String otherEncoding, String otherQuote, int otherFlags) {
+            return this.url == null && this.flags == otherFlags && Objects.equals(this.encoding, otherEncoding) && Objects.equals(this.quote, otherQuote);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Context)) {
+                return false;
+            }
+            Context other = (Context) obj;
+            return this.hash == other.hash && this.flags == other.flags && Objects.equals(this.url, other.url)
+                    && Objects.equals(this.encoding, other.encoding) && Objects.equals(this.quote, other.quote);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    static final class Key {
+        final String sql;
+        final Context context;
+        private final int hash;
+
+        Key(String sql, Context context) {
+            this.sql = sql;
+            this.context = context;
+            this.hash = 31 * sql.hashCode() + context.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.hash == other.hash && this.sql.equals(other.sql) && this.context.equals(other.context);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+    /**
+     * The shared entries, split into independently locked shards.
+     */
+    static class Store {
+        private final Shard[] shards;
+
+        Store(int capacity) {
+            int shardCount = Math.min(SHARD_COUNT, Integer.highestOneBit(capacity));
+            this.shards = new Shard[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                // spread the remainder over the first shards so that the sizes add up to the capacity
+                this.shards[i] = new Shard(capacity / shardCount + (i < capacity % shardCount ? 1 : 0));
+            }
+        }
+
+        private Shard shardFor(Key key) {
+            int h = key.hashCode();
+            h ^= h >>> 16;
+            return this.shards[h & (this.shards.length - 1)];
+        }
+
+        ParseInfo get(Key key) {
+            return shardFor(key).get(key);
+        }
+
+        void put(Key key, ParseInfo value) {
+            shardFor(key).put(key, value);
+        }
+
+        void remove(Key key) {
+            shardFor(key).remove(key);
+        }
+
+        void removeAll(Context context) {
+            for (Shard shard : this.shards) {
+                shard.removeAll(context);
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (Shard shard : this.shards) {
+                size += shard.size();
+            }
+            return size;
+        }
+    }
+
+    /**
+     * A segmented LRU. Both segments are access-ordered; an entry is promoted from probation to protected when it is hit, and the least recently used
+     * protected entry is demoted back to probation when the protected segment overflows. Evictions take the least recently used probation entry.
+     */
+    static class Shard {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+        private final int protectedCapacity;
+        private final LinkedHashMap<Key, ParseInfo> probation = new LinkedHashMap<>(16, 0.75f, true);
+        private final LinkedHashMap<Key, ParseInfo> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+        Shard(int capacity) {
+            this.capacity = Math.max(capacity, 1);
+            this.protectedCapacity = Math.max(this.capacity * 4 / 5, 1);
+        }
+
+        ParseInfo get(Key key) {
+            this.lock.lock();
+            try {
+                ParseInfo value = this.protectedSegment.get(key);
+                if (value == null) {
+                    value = this.probation.remove(key);
+                    if (value != null) {
+                        this.protectedSegment.put(key, value);
+                        if (this.protectedSegment.size() > this.protectedCapacity) {
+                            Iterator<Map.Entry<Key, ParseInfo>> eldest = this.protectedSegment.entrySet().iterator();
+                            Map.Entry<Key, ParseInfo> demoted = eldest.next();
+                            eldest.remove();
+                            this.probation.put(demoted.getKey(), demoted.getValue());
+                        }
+                    }
+                }
+                return value;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        void put(Key key, ParseInfo value) {
+            this.lock.lock();
+            try {
+                if (this.protectedSegment.containsKey(key)) {
+                    this.protectedSegment.put(key, value);
+                    return;
+                }
+                this.probation.put(key, value);
+                while (this.probation.size() + this.protectedSegment.size() > this.capacity) {
+                    LinkedHashMap<Key, ParseInfo> victims = this.probation.isEmpty() ? this.protectedSegment : this.probation;
+                    Iterator<Key> eldest = victims.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        void remove(Key key) {
+            this.lock.lock();
+            try {
+                if (this.probation.remove(key) == null) {
+                    this.protectedSegment.remove(key);
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        void removeAll(Context context) {
+            this.lock.lock();
+            try {
+                this.probation.keySet().removeIf(k -> k.context.equals(context));
+                this.protectedSegment.keySet().removeIf(k -> k.context.equals(context));
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        int size() {
+            this.lock.lock();
+            try {
+                return this.probation.size() + this.protectedSegment.size();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+}
@@ -41,8 +41,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 import javax.naming.NamingException;
@@ -53,9 +51,9 @@ import com.mysql.cj.exceptions.ExceptionFactory;
 import com.mysql.cj.exceptions.InvalidConnectionAttributeException;
 import com.mysql.cj.exceptions.UnsupportedConnectionStringException;
 import com.mysql.cj.exceptions.WrongArgumentException;
+import com.mysql.cj.util.ConcurrentLRUCache;
 import com.mysql.cj.util.DnsSrv;
 import com.mysql.cj.util.DnsSrv.SrvRecord;
-import com.mysql.cj.util.LRUCache;
 import com.mysql.cj.util.Util;
 
 /**
@@ -68,8 +66,7 @@ public abstract class ConnectionUrl implements DatabaseUrlContainer {
     public static final String DEFAULT_HOST = "localhost";
     public static final int DEFAULT_PORT = 3306;
 
-    private static final LRUCache<String, ConnectionUrl> connectionUrlCache = new LRUCache<>(100);
-    private static final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private static final ConcurrentLRUCache<String, ConnectionUrl> connectionUrlCache = new ConcurrentLRUCache<>(100);
 
     /**
      * The rules describing the number of hosts a database URL may contain.
@@ -265,28 +262,10 @@ public abstract class ConnectionUrl implements DatabaseUrlContainer {
             throw ExceptionFactory.createException(WrongArgumentException.class, Messages.getString("ConnectionString.0"));
         }
         String connStringCacheKey = buildConnectionStringCacheKey(connString, info);
-        ConnectionUrl connectionUrl;
 
-        rwLock.readLock().lock();
-        connectionUrl = connectionUrlCache.get(connStringCacheKey);
-        if (connectionUrl == null) {
-            rwLock.readLock().unlock();
-            rwLock.writeLock().lock();
-            try {
-                // Check again, in the meantime it could have been cached by another thread.
-                connectionUrl = connectionUrlCache.get(connStringCacheKey);
-                if (connectionUrl == null) {
-                    ConnectionUrlParser connStrParser = ConnectionUrlParser.parseConnectionString(connString);
-                    connectionUrl = Type.getConnectionUrlInstance(connStrParser, info);
-                    connectionUrlCache.put(connStringCacheKey, connectionUrl);
-                }
-                rwLock.readLock().lock();
-            } finally {
-                rwLock.writeLock().unlock();
-            }
-        }
-        rwLock.readLock().unlock();
-        return connectionUrl;
+        // Threads asking for the same uncached connection string at the same time wait for one of them to parse it.
+        return connectionUrlCache.computeIfAbsent(connStringCacheKey,
+                k -> Type.getConnectionUrlInstance(ConnectionUrlParser.parseConnectionString(connString), info));
     }
 
     /**
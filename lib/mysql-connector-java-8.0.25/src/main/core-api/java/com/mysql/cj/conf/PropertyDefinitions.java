@@ -56,6 +56,11 @@ public class PropertyDefinitions {
      * Operational system properties.
      */
     public static final String SYSP_disableAbandonedConnectionCleanup = "com.mysql.cj.disableAbandonedConnectionCleanup";
+    public static final String SYSP_debugPacketBufferPool = "com.mysql.cj.debugPacketBufferPool";
+    public static final String SYSP_asyncDispatcherThreads = "com.mysql.cj.asyncDispatcherThreads";
+    public static final String SYSP_asyncListenerThreads = "com.mysql.cj.asyncListenerThreads";
+    public static final String SYSP_readAheadThreads = "com.mysql.cj.readAheadThreads";
+    public static final String SYSP_sharedParseInfoCacheSize = "com.mysql.cj.sharedParseInfoCacheSize";
 
     /*
      * Testsuite system properties.
@@ -268,6 +273,9 @@ public class PropertyDefinitions {
                 new BooleanPropertyDefinition(PropertyKey.useUnbufferedInput, DEFAULT_VALUE_TRUE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.useUnbufferedInput"), "3.0.11", CATEGORY_NETWORK, Integer.MIN_VALUE),
 
+                new BooleanPropertyDefinition(PropertyKey.useSocketChannel, DEFAULT_VALUE_FALSE, RUNTIME_NOT_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.useSocketChannel"), "8.0.26", CATEGORY_NETWORK, Integer.MIN_VALUE),
+
                 new IntegerPropertyDefinition(PropertyKey.connectTimeout, 0, RUNTIME_MODIFIABLE, Messages.getString("ConnectionProperties.connectTimeout"),
                         "3.0.1", CATEGORY_NETWORK, 9, 0, Integer.MAX_VALUE),
 
@@ -304,6 +312,12 @@ public class PropertyDefinitions {
                 new BooleanPropertyDefinition(PropertyKey.useCompression, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.useCompression"), "3.0.17", CATEGORY_NETWORK, Integer.MIN_VALUE),
 
+                new IntegerPropertyDefinition(PropertyKey.compressionLevel, -1, RUNTIME_NOT_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.compressionLevel"), "8.0.26", CATEGORY_NETWORK, Integer.MIN_VALUE, -1, 9),
+
+                new BooleanPropertyDefinition(PropertyKey.adaptiveCompression, DEFAULT_VALUE_TRUE, RUNTIME_NOT_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.adaptiveCompression"), "8.0.26", CATEGORY_NETWORK, Integer.MIN_VALUE),
+
                 new IntegerPropertyDefinition(PropertyKey.maxAllowedPacket, 65535, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.maxAllowedPacket"), "5.1.8", CATEGORY_NETWORK, Integer.MIN_VALUE),
 
@@ -444,6 +458,9 @@ public class PropertyDefinitions {
                         Messages.getString("ConnectionProperties.netTimeoutForStreamingResults"), "5.1.0", CATEGORY_RESULT_SETS, Integer.MIN_VALUE, 0,
                         Integer.MAX_VALUE),
 
+                new IntegerPropertyDefinition(PropertyKey.streamingReadAheadRows, 0, RUNTIME_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.streamingReadAheadRows"), "8.0.26", CATEGORY_RESULT_SETS, Integer.MIN_VALUE, 0, 65536),
+
                 new BooleanPropertyDefinition(PropertyKey.padCharsWithSpace, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.padCharsWithSpace"), "5.0.6", CATEGORY_RESULT_SETS, Integer.MIN_VALUE),
 
@@ -688,9 +705,15 @@ public class PropertyDefinitions {
                 new BooleanPropertyDefinition(PropertyKey.rewriteBatchedStatements, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.rewriteBatchedStatements"), "3.1.13", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
 
+                new BooleanPropertyDefinition(PropertyKey.useColumnarResultSets, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.useColumnarResultSets"), "8.0.26", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
+
                 new BooleanPropertyDefinition(PropertyKey.useCursorFetch, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.useCursorFetch"), "5.0.0", CATEGORY_PERFORMANCE, Integer.MAX_VALUE),
 
+                new BooleanPropertyDefinition(PropertyKey.useCursorPrefetch, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.useCursorPrefetch"), "8.0.26", CATEGORY_PERFORMANCE, Integer.MAX_VALUE),
+
                 new BooleanPropertyDefinition(PropertyKey.useLocalSessionState, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.useLocalSessionState"), "3.1.7", CATEGORY_PERFORMANCE, 5),
 
@@ -842,6 +865,8 @@ public class PropertyDefinitions {
                         Messages.getString("ConnectionProperties.xdevapiFallbackToSystemTrustStore"), "8.0.22", CATEGORY_XDEVAPI, Integer.MIN_VALUE),
                 new EnumPropertyDefinition<>(PropertyKey.xdevapiAuth, AuthMech.PLAIN, RUNTIME_NOT_MODIFIABLE, Messages.getString("ConnectionProperties.auth"),
                         "8.0.8", CATEGORY_XDEVAPI, Integer.MIN_VALUE),
+                new IntegerPropertyDefinition(PropertyKey.xdevapiAsyncPollTimeout, 100, RUNTIME_NOT_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.xdevapiAsyncPollTimeout"), "8.0.26", CATEGORY_XDEVAPI, Integer.MIN_VALUE, 0, Integer.MAX_VALUE),
                 new IntegerPropertyDefinition(PropertyKey.xdevapiConnectTimeout, 10000, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.xdevapiConnectTimeout"), "8.0.13", CATEGORY_XDEVAPI, Integer.MIN_VALUE, 0, Integer.MAX_VALUE),
                 new StringPropertyDefinition(PropertyKey.xdevapiConnectionAttributes, DEFAULT_VALUE_NULL_STRING, RUNTIME_NOT_MODIFIABLE,
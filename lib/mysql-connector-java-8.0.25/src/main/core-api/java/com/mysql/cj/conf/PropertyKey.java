@@ -60,6 +60,7 @@ public enum PropertyKey {
     /** The database value from the properties instance passed to the driver. */
     DBNAME("dbname", false), //
 
+    adaptiveCompression("adaptiveCompression", true), //
     allowLoadLocalInfile("allowLoadLocalInfile", true), //
     allowLoadLocalInfileInPath("allowLoadLocalInfileInPath", true), //
     allowSourceDownConnections("allowSourceDownConnections", "allowMasterDownConnections", true), //
@@ -93,6 +94,7 @@ public enum PropertyKey {
     clobberStreamingResults("clobberStreamingResults", true), //
     clobCharacterEncoding("clobCharacterEncoding", true), //
     compensateOnDuplicateKeyUpdateCounts("compensateOnDuplicateKeyUpdateCounts", true), //
+    compressionLevel("compressionLevel", true), //
     connectionAttributes("connectionAttributes", true), //
     connectionCollation("connectionCollation", true), //
     connectionLifecycleInterceptors("connectionLifecycleInterceptors", true), //
@@ -213,6 +215,7 @@ public enum PropertyKey {
     socksProxyHost("socksProxyHost", true), //
     socksProxyPort("socksProxyPort", true), //
     sslMode("sslMode", true), //
+    streamingReadAheadRows("streamingReadAheadRows", true), //
     strictUpdates("strictUpdates", true), //
     tcpKeepAlive("tcpKeepAlive", true), //
     tcpNoDelay("tcpNoDelay", true), //
@@ -229,9 +232,11 @@ public enum PropertyKey {
     ultraDevHack("ultraDevHack", true), //
     useAffectedRows("useAffectedRows", true), //
     useColumnNamesInFindColumn("useColumnNamesInFindColumn", true), //
+    useColumnarResultSets("useColumnarResultSets", true), //
     useCompression("useCompression", true), //
     useConfigs("useConfigs", true), //
     useCursorFetch("useCursorFetch", true), //
+    useCursorPrefetch("useCursorPrefetch", true), //
     useHostsInPrivileges("useHostsInPrivileges", true), //
     useInformationSchema("useInformationSchema", true), //
     useLocalSessionState("useLocalSessionState", true), //
@@ -241,12 +246,14 @@ public enum PropertyKey {
     useOnlyServerErrorMessages("useOnlyServerErrorMessages", true), //
     useReadAheadInput("useReadAheadInput", true), //
     useServerPrepStmts("useServerPrepStmts", true), //
+    useSocketChannel("useSocketChannel", true), //
     useSSL("useSSL", true), //
     useStreamLengthsInPrepStmts("useStreamLengthsInPrepStmts", true), //
     useUnbufferedInput("useUnbufferedInput", true), //
     useUsageAdvisor("useUsageAdvisor", true), //
     verifyServerCertificate("verifyServerCertificate", true), //
 
+    xdevapiAsyncPollTimeout("xdevapi.async-poll-timeout", "xdevapiAsyncPollTimeout", true), //
     xdevapiAsyncResponseTimeout("xdevapi.asyncResponseTimeout", "xdevapiAsyncResponseTimeout", true), //
     xdevapiAuth("xdevapi.auth", "xdevapiAuth", true), //
     xdevapiConnectTimeout("xdevapi.connect-timeout", "xdevapiConnectTimeout", true), //
@@ -29,6 +29,8 @@
 
 package com.mysql.cj.protocol;
 
+import java.util.concurrent.locks.Lock;
+
 import com.mysql.cj.MysqlConnection;
 import com.mysql.cj.Query;
 import com.mysql.cj.Session;
@@ -41,8 +43,20 @@ public interface ResultsetRowsOwner {
 
     Session getSession();
 
+    /**
+     * @return the connection mutex
+     * @deprecated the driver does not synchronize on it any more; use {@link #getSyncLock()}
+     */
+    @Deprecated
     Object getSyncMutex();
 
+    /**
+     * Lock to hold while fetching or draining rows from the server, in place of the {@link #getSyncMutex()} monitor.
+     * 
+     * @return the owning connection's lock, or null if there is none
+     */
+    Lock getSyncLock();
+
     /**
      * StackTrace generated where ResultSet was created... used when profiling
      * 
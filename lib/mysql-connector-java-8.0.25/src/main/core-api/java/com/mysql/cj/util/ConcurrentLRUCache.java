@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A size-bounded, least-recently-used cache that can be shared between threads without external synchronization. It replaces {@link LRUCache} wherever the
+ * cache is used by more than one thread, keeping its API: it is a {@link Map}, it is bounded by {@link #maxElements} and subclasses can hook into evictions
+ * by overriding {@link #removeEldestEntry(java.util.Map.Entry)}.
+ * <p>
+ * Lookups don't take any lock. The entries live in a {@link ConcurrentHashMap} and a lookup only records the entry it found in a small buffer picked by the
+ * current thread; the buffers are replayed onto the access-ordered list of entries by the next update, or by the lookup that finds its buffer full. Updates
+ * take a lock, keep the list exact and evict the eldest entry in constant time. A single thread sees exactly the order of an access-ordered
+ * {@link java.util.LinkedHashMap}; under contention, lookups whose recording loses a race are dropped, which makes the order approximate but never blocks a
+ * reader.
+ * <p>
+ * Null keys and values are not supported. Iteration over the views is weakly consistent and doesn't follow the access order.
+ * 
+ * @param <K>
+ *            key type
+ * @param <V>
+ *            value type
+ */
+public class ConcurrentLRUCache<K, V> extends AbstractMap<K, V> {
+    private static final int READ_BUFFER_SIZE = 32;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int READ_BUFFER_STRIPES = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4), 64);
+
+    protected int maxElements;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private final ReadBuffer<K, V>[] readBuffers = new ReadBuffer[READ_BUFFER_STRIPES];
+
+    /** Sentinel of the circular access list: {@code head.next} is the eldest entry, {@code head.prev} the most recently used one. */
+    private final Node<K, V> head = new Node<>(null, null);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private Set<Map.Entry<K, V>> entrySet;
+
+    public ConcurrentLRUCache(int maxSize) {
+        this.maxElements = maxSize;
+        this.data = new ConcurrentHashMap<>(Math.max(maxSize, 1));
+        for (int i = 0; i < this.readBuffers.length; i++) {
+            this.readBuffers[i] = new ReadBuffer<>();
+        }
+        this.head.prev = this.head;
+        this.head.next = this.head;
+    }
+
+    /**
+     * Returns true if the eldest entry should be evicted after a new one was added, like {@link java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)}
+     * does. Called by the thread that added the entry while it holds the update lock; an override may release resources held by the eldest value when
+     * returning true.
+     * 
+     * @param eldest
+     *            the least recently used entry
+     * @return true to evict it
+     */
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > this.maxElements;
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = this.data.get(key);
+        if (node == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        recordAccess(node);
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.data.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Adds the entry unless the key is already present, atomically.
+     * 
+     * @param key
+     *            key
+     * @param value
+     *            value
+     * @return the value already present, or null if the entry was added
+     */
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    private V put(K key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+
+        this.evictionLock.lock();
+        try {
+            drainReadBuffers();
+
+            Node<K, V> node = this.data.get(key);
+            if (node != null) {
+                V oldValue = node.value;
+                if (!onlyIfAbsent) {
+                    node.value = value;
+                }
+                boolean linked = node.prev != null;
+                moveToYoungest(node);
+                if (!linked) {
+                    evictEldestIfNeeded();
+                }
+                return oldValue;
+            }
+
+            node = new Node<>(key, value);
+            this.data.put(key, node);
+            linkYoungest(node);
+            evictEldestIfNeeded();
+            return null;
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the value of the key, computing and adding it if the key is absent. The function is called at most once per absent key, however many threads
+     * look the key up at the same time, and without holding the update lock, so that other keys can be looked up and added meanwhile; like for
+     * {@link ConcurrentHashMap#computeIfAbsent(Object, Function)}, it must be short and must not update this cache.
+     * 
+     * @param key
+     *            key
+     * @param mappingFunction
+     *            computes the value, or returns null to add nothing
+     * @return the present or computed value, or null if the function returned null
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(mappingFunction);
+
+        Node<K, V> node = this.data.get(key);
+        if (node != null) {
+            this.hits.increment();
+            recordAccess(node);
+            return node.value;
+        }
+        this.misses.increment();
+
+        boolean[] computed = new boolean[1];
+        node = this.data.computeIfAbsent(key, k -> {
+            V value = mappingFunction.apply(k);
+            computed[0] = value != null;
+            return value == null ? null : new Node<>(k, value);
+        });
+        if (node == null) {
+            return null;
+        }
+        if (!computed[0]) {
+            recordAccess(node); // another thread computed it
+            return node.value;
+        }
+
+        this.evictionLock.lock();
+        try {
+            drainReadBuffers();
+            // it may have been linked by put() or removed again in the meantime
+            if (node.prev == null && this.data.get(key) == node) {
+                linkYoungest(node);
+                evictEldestIfNeeded();
+            }
+        } finally {
+            this.evictionLock.unlock();
+        }
+        return node.value;
+    }
+
+    /**
+     * Evicts the eldest entry if {@link #removeEldestEntry(java.util.Map.Entry)} asks for it. Must hold the update lock.
+     */
+    private void evictEldestIfNeeded() {
+        Node<K, V> eldest = this.head.next;
+        if (removeEldestEntry(eldest) && eldest.prev != null) {
+            unlink(eldest);
+            this.data.remove(eldest.key, eldest);
+            this.evictions.increment();
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        this.evictionLock.lock();
+        try {
+            Node<K, V> node = this.data.remove(key);
+            if (node == null) {
+                return null;
+            }
+            if (node.prev != null) {
+                unlink(node);
+            }
+            return node.value;
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.evictionLock.lock();
+        try {
+            drainReadBuffers();
+            for (Node<K, V> node = this.head.next; node != this.head;) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                node = next;
+            }
+            this.head.prev = this.head;
+            this.head.next = this.head;
+            this.data.clear();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.data.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.data.isEmpty();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> es = this.entrySet;
+        if (es == null) {
+            this.entrySet = es = new EntrySet();
+        }
+        return es;
+    }
+
+    /**
+     * @return number of lookups that found their key
+     */
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    /**
+     * @return number of lookups that didn't find their key
+     */
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return number of entries evicted to keep the cache within its size
+     */
+    public long getEvictionCount() {
+        return this.evictions.sum();
+    }
+
+    private void recordAccess(Node<K, V> node) {
+        ReadBuffer<K, V> buffer = this.readBuffers[(int) Thread.currentThread().getId() * 0x9E3779B9 & (this.readBuffers.length - 1)];
+        if (!buffer.offer(node) && this.evictionLock.tryLock()) {
+            try {
+                drainReadBuffers();
+                buffer.offer(node);
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replays the recorded lookups onto the access list. Must hold the update lock.
+     */
+    private void drainReadBuffers() {
+        for (ReadBuffer<K, V> buffer : this.readBuffers) {
+            long readIndex = buffer.readIndex;
+            long writeIndex = buffer.writeIndex.get();
+            for (; readIndex < writeIndex; readIndex++) {
+                int slot = (int) readIndex & READ_BUFFER_MASK;
+                Node<K, V> node = buffer.slots.get(slot);
+                if (node == null) {
+                    break; // the lookup that claimed this slot hasn't stored its entry yet
+                }
+                buffer.slots.lazySet(slot, null);
+                if (node.prev != null) {
+                    moveToYoungest(node);
+                }
+            }
+            buffer.readIndex = readIndex;
+        }
+    }
+
+    private void linkYoungest(Node<K, V> node) {
+        Node<K, V> youngest = this.head.prev;
+        node.prev = youngest;
+        node.next = this.head;
+        youngest.next = node;
+        this.head.prev = node;
+    }
+
+    private void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private void moveToYoungest(Node<K, V> node) {
+        if (node.prev == null) {
+            linkYoungest(node); // added by computeIfAbsent() and not linked yet
+        } else if (this.head.prev != node) {
+            unlink(node);
+            linkYoungest(node);
+        }
+    }
+
+    /**
+     * An entry of the cache. The links are guarded by the update lock and are null once the entry was removed.
+     */
+    private static final class Node<K, V> implements Map.Entry<K, V> {
+        final K key;
+        volatile V value;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public K getKey() {
+            return this.key;
+        }
+
+        @Override
+        public V getValue() {
+            return this.value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) obj;
+            return Objects.equals(this.key, e.getKey()) && Objects.equals(this.value, e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(this.key) ^ Objects.hashCode(this.value);
+        }
+
+        @Override
+        public String toString() {
+            return this.key + "=" + this.value;
+        }
+    }
+
+    /**
+     * A ring of recorded lookups. Any thread may add to it; only the holder of the update lock takes from it.
+     */
+    private static final class ReadBuffer<K, V> {
+        final AtomicReferenceArray<Node<K, V>> slots = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        final AtomicLong writeIndex = new AtomicLong();
+        volatile long readIndex;
+
+        /**
+         * @return false if the buffer is full
+         */
+        boolean offer(Node<K, V> node) {
+            long w = this.writeIndex.get();
+            if (w - this.readIndex >= READ_BUFFER_SIZE) {
+                return false;
+            }
+            if (this.writeIndex.compareAndSet(w, w + 1)) {
+                this.slots.lazySet((int) w & READ_BUFFER_MASK, node);
+            }
+            // a lost race only loses this recency update
+            return true;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            final Iterator<Node<K, V>> it = ConcurrentLRUCache.this.data.values().iterator();
+            return new Iterator<Map.Entry<K, V>>() {
+                private Node<K, V> current;
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    return this.current = it.next();
+                }
+
+                @Override
+                public void remove() {
+                    if (this.current == null) {
+                        throw new IllegalStateException();
+                    }
+                    ConcurrentLRUCache.this.remove(this.current.key);
+                    this.current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return ConcurrentLRUCache.this.size();
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentLRUCache.this.clear();
+        }
+    }
+}
@@ -33,6 +33,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.mysql.cj.conf.PropertyKey;
 import com.mysql.cj.conf.RuntimeProperty;
@@ -64,6 +66,9 @@ public abstract class AbstractQuery implements Query {
     /** Mutex to prevent race between returning query results and noticing that query has been timed-out or cancelled. */
     protected Object cancelTimeoutMutex = new Object();
 
+    /** Lock form of {@link #cancelTimeoutMutex}, used for the race above since the cancelling side does network I/O while holding it. */
+    protected final ReentrantLock cancelTimeoutLock = new ReentrantLock();
+
     private CancelStatus cancelStatus = CancelStatus.NOT_CANCELED;
 
     /** The timeout for a query */
@@ -119,18 +124,24 @@ public abstract class AbstractQuery implements Query {
 
     @Override
     public void checkCancelTimeout() {
-        synchronized (this.cancelTimeoutMutex) {
+        this.cancelTimeoutLock.lock();
+        try {
             if (this.cancelStatus != CancelStatus.NOT_CANCELED) {
                 CJException cause = this.cancelStatus == CancelStatus.CANCELED_BY_TIMEOUT ? new CJTimeoutException() : new OperationCancelledException();
                 resetCancelledState();
                 throw cause;
             }
+        } finally {
+            this.cancelTimeoutLock.unlock();
         }
     }
 
     public void resetCancelledState() {
-        synchronized (this.cancelTimeoutMutex) {
+        this.cancelTimeoutLock.lock();
+        try {
             this.cancelStatus = CancelStatus.NOT_CANCELED;
+        } finally {
+            this.cancelTimeoutLock.unlock();
         }
     }
 
@@ -150,6 +161,11 @@ public abstract class AbstractQuery implements Query {
         return this.cancelTimeoutMutex;
     }
 
+    @Override
+    public Lock getCancelTimeoutLock() {
+        return this.cancelTimeoutLock;
+    }
+
     public void closeQuery() {
         this.session = null;
     }
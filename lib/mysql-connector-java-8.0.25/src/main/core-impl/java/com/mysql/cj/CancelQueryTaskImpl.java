@@ -30,6 +30,7 @@
 package com.mysql.cj;
 
 import java.util.TimerTask;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.Query.CancelStatus;
 import com.mysql.cj.conf.HostInfo;
@@ -84,7 +85,9 @@ public class CancelQueryTaskImpl extends TimerTask implements CancelQueryTask {
                         localQueryToCancel.setCancelStatus(CancelStatus.CANCELED_BY_TIMEOUT);
                         session.invokeCleanupListeners(new OperationCancelledException(Messages.getString("Statement.ConnectionKilledDueToTimeout")));
                     } else {
-                        synchronized (localQueryToCancel.getCancelTimeoutMutex()) {
+                        Lock cancelTimeoutLock = localQueryToCancel.getCancelTimeoutLock();
+                        cancelTimeoutLock.lock();
+                        try {
                             long origConnId = session.getThreadId();
                             HostInfo hostInfo = session.getHostInfo();
                             String database = hostInfo.getDatabase();
@@ -104,6 +107,8 @@ public class CancelQueryTaskImpl extends TimerTask implements CancelQueryTask {
                                     false, 0);
 
                             localQueryToCancel.setCancelStatus(CancelStatus.CANCELED_BY_TIMEOUT);
+                        } finally {
+                            cancelTimeoutLock.unlock();
                         }
                     }
                     // } catch (NullPointerException npe) {
@@ -48,6 +48,8 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Timer;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 import com.mysql.cj.conf.HostInfo;
@@ -73,6 +75,7 @@ import com.mysql.cj.protocol.Resultset.Type;
 import com.mysql.cj.protocol.ServerSession;
 import com.mysql.cj.protocol.SocketConnection;
 import com.mysql.cj.protocol.SocketFactory;
+import com.mysql.cj.protocol.a.ChannelSocketConnection;
 import com.mysql.cj.protocol.a.NativeMessageBuilder;
 import com.mysql.cj.protocol.a.NativePacketPayload;
 import com.mysql.cj.protocol.a.NativeProtocol;
@@ -127,6 +130,9 @@ public class NativeSession extends CoreSession implements Serializable {
 
     private transient Timer cancelTimer;
 
+    /** Guards session-wide state and server-side prepared statement traffic; replaces the monitor of this object, see {@link #getSessionLock()}. */
+    private final ReentrantLock sessionLock = new ReentrantLock();
+
     public NativeSession(HostInfo hostInfo, PropertySet propSet) {
         super(hostInfo, propSet);
     }
@@ -140,7 +146,10 @@ public class NativeSession extends CoreSession implements Serializable {
         this.setSessionMaxRows(-1);
 
         // TODO do we need different types of physical connections?
-        SocketConnection socketConnection = new NativeSocketConnection();
+        // The socket channel transport only covers plain-text connections: once TLS is negotiated it falls back to the blocking SSL socket streams. With the
+        // default sslMode=PREFERRED that happens whenever the server supports TLS, so in practice 'useSocketChannel' only takes effect with sslMode=DISABLED.
+        SocketConnection socketConnection = this.propertySet.getBooleanProperty(PropertyKey.useSocketChannel).getValue() ? new ChannelSocketConnection()
+                : new NativeSocketConnection();
         socketConnection.connect(this.hostInfo.getHost(), this.hostInfo.getPort(), this.propertySet, getExceptionInterceptor(), this.log, loginTimeout);
 
         // we use physical connection to create a -> protocol
@@ -176,11 +185,14 @@ public class NativeSession extends CoreSession implements Serializable {
             }
 
         }
-        synchronized (this) {
+        this.sessionLock.lock();
+        try {
             if (this.cancelTimer != null) {
                 this.cancelTimer.cancel();
                 this.cancelTimer = null;
             }
+        } finally {
+            this.sessionLock.unlock();
         }
         this.isClosed = true;
         super.quit();
@@ -202,11 +214,14 @@ public class NativeSession extends CoreSession implements Serializable {
             }
             //this.protocol = null; // TODO actually we shouldn't remove protocol instance because some it's methods can be called after closing socket
         }
-        synchronized (this) {
+        this.sessionLock.lock();
+        try {
             if (this.cancelTimer != null) {
                 this.cancelTimer.cancel();
                 this.cancelTimer = null;
             }
+        } finally {
+            this.sessionLock.unlock();
         }
         this.isClosed = true;
         super.forceClose();
@@ -629,8 +644,9 @@ public class NativeSession extends CoreSession implements Serializable {
         return this.requiresEscapingEncoder;
     }
 
-    private void createConfigCacheIfNeeded(Object syncMutex) {
-        synchronized (syncMutex) {
+    private void createConfigCacheIfNeeded(Lock syncLock) {
+        syncLock.lock();
+        try {
             if (this.serverConfigCache != null) {
                 return;
             }
@@ -643,7 +659,7 @@ public class NativeSession extends CoreSession implements Serializable {
                 @SuppressWarnings("unchecked")
                 CacheAdapterFactory<String, Map<String, String>> cacheFactory = ((CacheAdapterFactory<String, Map<String, String>>) factoryClass.newInstance());
 
-                this.serverConfigCache = cacheFactory.getInstance(syncMutex, this.hostInfo.getDatabaseUrl(), Integer.MAX_VALUE, Integer.MAX_VALUE);
+                this.serverConfigCache = cacheFactory.getInstance(syncLock, this.hostInfo.getDatabaseUrl(), Integer.MAX_VALUE, Integer.MAX_VALUE);
 
                 ExceptionInterceptor evictOnCommsError = new ExceptionInterceptor() {
 
@@ -678,6 +694,8 @@ public class NativeSession extends CoreSession implements Serializable {
                         new Object[] { getPropertySet().getStringProperty(PropertyKey.parseInfoCacheFactory).getValue(), PropertyKey.parseInfoCacheFactory }),
                         e, getExceptionInterceptor());
             }
+        } finally {
+            syncLock.unlock();
         }
     }
 
@@ -688,15 +706,15 @@ public class NativeSession extends CoreSession implements Serializable {
      * Loads the result of 'SHOW VARIABLES' into the serverVariables field so
      * that the driver can configure itself.
      * 
-     * @param syncMutex
-     *            synchronization mutex
+     * @param syncLock
+     *            the connection lock
      * @param version
      *            driver version string
      */
-    public void loadServerVariables(Object syncMutex, String version) {
+    public void loadServerVariables(Lock syncLock, String version) {
 
         if (this.cacheServerConfiguration.getValue()) {
-            createConfigCacheIfNeeded(syncMutex);
+            createConfigCacheIfNeeded(syncLock);
 
             Map<String, String> cachedVariableMap = this.serverConfigCache.get(this.hostInfo.getDatabaseUrl());
 
@@ -1120,6 +1138,86 @@ public class NativeSession extends CoreSession implements Serializable {
 
     }
 
+    /**
+     * Builds the COM_QUERY packet for a query in the connection encoding. See {@link NativeProtocol#buildQueryPacket(String, String)}.
+     * 
+     * @param query
+     *            the SQL text
+     * @return the packet, to be released by the caller once it was sent
+     */
+    public NativePacketPayload buildQueryPacket(String query) {
+        return ((NativeProtocol) this.protocol).buildQueryPacket(query, this.characterEncoding.getValue());
+    }
+
+    /**
+     * Sends a COM_QUERY or COM_STMT_EXECUTE packet without waiting for its result. See {@link NativeProtocol#sendPipelined(NativePacketPayload)}.
+     * 
+     * @param packet
+     *            the command packet, positioned after its last byte
+     */
+    public void sendPipelinedPacket(NativePacketPayload packet) {
+        this.lastQueryFinishedTime = 0; // we're busy!
+
+        try {
+            ((NativeProtocol) this.protocol).sendPipelined(packet);
+        } catch (CJException ex) {
+            handlePipelineFailure(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Reads the result of the oldest pipelined command. See {@link NativeProtocol#readPipelinedResult(boolean, ColumnDefinition, ProtocolEntityFactory)}.
+     * 
+     * @param isBinaryEncoded
+     *            true for the result of COM_STMT_EXECUTE
+     * @param metadata
+     *            the result columns of a prepared statement, if known
+     * @param resultSetFactory
+     *            factory for the results
+     * @param <T>
+     *            result type
+     * @return the first result, further results are chained to it
+     */
+    public <T extends Resultset> T readPipelinedResult(boolean isBinaryEncoded, ColumnDefinition metadata,
+            ProtocolEntityFactory<T, NativePacketPayload> resultSetFactory) {
+        try {
+            return ((NativeProtocol) this.protocol).readPipelinedResult(isBinaryEncoded, metadata, resultSetFactory);
+        } catch (CJException ex) {
+            handlePipelineFailure(ex);
+            throw ex;
+        } finally {
+            if (this.maintainTimeStats.getValue() && ((NativeProtocol) this.protocol).getPipelinedCommandCount() == 0) {
+                this.lastQueryFinishedTime = System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * Sets the callback that reads the pending pipelined results before a non-pipelined command is sent. See
+     * {@link NativeProtocol#setPipelinedResultsReader(Runnable)}.
+     * 
+     * @param reader
+     *            the callback, or null once the pipeline is closed
+     */
+    public void setPipelinedResultsReader(Runnable reader) {
+        ((NativeProtocol) this.protocol).setPipelinedResultsReader(reader);
+    }
+
+    private void handlePipelineFailure(CJException ex) {
+        if (!(ex instanceof CJCommunicationsException)) {
+            return; // the server rejected one command, the following responses are still readable
+        }
+        ((NativeProtocol) this.protocol).abandonPipelinedCommands();
+        if (this.autoReconnect.getValue()) {
+            // IO may be dirty or damaged beyond repair, force close it.
+            this.protocol.getSocketConnection().forceClose();
+            this.needsPing = true;
+        } else {
+            invokeCleanupListeners(ex);
+        }
+    }
+
     public long getIdleFor() {
         return this.lastQueryFinishedTime == 0 ? 0 : System.currentTimeMillis() - this.lastQueryFinishedTime;
     }
@@ -1235,10 +1333,25 @@ public class NativeSession extends CoreSession implements Serializable {
         return this.protocol != null && this.protocol.getServerSession().useAnsiQuotedIdentifiers() ? "\"" : "`";
     }
 
-    public synchronized Timer getCancelTimer() {
-        if (this.cancelTimer == null) {
-            this.cancelTimer = new Timer("MySQL Statement Cancellation Timer", Boolean.TRUE);
+    /**
+     * Returns the lock that serializes commands sent on behalf of server-side prepared statements and guards the cancel timer. A {@link ReentrantLock} is
+     * used instead of the object monitor so that virtual threads blocked on network I/O while holding it do not pin their carrier thread.
+     * 
+     * @return {@link Lock}
+     */
+    public Lock getSessionLock() {
+        return this.sessionLock;
+    }
+
+    public Timer getCancelTimer() {
+        this.sessionLock.lock();
+        try {
+            if (this.cancelTimer == null) {
+                this.cancelTimer = new Timer("MySQL Statement Cancellation Timer", Boolean.TRUE);
+            }
+            return this.cancelTimer;
+        } finally {
+            this.sessionLock.unlock();
         }
-        return this.cancelTimer;
     }
 }
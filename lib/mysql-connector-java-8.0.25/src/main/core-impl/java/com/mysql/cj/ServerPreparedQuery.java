@@ -32,6 +32,7 @@ package com.mysql.cj;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.mysql.cj.conf.PropertyKey;
 import com.mysql.cj.conf.RuntimeProperty;
@@ -68,6 +69,9 @@ public class ServerPreparedQuery extends AbstractPreparedQuery<ServerPreparedQue
     /** Field-level metadata for parameters */
     private Field[] parameterFields;
 
+    /** Serializes sending of long data (replaces the monitor of this object) */
+    private final ReentrantLock longDataLock = new ReentrantLock();
+
     /** Field-level metadata for result sets. From statement prepare. */
     private ColumnDefinition resultFields;
 
@@ -119,7 +123,8 @@ public class ServerPreparedQuery extends AbstractPreparedQuery<ServerPreparedQue
     public void serverPrepare(String sql) throws IOException {
         this.session.checkClosed();
 
-        synchronized (this.session) {
+        this.session.getSessionLock().lock();
+        try {
             long begin = this.profileSQL ? System.currentTimeMillis() : 0;
 
             boolean loadDataQuery = StringUtils.startsWithIgnoreCaseAndWs(sql, "LOAD DATA");
@@ -168,6 +173,8 @@ public class ServerPreparedQuery extends AbstractPreparedQuery<ServerPreparedQue
             if (fieldCount > 0) {
                 this.resultFields = this.session.getProtocol().read(ColumnDefinition.class, new ColumnDefinitionFactory(fieldCount, null));
             }
+        } finally {
+            this.session.getSessionLock().unlock();
         }
     }
 
@@ -458,7 +465,8 @@ public class ServerPreparedQuery extends AbstractPreparedQuery<ServerPreparedQue
      * 
      */
     private void serverLongData(int parameterIndex, ServerPreparedQueryBindValue longData) {
-        synchronized (this) {
+        this.longDataLock.lock();
+        try {
             NativePacketPayload packet = this.session.getSharedSendPacket();
 
             Object value = longData.value;
@@ -479,6 +487,8 @@ public class ServerPreparedQuery extends AbstractPreparedQuery<ServerPreparedQue
                 throw ExceptionFactory.createException(WrongArgumentException.class,
                         Messages.getString("ServerPreparedStatement.18") + value.getClass().getName() + "'", this.session.getExceptionInterceptor());
             }
+        } finally {
+            this.longDataLock.unlock();
         }
     }
 
@@ -516,7 +526,8 @@ public class ServerPreparedQuery extends AbstractPreparedQuery<ServerPreparedQue
 
     public void storeStream(int parameterIndex, NativePacketPayload packet, InputStream inStream) {
         this.session.checkClosed();
-        synchronized (this.session) {
+        this.session.getSessionLock().lock();
+        try {
             byte[] buf = new byte[BLOB_STREAM_READ_BUF_SIZE];
 
             int numRead = 0;
@@ -576,13 +587,16 @@ public class ServerPreparedQuery extends AbstractPreparedQuery<ServerPreparedQue
                     }
                 }
             }
+        } finally {
+            this.session.getSessionLock().unlock();
         }
     }
 
     // TODO: Investigate using NIO to do this faster
     public void storeReader(int parameterIndex, NativePacketPayload packet, Reader inStream) {
         this.session.checkClosed();
-        synchronized (this.session) {
+        this.session.getSessionLock().lock();
+        try {
             String forcedEncoding = this.session.getPropertySet().getStringProperty(PropertyKey.clobCharacterEncoding).getStringValue();
 
             String clobEncoding = (forcedEncoding == null ? this.session.getPropertySet().getStringProperty(PropertyKey.characterEncoding).getValue()
@@ -663,6 +677,8 @@ public class ServerPreparedQuery extends AbstractPreparedQuery<ServerPreparedQue
                     }
                 }
             }
+        } finally {
+            this.session.getSessionLock().unlock();
         }
     }
 
@@ -685,12 +701,15 @@ public class ServerPreparedQuery extends AbstractPreparedQuery<ServerPreparedQue
 
     public void serverResetStatement() {
         this.session.checkClosed();
-        synchronized (this.session) {
+        this.session.getSessionLock().lock();
+        try {
             try {
                 this.session.sendCommand(this.commandBuilder.buildComStmtReset(this.session.getSharedSendPacket(), this.serverStatementId), false, 0);
             } finally {
                 this.session.clearInputStream();
             }
+        } finally {
+            this.session.getSessionLock().unlock();
         }
     }
 
@@ -103,6 +103,10 @@ public abstract class AbstractProtocol<M extends Message> implements Protocol<M>
         return this.exceptionInterceptor;
     }
 
+    public Log getLog() {
+        return this.log;
+    }
+
     public PacketSentTimeHolder getPacketSentTimeHolder() {
         return this.packetSentTimeHolder;
     }
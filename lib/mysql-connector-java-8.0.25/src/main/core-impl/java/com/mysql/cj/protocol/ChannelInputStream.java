@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mysql.cj.Messages;
+
+/**
+ * Input stream over a non-blocking {@link SocketChannel}, reading through a pooled direct buffer.
+ * 
+ * The read size adapts to the traffic: after consecutive reads that fill the buffer (large result sets) it moves to the next {@link DirectBufferPool} size
+ * class, and after a long run of small reads it moves back down toward the initial size. The buffer goes back to the pool when the stream is closed.
+ */
+public class ChannelInputStream extends InputStream {
+    /** Consecutive full reads before growing the buffer. */
+    private static final int GROW_AFTER = 2;
+    /** Consecutive reads under 1/8 of the buffer before shrinking it. */
+    private static final int SHRINK_AFTER = 64;
+
+    private static final int IDLE = 0;
+    private static final int BUSY = 1;
+    private static final int CLOSED = 2;
+
+    private final SocketChannel channel;
+    private final ChannelSelector selector;
+    private final int initialCapacity;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+
+    /** Unread data is between position and limit. */
+    private ByteBuffer buffer;
+    private int fullReads = 0;
+    private int smallReads = 0;
+
+    public ChannelInputStream(SocketChannel channel, ChannelSelector selector, int initialCapacity) {
+        this.channel = channel;
+        this.selector = selector;
+        this.initialCapacity = DirectBufferPool.capacityFor(initialCapacity);
+        this.buffer = DirectBufferPool.acquire(initialCapacity);
+        this.buffer.limit(0);
+    }
+
+    @Override
+    public int read() throws IOException {
+        enter();
+        try {
+            if (!this.buffer.hasRemaining() && fill(true) < 0) {
+                return -1;
+            }
+            return this.buffer.get() & 0xff;
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        enter();
+        try {
+            if (!this.buffer.hasRemaining() && fill(true) < 0) {
+                return -1;
+            }
+            int n = Math.min(len, this.buffer.remaining());
+            this.buffer.get(b, off, n);
+            return n;
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        enter();
+        try {
+            if (!this.buffer.hasRemaining() && fill(true) < 0) {
+                return 0;
+            }
+            int skipped = (int) Math.min(n, this.buffer.remaining());
+            this.buffer.position(this.buffer.position() + skipped);
+            return skipped;
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Returns the buffered bytes, first trying a non-blocking read if there are none, so that draining loops see data that has already arrived.
+     */
+    @Override
+    public int available() throws IOException {
+        enter();
+        try {
+            if (!this.buffer.hasRemaining()) {
+                fill(false);
+            }
+            return this.buffer.remaining();
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Releases the buffer and the selector. The channel itself is closed by its socket. If another thread is reading, it is woken up and the buffer is
+     * released when it leaves.
+     */
+    @Override
+    public void close() {
+        this.selector.close();
+        while (true) {
+            if (this.state.compareAndSet(IDLE, CLOSED)) {
+                release();
+                return;
+            }
+            if (this.state.compareAndSet(BUSY, CLOSED) || this.state.get() == CLOSED) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads from the channel into the empty buffer.
+     * 
+     * @param block
+     *            wait for data if none is available
+     * @return bytes read, 0 if not blocking and nothing was available, -1 at end of stream
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private int fill(boolean block) throws IOException {
+        resize();
+        this.buffer.clear();
+        int n;
+        try {
+            while ((n = this.channel.read(this.buffer)) == 0 && block) {
+                this.selector.await(SelectionKey.OP_READ);
+            }
+        } finally {
+            this.buffer.flip();
+        }
+
+        if (n == this.buffer.capacity()) {
+            this.fullReads++;
+            this.smallReads = 0;
+        } else if (n > 0 && n < this.buffer.capacity() / 8) {
+            this.smallReads++;
+            this.fullReads = 0;
+        } else if (n > 0) {
+            this.fullReads = 0;
+            this.smallReads = 0;
+        }
+        return n;
+    }
+
+    /**
+     * Swaps the (empty) buffer for one of the next larger or smaller size class when the recent reads call for it.
+     */
+    private void resize() {
+        int capacity = this.buffer.capacity();
+        int wanted = capacity;
+        if (this.fullReads >= GROW_AFTER && capacity < DirectBufferPool.MAX_CAPACITY) {
+            wanted = capacity * 4;
+        } else if (this.smallReads >= SHRINK_AFTER && capacity > this.initialCapacity) {
+            wanted = capacity / 4;
+        }
+        if (wanted != capacity) {
+            DirectBufferPool.release(this.buffer);
+            this.buffer = DirectBufferPool.acquire(wanted);
+            this.fullReads = 0;
+            this.smallReads = 0;
+        }
+    }
+
+    private void enter() throws IOException {
+        if (!this.state.compareAndSet(IDLE, BUSY)) {
+            throw new IOException(Messages.getString("SocketConnection.2"));
+        }
+    }
+
+    private void exit() {
+        if (!this.state.compareAndSet(BUSY, IDLE)) {
+            release(); // closed while this thread was reading
+        }
+    }
+
+    private void release() {
+        ByteBuffer b = this.buffer;
+        this.buffer = null;
+        DirectBufferPool.release(b);
+    }
+}
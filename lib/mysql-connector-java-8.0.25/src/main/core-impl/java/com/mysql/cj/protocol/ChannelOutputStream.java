@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mysql.cj.Messages;
+
+/**
+ * Buffered output stream over a non-blocking {@link SocketChannel}, buffering into a pooled direct buffer.
+ * 
+ * It extends {@link BufferedOutputStream} only to fit {@link SocketConnection#getMysqlOutput()}; none of the inherited buffering is used.
+ * {@link #writePacket(byte[], byte[], int, int)} sends a packet header and a payload too large for the buffer with one gathering write, so that the payload
+ * is never copied into the buffer.
+ */
+public class ChannelOutputStream extends BufferedOutputStream {
+    /** Largest slice of a heap payload handed to one gathering write, which bounds the JDK's temporary direct buffer. */
+    private static final int MAX_GATHER = DirectBufferPool.MAX_CAPACITY;
+
+    private static final int IDLE = 0;
+    private static final int BUSY = 1;
+    private static final int CLOSED = 2;
+
+    private final SocketChannel channel;
+    private final ChannelSelector selector;
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+
+    /** Pending data is between 0 and position. */
+    private ByteBuffer buffer;
+
+    public ChannelOutputStream(SocketChannel channel, ChannelSelector selector, int capacity) {
+        super(new OutputStream() {
+            @Override
+            public void write(int b) {
+                throw new UnsupportedOperationException();
+            }
+        }, 1);
+        this.channel = channel;
+        this.selector = selector;
+        this.buffer = DirectBufferPool.acquire(capacity);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        enter();
+        try {
+            if (!this.buffer.hasRemaining()) {
+                drain();
+            }
+            this.buffer.put((byte) b);
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        enter();
+        try {
+            while (len > 0) {
+                if (!this.buffer.hasRemaining()) {
+                    drain();
+                }
+                int n = Math.min(len, this.buffer.remaining());
+                this.buffer.put(b, off, n);
+                off += n;
+                len -= n;
+            }
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Writes a packet header followed by its payload. A payload that fits in the buffer is copied there as usual; a larger one is written straight from the
+     * caller's array, together with whatever is pending in the buffer, using gathering writes.
+     * 
+     * @param header
+     *            packet header
+     * @param payload
+     *            array holding the payload
+     * @param off
+     *            payload offset
+     * @param len
+     *            payload length
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    public void writePacket(byte[] header, byte[] payload, int off, int len) throws IOException {
+        enter();
+        try {
+            if (this.buffer.remaining() < header.length) {
+                drain();
+            }
+            this.buffer.put(header);
+            if (len <= this.buffer.remaining()) {
+                this.buffer.put(payload, off, len);
+                return;
+            }
+
+            this.buffer.flip();
+            ByteBuffer[] srcs = { this.buffer, null };
+            int end = off + len;
+            while (off < end) {
+                ByteBuffer tail = ByteBuffer.wrap(payload, off, Math.min(MAX_GATHER, end - off));
+                srcs[1] = tail;
+                while (tail.hasRemaining()) {
+                    if (this.channel.write(srcs) == 0) {
+                        this.selector.await(SelectionKey.OP_WRITE);
+                    }
+                }
+                off = tail.position();
+            }
+            this.buffer.clear();
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        enter();
+        try {
+            drain();
+        } finally {
+            exit();
+        }
+    }
+
+    /**
+     * Releases the buffer and the selector; pending data is discarded. The channel itself is closed by its socket.
+     */
+    @Override
+    public void close() {
+        this.selector.close();
+        while (true) {
+            if (this.state.compareAndSet(IDLE, CLOSED)) {
+                release();
+                return;
+            }
+            if (this.state.compareAndSet(BUSY, CLOSED) || this.state.get() == CLOSED) {
+                return;
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        this.buffer.flip();
+        try {
+            while (this.buffer.hasRemaining()) {
+                if (this.channel.write(this.buffer) == 0) {
+                    this.selector.await(SelectionKey.OP_WRITE);
+                }
+            }
+        } finally {
+            this.buffer.compact();
+        }
+    }
+
+    private void enter() throws IOException {
+        if (!this.state.compareAndSet(IDLE, BUSY)) {
+            throw new IOException(Messages.getString("SocketConnection.2"));
+        }
+    }
+
+    private void exit() {
+        if (!this.state.compareAndSet(BUSY, IDLE)) {
+            release(); // closed while this thread was writing
+        }
+    }
+
+    private void release() {
+        ByteBuffer b = this.buffer;
+        this.buffer = null;
+        DirectBufferPool.release(b);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+
+import com.mysql.cj.Messages;
+
+/**
+ * Waits for a non-blocking {@link SocketChannel} to become readable or writable, honoring the socket's SO_TIMEOUT the way a blocking socket stream would.
+ * Blocking channels ignore SO_TIMEOUT, which the driver relies on for socketTimeout and netTimeoutForStreamingResults.
+ */
+public class ChannelSelector {
+    private final SocketChannel channel;
+    /** Opened lazily by the reading thread; volatile so that {@link #close()} from another thread sees it. */
+    private volatile Selector selector;
+    private SelectionKey key;
+    private volatile boolean closed = false;
+
+    public ChannelSelector(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Blocks until the channel is ready for the given operation.
+     * 
+     * @param op
+     *            {@link SelectionKey#OP_READ} or {@link SelectionKey#OP_WRITE}
+     * @throws SocketTimeoutException
+     *             if SO_TIMEOUT elapses first
+     * @throws IOException
+     *             if the channel or this selector is closed
+     */
+    public void await(int op) throws IOException {
+        try {
+            if (this.selector == null) {
+                if (this.closed) {
+                    throw new IOException(Messages.getString("SocketConnection.2"));
+                }
+                Selector s = Selector.open();
+                this.selector = s;
+                // close() sets the flag before reading the field: either it saw this selector and closes it, or we see the flag here
+                if (this.closed) {
+                    s.close();
+                    throw new IOException(Messages.getString("SocketConnection.2"));
+                }
+                this.key = this.channel.register(s, 0);
+            }
+            this.key.interestOps(op);
+            int timeout = this.channel.socket().getSoTimeout();
+            long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+            while (this.selector.select(timeout) == 0) {
+                if (this.closed || !this.channel.isOpen()) {
+                    throw new IOException(Messages.getString("SocketConnection.2"));
+                }
+                if (timeout > 0) {
+                    long left = deadline - System.currentTimeMillis();
+                    if (left <= 0) {
+                        throw new SocketTimeoutException(op == SelectionKey.OP_READ ? "Read timed out" : "Write timed out");
+                    }
+                    timeout = (int) left;
+                }
+            }
+            this.selector.selectedKeys().clear();
+        } catch (ClosedSelectorException e) {
+            throw new IOException(Messages.getString("SocketConnection.2"), e);
+        }
+    }
+
+    /**
+     * Closes the selector, waking up a thread blocked in {@link #await(int)} and deregistering the channel so it can be put back in blocking mode.
+     */
+    public void close() {
+        this.closed = true;
+        Selector s = this.selector;
+        if (s != null) {
+            try {
+                s.close();
+            } catch (IOException e) {
+                // Can't do anything constructive about this.
+            }
+        }
+    }
+}
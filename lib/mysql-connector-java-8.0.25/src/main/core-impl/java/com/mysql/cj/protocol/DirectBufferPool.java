@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide pool of direct {@link ByteBuffer}s used by the socket channel transport.
+ * 
+ * Buffers come in four size classes (4 KiB, 16 KiB, 64 KiB and 256 KiB). A request is served from the smallest class that fits; larger requests are capped
+ * at the largest class. Each class keeps at most {@link #MAX_POOLED_BYTES_PER_CLASS} bytes of idle buffers, anything released beyond that is left to the
+ * garbage collector. Direct buffers are expensive to allocate and are only freed when collected, so reusing them across connections avoids both costs.
+ */
+public final class DirectBufferPool {
+    /** Capacity of the smallest size class. */
+    public static final int MIN_CAPACITY = 4 * 1024;
+
+    /** Capacity of the largest size class. */
+    public static final int MAX_CAPACITY = 256 * 1024;
+
+    /** Idle bytes kept per size class. */
+    private static final int MAX_POOLED_BYTES_PER_CLASS = 4 * 1024 * 1024;
+
+    private static final int CLASSES = 4;
+
+    /** Idle buffers of one size class. */
+    private static final class SizeClass {
+        final ConcurrentLinkedQueue<ByteBuffer> idle = new ConcurrentLinkedQueue<>();
+        final AtomicInteger idleCount = new AtomicInteger();
+    }
+
+    private static final SizeClass[] classes = new SizeClass[CLASSES];
+
+    static {
+        for (int i = 0; i < CLASSES; i++) {
+            classes[i] = new SizeClass();
+        }
+    }
+
+    private DirectBufferPool() {
+    }
+
+    /**
+     * Returns the capacity of the size class serving the given request.
+     * 
+     * @param capacity
+     *            requested capacity
+     * @return capacity of the buffer {@link #acquire(int)} would return
+     */
+    public static int capacityFor(int capacity) {
+        return MIN_CAPACITY << (2 * sizeClass(capacity));
+    }
+
+    /**
+     * Takes a cleared buffer from the pool, allocating one if the size class has none idle.
+     * 
+     * @param capacity
+     *            minimum capacity wanted, capped at {@link #MAX_CAPACITY}
+     * @return a direct buffer in write mode
+     */
+    public static ByteBuffer acquire(int capacity) {
+        int sizeClass = sizeClass(capacity);
+        SizeClass c = classes[sizeClass];
+        ByteBuffer buffer = c.idle.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(MIN_CAPACITY << (2 * sizeClass));
+        }
+        c.idleCount.decrementAndGet();
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. The caller must not touch the buffer afterwards.
+     * 
+     * @param buffer
+     *            a buffer obtained from {@link #acquire(int)}, may be null
+     */
+    public static void release(ByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        int sizeClass = sizeClass(buffer.capacity());
+        if ((MIN_CAPACITY << (2 * sizeClass)) != buffer.capacity()) {
+            return; // not one of ours
+        }
+        SizeClass c = classes[sizeClass];
+        if ((long) c.idleCount.incrementAndGet() * buffer.capacity() > MAX_POOLED_BYTES_PER_CLASS) {
+            c.idleCount.decrementAndGet();
+            return;
+        }
+        c.idle.offer(buffer);
+    }
+
+    private static int sizeClass(int capacity) {
+        int sizeClass = 0;
+        while (sizeClass < CLASSES - 1 && (MIN_CAPACITY << (2 * sizeClass)) < capacity) {
+            sizeClass++;
+        }
+        return sizeClass;
+    }
+}
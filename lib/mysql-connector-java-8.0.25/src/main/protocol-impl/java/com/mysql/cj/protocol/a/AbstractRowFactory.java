@@ -50,4 +50,18 @@ public abstract class AbstractRowFactory implements ProtocolEntityFactory<Result
         return this.canReuseRowPacketForBufferRow;
     }
 
+    /**
+     * Tells whether a row created from a packet of the given length keeps a reference to the packet: buffer rows are used for reusable packets (streaming
+     * results), blobs and long strings, or over the size threshold, except for updatable result sets. When it doesn't, the packet is only needed while the
+     * row is created and can be backed by a pooled buffer.
+     * 
+     * @param payloadLength
+     *            row packet payload length
+     * @return true if the row keeps the packet
+     */
+    public boolean retainsRowPacket(int payloadLength) {
+        return this.resultSetConcurrency != Resultset.Concurrency.UPDATABLE && (this.canReuseRowPacketForBufferRow || this.columnDefinition.hasLargeFields()
+                || payloadLength >= this.useBufferRowSizeThreshold.getValue());
+    }
+
 }
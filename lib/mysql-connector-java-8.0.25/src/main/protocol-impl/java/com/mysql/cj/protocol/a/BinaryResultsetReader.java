@@ -37,12 +37,14 @@ import com.mysql.cj.protocol.ColumnDefinition;
 import com.mysql.cj.protocol.ProtocolEntityFactory;
 import com.mysql.cj.protocol.ProtocolEntityReader;
 import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.Resultset.Concurrency;
 import com.mysql.cj.protocol.Resultset.Type;
 import com.mysql.cj.protocol.ResultsetRow;
 import com.mysql.cj.protocol.ResultsetRows;
 import com.mysql.cj.protocol.a.NativeConstants.IntegerDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
 import com.mysql.cj.protocol.a.result.OkPacket;
+import com.mysql.cj.protocol.a.result.ResultsetRowsColumnar;
 import com.mysql.cj.protocol.a.result.ResultsetRowsCursor;
 import com.mysql.cj.protocol.a.result.ResultsetRowsStatic;
 import com.mysql.cj.protocol.a.result.ResultsetRowsStreaming;
@@ -86,16 +88,33 @@ public class BinaryResultsetReader implements ProtocolEntityReader<Resultset, Na
             } else if (!streamResults) {
                 BinaryRowFactory brf = new BinaryRowFactory(this.protocol, cdef, resultSetFactory.getResultSetConcurrency(), false);
 
-                ArrayList<ResultsetRow> rowList = new ArrayList<>();
-                ResultsetRow row = this.protocol.read(ResultsetRow.class, brf);
-                while (row != null) {
-                    if ((maxRows == -1) || (rowList.size() < maxRows)) {
-                        rowList.add(row);
+                if (this.protocol.getPropertySet().getBooleanProperty(PropertyKey.useColumnarResultSets).getValue()
+                        && resultSetFactory.getResultSetConcurrency() == Concurrency.READ_ONLY) {
+                    ResultsetRowsColumnar columnar = new ResultsetRowsColumnar(cdef, true, this.protocol.getExceptionInterceptor());
+                    int rowCount = 0;
+                    ResultsetRow row = this.protocol.read(ResultsetRow.class, brf);
+                    while (row != null) {
+                        if ((maxRows == -1) || (rowCount < maxRows)) {
+                            columnar.append(row);
+                            rowCount++;
+                        }
+                        row = this.protocol.read(ResultsetRow.class, brf);
+                    }
+                    columnar.trimToSize();
+                    rows = columnar;
+
+                } else {
+                    ArrayList<ResultsetRow> rowList = new ArrayList<>();
+                    ResultsetRow row = this.protocol.read(ResultsetRow.class, brf);
+                    while (row != null) {
+                        if ((maxRows == -1) || (rowList.size() < maxRows)) {
+                            rowList.add(row);
+                        }
+                        row = this.protocol.read(ResultsetRow.class, brf);
                     }
-                    row = this.protocol.read(ResultsetRow.class, brf);
-                }
 
-                rows = new ResultsetRowsStatic(rowList, cdef);
+                    rows = new ResultsetRowsStatic(rowList, cdef);
+                }
 
             } else {
                 rows = new ResultsetRowsStreaming<>(this.protocol, cdef, true, resultSetFactory);
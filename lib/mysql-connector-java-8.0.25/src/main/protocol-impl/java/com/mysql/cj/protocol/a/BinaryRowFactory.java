@@ -36,7 +36,6 @@ import com.mysql.cj.exceptions.ExceptionFactory;
 import com.mysql.cj.protocol.ColumnDefinition;
 import com.mysql.cj.protocol.ProtocolEntityFactory;
 import com.mysql.cj.protocol.Resultset;
-import com.mysql.cj.protocol.Resultset.Concurrency;
 import com.mysql.cj.protocol.ResultsetRow;
 import com.mysql.cj.protocol.a.NativeConstants.StringLengthDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
@@ -63,15 +62,12 @@ public class BinaryRowFactory extends AbstractRowFactory implements ProtocolEnti
     @Override
     public ResultsetRow createFromMessage(NativePacketPayload rowPacket) {
 
-        // use a buffer row for reusable packets (streaming results), blobs and long strings
-        // or if we're over the threshold
-        boolean useBufferRow = this.canReuseRowPacketForBufferRow || this.columnDefinition.hasLargeFields()
-                || rowPacket.getPayloadLength() >= this.useBufferRowSizeThreshold.getValue();
+        boolean useBufferRow = retainsRowPacket(rowPacket.getPayloadLength());
 
         // bump past ProtocolBinary::ResultsetRow packet header
         rowPacket.setPosition(rowPacket.getPosition() + 1);
 
-        if (this.resultSetConcurrency == Concurrency.UPDATABLE || !useBufferRow) {
+        if (!useBufferRow) {
             return unpackBinaryResultSetRow(this.columnDefinition.getFields(), rowPacket);
         }
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.a;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.nio.channels.SocketChannel;
+
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.exceptions.ExceptionFactory;
+import com.mysql.cj.exceptions.ExceptionInterceptor;
+import com.mysql.cj.exceptions.FeatureNotAvailableException;
+import com.mysql.cj.exceptions.SSLParamsException;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.protocol.AbstractSocketConnection;
+import com.mysql.cj.protocol.ChannelInputStream;
+import com.mysql.cj.protocol.ChannelOutputStream;
+import com.mysql.cj.protocol.ChannelSelector;
+import com.mysql.cj.protocol.FullReadInputStream;
+import com.mysql.cj.protocol.PacketSentTimeHolder;
+import com.mysql.cj.protocol.ServerSession;
+import com.mysql.cj.protocol.SocketChannelFactory;
+import com.mysql.cj.protocol.SocketConnection;
+
+/**
+ * {@link SocketConnection} doing plain-text I/O on a non-blocking {@link SocketChannel} through pooled direct buffers, enabled by 'useSocketChannel'.
+ * 
+ * The socket is always created by {@link SocketChannelFactory}, so 'socketFactory' is ignored. Once TLS is negotiated the channel is switched back to
+ * blocking mode and the connection uses the SSL socket streams, the same way {@link NativeSocketConnection} does. With the default sslMode=PREFERRED this
+ * is the case for every server that supports TLS, so the non-blocking path is only used with sslMode=DISABLED.
+ */
+public class ChannelSocketConnection extends AbstractSocketConnection implements SocketConnection {
+
+    @Override
+    public void connect(String hostName, int portNumber, PropertySet propSet, ExceptionInterceptor excInterceptor, Log log, int loginTimeout) {
+
+        try {
+            this.port = portNumber;
+            this.host = hostName;
+            this.propertySet = propSet;
+            this.exceptionInterceptor = excInterceptor;
+
+            this.socketFactory = new SocketChannelFactory();
+            this.mysqlSocket = this.socketFactory.connect(this.host, this.port, propSet, loginTimeout);
+
+            int socketTimeout = propSet.getIntegerProperty(PropertyKey.socketTimeout).getValue();
+            if (socketTimeout != 0) {
+                try {
+                    this.mysqlSocket.setSoTimeout(socketTimeout);
+                } catch (Exception ex) {
+                    /* Ignore if the platform does not support it */
+                }
+            }
+
+            this.socketFactory.beforeHandshake();
+
+            SocketChannel channel = this.mysqlSocket.getChannel();
+            channel.configureBlocking(false);
+            // one selector per direction, so a reader and a writer never share a selection key
+            this.mysqlInput = new FullReadInputStream(new ChannelInputStream(channel, new ChannelSelector(channel), 16384));
+            this.mysqlOutput = new ChannelOutputStream(channel, new ChannelSelector(channel), 16384);
+        } catch (IOException ioEx) {
+            throw ExceptionFactory.createCommunicationsException(propSet, null, new PacketSentTimeHolder() {
+            }, null, ioEx, getExceptionInterceptor());
+        }
+    }
+
+    @Override
+    public void performTlsHandshake(ServerSession serverSession) throws SSLParamsException, FeatureNotAvailableException, IOException {
+
+        // SSLSocket needs the plain socket streams, which only work in blocking mode; closing the channel streams closes their selectors
+        this.mysqlOutput.flush();
+        this.mysqlInput.close();
+        this.mysqlOutput.close();
+        this.mysqlSocket.getChannel().configureBlocking(true);
+
+        this.mysqlSocket = this.socketFactory.performTlsHandshake(this, serverSession);
+
+        this.mysqlInput = new FullReadInputStream(
+                this.propertySet.getBooleanProperty(PropertyKey.useUnbufferedInput).getValue() ? getMysqlSocket().getInputStream()
+                        : new BufferedInputStream(getMysqlSocket().getInputStream(), 16384));
+
+        this.mysqlOutput = new BufferedOutputStream(getMysqlSocket().getOutputStream(), 16384);
+        this.mysqlOutput.flush();
+
+    }
+}
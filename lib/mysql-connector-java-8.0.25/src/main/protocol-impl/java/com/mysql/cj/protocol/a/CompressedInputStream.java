@@ -41,11 +41,23 @@ import com.mysql.cj.util.StringUtils;
 
 /**
  * Used to de-compress packets from the MySQL server when protocol-level compression is turned on.
+ * 
+ * The buffers packets are read and inflated into are taken from the {@link PacketBufferPool} and kept from packet to packet, so reading doesn't allocate
+ * once they are large enough. Buffers grown for an exceptionally large packet are given back to the pool as soon as the packet is consumed.
  */
 public class CompressedInputStream extends InputStream {
-    /** The packet data after it has been un-compressed */
+    /** Buffers larger than this are released once drained instead of being kept for the next packet. */
+    private static final int MAX_RETAINED_LENGTH = 64 * 1024;
+
+    /** The packet data after it has been un-compressed, valid from {@link #pos} to {@link #limit} */
     private byte[] buffer;
 
+    /** The end of the data in {@link #buffer} */
+    private int limit = 0;
+
+    /** The compressed packet data, reused from packet to packet */
+    private byte[] compressedBuffer;
+
     /** The stream we are reading from the server */
     private InputStream in;
 
@@ -66,6 +78,10 @@ public class CompressedInputStream extends InputStream {
     /** The position we are reading from */
     private int pos = 0;
 
+    private long bytesIn = 0;
+    private long bytesOut = 0;
+    private long decompressionTime = 0;
+
     /**
      * Creates a new CompressedInputStream that reads the given stream from the
      * server.
@@ -84,19 +100,53 @@ public class CompressedInputStream extends InputStream {
         this.inflater = new Inflater();
     }
 
+    /**
+     * Returns the number of bytes read from the server, compressed packet headers included.
+     * 
+     * @return bytes read
+     */
+    public long getBytesIn() {
+        return this.bytesIn;
+    }
+
+    /**
+     * Returns the number of bytes of packets received, after decompression.
+     * 
+     * @return uncompressed bytes received
+     */
+    public long getBytesOut() {
+        return this.bytesOut;
+    }
+
+    /**
+     * Returns the time spent decompressing.
+     * 
+     * @return nanoseconds spent in the inflater
+     */
+    public long getDecompressionTime() {
+        return this.decompressionTime;
+    }
+
     @Override
     public int available() throws IOException {
         if (this.buffer == null) {
             return this.in.available();
         }
 
-        return this.buffer.length - this.pos + this.in.available();
+        return this.limit - this.pos + this.in.available();
     }
 
     @Override
     public void close() throws IOException {
         this.in.close();
-        this.buffer = null;
+        if (this.buffer != null) {
+            PacketBufferPool.release(this.buffer);
+            this.buffer = null;
+        }
+        if (this.compressedBuffer != null) {
+            PacketBufferPool.release(this.compressedBuffer);
+            this.compressedBuffer = null;
+        }
         this.inflater.end();
         this.inflater = null;
         this.traceProtocol = null;
@@ -111,8 +161,6 @@ public class CompressedInputStream extends InputStream {
      *             if an I/O error occurs
      */
     private void getNextPacketFromServer() throws IOException {
-        byte[] uncompressedData = null;
-
         int lengthRead = readFully(this.packetHeaderBuffer, 0, 7);
 
         if (lengthRead < 7) {
@@ -131,22 +179,51 @@ public class CompressedInputStream extends InputStream {
             this.log.logTrace("Reading compressed packet of length " + compressedPacketLength + " uncompressed to " + uncompressedLength);
         }
 
-        if (uncompressedLength > 0) {
-            uncompressedData = new byte[uncompressedLength];
+        // keep the bytes not consumed yet at the beginning of the buffer, followed by the new packet
+        int remaining = this.buffer == null ? 0 : this.limit - this.pos;
+        if (doTrace && remaining > 0) {
+            this.log.logTrace("Combining remaining packet with new: ");
+        }
+        int packetLength = uncompressedLength > 0 ? uncompressedLength : compressedPacketLength;
+        ensureBufferCapacity(remaining + packetLength);
+        int offset = remaining;
+
+        this.bytesIn += 7 + compressedPacketLength;
+        this.bytesOut += packetLength;
 
-            byte[] compressedBuffer = new byte[compressedPacketLength];
+        if (uncompressedLength > 0) {
+            if (this.compressedBuffer == null || this.compressedBuffer.length < compressedPacketLength) {
+                if (this.compressedBuffer != null) {
+                    PacketBufferPool.release(this.compressedBuffer);
+                }
+                this.compressedBuffer = PacketBufferPool.acquire(compressedPacketLength, this, this.log);
+            }
 
-            readFully(compressedBuffer, 0, compressedPacketLength);
+            readFully(this.compressedBuffer, 0, compressedPacketLength);
 
+            long begin = System.nanoTime();
             this.inflater.reset();
 
-            this.inflater.setInput(compressedBuffer);
+            this.inflater.setInput(this.compressedBuffer, 0, compressedPacketLength);
 
             try {
-                this.inflater.inflate(uncompressedData);
+                int inflated = 0;
+                while (inflated < uncompressedLength) {
+                    int n = this.inflater.inflate(this.buffer, offset + inflated, uncompressedLength - inflated);
+                    if (n == 0 && (this.inflater.finished() || this.inflater.needsInput() || this.inflater.needsDictionary())) {
+                        throw new IOException("Error while uncompressing packet from server.");
+                    }
+                    inflated += n;
+                }
             } catch (DataFormatException dfe) {
                 throw new IOException("Error while uncompressing packet from server.");
             }
+            this.decompressionTime += System.nanoTime() - begin;
+
+            if (this.compressedBuffer.length > MAX_RETAINED_LENGTH) {
+                PacketBufferPool.release(this.compressedBuffer);
+                this.compressedBuffer = null;
+            }
 
         } else {
             if (doTrace) {
@@ -157,40 +234,62 @@ public class CompressedInputStream extends InputStream {
             // Read data, note this this code is reached when using compressed packets that have not been compressed, as well
             //
             uncompressedLength = compressedPacketLength;
-            uncompressedData = new byte[uncompressedLength];
-            readFully(uncompressedData, 0, uncompressedLength);
+            readFully(this.buffer, offset, uncompressedLength);
         }
 
         if (doTrace) {
             if (uncompressedLength > 1024) {
-                this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(uncompressedData, 256));
                 byte[] tempData = new byte[256];
-                System.arraycopy(uncompressedData, uncompressedLength - 256, tempData, 0, 256);
+                System.arraycopy(this.buffer, offset, tempData, 0, 256);
+                this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(tempData, 256));
+                System.arraycopy(this.buffer, offset + uncompressedLength - 256, tempData, 0, 256);
                 this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(tempData, 256));
                 this.log.logTrace("Large packet dump truncated. Showing first and last 256 bytes.");
             } else {
-                this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(uncompressedData, uncompressedLength));
+                byte[] tempData = new byte[uncompressedLength];
+                System.arraycopy(this.buffer, offset, tempData, 0, uncompressedLength);
+                this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(tempData, uncompressedLength));
             }
         }
 
-        if ((this.buffer != null) && (this.pos < this.buffer.length)) {
-            if (doTrace) {
-                this.log.logTrace("Combining remaining packet with new: ");
-            }
-
-            int remaining = this.buffer.length - this.pos;
-            byte[] newBuffer = new byte[remaining + uncompressedData.length];
+        this.pos = 0;
+        this.limit = offset + uncompressedLength;
 
-            System.arraycopy(this.buffer, this.pos, newBuffer, 0, remaining);
-            System.arraycopy(uncompressedData, 0, newBuffer, remaining, uncompressedData.length);
+        return;
+    }
 
-            uncompressedData = newBuffer;
+    /**
+     * Makes sure {@link #buffer} can hold the given number of bytes, moving the bytes not consumed yet to its beginning.
+     * 
+     * @param capacity
+     *            the number of bytes needed
+     */
+    private void ensureBufferCapacity(int capacity) {
+        int remaining = this.buffer == null ? 0 : this.limit - this.pos;
+        if (this.buffer == null || this.buffer.length < capacity) {
+            byte[] newBuffer = PacketBufferPool.acquire(capacity, this, this.log);
+            if (this.buffer != null) {
+                System.arraycopy(this.buffer, this.pos, newBuffer, 0, remaining);
+                PacketBufferPool.release(this.buffer);
+            }
+            this.buffer = newBuffer;
+        } else if (remaining > 0 && this.pos > 0) {
+            System.arraycopy(this.buffer, this.pos, this.buffer, 0, remaining);
         }
-
         this.pos = 0;
-        this.buffer = uncompressedData;
+        this.limit = remaining;
+    }
 
-        return;
+    /**
+     * Gives an oversized buffer back to the pool once all of its data was consumed.
+     */
+    private void releaseDrainedBuffer() {
+        if (this.pos == this.limit && this.buffer.length > MAX_RETAINED_LENGTH) {
+            PacketBufferPool.release(this.buffer);
+            this.buffer = null;
+            this.pos = 0;
+            this.limit = 0;
+        }
     }
 
     /**
@@ -204,7 +303,7 @@ public class CompressedInputStream extends InputStream {
      *             if an I/O error occors.
      */
     private void getNextPacketIfRequired(int numBytes) throws IOException {
-        if ((this.buffer == null) || ((this.pos + numBytes) > this.buffer.length)) {
+        if ((this.buffer == null) || ((this.pos + numBytes) > this.limit)) {
             getNextPacketFromServer();
         }
     }
@@ -217,7 +316,9 @@ public class CompressedInputStream extends InputStream {
             return -1;
         }
 
-        return this.buffer[this.pos++] & 0xff;
+        int b = this.buffer[this.pos++] & 0xff;
+        releaseDrainedBuffer();
+        return b;
     }
 
     @Override
@@ -240,14 +341,18 @@ public class CompressedInputStream extends InputStream {
         try {
             getNextPacketIfRequired(len);
         } catch (IOException ioEx) {
-            return -1;
+            if (this.buffer == null || this.pos == this.limit) {
+                return -1;
+            }
+            // return what is left of the last packet
         }
 
-        int remainingBufferLength = this.buffer.length - this.pos;
+        int remainingBufferLength = this.limit - this.pos;
         int consummedBytesLength = Math.min(remainingBufferLength, len);
 
         System.arraycopy(this.buffer, this.pos, b, off, consummedBytesLength);
         this.pos += consummedBytesLength;
+        releaseDrainedBuffer();
 
         return consummedBytesLength;
     }
@@ -276,14 +381,17 @@ public class CompressedInputStream extends InputStream {
     public long skip(long n) throws IOException {
         long count = 0;
 
-        for (long i = 0; i < n; i++) {
-            int bytesRead = read();
-
-            if (bytesRead == -1) {
+        while (count < n) {
+            try {
+                getNextPacketIfRequired(1);
+            } catch (IOException ioEx) {
                 break;
             }
 
-            count++;
+            int skipped = (int) Math.min(n - count, this.limit - this.pos);
+            this.pos += skipped;
+            count += skipped;
+            releaseDrainedBuffer();
         }
 
         return count;
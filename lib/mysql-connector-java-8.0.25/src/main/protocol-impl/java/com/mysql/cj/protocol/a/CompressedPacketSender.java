@@ -31,6 +31,7 @@ package com.mysql.cj.protocol.a;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.zip.Deflater;
 
 import com.mysql.cj.protocol.MessageSender;
@@ -38,12 +39,15 @@ import com.mysql.cj.protocol.MessageSender;
 /**
  * A {@link MessageSender} for the compressed protocol.
  * 
- * TODO: add support for pre-allocated buffer for large packets (if there's a demonstrable perf improvement)
+ * Compression is adaptive by default: the ratio achieved is tracked per class of packets, a class being a command byte and a size range, and a class whose
+ * packets don't shrink enough is sent uncompressed for a while, then probed again with a back-off that grows as long as it keeps not compressing. This saves
+ * the CPU otherwise spent deflating already compressed or encrypted payloads. The counters returned by {@link #getBytesIn()}, {@link #getBytesOut()},
+ * {@link #getCompressionTime()} and {@link #getSkippedCount()} cover the lifetime of the connection.
  */
 public class CompressedPacketSender implements MessageSender<NativePacketPayload> {
     private BufferedOutputStream outputStream;
-    private Deflater deflater = new Deflater();
-    /** Buffer to compress data to. Used only across one send() invocation. */
+    private Deflater deflater;
+    /** Buffer to compress data to, taken from {@link PacketBufferPool}. Used only across one send() invocation. */
     private byte compressedPacket[];
     /** Sequence id of compressed packet. Used only across one send() invocation. */
     private byte compressedSequenceId = 0;
@@ -53,8 +57,89 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
     public static final int COMP_HEADER_LENGTH = 7;
     public static final int MIN_COMPRESS_LEN = 50;
 
+    /** Compressed to uncompressed size ratio, in thousandths, above which a class of packets is considered incompressible. */
+    static final int INCOMPRESSIBLE_RATIO = 900;
+    /** Number of packets of an incompressible class sent uncompressed before compression is tried again, doubled on every failed try. */
+    static final int MIN_SKIP = 8;
+    static final int MAX_SKIP = 1024;
+    /** Packets at least this long are told apart from shorter ones with the same command. */
+    private static final int LARGE_PACKET_LEN = 16 * 1024;
+    /** Command bytes, plus one class for continuation packets (sequence id other than 0) such as LOAD DATA LOCAL contents, times two size ranges. */
+    private static final int CLASSES = 257 * 2;
+
+    private final boolean adaptive;
+    /** Moving average of the compression ratio of each class, in thousandths. */
+    private int[] ratios = null;
+    /** Packets of each class left to send uncompressed. */
+    private int[] skipRemaining = null;
+    /** Packets of each class to send uncompressed next time compression doesn't pay off. */
+    private int[] skipNext = null;
+
+    private long bytesIn = 0;
+    private long bytesOut = 0;
+    private long compressionTime = 0;
+    private long skippedCount = 0;
+
     public CompressedPacketSender(BufferedOutputStream outputStream) {
+        this(outputStream, Deflater.DEFAULT_COMPRESSION, true);
+    }
+
+    /**
+     * Creates a compressed packet sender.
+     * 
+     * @param outputStream
+     *            the stream to write packets to
+     * @param compressionLevel
+     *            zlib compression level, from 0 to 9, or -1 for the default level
+     * @param adaptive
+     *            whether to stop compressing classes of packets that don't shrink
+     */
+    public CompressedPacketSender(BufferedOutputStream outputStream, int compressionLevel, boolean adaptive) {
         this.outputStream = outputStream;
+        this.deflater = new Deflater(compressionLevel);
+        this.adaptive = adaptive;
+        if (adaptive) {
+            this.ratios = new int[CLASSES];
+            this.skipRemaining = new int[CLASSES];
+            this.skipNext = new int[CLASSES];
+            Arrays.fill(this.skipNext, MIN_SKIP);
+        }
+    }
+
+    /**
+     * Returns the number of bytes of packets handed to this sender, headers included.
+     * 
+     * @return uncompressed bytes sent
+     */
+    public long getBytesIn() {
+        return this.bytesIn;
+    }
+
+    /**
+     * Returns the number of bytes written to the server, compressed packet headers included.
+     * 
+     * @return bytes written
+     */
+    public long getBytesOut() {
+        return this.bytesOut;
+    }
+
+    /**
+     * Returns the time spent compressing.
+     * 
+     * @return nanoseconds spent in the deflater
+     */
+    public long getCompressionTime() {
+        return this.compressionTime;
+    }
+
+    /**
+     * Returns the number of packets sent uncompressed without trying to compress them, because their class was found incompressible.
+     * 
+     * @return number of skipped packets
+     */
+    public long getSkippedCount() {
+        return this.skippedCount;
     }
 
     /**
@@ -125,6 +210,7 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
      *             if write exception occurs
      */
     private void writeCompressedHeader(int compLen, byte seq, int uncompLen) throws IOException {
+        this.bytesOut += COMP_HEADER_LENGTH + compLen;
         this.outputStream.write(NativeUtils.encodeMysqlThreeByteInteger(compLen));
         this.outputStream.write(seq);
         this.outputStream.write(NativeUtils.encodeMysqlThreeByteInteger(uncompLen));
@@ -179,6 +265,7 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
      */
     public void send(byte[] packet, int packetLen, byte packetSequence) throws IOException {
         this.compressedSequenceId = packetSequence;
+        this.bytesIn += packetLen + NativeConstants.HEADER_LENGTH * (packetLen / NativeConstants.MAX_PACKET_SIZE + 1);
 
         // short-circuit send small packets without compression and return
         if (packetLen < MIN_COMPRESS_LEN) {
@@ -189,38 +276,89 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
             return;
         }
 
+        int packetClass = -1;
+        if (this.adaptive) {
+            packetClass = 2 * (packetSequence == 0 ? packet[0] & 0xff : 256) + (packetLen >= LARGE_PACKET_LEN ? 1 : 0);
+            if (this.skipRemaining[packetClass] > 0) {
+                this.skipRemaining[packetClass]--;
+                this.skippedCount++;
+                sendSplitPackets(packet, packetLen, packetSequence, false, -1);
+                return;
+            }
+        }
+
         if (packetLen + NativeConstants.HEADER_LENGTH > NativeConstants.MAX_PACKET_SIZE) {
-            this.compressedPacket = new byte[NativeConstants.MAX_PACKET_SIZE];
+            this.compressedPacket = PacketBufferPool.acquire(NativeConstants.MAX_PACKET_SIZE, this);
         } else {
-            this.compressedPacket = new byte[NativeConstants.HEADER_LENGTH + packetLen];
+            this.compressedPacket = PacketBufferPool.acquire(NativeConstants.HEADER_LENGTH + packetLen, this);
         }
+        try {
+            sendSplitPackets(packet, packetLen, packetSequence, true, packetClass);
+        } finally {
+            PacketBufferPool.release(this.compressedPacket);
+            this.compressedPacket = null;
+        }
+    }
 
+    /**
+     * Records the compression ratio achieved for a packet and decides whether the next packets of its class are worth compressing.
+     * 
+     * @param packetClass
+     *            the class of the packet
+     * @param uncompressedLen
+     *            the number of bytes compressed
+     * @param compressedLen
+     *            the number of bytes they compressed to
+     */
+    private void recordRatio(int packetClass, long uncompressedLen, long compressedLen) {
+        int ratio = (int) Math.min(1000, compressedLen * 1000 / uncompressedLen);
+        int average = (this.ratios[packetClass] + ratio) / 2;
+        this.ratios[packetClass] = average;
+        if (average >= INCOMPRESSIBLE_RATIO) {
+            this.skipRemaining[packetClass] = this.skipNext[packetClass];
+            this.skipNext[packetClass] = Math.min(MAX_SKIP, 2 * this.skipNext[packetClass]);
+            // start over from a neutral average when probing again, so that a single good packet can bring the class back
+            this.ratios[packetClass] = INCOMPRESSIBLE_RATIO - 1;
+        } else if (ratio < INCOMPRESSIBLE_RATIO) {
+            this.skipNext[packetClass] = MIN_SKIP;
+        }
+    }
+
+    private void sendSplitPackets(byte[] packet, int packetLen, byte packetSequence, boolean compress, int packetClass) throws IOException {
         PacketSplitter packetSplitter = new PacketSplitter(packetLen);
 
         int unsentPayloadLen = 0;
         int unsentOffset = 0;
+        long attemptedLen = 0;
+        long attemptedCompressedLen = 0;
         // loop over constructing and sending compressed packets
         while (true) {
             this.compressedPayloadLen = 0;
 
             if (packetSplitter.nextPacket()) {
-                // rest of previous packet
-                if (unsentPayloadLen > 0) {
-                    addPayload(packet, unsentOffset, unsentPayloadLen);
-                }
-
                 // current packet
                 int remaining = NativeConstants.MAX_PACKET_SIZE - unsentPayloadLen;
                 // if remaining is 0 then we are sending a very huge packet such that are 4-byte header-size carryover from last packet accumulated to the size
                 // of a whole packet itself. We don't handle this. Would require 4 million packet segments (64 gigs in one logical packet)
                 int len = Math.min(remaining, NativeConstants.HEADER_LENGTH + packetSplitter.getPacketLen());
                 int lenNoHdr = len - NativeConstants.HEADER_LENGTH;
-                addUncompressedHeader(packetSequence, packetSplitter.getPacketLen());
-                addPayload(packet, packetSplitter.getOffset(), lenNoHdr);
 
-                completeCompression();
+                if (compress) {
+                    long begin = System.nanoTime();
+                    // rest of previous packet
+                    if (unsentPayloadLen > 0) {
+                        addPayload(packet, unsentOffset, unsentPayloadLen);
+                    }
+                    addUncompressedHeader(packetSequence, packetSplitter.getPacketLen());
+                    addPayload(packet, packetSplitter.getOffset(), lenNoHdr);
+                    completeCompression();
+                    this.compressionTime += System.nanoTime() - begin;
+                    attemptedLen += len + unsentPayloadLen;
+                    attemptedCompressedLen += Math.min(this.compressedPayloadLen, len + unsentPayloadLen);
+                }
+
                 // don't send payloads with incompressible data
-                if (this.compressedPayloadLen >= len) {
+                if (!compress || this.compressedPayloadLen >= len) {
                     // combine the unsent and current packet in an uncompressed packet
                     writeCompressedHeader(unsentPayloadLen + len, this.compressedSequenceId++, 0);
                     this.outputStream.write(packet, unsentOffset, unsentPayloadLen);
@@ -233,18 +371,26 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
                 packetSequence++;
                 unsentPayloadLen = packetSplitter.getPacketLen() - lenNoHdr;
                 unsentOffset = packetSplitter.getOffset() + lenNoHdr;
-                resetPacket();
+                if (compress) {
+                    resetPacket();
+                }
             } else if (unsentPayloadLen > 0) {
                 // no more packets, send remaining unsent data
-                addPayload(packet, unsentOffset, unsentPayloadLen);
-                completeCompression();
-                if (this.compressedPayloadLen >= unsentPayloadLen) {
+                if (compress) {
+                    long begin = System.nanoTime();
+                    addPayload(packet, unsentOffset, unsentPayloadLen);
+                    completeCompression();
+                    this.compressionTime += System.nanoTime() - begin;
+                }
+                if (!compress || this.compressedPayloadLen >= unsentPayloadLen) {
                     writeCompressedHeader(unsentPayloadLen, this.compressedSequenceId, 0);
                     this.outputStream.write(packet, unsentOffset, unsentPayloadLen);
                 } else {
                     sendCompressedPacket(unsentPayloadLen);
                 }
-                resetPacket();
+                if (compress) {
+                    resetPacket();
+                }
                 break;
             } else {
                 // nothing left to send (only happens on boundaries)
@@ -254,8 +400,9 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
 
         this.outputStream.flush();
 
-        // release reference to (possibly large) compressed packet buffer
-        this.compressedPacket = null;
+        if (packetClass >= 0 && attemptedLen > 0) {
+            recordRatio(packetClass, attemptedLen, attemptedCompressedLen);
+        }
     }
 
     @Override
@@ -68,24 +68,30 @@ public class MultiPacketReader implements MessageReader<NativePacketHeader, Nati
             int multiPacketLength = -1;
             byte multiPacketSeq = getMessageSequence();
 
-            do {
-                NativePacketHeader hdr = readHeader();
-                multiPacketLength = hdr.getMessageSize();
+            try {
+                do {
+                    NativePacketHeader hdr = readHeader();
+                    multiPacketLength = hdr.getMessageSize();
 
-                if (multiPacket == null) {
-                    multiPacket = new NativePacketPayload(multiPacketLength);
-                }
+                    if (multiPacket == null) {
+                        multiPacket = NativePacketPayload.acquire(multiPacketLength);
+                    }
 
-                multiPacketSeq++;
-                if (multiPacketSeq != hdr.getMessageSequence()) {
-                    throw new IOException(Messages.getString("PacketReader.10"));
-                }
+                    multiPacketSeq++;
+                    if (multiPacketSeq != hdr.getMessageSequence()) {
+                        throw new IOException(Messages.getString("PacketReader.10"));
+                    }
 
-                this.packetReader.readMessage(Optional.of(multiPacket), hdr);
+                    this.packetReader.readMessage(Optional.of(multiPacket), hdr);
 
-                buf.writeBytes(StringLengthDataType.STRING_FIXED, multiPacket.getByteBuffer(), 0, multiPacketLength);
+                    buf.writeBytes(StringLengthDataType.STRING_FIXED, multiPacket.getByteBuffer(), 0, multiPacketLength);
 
-            } while (multiPacketLength == NativeConstants.MAX_PACKET_SIZE);
+                } while (multiPacketLength == NativeConstants.MAX_PACKET_SIZE);
+            } finally {
+                if (multiPacket != null) {
+                    multiPacket.release();
+                }
+            }
 
             buf.setPosition(0);
         }
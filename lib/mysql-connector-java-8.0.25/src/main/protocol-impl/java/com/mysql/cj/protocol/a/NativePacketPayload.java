@@ -33,6 +33,7 @@ import com.mysql.cj.Constants;
 import com.mysql.cj.Messages;
 import com.mysql.cj.exceptions.ExceptionFactory;
 import com.mysql.cj.exceptions.WrongArgumentException;
+import com.mysql.cj.log.Log;
 import com.mysql.cj.protocol.Message;
 import com.mysql.cj.protocol.a.NativeConstants.IntegerDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringLengthDataType;
@@ -69,6 +70,12 @@ public class NativePacketPayload implements Message {
 
     private int position = 0;
 
+    /** Whether byteBuffer belongs to {@link PacketBufferPool} and has to be given back with {@link #release()}. */
+    private boolean pooled = false;
+
+    /** Log leaks of the pooled buffer are reported to, null for the driver's standard logger. */
+    private Log log;
+
     static final int MAX_BYTES_TO_DUMP = 1024;
 
     @Override
@@ -100,6 +107,55 @@ public class NativePacketPayload implements Message {
         this.payloadLength = size;
     }
 
+    /**
+     * Creates a payload backed by a buffer from {@link PacketBufferPool}. The buffer grows through the pool as well and must be given back with
+     * {@link #release()} once neither the payload nor anything read from it without copying is used anymore.
+     * 
+     * @param size
+     *            initial payload length; the buffer may be larger
+     * @return payload
+     */
+    public static NativePacketPayload acquire(int size) {
+        return acquire(size, null);
+    }
+
+    /**
+     * Creates a payload backed by a buffer from {@link PacketBufferPool}, as {@link #acquire(int)} does.
+     * 
+     * @param size
+     *            initial payload length; the buffer may be larger
+     * @param log
+     *            the session log a leaked buffer is reported to in debug mode, may be null
+     * @return payload
+     */
+    public static NativePacketPayload acquire(int size, Log log) {
+        NativePacketPayload packet = new NativePacketPayload(Constants.EMPTY_BYTE_ARRAY);
+        packet.log = log;
+        packet.byteBuffer = PacketBufferPool.acquire(size, packet, log);
+        packet.payloadLength = size;
+        packet.pooled = true;
+        return packet;
+    }
+
+    /**
+     * Gives a pooled buffer back to {@link PacketBufferPool}. The payload is left empty, so that using it afterwards fails instead of reading a buffer
+     * another connection may be writing to. Does nothing for payloads not created by {@link #acquire(int)}.
+     */
+    public void release() {
+        if (this.pooled) {
+            byte[] buffer = this.byteBuffer;
+            this.byteBuffer = Constants.EMPTY_BYTE_ARRAY;
+            this.payloadLength = 0;
+            this.position = 0;
+            this.pooled = false;
+            PacketBufferPool.release(buffer);
+        }
+    }
+
+    public boolean isPooled() {
+        return this.pooled;
+    }
+
     public int getCapacity() {
         return this.byteBuffer.length;
     }
@@ -126,13 +182,35 @@ public class NativePacketPayload implements Message {
                 newLength = this.byteBuffer.length + additionalData;
             }
 
-            byte[] newBytes = new byte[newLength];
+            byte[] newBytes = this.pooled ? PacketBufferPool.acquire(newLength, this, this.log) : new byte[newLength];
 
             System.arraycopy(this.byteBuffer, 0, newBytes, 0, this.byteBuffer.length);
+            if (this.pooled) {
+                PacketBufferPool.release(this.byteBuffer);
+            }
             this.byteBuffer = newBytes;
         }
     }
 
+    /**
+     * Makes sure the underlying buffer is at least the given length, replacing it if needed. Unlike {@link #ensureCapacity(int)} the contents are not
+     * preserved; this is meant for buffers about to be filled from the network.
+     * 
+     * @param length
+     *            required buffer length
+     */
+    public void ensureBufferLength(int length) {
+        if (this.byteBuffer.length < length) {
+            if (this.pooled) {
+                PacketBufferPool.release(this.byteBuffer);
+                this.byteBuffer = Constants.EMPTY_BYTE_ARRAY; // don't keep a released buffer if acquire fails
+                this.byteBuffer = PacketBufferPool.acquire(length, this, this.log);
+            } else {
+                this.byteBuffer = new byte[length];
+            }
+        }
+    }
+
     @Override
     public byte[] getByteBuffer() {
         return this.byteBuffer;
@@ -145,6 +223,10 @@ public class NativePacketPayload implements Message {
      *            the array of bytes to use as a buffer
      */
     public void setByteBuffer(byte[] byteBufferToSet) {
+        if (this.pooled) {
+            PacketBufferPool.release(this.byteBuffer);
+            this.pooled = false;
+        }
         this.byteBuffer = byteBufferToSet;
     }
 
@@ -122,6 +122,7 @@ import com.mysql.cj.protocol.a.NativeConstants.IntegerDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringLengthDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
 import com.mysql.cj.protocol.a.result.OkPacket;
+import com.mysql.cj.protocol.a.result.ResultsetRowsCursor;
 import com.mysql.cj.result.Field;
 import com.mysql.cj.result.IntegerValueFactory;
 import com.mysql.cj.result.Row;
@@ -149,6 +150,8 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
 
     /** Track this to manually shut down. */
     protected CompressedPacketSender compressedPacketSender;
+    /** Kept for its counters. */
+    protected CompressedInputStream compressedInputStream;
 
     //private PacketPayload sendPacket = null;
     protected NativePacketPayload sharedSendPacket = null;
@@ -184,6 +187,15 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
     protected boolean hadWarnings = false;
     private int warningCount = 0;
 
+    /** Number of commands sent with {@link #sendPipelined(NativePacketPayload)} whose responses were not read yet. */
+    private int pipelinedCommands = 0;
+
+    /** Reads the responses to the pipelined commands into their owners before another command is sent, set while a pipeline is open. */
+    private Runnable pipelinedResultsReader = null;
+
+    /** Cursor whose next block of rows was requested ahead of time and not read yet. */
+    private ResultsetRowsCursor prefetchingCursor = null;
+
     protected Map<Class<? extends ProtocolEntity>, ProtocolEntityReader<? extends ProtocolEntity, ? extends Message>> PROTOCOL_ENTITY_CLASS_TO_TEXT_READER;
     protected Map<Class<? extends ProtocolEntity>, ProtocolEntityReader<? extends ProtocolEntity, ? extends Message>> PROTOCOL_ENTITY_CLASS_TO_BINARY_READER;
 
@@ -262,7 +274,7 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         this.autoGenerateTestcaseScript = this.propertySet.getBooleanProperty(PropertyKey.autoGenerateTestcaseScript).getValue();
         this.useServerPrepStmts = this.propertySet.getBooleanProperty(PropertyKey.useServerPrepStmts);
 
-        this.reusablePacket = new NativePacketPayload(INITIAL_PACKET_SIZE);
+        this.reusablePacket = NativePacketPayload.acquire(INITIAL_PACKET_SIZE, this.log);
         //this.sendPacket = new Buffer(INITIAL_PACKET_SIZE);
 
         try {
@@ -399,9 +411,12 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
                     && this.propertySet.getBooleanProperty(PropertyKey.useCompression).getValue()
                     && !(this.socketConnection.getMysqlInput().getUnderlyingStream() instanceof CompressedInputStream)) {
                 this.useCompression = true;
-                this.socketConnection.setMysqlInput(new FullReadInputStream(new CompressedInputStream(this.socketConnection.getMysqlInput(),
-                        this.propertySet.getBooleanProperty(PropertyKey.traceProtocol), this.log)));
-                this.compressedPacketSender = new CompressedPacketSender(this.socketConnection.getMysqlOutput());
+                this.compressedInputStream = new CompressedInputStream(this.socketConnection.getMysqlInput(),
+                        this.propertySet.getBooleanProperty(PropertyKey.traceProtocol), this.log);
+                this.socketConnection.setMysqlInput(new FullReadInputStream(this.compressedInputStream));
+                this.compressedPacketSender = new CompressedPacketSender(this.socketConnection.getMysqlOutput(),
+                        this.propertySet.getIntegerProperty(PropertyKey.compressionLevel).getValue(),
+                        this.propertySet.getBooleanProperty(PropertyKey.adaptiveCompression).getValue());
                 this.packetSender = this.compressedPacketSender;
             }
 
@@ -581,6 +596,16 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
 
     @Override
     public final NativePacketPayload sendCommand(Message queryPacket, boolean skipCheck, int timeoutMillis) {
+        completePrefetch();
+
+        if (this.pipelinedCommands > 0 && this.pipelinedResultsReader != null) {
+            this.pipelinedResultsReader.run();
+        }
+        if (this.pipelinedCommands > 0) {
+            throw ExceptionFactory.createException(Messages.getString("Protocol.Pipelined.0", new Object[] { this.pipelinedCommands }),
+                    getExceptionInterceptor());
+        }
+
         int command = queryPacket.getByteBuffer()[0];
         this.commandCount++;
 
@@ -801,11 +826,29 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
 
     private void reclaimLargeSharedSendPacket() {
         if ((this.sharedSendPacket != null) && (this.sharedSendPacket.getCapacity() > 1048576)) {
-            this.sharedSendPacket = new NativePacketPayload(INITIAL_PACKET_SIZE);
+            if (canRecycleSentPackets()) {
+                this.sharedSendPacket.release();
+            }
+            this.sharedSendPacket = null;
         }
     }
 
+    /**
+     * sendQueryPacket() reads the sent packet again for profiling and slow query logging, and query interceptors may keep it. A pooled packet can be
+     * released right after it was sent only if none of them is active.
+     * 
+     * @return true if a sent packet is not looked at anymore
+     */
+    private boolean canRecycleSentPackets() {
+        return this.queryInterceptors == null && !this.profileSQL && !this.logSlowQueries;
+    }
+
     public void clearInputStream() {
+        if (this.pipelinedCommands > 0) {
+            // the pending input is the responses to pipelined commands
+            return;
+        }
+
         try {
             int len;
 
@@ -825,7 +868,8 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
      */
     public void reclaimLargeReusablePacket() {
         if ((this.reusablePacket != null) && (this.reusablePacket.getCapacity() > 1048576)) {
-            this.reusablePacket = new NativePacketPayload(INITIAL_PACKET_SIZE);
+            this.reusablePacket.release();
+            this.reusablePacket = NativePacketPayload.acquire(INITIAL_PACKET_SIZE, this.log);
         }
     }
 
@@ -854,6 +898,25 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
      */
     public final <T extends Resultset> T sendQueryString(Query callingQuery, String query, String characterEncoding, int maxRows, boolean streamResults,
             ColumnDefinition cachedMetadata, ProtocolEntityFactory<T, NativePacketPayload> resultSetFactory) throws IOException {
+        NativePacketPayload sendPacket = buildQueryPacket(query, characterEncoding);
+
+        try {
+            return sendQueryPacket(callingQuery, sendPacket, maxRows, streamResults, cachedMetadata, resultSetFactory);
+        } finally {
+            sendPacket.release();
+        }
+    }
+
+    /**
+     * Builds the COM_QUERY packet for a query, prefixed with the configured statement comment. The caller releases the packet once it was sent.
+     * 
+     * @param query
+     *            the SQL text
+     * @param characterEncoding
+     *            the Java character encoding of the connection
+     * @return the packet, positioned after its last byte
+     */
+    public NativePacketPayload buildQueryPacket(String query, String characterEncoding) {
         String statementComment = this.queryComment;
 
         if (this.propertySet.getBooleanProperty(PropertyKey.includeThreadNamesAsStatementComment).getValue()) {
@@ -874,9 +937,8 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         }
 
         // TODO decide how to safely use the shared this.sendPacket
-        //if (this.sendPacket == null) {
-        NativePacketPayload sendPacket = new NativePacketPayload(packLength);
-        //}
+        // The packet is not read after it was sent, unless query interceptors get hold of it, so it can come from the buffer pool
+        NativePacketPayload sendPacket = this.queryInterceptors == null ? NativePacketPayload.acquire(packLength, this.log) : new NativePacketPayload(packLength);
 
         sendPacket.setPosition(0);
 
@@ -894,7 +956,7 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
             sendPacket.writeBytes(StringLengthDataType.STRING_FIXED, StringUtils.getBytes(query, characterEncoding));
         }
 
-        return sendQueryPacket(callingQuery, sendPacket, maxRows, streamResults, cachedMetadata, resultSetFactory);
+        return sendPacket;
     }
 
     /**
@@ -1237,6 +1299,13 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         } finally {
             this.socketConnection.forceClose();
             this.localInfileInputStream = null;
+
+            // open statements were closed before quitting, nothing reads these packets anymore
+            this.reusablePacket.release();
+            if (this.sharedSendPacket != null) {
+                this.sharedSendPacket.release();
+                this.sharedSendPacket = null;
+            }
         }
     }
 
@@ -1248,7 +1317,7 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
      */
     public NativePacketPayload getSharedSendPacket() {
         if (this.sharedSendPacket == null) {
-            this.sharedSendPacket = new NativePacketPayload(INITIAL_PACKET_SIZE);
+            this.sharedSendPacket = canRecycleSentPackets() ? NativePacketPayload.acquire(INITIAL_PACKET_SIZE, this.log) : new NativePacketPayload(INITIAL_PACKET_SIZE);
         }
         this.sharedSendPacket.setPosition(0);
 
@@ -1345,6 +1414,24 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         }
     }
 
+    /**
+     * Returns the sender of compressed packets, whose counters tell how much compression saves on the data sent.
+     * 
+     * @return the compressed packet sender, or null if compression is not in use
+     */
+    public CompressedPacketSender getCompressedPacketSender() {
+        return this.compressedPacketSender;
+    }
+
+    /**
+     * Returns the stream compressed packets are read from, whose counters tell how much compression saves on the data received.
+     * 
+     * @return the compressed input stream, or null if compression is not in use
+     */
+    public CompressedInputStream getCompressedInputStream() {
+        return this.compressedInputStream;
+    }
+
     public void connect(String user, String password, String database) {
         // session creation & initialization happens here
 
@@ -1674,6 +1761,107 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         return topLevelResultSet;
     }
 
+    /**
+     * Sends a COM_QUERY or COM_STMT_EXECUTE packet without waiting for its response. Responses to pipelined commands must be read in the order the commands
+     * were sent, with {@link #readPipelinedResult(boolean, ColumnDefinition, ProtocolEntityFactory)}, before any other command can be issued; the reader set
+     * with {@link #setPipelinedResultsReader(Runnable)} is asked to do so when another command is sent first.
+     * <p>
+     * Query interceptors, profiling and the data truncation check are not applied to pipelined commands; callers fall back to
+     * {@link #sendCommand(Message, boolean, int)} where they matter.
+     * 
+     * @param packet
+     *            the command packet, positioned after its last byte
+     */
+    public void sendPipelined(NativePacketPayload packet) {
+        this.commandCount++;
+
+        try {
+            if (this.pipelinedCommands == 0) {
+                completePrefetch();
+                checkForOutstandingStreamingData();
+                clearInputStream();
+            }
+            this.packetSequence = -1;
+            send(packet, packet.getPosition());
+            this.pipelinedCommands++;
+
+        } catch (CJException ex) {
+            // don't wrap CJExceptions
+            throw ex;
+        } catch (Exception ex) {
+            throw ExceptionFactory.createCommunicationsException(this.propertySet, this.serverSession, this.getPacketSentTimeHolder(),
+                    this.getPacketReceivedTimeHolder(), ex, getExceptionInterceptor());
+        }
+    }
+
+    /**
+     * Reads the complete response to the oldest pipelined command. An error response is thrown the same way {@link #sendCommand(Message, boolean, int)}
+     * throws it and leaves the responses to the following commands readable.
+     * 
+     * @param isBinaryEncoded
+     *            true for the response to COM_STMT_EXECUTE
+     * @param metadata
+     *            the result columns of a prepared statement, if known
+     * @param resultSetFactory
+     *            factory for the results
+     * @param <T>
+     *            result type
+     * @return the first result, further results are chained to it
+     */
+    public <T extends Resultset> T readPipelinedResult(boolean isBinaryEncoded, ColumnDefinition metadata,
+            ProtocolEntityFactory<T, NativePacketPayload> resultSetFactory) {
+        if (this.pipelinedCommands == 0) {
+            throw ExceptionFactory.createException(Messages.getString("Protocol.Pipelined.1"), getExceptionInterceptor());
+        }
+
+        try {
+            this.packetReader.resetMessageSequence();
+            this.serverSession.setStatusFlags(0, true);
+            this.hadWarnings = false;
+            this.setWarningCount(0);
+
+            NativePacketPayload resultPacket = checkErrorMessage(isBinaryEncoded ? NativeConstants.COM_STMT_EXECUTE : NativeConstants.COM_QUERY);
+            return readAllResults(-1, false, resultPacket, isBinaryEncoded, metadata, resultSetFactory);
+
+        } catch (IOException ioEx) {
+            this.serverSession.preserveOldTransactionState();
+            throw ExceptionFactory.createCommunicationsException(this.propertySet, this.serverSession, this.getPacketSentTimeHolder(),
+                    this.getPacketReceivedTimeHolder(), ioEx, getExceptionInterceptor());
+        } catch (CJException e) {
+            this.serverSession.preserveOldTransactionState();
+            throw e;
+
+        } finally {
+            this.pipelinedCommands--;
+        }
+    }
+
+    /**
+     * Returns the number of pipelined commands whose responses were not read yet.
+     * 
+     * @return number of outstanding responses
+     */
+    public int getPipelinedCommandCount() {
+        return this.pipelinedCommands;
+    }
+
+    /**
+     * Sets the callback that reads the outstanding pipelined responses when {@link #sendCommand(Message, boolean, int)} is called before they were read.
+     * 
+     * @param reader
+     *            the callback, or null once the pipeline is closed
+     */
+    public void setPipelinedResultsReader(Runnable reader) {
+        this.pipelinedResultsReader = reader;
+    }
+
+    /**
+     * Drops the outstanding pipelined responses once the connection failed, so that they don't block the commands issued after a reconnect.
+     */
+    public void abandonPipelinedCommands() {
+        this.pipelinedCommands = 0;
+    }
+
     @SuppressWarnings("unchecked")
     public final <T> T readServerStatusForResultSets(NativePacketPayload rowPacket, boolean saveOldStatus) {
         T result = null;
@@ -1921,6 +2109,28 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         }
     }
 
+    /**
+     * Registers a cursor that sent COM_STMT_FETCH for its next block of rows without reading the response.
+     * 
+     * @param cursor
+     *            the cursor, its response is read by {@link #completePrefetch()} before the next command is sent
+     */
+    public void setPrefetchingCursor(ResultsetRowsCursor cursor) {
+        this.prefetchingCursor = cursor;
+    }
+
+    /**
+     * Makes the registered prefetching cursor read its outstanding block of rows, so that the connection can be used for something else. The cursor keeps
+     * the rows until the application gets to them.
+     */
+    public void completePrefetch() {
+        if (this.prefetchingCursor != null) {
+            ResultsetRowsCursor cursor = this.prefetchingCursor;
+            this.prefetchingCursor = null;
+            cursor.readPrefetchedRows();
+        }
+    }
+
     public void unsetStreamingData(ResultsetRows streamer) {
         if (this.streamingData == null) {
             throw ExceptionFactory.createException(Messages.getString("MysqlIO.17") + streamer + Messages.getString("MysqlIO.18"), this.exceptionInterceptor);
@@ -1933,7 +2143,7 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
     }
 
     public void scanForAndThrowDataTruncation() {
-        if (this.streamingData == null && this.propertySet.getBooleanProperty(PropertyKey.jdbcCompliantTruncation).getValue() && getWarningCount() > 0) {
+        if (this.streamingData == null && this.pipelinedCommands == 0 && this.propertySet.getBooleanProperty(PropertyKey.jdbcCompliantTruncation).getValue() && getWarningCount() > 0) {
             int warningCountOld = getWarningCount();
             convertShowWarningsToSQLWarnings(getWarningCount(), true);
             setWarningCount(warningCountOld);
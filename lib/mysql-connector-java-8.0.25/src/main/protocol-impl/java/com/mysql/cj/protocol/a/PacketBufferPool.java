@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.a;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.mysql.cj.conf.PropertyDefinitions;
+import com.mysql.cj.log.Log;
+import com.mysql.cj.log.LogFactory;
+import com.mysql.cj.log.StandardLogger;
+
+/**
+ * Process-wide pool of packet buffers shared by all connections.
+ * 
+ * Buffers come in power-of-two size classes from 1 KiB to 16 MiB (the largest single packet). Released buffers are kept in a small per-thread cache for
+ * classes up to {@link #MAX_THREAD_CACHED_LENGTH}, then in a lock-free central pool of a few slots per class, bounded to about
+ * {@link #MAX_POOLED_BYTES_PER_CLASS} each; anything beyond that is left to the garbage collector. Requests larger than {@link #MAX_POOLED_LENGTH} are
+ * allocated exactly and never pooled. Virtual threads bypass the per-thread cache, there can be too many of them for it to pay off.
+ * 
+ * Setting the system property {@value PropertyDefinitions#SYSP_debugPacketBufferPool} to "true" enables leak detection: every buffer handed out is tracked
+ * together with its owner and the stack it was acquired from, buffers whose owner is garbage collected before they were released are reported as warnings
+ * to the {@link Log} of the session that acquired them (or the driver's standard logger when none was given), and releasing a buffer twice throws an
+ * {@link IllegalStateException}.
+ */
+public final class PacketBufferPool {
+    private static final int MIN_SHIFT = 10;
+    private static final int MAX_SHIFT = 24;
+    private static final int CLASSES = MAX_SHIFT - MIN_SHIFT + 1;
+
+    /** Smallest buffer handed out. */
+    public static final int MIN_POOLED_LENGTH = 1 << MIN_SHIFT;
+
+    /** Largest pooled buffer; larger requests are allocated exactly. */
+    public static final int MAX_POOLED_LENGTH = 1 << MAX_SHIFT;
+
+    private static final int MAX_POOLED_BYTES_PER_CLASS = 8 * 1024 * 1024;
+    private static final int MAX_SLOTS_PER_CLASS = 32;
+
+    private static final int MAX_THREAD_CACHED_LENGTH = 64 * 1024;
+    private static final int THREAD_CACHED_CLASSES = Integer.numberOfTrailingZeros(MAX_THREAD_CACHED_LENGTH) - MIN_SHIFT + 1;
+
+    private static final boolean DEBUG = Boolean.getBoolean(PropertyDefinitions.SYSP_debugPacketBufferPool);
+
+    /** Central pool slots of one size class. */
+    private static final class Slots extends AtomicReferenceArray<byte[]> {
+        private static final long serialVersionUID = 1L;
+
+        Slots(int length) {
+            super(length);
+        }
+    }
+
+    private static final Slots[] central = new Slots[CLASSES];
+
+    private static final ThreadLocal<byte[][]> threadCache = new ThreadLocal<byte[][]>() {
+        @Override
+        protected byte[][] initialValue() {
+            return new byte[THREAD_CACHED_CLASSES][];
+        }
+    };
+
+    /** Thread.isVirtual() on Java 19+, null before. */
+    private static final MethodHandle isVirtual;
+
+    private static final LongAdder allocated = new LongAdder();
+    private static final LongAdder reused = new LongAdder();
+    private static final LongAdder leaked = new LongAdder();
+
+    private static final Map<byte[], Lease> leases = DEBUG ? Collections.synchronizedMap(new IdentityHashMap<byte[], Lease>()) : null;
+    private static final ReferenceQueue<Object> collectedOwners = DEBUG ? new ReferenceQueue<>() : null;
+
+    static {
+        for (int i = 0; i < CLASSES; i++) {
+            int slots = Math.max(1, Math.min(MAX_SLOTS_PER_CLASS, MAX_POOLED_BYTES_PER_CLASS >>> (MIN_SHIFT + i)));
+            central[i] = new Slots(slots);
+        }
+
+        MethodHandle mh = null;
+        try {
+            mh = MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            // not available before Java 19
+        }
+        isVirtual = mh;
+    }
+
+    /**
+     * A handed out buffer, tracked in debug mode until it is released or its owner is collected.
+     */
+    private static final class Lease extends WeakReference<Object> {
+        final byte[] buffer;
+        final Throwable acquiredAt;
+        final Log log;
+
+        Lease(Object owner, byte[] buffer, Log log) {
+            super(owner, collectedOwners);
+            this.buffer = buffer;
+            this.acquiredAt = new Throwable("Packet buffer of " + buffer.length + " bytes acquired here");
+            this.log = log;
+        }
+    }
+
+    private PacketBufferPool() {
+    }
+
+    /**
+     * Takes a buffer of at least the given length from the pool, allocating one if none is free.
+     * 
+     * @param minLength
+     *            required length
+     * @param owner
+     *            the object holding the buffer, only used for leak detection
+     * @return a buffer whose length is the size class of minLength, or exactly minLength above {@link #MAX_POOLED_LENGTH}. Its contents are undefined.
+     */
+    public static byte[] acquire(int minLength, Object owner) {
+        return acquire(minLength, owner, null);
+    }
+
+    /**
+     * Takes a buffer of at least the given length from the pool, allocating one if none is free.
+     * 
+     * @param minLength
+     *            required length
+     * @param owner
+     *            the object holding the buffer, only used for leak detection
+     * @param log
+     *            the session log leaks of this buffer are reported to, may be null
+     * @return a buffer whose length is the size class of minLength, or exactly minLength above {@link #MAX_POOLED_LENGTH}. Its contents are undefined.
+     */
+    public static byte[] acquire(int minLength, Object owner, Log log) {
+        if (minLength > MAX_POOLED_LENGTH) {
+            return new byte[minLength];
+        }
+        int cls = classOf(minLength);
+        byte[] buffer = null;
+
+        if (cls < THREAD_CACHED_CLASSES && !isVirtualThread()) {
+            byte[][] cache = threadCache.get();
+            buffer = cache[cls];
+            cache[cls] = null;
+        }
+        if (buffer == null) {
+            Slots slots = central[cls];
+            for (int i = 0, n = slots.length(); i < n && buffer == null; i++) {
+                if (slots.get(i) != null) {
+                    buffer = slots.getAndSet(i, null);
+                }
+            }
+        }
+        if (buffer == null) {
+            buffer = new byte[MIN_POOLED_LENGTH << cls];
+            allocated.increment();
+        } else {
+            reused.increment();
+        }
+
+        if (DEBUG) {
+            expungeLeaks();
+            leases.put(buffer, new Lease(owner, buffer, log));
+        }
+        return buffer;
+    }
+
+    /**
+     * Gives a buffer obtained from {@link #acquire(int, Object)} back to the pool. The caller must not touch it afterwards.
+     * 
+     * @param buffer
+     *            buffer to release; buffers that are not of a pooled size are ignored
+     */
+    public static void release(byte[] buffer) {
+        int length = buffer.length;
+        if (length < MIN_POOLED_LENGTH || length > MAX_POOLED_LENGTH || Integer.bitCount(length) != 1) {
+            return;
+        }
+        if (DEBUG) {
+            Lease lease = leases.remove(buffer);
+            if (lease == null) {
+                throw new IllegalStateException("Packet buffer of " + length + " bytes released twice or not acquired from the pool");
+            }
+            lease.clear();
+        }
+        int cls = classOf(length);
+
+        if (cls < THREAD_CACHED_CLASSES && !isVirtualThread()) {
+            byte[][] cache = threadCache.get();
+            if (cache[cls] == null) {
+                cache[cls] = buffer;
+                return;
+            }
+        }
+        Slots slots = central[cls];
+        for (int i = 0, n = slots.length(); i < n; i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+                return;
+            }
+        }
+        // pool full, leave it to the GC
+    }
+
+    /**
+     * @return number of buffers allocated because none was free
+     */
+    public static long getAllocatedCount() {
+        return allocated.sum();
+    }
+
+    /**
+     * @return number of requests served from the pool
+     */
+    public static long getReusedCount() {
+        return reused.sum();
+    }
+
+    /**
+     * @return number of leaked buffers detected so far; always 0 unless leak detection is enabled
+     */
+    public static long getLeakedCount() {
+        if (DEBUG) {
+            expungeLeaks();
+        }
+        return leaked.sum();
+    }
+
+    private static int classOf(int length) {
+        return length <= MIN_POOLED_LENGTH ? 0 : 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_SHIFT;
+    }
+
+    private static boolean isVirtualThread() {
+        if (isVirtual == null) {
+            return false;
+        }
+        try {
+            return (boolean) isVirtual.invokeExact(Thread.currentThread());
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    private static void expungeLeaks() {
+        Object ref;
+        while ((ref = collectedOwners.poll()) != null) {
+            Lease lease = (Lease) ref;
+            if (leases.remove(lease.buffer) != null) {
+                leaked.increment();
+                Log log = lease.log != null ? lease.log : LogFactory.getLogger(StandardLogger.class.getName(), Log.LOGGER_INSTANCE_NAME);
+                log.logWarn("Packet buffer leak: the owner of a pooled buffer was garbage collected without releasing it", lease.acquiredAt);
+            }
+        }
+    }
+}
@@ -70,21 +70,31 @@ public class ResultsetRowReader implements ProtocolEntityReader<ResultsetRow, Na
         NativePacketPayload rowPacket = null;
         NativePacketHeader hdr = this.protocol.getPacketReader().readHeader();
 
-        // read the entire packet(s)
-        rowPacket = this.protocol.getPacketReader()
-                .readMessage(rf.canReuseRowPacketForBufferRow() ? Optional.ofNullable(this.protocol.getReusablePacket()) : Optional.empty(), hdr);
-        this.protocol.checkErrorMessage(rowPacket);
-        // Didn't read an error, so re-position to beginning of packet in order to read result set data
-        rowPacket.setPosition(rowPacket.getPosition() - 1);
+        // rows that copy their values out of the packet are read into a pooled buffer, released once the row is built; a full first packet is followed
+        // by more, and the row factory decides on the reassembled length, so such rows are never pooled
+        NativePacketPayload pooledPacket = rf.canReuseRowPacketForBufferRow() || hdr.getMessageSize() == NativeConstants.MAX_PACKET_SIZE
+                || rf.retainsRowPacket(hdr.getMessageSize()) ? null : NativePacketPayload.acquire(hdr.getMessageSize(), this.protocol.getLog());
+        try {
+            // read the entire packet(s)
+            rowPacket = this.protocol.getPacketReader().readMessage(rf.canReuseRowPacketForBufferRow() ? Optional.ofNullable(this.protocol.getReusablePacket())
+                    : Optional.ofNullable(pooledPacket), hdr);
+            this.protocol.checkErrorMessage(rowPacket);
+            // Didn't read an error, so re-position to beginning of packet in order to read result set data
+            rowPacket.setPosition(rowPacket.getPosition() - 1);
 
-        // exit early with null if there's an EOF packet
-        if (!this.protocol.getServerSession().isEOFDeprecated() && rowPacket.isEOFPacket()
-                || this.protocol.getServerSession().isEOFDeprecated() && rowPacket.isResultSetOKPacket()) {
-            this.protocol.readServerStatusForResultSets(rowPacket, true);
-            return null;
-        }
+            // exit early with null if there's an EOF packet
+            if (!this.protocol.getServerSession().isEOFDeprecated() && rowPacket.isEOFPacket()
+                    || this.protocol.getServerSession().isEOFDeprecated() && rowPacket.isResultSetOKPacket()) {
+                this.protocol.readServerStatusForResultSets(rowPacket, true);
+                return null;
+            }
 
-        return sf.createFromMessage(rowPacket);
+            return sf.createFromMessage(rowPacket);
+        } finally {
+            if (pooledPacket != null) {
+                pooledPacket.release();
+            }
+        }
     }
 
 }
@@ -92,11 +92,9 @@ public class SimplePacketReader implements MessageReader<NativePacketHeader, Nat
                 // Set the Buffer to it's original state
                 buf.setPosition(0);
                 // Do we need to re-alloc the byte buffer?
-                if (buf.getByteBuffer().length < packetLength) {
-                    // Note: We actually check the length of the buffer, rather than getBufLength(), because getBufLength()
-                    // is not necessarily the actual length of the byte array used as the buffer
-                    buf.setByteBuffer(new byte[packetLength]);
-                }
+                // Note: We actually check the length of the buffer, rather than getBufLength(), because getBufLength()
+                // is not necessarily the actual length of the byte array used as the buffer
+                buf.ensureBufferLength(packetLength);
 
                 // Set the new length
                 buf.setPayloadLength(packetLength);
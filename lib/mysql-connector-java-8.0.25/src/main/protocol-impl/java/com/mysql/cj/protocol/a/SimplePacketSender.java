@@ -32,6 +32,7 @@ package com.mysql.cj.protocol.a;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 
+import com.mysql.cj.protocol.ChannelOutputStream;
 import com.mysql.cj.protocol.MessageSender;
 
 /**
@@ -47,6 +48,18 @@ public class SimplePacketSender implements MessageSender<NativePacketPayload> {
 
     public void send(byte[] packet, int packetLen, byte packetSequence) throws IOException {
         PacketSplitter packetSplitter = new PacketSplitter(packetLen);
+        if (this.outputStream instanceof ChannelOutputStream) {
+            // header and payload go out in one gathering write, without copying large payloads
+            ChannelOutputStream channelOutput = (ChannelOutputStream) this.outputStream;
+            byte[] header = new byte[4];
+            while (packetSplitter.nextPacket()) {
+                System.arraycopy(NativeUtils.encodeMysqlThreeByteInteger(packetSplitter.getPacketLen()), 0, header, 0, 3);
+                header[3] = packetSequence++;
+                channelOutput.writePacket(header, packet, packetSplitter.getOffset(), packetSplitter.getPacketLen());
+            }
+            this.outputStream.flush();
+            return;
+        }
         while (packetSplitter.nextPacket()) {
             this.outputStream.write(NativeUtils.encodeMysqlThreeByteInteger(packetSplitter.getPacketLen()));
             this.outputStream.write(packetSequence++);
@@ -37,11 +37,13 @@ import com.mysql.cj.protocol.ColumnDefinition;
 import com.mysql.cj.protocol.ProtocolEntityFactory;
 import com.mysql.cj.protocol.ProtocolEntityReader;
 import com.mysql.cj.protocol.Resultset;
+import com.mysql.cj.protocol.Resultset.Concurrency;
 import com.mysql.cj.protocol.ResultsetRow;
 import com.mysql.cj.protocol.ResultsetRows;
 import com.mysql.cj.protocol.a.NativeConstants.IntegerDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
 import com.mysql.cj.protocol.a.result.OkPacket;
+import com.mysql.cj.protocol.a.result.ResultsetRowsColumnar;
 import com.mysql.cj.protocol.a.result.ResultsetRowsStatic;
 import com.mysql.cj.protocol.a.result.ResultsetRowsStreaming;
 
@@ -77,17 +79,35 @@ public class TextResultsetReader implements ProtocolEntityReader<Resultset, Nati
 
             if (!streamResults) {
                 TextRowFactory trf = new TextRowFactory(this.protocol, cdef, resultSetFactory.getResultSetConcurrency(), false);
-                ArrayList<ResultsetRow> rowList = new ArrayList<>();
 
-                ResultsetRow row = this.protocol.read(ResultsetRow.class, trf);
-                while (row != null) {
-                    if ((maxRows == -1) || (rowList.size() < maxRows)) {
-                        rowList.add(row);
+                if (this.protocol.getPropertySet().getBooleanProperty(PropertyKey.useColumnarResultSets).getValue()
+                        && resultSetFactory.getResultSetConcurrency() == Concurrency.READ_ONLY) {
+                    ResultsetRowsColumnar columnar = new ResultsetRowsColumnar(cdef, false, this.protocol.getExceptionInterceptor());
+                    int rowCount = 0;
+                    ResultsetRow row = this.protocol.read(ResultsetRow.class, trf);
+                    while (row != null) {
+                        if ((maxRows == -1) || (rowCount < maxRows)) {
+                            columnar.append(row);
+                            rowCount++;
+                        }
+                        row = this.protocol.read(ResultsetRow.class, trf);
+                    }
+                    columnar.trimToSize();
+                    rows = columnar;
+
+                } else {
+                    ArrayList<ResultsetRow> rowList = new ArrayList<>();
+
+                    ResultsetRow row = this.protocol.read(ResultsetRow.class, trf);
+                    while (row != null) {
+                        if ((maxRows == -1) || (rowList.size() < maxRows)) {
+                            rowList.add(row);
+                        }
+                        row = this.protocol.read(ResultsetRow.class, trf);
                     }
-                    row = this.protocol.read(ResultsetRow.class, trf);
-                }
 
-                rows = new ResultsetRowsStatic(rowList, cdef);
+                    rows = new ResultsetRowsStatic(rowList, cdef);
+                }
 
             } else {
                 rows = new ResultsetRowsStreaming<>(this.protocol, cdef, false, resultSetFactory);
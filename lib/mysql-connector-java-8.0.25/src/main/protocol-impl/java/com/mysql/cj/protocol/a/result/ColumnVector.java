@@ -0,0 +1,684 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.a.result;
+
+import java.util.Arrays;
+
+import com.mysql.cj.MysqlType;
+import com.mysql.cj.result.Field;
+import com.mysql.cj.result.ValueFactory;
+
+/**
+ * Storage for the values of one column of a {@link ResultsetRowsColumnar}.
+ * <p>
+ * Fixed-width numeric and temporal values are kept in primitive arrays and turned back into their wire-level bytes when read, everything else is kept in a
+ * single byte arena per column. A vector only accepts values it can reproduce byte for byte; when {@link #append(byte[])} refuses a value the column is
+ * moved to an arena with {@link #toBytesVector()}.
+ */
+abstract class ColumnVector {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    static final byte[] EMPTY_BYTES = new byte[0];
+
+    /** Number of values in this vector. */
+    int size = 0;
+
+    /** Capacity of the value arrays. */
+    int capacity = 0;
+
+    /** One bit per row, set for NULL values. */
+    private long[] nulls = new long[0];
+
+    /**
+     * Creates the vector that best fits the wire representation of the given field.
+     * 
+     * @param field
+     *            column metadata
+     * @param binaryEncoded
+     *            true if the values come from the binary protocol
+     * @return an empty vector
+     */
+    static ColumnVector create(Field field, boolean binaryEncoded) {
+        int type = field.getMysqlTypeId();
+        if (binaryEncoded) {
+            switch (type) {
+                case MysqlType.FIELD_TYPE_TINY:
+                    return new IntVector(1);
+                case MysqlType.FIELD_TYPE_SHORT:
+                case MysqlType.FIELD_TYPE_YEAR:
+                    return new IntVector(2);
+                case MysqlType.FIELD_TYPE_LONG:
+                case MysqlType.FIELD_TYPE_INT24:
+                case MysqlType.FIELD_TYPE_FLOAT:
+                    return new IntVector(4);
+                case MysqlType.FIELD_TYPE_LONGLONG:
+                    return new LongVector(true);
+                case MysqlType.FIELD_TYPE_DOUBLE:
+                    return new DoubleVector();
+                case MysqlType.FIELD_TYPE_DATE:
+                case MysqlType.FIELD_TYPE_TIME:
+                case MysqlType.FIELD_TYPE_DATETIME:
+                case MysqlType.FIELD_TYPE_TIMESTAMP:
+                    return new BinaryTemporalVector();
+                default:
+                    return new BytesVector();
+            }
+        }
+
+        switch (type) {
+            case MysqlType.FIELD_TYPE_TINY:
+            case MysqlType.FIELD_TYPE_SHORT:
+            case MysqlType.FIELD_TYPE_INT24:
+            case MysqlType.FIELD_TYPE_YEAR:
+                return field.isZeroFill() ? new BytesVector() : new IntVector(0);
+            case MysqlType.FIELD_TYPE_LONG:
+                return field.isZeroFill() ? new BytesVector() : field.isUnsigned() ? new LongVector(false) : new IntVector(0);
+            case MysqlType.FIELD_TYPE_LONGLONG:
+                return field.isZeroFill() ? new BytesVector() : new LongVector(false);
+            case MysqlType.FIELD_TYPE_DATE:
+                return new TextTemporalVector(TextTemporalVector.DATE);
+            case MysqlType.FIELD_TYPE_DATETIME:
+            case MysqlType.FIELD_TYPE_TIMESTAMP:
+                return new TextTemporalVector(TextTemporalVector.DATETIME);
+            case MysqlType.FIELD_TYPE_TIME:
+                return new TextTemporalVector(TextTemporalVector.TIME);
+            default:
+                // floating point and decimal text can't be reproduced exactly from a primitive
+                return new BytesVector();
+        }
+    }
+
+    /**
+     * Appends a value.
+     * 
+     * @param value
+     *            wire-level bytes, null for SQL NULL
+     * @return false if this vector can't represent the value; nothing is appended then
+     */
+    final boolean append(byte[] value) {
+        if (this.size == this.capacity) {
+            int newCapacity = this.capacity == 0 ? INITIAL_CAPACITY : this.capacity + (this.capacity >> 1);
+            grow(newCapacity);
+            this.capacity = newCapacity;
+            int words = (newCapacity + 63) >>> 6;
+            if (words > this.nulls.length) {
+                this.nulls = Arrays.copyOf(this.nulls, words);
+            }
+        }
+
+        if (value == null) {
+            this.nulls[this.size >>> 6] |= 1L << this.size;
+            storeNull(this.size);
+        } else if (!store(this.size, value)) {
+            return false;
+        }
+        this.size++;
+        return true;
+    }
+
+    final boolean isNull(int row) {
+        return (this.nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Releases the spare capacity once all rows are appended.
+     */
+    void trimToSize() {
+        if (this.capacity > this.size) {
+            grow(this.size);
+            this.capacity = this.size;
+            this.nulls = Arrays.copyOf(this.nulls, (this.size + 63) >>> 6);
+        }
+    }
+
+    /**
+     * Copies this column into an arena, for a value that can't be kept in primitive form.
+     * 
+     * @return a {@link BytesVector} with the same values
+     */
+    BytesVector toBytesVector() {
+        BytesVector vector = new BytesVector();
+        for (int row = 0; row < this.size; row++) {
+            vector.append(isNull(row) ? null : getBytes(row));
+        }
+        return vector;
+    }
+
+    /**
+     * Resizes the value arrays.
+     * 
+     * @param newCapacity
+     *            number of rows the arrays should hold, never less than {@link #size}
+     */
+    abstract void grow(int newCapacity);
+
+    /**
+     * Fills the slot of a NULL value, if the storage needs it.
+     * 
+     * @param row
+     *            row index, always {@link #size}
+     */
+    void storeNull(int row) {
+    }
+
+    /**
+     * Stores a non-NULL value.
+     * 
+     * @param row
+     *            row index, always {@link #size}
+     * @param value
+     *            wire-level bytes
+     * @return false if the value can't be reproduced from this vector
+     */
+    abstract boolean store(int row, byte[] value);
+
+    /**
+     * Returns the wire-level bytes of a non-NULL value.
+     * 
+     * @param row
+     *            row index
+     * @return a new array for primitive vectors
+     */
+    abstract byte[] getBytes(int row);
+
+    /**
+     * Hands a non-NULL value to the row for decoding, without copying where the storage allows it.
+     * 
+     * @param row
+     *            row index
+     * @param view
+     *            the row being read
+     * @param columnIndex
+     *            column index
+     * @param vf
+     *            value factory
+     * @param <T>
+     *            value type
+     * @return the decoded value
+     */
+    <T> T decode(int row, ColumnarRow view, int columnIndex, ValueFactory<T> vf) {
+        byte[] bytes = getBytes(row);
+        return view.decode(columnIndex, bytes, 0, bytes.length, vf);
+    }
+
+    /**
+     * Reads an unsigned little-endian integer of up to 8 bytes.
+     */
+    static long readLittleEndian(byte[] b, int offset, int length) {
+        long value = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            value = (value << 8) | (b[offset + i] & 0xff);
+        }
+        return value;
+    }
+
+    static void writeLittleEndian(long value, byte[] b, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            b[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    /**
+     * Parses an integer written the way the server writes integer columns in text results: an optional minus sign and no leading zeros.
+     * 
+     * @param b
+     *            text
+     * @param min
+     *            lower bound
+     * @param max
+     *            upper bound
+     * @param out
+     *            receives the value
+     * @return false if the text is not in that form or the value is out of bounds
+     */
+    static boolean parseDecimal(byte[] b, long min, long max, long[] out) {
+        int len = b.length;
+        int i = len > 0 && b[0] == '-' ? 1 : 0;
+        int digits = len - i;
+        if (digits < 1 || digits > 19 || b[i] == '0' && (digits > 1 || i == 1)) {
+            return false;
+        }
+        // accumulate negatively so that Long.MIN_VALUE fits
+        long value = 0;
+        for (; i < len; i++) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9 || value < (Long.MIN_VALUE + d) / 10) {
+                return false;
+            }
+            value = value * 10 - d;
+        }
+        if (b[0] != '-') {
+            if (value == Long.MIN_VALUE) {
+                return false;
+            }
+            value = -value;
+        }
+        if (value < min || value > max) {
+            return false;
+        }
+        out[0] = value;
+        return true;
+    }
+
+    static byte[] formatDecimal(long value) {
+        byte[] buf = new byte[20];
+        int pos = buf.length;
+        long v = value < 0 ? value : -value;
+        do {
+            buf[--pos] = (byte) ('0' - (v % 10));
+            v /= 10;
+        } while (v != 0);
+        if (value < 0) {
+            buf[--pos] = '-';
+        }
+        return Arrays.copyOfRange(buf, pos, buf.length);
+    }
+
+    /**
+     * Integers of up to 4 bytes: binary TINY, SHORT, YEAR, LONG, INT24 and the raw bits of FLOAT, or text integers that fit an int.
+     */
+    static class IntVector extends ColumnVector {
+        /** Binary width in bytes, 0 for text. */
+        private final int width;
+        private int[] values = new int[0];
+        private final long[] parsed = new long[1];
+
+        IntVector(int width) {
+            this.width = width;
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            this.values = Arrays.copyOf(this.values, newCapacity);
+        }
+
+        @Override
+        boolean store(int row, byte[] value) {
+            if (this.width == 0) {
+                if (!parseDecimal(value, Integer.MIN_VALUE, Integer.MAX_VALUE, this.parsed)) {
+                    return false;
+                }
+                this.values[row] = (int) this.parsed[0];
+                return true;
+            }
+            if (value.length != this.width) {
+                return false;
+            }
+            this.values[row] = (int) readLittleEndian(value, 0, this.width);
+            return true;
+        }
+
+        @Override
+        byte[] getBytes(int row) {
+            if (this.width == 0) {
+                return formatDecimal(this.values[row]);
+            }
+            byte[] b = new byte[this.width];
+            writeLittleEndian(this.values[row], b, 0, this.width);
+            return b;
+        }
+    }
+
+    /**
+     * Binary LONGLONG, or text integers that fit a long.
+     */
+    static class LongVector extends ColumnVector {
+        private final boolean binaryEncoded;
+        private long[] values = new long[0];
+        private final long[] parsed = new long[1];
+
+        LongVector(boolean binaryEncoded) {
+            this.binaryEncoded = binaryEncoded;
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            this.values = Arrays.copyOf(this.values, newCapacity);
+        }
+
+        @Override
+        boolean store(int row, byte[] value) {
+            if (!this.binaryEncoded) {
+                // BIGINT UNSIGNED values past Long.MAX_VALUE are refused and move the column to an arena
+                if (!parseDecimal(value, Long.MIN_VALUE, Long.MAX_VALUE, this.parsed)) {
+                    return false;
+                }
+                this.values[row] = this.parsed[0];
+                return true;
+            }
+            if (value.length != 8) {
+                return false;
+            }
+            this.values[row] = readLittleEndian(value, 0, 8);
+            return true;
+        }
+
+        @Override
+        byte[] getBytes(int row) {
+            if (!this.binaryEncoded) {
+                return formatDecimal(this.values[row]);
+            }
+            byte[] b = new byte[8];
+            writeLittleEndian(this.values[row], b, 0, 8);
+            return b;
+        }
+    }
+
+    /**
+     * Binary DOUBLE.
+     */
+    static class DoubleVector extends ColumnVector {
+        private double[] values = new double[0];
+
+        @Override
+        void grow(int newCapacity) {
+            this.values = Arrays.copyOf(this.values, newCapacity);
+        }
+
+        @Override
+        boolean store(int row, byte[] value) {
+            if (value.length != 8) {
+                return false;
+            }
+            this.values[row] = Double.longBitsToDouble(readLittleEndian(value, 0, 8));
+            return true;
+        }
+
+        @Override
+        byte[] getBytes(int row) {
+            byte[] b = new byte[8];
+            writeLittleEndian(Double.doubleToRawLongBits(this.values[row]), b, 0, 8);
+            return b;
+        }
+    }
+
+    /**
+     * Binary DATE, TIME, DATETIME and TIMESTAMP. These are 0 to 12 bytes long; up to 8 bytes go to a long, the microseconds of longer values go to an int
+     * that is only allocated once such a value shows up.
+     */
+    static class BinaryTemporalVector extends ColumnVector {
+        private byte[] lengths = new byte[0];
+        private long[] heads = new long[0];
+        private int[] micros;
+
+        @Override
+        void grow(int newCapacity) {
+            this.lengths = Arrays.copyOf(this.lengths, newCapacity);
+            this.heads = Arrays.copyOf(this.heads, newCapacity);
+            if (this.micros != null) {
+                this.micros = Arrays.copyOf(this.micros, newCapacity);
+            }
+        }
+
+        @Override
+        boolean store(int row, byte[] value) {
+            int len = value.length;
+            if (len > 12) {
+                return false;
+            }
+            if (len > 8) {
+                if (this.micros == null) {
+                    this.micros = new int[this.capacity];
+                }
+                this.micros[row] = (int) readLittleEndian(value, len - 4, 4);
+                len -= 4;
+            }
+            this.heads[row] = readLittleEndian(value, 0, len);
+            this.lengths[row] = (byte) value.length;
+            return true;
+        }
+
+        @Override
+        byte[] getBytes(int row) {
+            int len = this.lengths[row];
+            byte[] b = new byte[len];
+            if (len > 8) {
+                len -= 4;
+                writeLittleEndian(this.micros[row], b, len, 4);
+            }
+            writeLittleEndian(this.heads[row], b, 0, len);
+            return b;
+        }
+    }
+
+    /**
+     * Text DATE ({@code YYYY-MM-DD}), DATETIME and TIMESTAMP ({@code YYYY-MM-DD hh:mm:ss[.f]}) and TIME ({@code [-]hh[h]:mm:ss[.f]}), packed into bit
+     * fields of a long. The fraction keeps its number of digits so the text comes back unchanged.
+     */
+    static class TextTemporalVector extends ColumnVector {
+        static final int DATE = 0;
+        static final int DATETIME = 1;
+        static final int TIME = 2;
+
+        private final int kind;
+        private long[] values = new long[0];
+
+        TextTemporalVector(int kind) {
+            this.kind = kind;
+        }
+
+        @Override
+        void grow(int newCapacity) {
+            this.values = Arrays.copyOf(this.values, newCapacity);
+        }
+
+        @Override
+        boolean store(int row, byte[] value) {
+            long packed = this.kind == TIME ? packTime(value) : packDateTime(value, this.kind == DATETIME);
+            if (packed < 0) {
+                return false;
+            }
+            this.values[row] = packed;
+            return true;
+        }
+
+        @Override
+        byte[] getBytes(int row) {
+            long v = this.values[row];
+            int fracLen = (int) (v >>> 20) & 0x7;
+            if (this.kind == TIME) {
+                // negative:1 | threeDigitHours:1 | hours:10 | minutes:6 | seconds:6 | fractionDigits:3 | fraction:20
+                boolean negative = (v >>> 46 & 1) != 0;
+                int hourDigits = (v >>> 45 & 1) != 0 ? 3 : 2;
+                byte[] b = new byte[(negative ? 1 : 0) + hourDigits + 6 + (fracLen > 0 ? fracLen + 1 : 0)];
+                int pos = 0;
+                if (negative) {
+                    b[pos++] = '-';
+                }
+                pos = putDigits(b, pos, (int) (v >>> 35) & 0x3ff, hourDigits);
+                b[pos++] = ':';
+                pos = putDigits(b, pos, (int) (v >>> 29) & 0x3f, 2);
+                b[pos++] = ':';
+                pos = putDigits(b, pos, (int) (v >>> 23) & 0x3f, 2);
+                putFraction(b, pos, v, fracLen);
+                return b;
+            }
+
+            // year:14 | month:4 | day:5 | hours:5 | minutes:6 | seconds:6 | fractionDigits:3 | fraction:20
+            byte[] b = new byte[this.kind == DATETIME ? 19 + (fracLen > 0 ? fracLen + 1 : 0) : 10];
+            int pos = putDigits(b, 0, (int) (v >>> 49) & 0x3fff, 4);
+            b[pos++] = '-';
+            pos = putDigits(b, pos, (int) (v >>> 45) & 0xf, 2);
+            b[pos++] = '-';
+            pos = putDigits(b, pos, (int) (v >>> 40) & 0x1f, 2);
+            if (this.kind == DATETIME) {
+                b[pos++] = ' ';
+                pos = putDigits(b, pos, (int) (v >>> 35) & 0x1f, 2);
+                b[pos++] = ':';
+                pos = putDigits(b, pos, (int) (v >>> 29) & 0x3f, 2);
+                b[pos++] = ':';
+                pos = putDigits(b, pos, (int) (v >>> 23) & 0x3f, 2);
+                putFraction(b, pos, v, fracLen);
+            }
+            return b;
+        }
+
+        private static long packDateTime(byte[] b, boolean withTime) {
+            int len = b.length;
+            if (withTime ? len < 19 || len == 20 || len > 26 : len != 10) {
+                return -1;
+            }
+            long year = digits(b, 0, 4);
+            long month = digits(b, 5, 2);
+            long day = digits(b, 8, 2);
+            if (b[4] != '-' || b[7] != '-' || year < 0 || month < 0 || month > 0xf || day < 0 || day > 0x1f) {
+                return -1;
+            }
+            long packed = year << 49 | month << 45 | day << 40;
+            if (!withTime) {
+                return packed;
+            }
+            long hours = digits(b, 11, 2);
+            if (b[10] != ' ' || hours < 0 || hours > 0x1f) {
+                return -1;
+            }
+            long rest = packClock(b, 13);
+            return rest < 0 ? -1 : packed | hours << 35 | rest;
+        }
+
+        private static long packTime(byte[] b) {
+            int pos = b.length > 0 && b[0] == '-' ? 1 : 0;
+            int hourDigits = b.length > pos + 2 && b[pos + 2] != ':' ? 3 : 2;
+            int end = pos + hourDigits;
+            if (b.length < end + 6 || b.length == end + 7 || b.length > end + 12) {
+                return -1;
+            }
+            long hours = digits(b, pos, hourDigits);
+            long rest = packClock(b, end);
+            if (hours < 0 || hours > 0x3ff || rest < 0) {
+                return -1;
+            }
+            return (long) pos << 46 | (hourDigits == 3 ? 1L : 0L) << 45 | hours << 35 | rest;
+        }
+
+        /**
+         * Packs {@code :mm:ss[.f]} up to the end of the value.
+         */
+        private static long packClock(byte[] b, int pos) {
+            long minutes = digits(b, pos + 1, 2);
+            long seconds = digits(b, pos + 4, 2);
+            if (b[pos] != ':' || b[pos + 3] != ':' || minutes < 0 || minutes > 0x3f || seconds < 0 || seconds > 0x3f) {
+                return -1;
+            }
+            long packed = minutes << 29 | seconds << 23;
+            pos += 6;
+            if (pos < b.length) {
+                int fracLen = b.length - pos - 1;
+                long fraction = digits(b, pos + 1, fracLen);
+                if (b[pos] != '.' || fracLen < 1 || fracLen > 6 || fraction < 0) {
+                    return -1;
+                }
+                packed |= (long) fracLen << 20 | fraction;
+            }
+            return packed;
+        }
+
+        private static long digits(byte[] b, int pos, int count) {
+            long value = 0;
+            for (int i = pos; i < pos + count; i++) {
+                int d = b[i] - '0';
+                if (d < 0 || d > 9) {
+                    return -1;
+                }
+                value = value * 10 + d;
+            }
+            return value;
+        }
+
+        private static int putDigits(byte[] b, int pos, int value, int count) {
+            for (int i = pos + count - 1; i >= pos; i--) {
+                b[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            return pos + count;
+        }
+
+        private static void putFraction(byte[] b, int pos, long v, int fracLen) {
+            if (fracLen > 0) {
+                b[pos++] = '.';
+                putDigits(b, pos, (int) v & 0xfffff, fracLen);
+            }
+        }
+    }
+
+    /**
+     * Variable-length values, stored back to back in one arena with an offsets array.
+     */
+    static class BytesVector extends ColumnVector {
+        private byte[] arena = EMPTY_BYTES;
+        private int arenaLength = 0;
+        /** Start of each value; the value of row i ends at offsets[i + 1]. */
+        private int[] offsets = new int[1];
+
+        @Override
+        void grow(int newCapacity) {
+            this.offsets = Arrays.copyOf(this.offsets, newCapacity + 1);
+        }
+
+        @Override
+        void trimToSize() {
+            super.trimToSize();
+            if (this.arena.length > this.arenaLength) {
+                this.arena = Arrays.copyOf(this.arena, this.arenaLength);
+            }
+        }
+
+        @Override
+        void storeNull(int row) {
+            this.offsets[row + 1] = this.arenaLength;
+        }
+
+        @Override
+        boolean store(int row, byte[] value) {
+            int len = value.length;
+            if (this.arenaLength + len > this.arena.length) {
+                long newLength = Math.max(this.arenaLength + (long) len, this.arena.length + (this.arena.length >> 1) + 64);
+                this.arena = Arrays.copyOf(this.arena, (int) Math.min(newLength, Integer.MAX_VALUE - 8));
+            }
+            System.arraycopy(value, 0, this.arena, this.arenaLength, len);
+            this.arenaLength += len;
+            this.offsets[row + 1] = this.arenaLength;
+            return true;
+        }
+
+        @Override
+        byte[] getBytes(int row) {
+            return Arrays.copyOfRange(this.arena, this.offsets[row], this.offsets[row + 1]);
+        }
+
+        @Override
+        <T> T decode(int row, ColumnarRow view, int columnIndex, ValueFactory<T> vf) {
+            int offset = this.offsets[row];
+            return view.decode(columnIndex, this.arena, offset, this.offsets[row + 1] - offset, vf);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.a.result;
+
+import com.mysql.cj.Messages;
+import com.mysql.cj.exceptions.CJOperationNotSupportedException;
+import com.mysql.cj.exceptions.ExceptionFactory;
+import com.mysql.cj.exceptions.ExceptionInterceptor;
+import com.mysql.cj.protocol.ValueDecoder;
+import com.mysql.cj.protocol.a.MysqlBinaryValueDecoder;
+import com.mysql.cj.protocol.result.AbstractResultsetRow;
+import com.mysql.cj.result.ValueFactory;
+
+/**
+ * A view of one row of a {@link ResultsetRowsColumnar}. It holds no data of its own, so it is cheap to create for each row visited.
+ */
+class ColumnarRow extends AbstractResultsetRow {
+
+    private final ColumnVector[] columns;
+    private final int row;
+
+    ColumnarRow(ColumnVector[] columns, int row, ExceptionInterceptor exceptionInterceptor, ValueDecoder valueDecoder) {
+        super(exceptionInterceptor);
+
+        this.columns = columns;
+        this.row = row;
+        this.valueDecoder = valueDecoder;
+    }
+
+    @Override
+    public boolean isBinaryEncoded() {
+        return this.valueDecoder instanceof MysqlBinaryValueDecoder;
+    }
+
+    @Override
+    public byte[] getBytes(int index) {
+        if (getNull(index)) {
+            return null;
+        }
+        return this.columns[index].getBytes(this.row);
+    }
+
+    /**
+     * Columnar rows are only built for read-only result sets.
+     */
+    @Override
+    public void setBytes(int index, byte[] value) {
+        throw ExceptionFactory.createException(CJOperationNotSupportedException.class, Messages.getString("OperationNotSupportedException.0"),
+                this.exceptionInterceptor);
+    }
+
+    @Override
+    public boolean getNull(int columnIndex) {
+        this.wasNull = this.columns[columnIndex].isNull(this.row);
+        return this.wasNull;
+    }
+
+    @Override
+    public <T> T getValue(int columnIndex, ValueFactory<T> vf) {
+        if (getNull(columnIndex)) {
+            return vf.createFromNull();
+        }
+        return this.columns[columnIndex].decode(this.row, this, columnIndex, vf);
+    }
+
+    /**
+     * Called back by the column vector with the wire-level bytes of a non-NULL value.
+     */
+    <T> T decode(int columnIndex, byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        return getValueFromBytes(columnIndex, bytes, offset, length, vf);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.a.result;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import com.mysql.cj.result.Row;
+
+/**
+ * Bounded single-producer/single-consumer queue handing rows from the read-ahead thread of a {@link ResultsetRowsStreaming} to the application thread.
+ * <p>
+ * The queue is guarded by the lock of the connection the rows are read from. The producer holds it while it reads a batch of rows, so that it never uses
+ * the connection at the same time as another thread; waiting on either side releases it, however many times the waiting thread holds it. The producer
+ * waits until half of the slots are free, which keeps it at most {@code capacity} rows ahead and makes it read in batches rather than row by row, and ends
+ * a batch early when the consumer waits for a row.
+ */
+class ReadAheadRowQueue {
+
+    private final Row[] slots;
+    private final int mask;
+
+    /** Number of free slots the producer waits for before it reads the next batch. */
+    private final int batchSlots;
+
+    private final Lock lock;
+    private final Condition rowsTaken;
+    private final Condition rowsPut;
+
+    /** Index of the next row to take. */
+    private long head = 0;
+
+    /** Index of the next free slot. */
+    private long tail = 0;
+
+    /** Set while the consumer waits for a row. */
+    private boolean consumerWaiting = false;
+
+    /** Set by the producer once it put its last row. */
+    private boolean finished = false;
+
+    /** What ended the producer, if it didn't reach the end of the rows. */
+    private Throwable failure;
+
+    /** Set by the consumer when it doesn't want more rows. */
+    private boolean cancelled = false;
+
+    /** Rows the producer dropped after the consumer cancelled. */
+    private int droppedRows = 0;
+
+    /**
+     * @param capacity
+     *            maximum number of queued rows, rounded up to a power of two
+     * @param lock
+     *            the lock of the connection the rows are read from
+     */
+    ReadAheadRowQueue(int capacity, Lock lock) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new Row[size];
+        this.mask = size - 1;
+        this.batchSlots = Math.max(1, size / 2);
+        this.lock = lock;
+        this.rowsTaken = lock.newCondition();
+        this.rowsPut = lock.newCondition();
+    }
+
+    /**
+     * Returns the lock guarding this queue, to be held by the producer while it reads and puts a batch of rows.
+     * 
+     * @return the connection lock
+     */
+    Lock getLock() {
+        return this.lock;
+    }
+
+    /**
+     * Waits until a batch of rows can be put. The caller must hold the lock, which is released while waiting.
+     * 
+     * @return the number of rows to read and put in this batch; after {@link #cancel()} they are dropped
+     */
+    int awaitBatch() {
+        while (!this.cancelled && this.slots.length - (this.tail - this.head) < this.batchSlots) {
+            this.rowsTaken.awaitUninterruptibly();
+        }
+        return this.cancelled ? this.slots.length : (int) (this.slots.length - (this.tail - this.head));
+    }
+
+    /**
+     * Adds a row into a slot reserved by {@link #awaitBatch()}. The caller must hold the lock.
+     * 
+     * @param row
+     *            the row
+     * @return false if the producer should end its batch and give the lock to the waiting consumer
+     */
+    boolean put(Row row) {
+        if (this.cancelled) {
+            this.droppedRows++;
+            return true;
+        }
+        this.slots[(int) this.tail & this.mask] = row;
+        this.tail++;
+        this.rowsPut.signal();
+        return !this.consumerWaiting;
+    }
+
+    /**
+     * Marks the end of the rows.
+     * 
+     * @param cause
+     *            the exception that stopped the producer, or null when all rows were read
+     */
+    void finish(Throwable cause) {
+        this.lock.lock();
+        try {
+            this.failure = cause;
+            this.finished = true;
+            this.rowsPut.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next row, waiting until one is queued.
+     * 
+     * @return the row, or null once the producer finished and the queue is empty, or after {@link #cancel()}
+     */
+    Row take() {
+        this.lock.lock();
+        try {
+            if (this.cancelled) {
+                return null;
+            }
+            while (this.head == this.tail) {
+                if (this.finished) {
+                    return null;
+                }
+                this.consumerWaiting = true;
+                try {
+                    this.rowsPut.awaitUninterruptibly();
+                } finally {
+                    this.consumerWaiting = false;
+                }
+            }
+            int index = (int) this.head & this.mask;
+            Row row = this.slots[index];
+            this.slots[index] = null;
+            this.head++;
+            if (this.slots.length - (this.tail - this.head) == this.batchSlots) {
+                this.rowsTaken.signal();
+            }
+            return row;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Tells the producer to drop the rows it still reads.
+     */
+    void cancel() {
+        this.lock.lock();
+        try {
+            this.cancelled = true;
+            this.rowsTaken.signal();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the producer finished.
+     */
+    void awaitFinished() {
+        this.lock.lock();
+        try {
+            while (!this.finished) {
+                this.rowsPut.awaitUninterruptibly();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of rows read but never taken because of {@link #cancel()}. Only meaningful once the producer finished.
+     * 
+     * @return number of rows
+     */
+    int getSkippedRows() {
+        this.lock.lock();
+        try {
+            return this.droppedRows + (int) (this.tail - this.head);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    Throwable getFailure() {
+        this.lock.lock();
+        try {
+            return this.failure;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.a.result;
+
+import com.mysql.cj.exceptions.ExceptionInterceptor;
+import com.mysql.cj.protocol.ColumnDefinition;
+import com.mysql.cj.protocol.ResultsetRows;
+import com.mysql.cj.protocol.ValueDecoder;
+import com.mysql.cj.protocol.a.MysqlBinaryValueDecoder;
+import com.mysql.cj.protocol.a.MysqlTextValueDecoder;
+import com.mysql.cj.result.Field;
+import com.mysql.cj.result.Row;
+
+/**
+ * Represents an in-memory, read-only result set stored by column instead of by row.
+ * <p>
+ * Integer, floating point and temporal columns are kept in primitive arrays, other columns in one byte arena per column, so a cell costs a few bytes
+ * instead of a byte array of its own. Rows handed out by {@link #get(int)} and {@link #next()} are views over these columns. Values keep the exact wire
+ * representation, so they decode the same way they do from {@link ResultsetRowsStatic}.
+ * <p>
+ * Rows can't be added, removed or changed, which is why this is only used for result sets with {@code CONCUR_READ_ONLY}.
+ */
+public class ResultsetRowsColumnar extends AbstractResultsetRows implements ResultsetRows {
+
+    private final ColumnVector[] columns;
+
+    private final ExceptionInterceptor exceptionInterceptor;
+
+    private final ValueDecoder valueDecoder;
+
+    private int size = 0;
+
+    /**
+     * Creates an empty ResultsetRowsColumnar; rows are added with {@link #append(Row)}.
+     * 
+     * @param columnDefinition
+     *            {@link ColumnDefinition} for this result set
+     * @param binaryEncoded
+     *            true if the rows come from the binary protocol
+     * @param exceptionInterceptor
+     *            {@link ExceptionInterceptor}
+     */
+    public ResultsetRowsColumnar(ColumnDefinition columnDefinition, boolean binaryEncoded, ExceptionInterceptor exceptionInterceptor) {
+        this.currentPositionInFetchedRows = -1;
+        this.metadata = columnDefinition;
+        this.exceptionInterceptor = exceptionInterceptor;
+        this.valueDecoder = binaryEncoded ? new MysqlBinaryValueDecoder() : new MysqlTextValueDecoder();
+
+        Field[] fields = columnDefinition.getFields();
+        this.columns = new ColumnVector[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            this.columns[i] = ColumnVector.create(fields[i], binaryEncoded);
+        }
+    }
+
+    /**
+     * Copies the values of a row read from the server into the columns.
+     * 
+     * @param row
+     *            the row
+     */
+    public void append(Row row) {
+        for (int i = 0; i < this.columns.length; i++) {
+            byte[] value = row.getBytes(i);
+            if (!this.columns[i].append(value)) {
+                this.columns[i] = this.columns[i].toBytesVector();
+                this.columns[i].append(value);
+            }
+        }
+        this.size++;
+    }
+
+    /**
+     * Releases the spare capacity of the columns, once all rows are appended.
+     */
+    public void trimToSize() {
+        for (ColumnVector column : this.columns) {
+            column.trimToSize();
+        }
+    }
+
+    @Override
+    public void afterLast() {
+        if (this.size > 0) {
+            this.currentPositionInFetchedRows = this.size;
+        }
+    }
+
+    @Override
+    public void beforeFirst() {
+        if (this.size > 0) {
+            this.currentPositionInFetchedRows = -1;
+        }
+    }
+
+    @Override
+    public void beforeLast() {
+        if (this.size > 0) {
+            this.currentPositionInFetchedRows = this.size - 2;
+        }
+    }
+
+    @Override
+    public Row get(int atIndex) {
+        if ((atIndex < 0) || (atIndex >= this.size)) {
+            return null;
+        }
+
+        return new ColumnarRow(this.columns, atIndex, this.exceptionInterceptor, this.valueDecoder).setMetadata(this.metadata);
+    }
+
+    @Override
+    public int getPosition() {
+        return this.currentPositionInFetchedRows;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return (this.currentPositionInFetchedRows + 1) < this.size;
+    }
+
+    @Override
+    public boolean isAfterLast() {
+        return this.currentPositionInFetchedRows >= this.size && this.size != 0;
+    }
+
+    @Override
+    public boolean isBeforeFirst() {
+        return this.currentPositionInFetchedRows == -1 && this.size != 0;
+    }
+
+    @Override
+    public boolean isDynamic() {
+        return false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public boolean isFirst() {
+        return this.currentPositionInFetchedRows == 0;
+    }
+
+    @Override
+    public boolean isLast() {
+        // You can never be on the 'last' row of an empty result set
+        if (this.size == 0) {
+            return false;
+        }
+
+        return (this.currentPositionInFetchedRows == (this.size - 1));
+    }
+
+    @Override
+    public void moveRowRelative(int rowsToMove) {
+        if (this.size > 0) {
+            this.currentPositionInFetchedRows += rowsToMove;
+            if (this.currentPositionInFetchedRows < -1) {
+                beforeFirst();
+            } else if (this.currentPositionInFetchedRows > this.size) {
+                afterLast();
+            }
+        }
+    }
+
+    @Override
+    public Row next() {
+        this.currentPositionInFetchedRows++;
+
+        if (this.currentPositionInFetchedRows > this.size) {
+            afterLast();
+        } else if (this.currentPositionInFetchedRows < this.size) {
+            return get(this.currentPositionInFetchedRows);
+        }
+
+        return null;
+    }
+
+    @Override
+    public void setCurrentRow(int newIndex) {
+        this.currentPositionInFetchedRows = newIndex;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean wasEmpty() {
+        return this.size == 0;
+    }
+}
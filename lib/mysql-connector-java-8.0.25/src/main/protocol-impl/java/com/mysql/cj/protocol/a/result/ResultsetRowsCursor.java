@@ -31,8 +31,12 @@ package com.mysql.cj.protocol.a.result;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.Messages;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.exceptions.CJCommunicationsException;
+import com.mysql.cj.exceptions.CJException;
 import com.mysql.cj.exceptions.ExceptionFactory;
 import com.mysql.cj.protocol.ColumnDefinition;
 import com.mysql.cj.protocol.Resultset.Concurrency;
@@ -47,6 +51,10 @@ import com.mysql.cj.result.Row;
  * Model for result set data backed by a cursor (see http://dev.mysql.com/doc/refman/5.7/en/cursors.html and
  * SERVER_STATUS_CURSOR_EXISTS flag description on http://dev.mysql.com/doc/internals/en/status-flags.html).
  * Only works for forward-only result sets (but still works with updatable concurrency).
+ * <p>
+ * With 'useCursorPrefetch' the COM_STMT_FETCH for the next block of rows is sent as soon as a block has been read, so the server produces that block while
+ * the application works through the current one. At most two blocks are held in memory: the one being consumed and, if another command had to use the
+ * connection in the meantime, the one that was read off the wire to make room for it.
  */
 public class ResultsetRowsCursor extends AbstractResultsetRows implements ResultsetRows {
 
@@ -55,6 +63,11 @@ public class ResultsetRowsCursor extends AbstractResultsetRows implements Result
      */
     private List<Row> fetchedRows;
 
+    /**
+     * An emptied block list kept for reuse by the next fetch.
+     */
+    private List<Row> spareRows;
+
     /**
      * Where we are positionaly in the entire result set, used mostly to
      * facilitate easy 'isBeforeFirst()' and 'isFirst()' methods.
@@ -78,6 +91,31 @@ public class ResultsetRowsCursor extends AbstractResultsetRows implements Result
 
     protected NativeMessageBuilder commandBuilder = new NativeMessageBuilder(); // TODO use shared builder
 
+    /**
+     * Should the next block be requested before the current one is consumed?
+     */
+    private boolean prefetch;
+
+    /**
+     * Has a COM_STMT_FETCH been sent whose response was not read yet?
+     */
+    private boolean prefetchPending = false;
+
+    /**
+     * The next block, if it had to be read before the application asked for it.
+     */
+    private List<Row> prefetchedRows;
+
+    /**
+     * Did the server report the end of the cursor after the block in {@link #prefetchedRows}?
+     */
+    private boolean prefetchedLastRow = false;
+
+    /**
+     * The server's error response to a prefetch, thrown when the application gets to the rows it stands for.
+     */
+    private CJException prefetchFailure;
+
     /**
      * Creates a new cursor-backed row provider.
      * 
@@ -91,6 +129,7 @@ public class ResultsetRowsCursor extends AbstractResultsetRows implements Result
         this.metadata = columnDefinition;
         this.protocol = ioChannel;
         this.rowFactory = new BinaryRowFactory(this.protocol, this.metadata, Concurrency.READ_ONLY, false);
+        this.prefetch = this.protocol.getPropertySet().getBooleanProperty(PropertyKey.useCursorPrefetch).getValue();
     }
 
     @Override
@@ -125,6 +164,16 @@ public class ResultsetRowsCursor extends AbstractResultsetRows implements Result
 
     @Override
     public void close() {
+        if (this.prefetchPending) {
+            // the response to the prefetch still has to come off the wire before the connection can be used again
+            try {
+                this.protocol.completePrefetch();
+            } catch (CJException ex) {
+                // the connection is broken, the next command will tell
+            }
+        }
+        this.prefetchedRows = null;
+        this.prefetchFailure = null;
 
         this.metadata = null;
         this.owner = null;
@@ -203,7 +252,9 @@ public class ResultsetRowsCursor extends AbstractResultsetRows implements Result
             return;
         }
 
-        synchronized (this.owner.getSyncMutex()) {
+        Lock lock = this.owner.getSyncLock();
+        lock.lock();
+        try {
             try {
                 boolean oldFirstFetchCompleted = this.firstFetchCompleted;
 
@@ -223,38 +274,88 @@ public class ResultsetRowsCursor extends AbstractResultsetRows implements Result
                     numRowsToFetch = 1;
                 }
 
-                if (this.fetchedRows == null) {
-                    this.fetchedRows = new ArrayList<>(numRowsToFetch);
-                } else {
-                    this.fetchedRows.clear();
+                if (this.prefetchedRows == null && this.prefetchFailure == null) {
+                    if (!this.prefetchPending) {
+                        sendFetch(numRowsToFetch);
+                    }
+                    readPrefetchedRows();
                 }
 
-                // TODO this is not the right place for this code, should be in protocol
-                this.protocol.sendCommand(
-                        this.commandBuilder.buildComStmtFetch(this.protocol.getSharedSendPacket(), this.owner.getOwningStatementServerId(), numRowsToFetch),
-                        true, 0);
-
-                Row row = null;
+                if (this.prefetchFailure != null) {
+                    CJException failure = this.prefetchFailure;
+                    this.prefetchFailure = null;
+                    throw failure;
+                }
 
-                while ((row = this.protocol.read(ResultsetRow.class, this.rowFactory)) != null) {
-                    this.fetchedRows.add(row);
+                // the block consumed so far becomes the buffer for the next one
+                List<Row> spareRows = this.fetchedRows;
+                this.fetchedRows = this.prefetchedRows;
+                this.prefetchedRows = null;
+                if (spareRows != null) {
+                    spareRows.clear();
                 }
+                this.spareRows = spareRows;
 
                 this.currentPositionInFetchedRows = BEFORE_START_OF_ROWS;
 
-                if (this.protocol.getServerSession().isLastRowSent()) {
+                if (this.prefetchedLastRow) {
                     this.lastRowFetched = true;
 
                     if (!oldFirstFetchCompleted && this.fetchedRows.size() == 0) {
                         this.wasEmpty = true;
                     }
+                } else if (this.prefetch) {
+                    sendFetch(numRowsToFetch);
+                    this.protocol.setPrefetchingCursor(this);
                 }
             } catch (Exception ex) {
                 throw ExceptionFactory.createException(ex.getMessage(), ex);
             }
+        } finally {
+            lock.unlock();
         }
     }
 
+    private void sendFetch(int numRowsToFetch) {
+        // TODO this is not the right place for this code, should be in protocol
+        this.protocol.sendCommand(
+                this.commandBuilder.buildComStmtFetch(this.protocol.getSharedSendPacket(), this.owner.getOwningStatementServerId(), numRowsToFetch), true,
+                0);
+        this.prefetchPending = true;
+    }
+
+    /**
+     * Reads the response to the last COM_STMT_FETCH into the spare block. Called by {@link NativeProtocol} when another command needs the connection while
+     * a prefetch is outstanding, and by this cursor when the application gets to the next block.
+     */
+    public void readPrefetchedRows() {
+        if (!this.prefetchPending) {
+            return;
+        }
+        this.prefetchPending = false;
+
+        List<Row> rows = this.spareRows != null ? this.spareRows : new ArrayList<>();
+        this.spareRows = null;
+        try {
+            Row row = null;
+
+            while ((row = this.protocol.read(ResultsetRow.class, this.rowFactory)) != null) {
+                rows.add(row);
+            }
+        } catch (CJCommunicationsException ex) {
+            throw ex;
+        } catch (CJException ex) {
+            // an error response; the connection is still usable
+            this.prefetchFailure = ex;
+            return;
+        } catch (Exception ex) {
+            throw ExceptionFactory.createException(ex.getMessage(), ex);
+        }
+
+        this.prefetchedRows = rows;
+        this.prefetchedLastRow = this.protocol.getServerSession().isLastRowSent();
+    }
+
     @Override
     public void addRow(Row row) {
         // TODO consider to handle additional List<Row> addedRows along with fetchedRows
@@ -29,7 +29,14 @@
 
 package com.mysql.cj.protocol.a.result;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
 import com.mysql.cj.Messages;
+import com.mysql.cj.conf.PropertyDefinitions;
 import com.mysql.cj.conf.PropertyKey;
 import com.mysql.cj.exceptions.CJException;
 import com.mysql.cj.exceptions.ExceptionFactory;
@@ -55,6 +62,11 @@ import com.mysql.cj.util.Util;
  * input stream only on {@link #next()} call. Consumed rows are not cached thus
  * we only stream result sets when they are forward-only, read-only, and the
  * fetch size has been set to Integer.MIN_VALUE (rows are read one by one).
+ * <p>
+ * With 'streamingReadAheadRows' set, the rows are read and unpacked on a helper thread instead, up to that many rows ahead of {@link #next()}, so that
+ * network waits and row decoding overlap with the application's work. The helper thread holds the connection lock while it reads a batch of rows and
+ * releases it in between, while {@link #next()} releases it while waiting for a row; {@link #close()} makes the helper thread drop the rows it still
+ * reads and waits for it.
  * 
  * @param <T>
  *            ProtocolEntity type
@@ -79,6 +91,38 @@ public class ResultsetRowsStreaming<T extends ProtocolEntity> extends AbstractRe
 
     private NativeMessageBuilder commandBuilder = new NativeMessageBuilder(); // TODO use shared builder
 
+    /** Used to drain the rows on close when there is no owner to lock. */
+    private final ReentrantLock rowsLock = new ReentrantLock();
+
+    /** Maximum number of rows read ahead on a helper thread, 0 to read each row in {@link #next()}. */
+    private int readAheadRows;
+
+    /** Rows read ahead, created on the first {@link #next()}. */
+    private ReadAheadRowQueue readAheadQueue;
+
+    /**
+     * Holder of the executor running the read-ahead threads, created on first use.
+     */
+    private static class ReadAheadExecutor {
+        static final Executor EXECUTOR = createExecutor();
+
+        private static Executor createExecutor() {
+            if (!"platform".equalsIgnoreCase(System.getProperty(PropertyDefinitions.SYSP_readAheadThreads))) {
+                try {
+                    return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    // virtual threads are not supported by this JVM
+                }
+            }
+            AtomicInteger threadNumber = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "Streaming result set read-ahead thread " + threadNumber.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
     /**
      * Creates a new RowDataDynamic object.
      * 
@@ -98,19 +142,34 @@ public class ResultsetRowsStreaming<T extends ProtocolEntity> extends AbstractRe
         this.metadata = columnDefinition;
         this.exceptionInterceptor = this.protocol.getExceptionInterceptor();
         this.resultSetFactory = resultSetFactory;
-        this.rowFactory = this.isBinaryEncoded ? new BinaryRowFactory(this.protocol, this.metadata, Concurrency.READ_ONLY, true)
-                : new TextRowFactory(this.protocol, this.metadata, Concurrency.READ_ONLY, true);
+        this.readAheadRows = this.protocol.getPropertySet().getIntegerProperty(PropertyKey.streamingReadAheadRows).getValue();
+        // rows waiting in the read-ahead queue can't share the reusable packet
+        boolean canReuseRowPacket = this.readAheadRows == 0;
+        this.rowFactory = this.isBinaryEncoded ? new BinaryRowFactory(this.protocol, this.metadata, Concurrency.READ_ONLY, canReuseRowPacket)
+                : new TextRowFactory(this.protocol, this.metadata, Concurrency.READ_ONLY, canReuseRowPacket);
     }
 
     @Override
     public void close() {
 
-        Object mutex = this.owner != null && this.owner.getSyncMutex() != null ? this.owner.getSyncMutex() : this;
+        Lock lock = this.owner != null && this.owner.getSyncLock() != null ? this.owner.getSyncLock() : this.rowsLock;
 
         boolean hadMore = false;
         int howMuchMore = 0;
 
-        synchronized (mutex) {
+        lock.lock();
+        try {
+            if (this.readAheadQueue != null) {
+                // the read-ahead thread still has to take the rest of the records off the wire
+                this.readAheadQueue.cancel();
+                this.readAheadQueue.awaitFinished();
+                howMuchMore = this.readAheadQueue.getSkippedRows();
+                hadMore = howMuchMore > 0;
+            } else {
+                // not started, no point in starting it now
+                this.readAheadRows = 0;
+            }
+
             // drain the rest of the records.
             while (next() != null) {
                 hadMore = true;
@@ -142,6 +201,8 @@ public class ResultsetRowsStreaming<T extends ProtocolEntity> extends AbstractRe
                             Messages.getString("RowDataDynamic.1", new String[] { String.valueOf(howMuchMore), this.owner.getPointOfOrigin() }));
                 }
             }
+        } finally {
+            lock.unlock();
         }
 
         this.metadata = null;
@@ -190,7 +251,7 @@ public class ResultsetRowsStreaming<T extends ProtocolEntity> extends AbstractRe
     public Row next() {
         try {
             if (!this.noMoreRows) {
-                this.nextRow = this.protocol.read(ResultsetRow.class, this.rowFactory);
+                this.nextRow = this.readAheadRows > 0 ? takeReadAheadRow() : this.protocol.read(ResultsetRow.class, this.rowFactory);
 
                 if (this.nextRow == null) {
                     this.noMoreRows = true;
@@ -243,6 +304,60 @@ public class ResultsetRowsStreaming<T extends ProtocolEntity> extends AbstractRe
         }
     }
 
+    /**
+     * Takes the next row from the read-ahead queue, starting the read-ahead thread on the first call.
+     * 
+     * @return the row, or null after the last one
+     * @throws Exception
+     *             the exception that stopped the read-ahead thread
+     */
+    private Row takeReadAheadRow() throws Exception {
+        if (this.readAheadQueue == null) {
+            Lock lock = this.owner != null && this.owner.getSyncLock() != null ? this.owner.getSyncLock() : this.rowsLock;
+            ReadAheadRowQueue queue = new ReadAheadRowQueue(this.readAheadRows, lock);
+            ReadAheadExecutor.EXECUTOR.execute(() -> {
+                try {
+                    boolean more = true;
+                    while (more) {
+                        // like any other user of the connection, the read-ahead thread holds its lock while it reads
+                        lock.lock();
+                        try {
+                            for (int batch = queue.awaitBatch(); batch > 0; batch--) {
+                                Row row = this.protocol.read(ResultsetRow.class, this.rowFactory);
+                                if (row == null) {
+                                    more = false;
+                                    break;
+                                }
+                                if (!queue.put(row)) {
+                                    break;
+                                }
+                            }
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                    queue.finish(null);
+                } catch (Throwable t) {
+                    queue.finish(t);
+                }
+            });
+            this.readAheadQueue = queue;
+        }
+
+        Row row = this.readAheadQueue.take();
+        if (row == null) {
+            // the read-ahead thread is done with the connection
+            this.readAheadQueue.awaitFinished();
+            Throwable failure = this.readAheadQueue.getFailure();
+            if (failure instanceof Exception) {
+                throw (Exception) failure;
+            } else if (failure != null) {
+                throw (Error) failure;
+            }
+        }
+        return row;
+    }
+
     public int getPosition() {
         throw ExceptionFactory.createException(Messages.getString("ResultSet.ForwardOnly"));
     }
@@ -66,6 +66,7 @@ public class CompressionAlgorithm {
         HashMap<String, CompressionAlgorithm> defaultInstances = new HashMap<>();
         defaultInstances.put("deflate_stream",
                 new CompressionAlgorithm("deflate_stream", InflaterInputStream.class.getName(), SyncFlushDeflaterOutputStream.class.getName()));
+        defaultInstances.put("lz4_message", new CompressionAlgorithm("lz4_message", Lz4FrameInputStream.class.getName(), Lz4FrameOutputStream.class.getName()));
         return defaultInstances;
     }
 
@@ -41,6 +41,16 @@ public class ContinuousOutputStream extends FilterOutputStream {
         super(out);
     }
 
+    /**
+     * Forwards the whole array slice to the underlying {@link OutputStream}, instead of writing it one byte at a time as {@link FilterOutputStream} does.
+     * 
+     * @see FilterOutputStream#write(byte[], int, int)
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.out.write(b, off, len);
+    }
+
     /**
      * Instead of closing the {@link OutputStream} flushes its data.
      */
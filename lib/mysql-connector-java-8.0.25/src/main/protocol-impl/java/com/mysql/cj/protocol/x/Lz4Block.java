@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.x;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * LZ4 block format compressor and decompressor. The compressor is the greedy single-pass variant of the reference implementation ("LZ4 fast"), which
+ * trades some ratio for speed.
+ */
+final class Lz4Block {
+    static final int MIN_MATCH = 4;
+    /** The last literals of a block are never part of a match. */
+    static final int LAST_LITERALS = 5;
+    /** A match may not start within the last bytes of a block. */
+    static final int MF_LIMIT = 12;
+    static final int MAX_DISTANCE = 65535;
+
+    private static final int HASH_LOG = 12;
+    /** Each miss increases the search step a bit, so that incompressible data is skipped quickly. */
+    private static final int SKIP_TRIGGER = 6;
+
+    /** Hash table of the compressor, only used for the duration of a {@link #compress} call. */
+    private static final ThreadLocal<int[]> hashTables = ThreadLocal.withInitial(() -> new int[1 << HASH_LOG]);
+
+    private Lz4Block() {
+    }
+
+    /**
+     * Returns the largest size the compression of the given number of bytes can take.
+     * 
+     * @param length
+     *            uncompressed length
+     * @return maximum compressed length
+     */
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses a block.
+     * 
+     * @param src
+     *            the source data
+     * @param srcOff
+     *            the start offset in the source data
+     * @param srcLen
+     *            the number of bytes to compress
+     * @param dst
+     *            the destination buffer, with room for {@link #maxCompressedLength(int)} bytes
+     * @param dstOff
+     *            the start offset in the destination buffer
+     * @return the compressed length
+     */
+    static int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff) {
+        int srcEnd = srcOff + srcLen;
+        int anchor = srcOff;
+        int op = dstOff;
+
+        if (srcLen >= MF_LIMIT + 1) {
+            int[] table = hashTables.get();
+            Arrays.fill(table, -1);
+
+            int mfLimit = srcEnd - MF_LIMIT;
+            int matchLimit = srcEnd - LAST_LITERALS;
+            int ip = srcOff;
+            table[hash(readInt(src, ip))] = ip;
+            ip++;
+
+            int searchCount = 1 << SKIP_TRIGGER;
+            while (ip < mfLimit) {
+                int sequence = readInt(src, ip);
+                int h = hash(sequence);
+                int ref = table[h];
+                table[h] = ip;
+
+                if (ref < 0 || ip - ref > MAX_DISTANCE || readInt(src, ref) != sequence) {
+                    ip += searchCount++ >>> SKIP_TRIGGER;
+                    continue;
+                }
+                searchCount = 1 << SKIP_TRIGGER;
+
+                // extend backwards into the pending literals
+                while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+
+                op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLength, dst, op);
+                ip += matchLength;
+                anchor = ip;
+                if (ip < mfLimit) {
+                    table[hash(readInt(src, ip - 2))] = ip - 2;
+                }
+            }
+        }
+
+        // last literals
+        int literalLength = srcEnd - anchor;
+        op = writeLength(dst, op, literalLength);
+        System.arraycopy(src, anchor, dst, op, literalLength);
+        return op + literalLength - dstOff;
+    }
+
+    private static int writeSequence(byte[] src, int literalOff, int literalLength, int offset, int matchLength, byte[] dst, int op) {
+        int tokenPos = op;
+        op = writeLength(dst, op, literalLength);
+        System.arraycopy(src, literalOff, dst, op, literalLength);
+        op += literalLength;
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> 8);
+
+        int ml = matchLength - MIN_MATCH;
+        if (ml >= 15) {
+            dst[tokenPos] |= 15;
+            ml -= 15;
+            for (; ml >= 255; ml -= 255) {
+                dst[op++] = (byte) 255;
+            }
+            dst[op++] = (byte) ml;
+        } else {
+            dst[tokenPos] |= ml;
+        }
+        return op;
+    }
+
+    /**
+     * Writes a token with the given literal length in its high nibble, followed by the length extension bytes.
+     */
+    private static int writeLength(byte[] dst, int op, int literalLength) {
+        if (literalLength >= 15) {
+            dst[op++] = (byte) (15 << 4);
+            int l = literalLength - 15;
+            for (; l >= 255; l -= 255) {
+                dst[op++] = (byte) 255;
+            }
+            dst[op++] = (byte) l;
+        } else {
+            dst[op++] = (byte) (literalLength << 4);
+        }
+        return op;
+    }
+
+    /**
+     * Decompresses a block. Matches may reach back into the bytes before <code>dstOff</code>, down to <code>windowStart</code>, which holds the data of the
+     * previous blocks of a frame with linked blocks.
+     * 
+     * @param src
+     *            the compressed data
+     * @param srcOff
+     *            the start offset in the compressed data
+     * @param srcLen
+     *            the compressed length
+     * @param dst
+     *            the destination buffer
+     * @param windowStart
+     *            the lowest offset in the destination buffer a match may refer to
+     * @param dstOff
+     *            the offset in the destination buffer to decompress to
+     * @param dstEnd
+     *            the end of the room in the destination buffer
+     * @return the decompressed length
+     * @throws IOException
+     *             if the data is not a valid LZ4 block or doesn't fit in the destination buffer
+     */
+    static int decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int windowStart, int dstOff, int dstEnd) throws IOException {
+        int ip = srcOff;
+        int srcEnd = srcOff + srcLen;
+        int op = dstOff;
+
+        while (ip < srcEnd) {
+            int token = src[ip++] & 0xFF;
+
+            int literalLength = token >>> 4;
+            if (literalLength == 15) {
+                int b;
+                do {
+                    if (ip >= srcEnd) {
+                        throw malformed();
+                    }
+                    b = src[ip++] & 0xFF;
+                    literalLength += b;
+                } while (b == 255);
+            }
+            if (literalLength > srcEnd - ip || literalLength > dstEnd - op) {
+                throw malformed();
+            }
+            System.arraycopy(src, ip, dst, op, literalLength);
+            ip += literalLength;
+            op += literalLength;
+
+            if (ip == srcEnd) {
+                // the last sequence has no match
+                return op - dstOff;
+            }
+
+            if (srcEnd - ip < 2) {
+                throw malformed();
+            }
+            int offset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+            ip += 2;
+            if (offset == 0 || offset > op - windowStart) {
+                throw malformed();
+            }
+
+            int matchLength = token & 15;
+            if (matchLength == 15) {
+                int b;
+                do {
+                    if (ip >= srcEnd) {
+                        throw malformed();
+                    }
+                    b = src[ip++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+            if (matchLength > dstEnd - op) {
+                throw malformed();
+            }
+
+            int ref = op - offset;
+            if (offset >= matchLength) {
+                System.arraycopy(dst, ref, dst, op, matchLength);
+                op += matchLength;
+            } else {
+                // overlapping copy repeats the last offset bytes
+                for (int end = op + matchLength; op < end;) {
+                    dst[op++] = dst[ref++];
+                }
+            }
+        }
+        throw malformed();
+    }
+
+    /**
+     * Computes the decompressed length of a block without decompressing it.
+     * 
+     * @param src
+     *            the compressed data
+     * @param srcOff
+     *            the start offset in the compressed data
+     * @param srcLen
+     *            the compressed length
+     * @return the decompressed length
+     * @throws IOException
+     *             if the data is not a valid LZ4 block
+     */
+    static int decompressedLength(byte[] src, int srcOff, int srcLen) throws IOException {
+        int ip = srcOff;
+        int srcEnd = srcOff + srcLen;
+        long length = 0;
+
+        while (ip < srcEnd) {
+            int token = src[ip++] & 0xFF;
+            int literalLength = token >>> 4;
+            if (literalLength == 15) {
+                int b;
+                do {
+                    if (ip >= srcEnd) {
+                        throw malformed();
+                    }
+                    b = src[ip++] & 0xFF;
+                    literalLength += b;
+                } while (b == 255);
+            }
+            if (literalLength > srcEnd - ip) {
+                throw malformed();
+            }
+            ip += literalLength;
+            length += literalLength;
+            if (ip == srcEnd) {
+                if (length > Integer.MAX_VALUE) {
+                    throw malformed();
+                }
+                return (int) length;
+            }
+
+            ip += 2;
+            int matchLength = token & 15;
+            if (matchLength == 15) {
+                int b;
+                do {
+                    if (ip >= srcEnd) {
+                        throw malformed();
+                    }
+                    b = src[ip++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            length += matchLength + MIN_MATCH;
+        }
+        throw malformed();
+    }
+
+    private static IOException malformed() {
+        return new IOException("Malformed LZ4 block.");
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static int readInt(byte[] b, int off) {
+        return XxHash32.readIntLE(b, off);
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.x;
+
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * An {@link InputStream} that decompresses LZ4 frames, as sent by the X Plugin for the "lz4_message" compression algorithm.
+ * 
+ * All the features of the LZ4 frame format but preset dictionaries are supported: linked and independent blocks, block and content checksums, content size,
+ * block sizes up to 4 MiB, and skippable and concatenated frames. Buffers are sized after the blocks actually received, so a small message doesn't cost a
+ * maximum size block.
+ */
+public class Lz4FrameInputStream extends FilterInputStream {
+    private static final int SKIPPABLE_MAGIC = 0x184D2A50;
+    private static final int SKIPPABLE_MAGIC_MASK = 0xFFFFFFF0;
+    /** Size of the history linked blocks may refer to. */
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private static final int FLG_VERSION_MASK = 0xC0;
+    private static final int FLG_VERSION = 0x40;
+    private static final int FLG_INDEPENDENT_BLOCKS = 0x20;
+    private static final int FLG_BLOCK_CHECKSUM = 0x10;
+    private static final int FLG_CONTENT_SIZE = 0x08;
+    private static final int FLG_CONTENT_CHECKSUM = 0x04;
+    private static final int FLG_DICTIONARY_ID = 0x01;
+
+    private boolean inFrame = false;
+    private boolean independentBlocks;
+    private boolean blockChecksum;
+    private boolean contentChecksum;
+    private int maxBlockSize;
+    private XxHash32 contentHash = null;
+
+    private byte[] compressed = new byte[0];
+    /** Decompressed data: the history of linked blocks followed by the current block. */
+    private byte[] window = new byte[0];
+    private int windowStart = 0;
+    private int pos = 0;
+    private int limit = 0;
+
+    private final byte[] intBuffer = new byte[8];
+    private byte[] singleByte = new byte[1];
+
+    private boolean eof = false;
+    private boolean closed = false;
+
+    public Lz4FrameInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return this.limit - this.pos;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int read = read(this.singleByte, 0, 1);
+        return read < 0 ? -1 : this.singleByte[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (this.pos == this.limit) {
+            if (this.eof || !nextBlock()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, this.limit - this.pos);
+        System.arraycopy(this.window, this.pos, b, off, n);
+        this.pos += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureOpen();
+        long skipped = 0;
+        while (skipped < n) {
+            if (this.pos == this.limit && (this.eof || !nextBlock())) {
+                break;
+            }
+            int step = (int) Math.min(n - skipped, this.limit - this.pos);
+            this.pos += step;
+            skipped += step;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!this.closed) {
+            this.closed = true;
+            this.compressed = null;
+            this.window = null;
+            super.close();
+        }
+    }
+
+    /**
+     * Decompresses the next block, reading frame headers and trailers on the way.
+     * 
+     * @return <code>false</code> once the underlying {@link InputStream} is exhausted
+     * @throws IOException
+     *             if the data is not a valid LZ4 frame or the underlying {@link InputStream} fails
+     */
+    private boolean nextBlock() throws IOException {
+        if (!this.inFrame && !readFrameHeader()) {
+            this.eof = true;
+            return false;
+        }
+
+        int blockSize = readIntLE();
+        if (blockSize == 0) {
+            // end mark
+            if (this.contentChecksum && readIntLE() != this.contentHash.getValue()) {
+                throw new IOException("LZ4 frame content checksum mismatch.");
+            }
+            this.inFrame = false;
+            return true;
+        }
+
+        boolean uncompressed = blockSize < 0;
+        blockSize &= 0x7FFFFFFF;
+        if (blockSize > this.maxBlockSize) {
+            throw new IOException("LZ4 block larger than the frame's maximum block size.");
+        }
+        if (this.compressed.length < blockSize) {
+            this.compressed = new byte[blockSize];
+        }
+        readFully(this.compressed, 0, blockSize);
+        if (this.blockChecksum && readIntLE() != XxHash32.hash(this.compressed, 0, blockSize, 0)) {
+            throw new IOException("LZ4 block checksum mismatch.");
+        }
+
+        int decompressedLength = uncompressed ? blockSize : Lz4Block.decompressedLength(this.compressed, 0, blockSize);
+        if (decompressedLength > this.maxBlockSize) {
+            throw new IOException("LZ4 block larger than the frame's maximum block size.");
+        }
+        int off = prepareWindow(decompressedLength);
+        if (uncompressed) {
+            System.arraycopy(this.compressed, 0, this.window, off, blockSize);
+        } else {
+            Lz4Block.decompress(this.compressed, 0, blockSize, this.window, this.windowStart, off, off + decompressedLength);
+        }
+        if (this.contentChecksum) {
+            this.contentHash.update(this.window, off, decompressedLength);
+        }
+        this.pos = off;
+        this.limit = off + decompressedLength;
+        return true;
+    }
+
+    /**
+     * Makes room in the window for a block of the given length, keeping the history linked blocks may refer to.
+     * 
+     * @param length
+     *            the decompressed length of the next block
+     * @return the window offset to decompress the block to
+     */
+    private int prepareWindow(int length) {
+        int keep = this.independentBlocks ? 0 : Math.min(this.limit - this.windowStart, WINDOW_SIZE);
+        int off = this.limit;
+        if (keep == 0) {
+            off = 0;
+        } else if (off + length > this.window.length && this.limit - keep > 0) {
+            System.arraycopy(this.window, this.limit - keep, this.window, 0, keep);
+            off = keep;
+        }
+        if (off + length > this.window.length) {
+            this.window = Arrays.copyOf(this.window, Math.max(off + length, Math.min(2 * this.window.length, WINDOW_SIZE + this.maxBlockSize)));
+        }
+        this.windowStart = off - keep;
+        return off;
+    }
+
+    /**
+     * Reads a frame header, skipping skippable frames.
+     * 
+     * @return <code>false</code> if the underlying {@link InputStream} was exhausted before a new frame started
+     * @throws IOException
+     *             if the data is not a valid LZ4 frame header or the underlying {@link InputStream} fails
+     */
+    private boolean readFrameHeader() throws IOException {
+        int magic;
+        while (true) {
+            int n = this.in.read(this.intBuffer, 0, 4);
+            if (n < 0) {
+                return false;
+            }
+            readFully(this.intBuffer, n, 4 - n);
+            magic = XxHash32.readIntLE(this.intBuffer, 0);
+            if ((magic & SKIPPABLE_MAGIC_MASK) != SKIPPABLE_MAGIC) {
+                break;
+            }
+            long toSkip = readIntLE() & 0xFFFFFFFFL;
+            while (toSkip > 0) {
+                long skipped = this.in.skip(toSkip);
+                if (skipped <= 0) {
+                    if (this.in.read() < 0) {
+                        throw new EOFException("Unexpected end of LZ4 skippable frame.");
+                    }
+                    skipped = 1;
+                }
+                toSkip -= skipped;
+            }
+        }
+        if (magic != Lz4FrameOutputStream.MAGIC) {
+            throw new IOException("Not an LZ4 frame.");
+        }
+
+        byte[] descriptor = new byte[15];
+        readFully(descriptor, 0, 2);
+        int flg = descriptor[0] & 0xFF;
+        int bd = descriptor[1] & 0xFF;
+        if ((flg & FLG_VERSION_MASK) != FLG_VERSION || (flg & 0x02) != 0 || (bd & 0x8F) != 0) {
+            throw new IOException("Unsupported LZ4 frame descriptor.");
+        }
+        if ((flg & FLG_DICTIONARY_ID) != 0) {
+            throw new IOException("LZ4 frames with a preset dictionary are not supported.");
+        }
+        int descriptorLength = 2;
+        if ((flg & FLG_CONTENT_SIZE) != 0) {
+            readFully(descriptor, descriptorLength, 8);
+            descriptorLength += 8;
+        }
+        readFully(descriptor, descriptorLength, 1);
+        if ((descriptor[descriptorLength] & 0xFF) != (XxHash32.hash(descriptor, 0, descriptorLength, 0) >>> 8 & 0xFF)) {
+            throw new IOException("LZ4 frame header checksum mismatch.");
+        }
+
+        switch (bd >>> 4) {
+            case 4:
+                this.maxBlockSize = 64 * 1024;
+                break;
+            case 5:
+                this.maxBlockSize = 256 * 1024;
+                break;
+            case 6:
+                this.maxBlockSize = 1024 * 1024;
+                break;
+            case 7:
+                this.maxBlockSize = 4 * 1024 * 1024;
+                break;
+            default:
+                throw new IOException("Unsupported LZ4 frame block size.");
+        }
+        this.independentBlocks = (flg & FLG_INDEPENDENT_BLOCKS) != 0;
+        this.blockChecksum = (flg & FLG_BLOCK_CHECKSUM) != 0;
+        this.contentChecksum = (flg & FLG_CONTENT_CHECKSUM) != 0;
+        this.contentHash = this.contentChecksum ? new XxHash32(0) : null;
+        this.windowStart = 0;
+        this.pos = 0;
+        this.limit = 0;
+        this.inFrame = true;
+        return true;
+    }
+
+    private int readIntLE() throws IOException {
+        readFully(this.intBuffer, 0, 4);
+        return XxHash32.readIntLE(this.intBuffer, 0);
+    }
+
+    private void readFully(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            int n = this.in.read(b, off, len);
+            if (n < 0) {
+                throw new EOFException("Unexpected end of LZ4 frame.");
+            }
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
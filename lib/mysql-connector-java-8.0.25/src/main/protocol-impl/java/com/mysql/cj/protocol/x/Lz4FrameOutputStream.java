@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.x;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.mysql.cj.protocol.a.PacketBufferPool;
+
+/**
+ * An {@link OutputStream} that compresses data into one LZ4 frame, as expected by the X Plugin for the "lz4_message" compression algorithm.
+ * 
+ * The frame is made of independent blocks of up to 64 KiB and carries a content checksum. Blocks that don't compress are stored uncompressed. The frame is
+ * terminated when this stream is closed; the buffers it uses are borrowed from the {@link PacketBufferPool} until then.
+ */
+public class Lz4FrameOutputStream extends FilterOutputStream {
+    static final int MAGIC = 0x184D2204;
+    static final int BLOCK_SIZE = 64 * 1024;
+
+    /** Version 01, independent blocks, content checksum. */
+    private static final int FLG = 0x64;
+    /** 64 KiB maximum block size. */
+    private static final int BD = 0x40;
+
+    private byte[] block = null;
+    private int blockLength = 0;
+    private byte[] compressed = null;
+    private final XxHash32 contentHash = new XxHash32(0);
+
+    private boolean headerWritten = false;
+    private boolean closed = false;
+
+    public Lz4FrameOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (this.block == null) {
+            this.block = PacketBufferPool.acquire(BLOCK_SIZE, this);
+        } else if (this.blockLength == BLOCK_SIZE) {
+            writeBlock();
+        }
+        this.block[this.blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len > 0 && this.block == null) {
+            this.block = PacketBufferPool.acquire(BLOCK_SIZE, this);
+        }
+        while (len > 0) {
+            if (this.blockLength == BLOCK_SIZE) {
+                writeBlock();
+            }
+            int n = Math.min(len, BLOCK_SIZE - this.blockLength);
+            System.arraycopy(b, off, this.block, this.blockLength, n);
+            this.blockLength += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Compresses the pending data into a block and flushes the underlying {@link OutputStream}. Flushing often produces smaller blocks and a worse
+     * compression ratio.
+     * 
+     * @see FilterOutputStream#flush()
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (this.blockLength > 0) {
+            writeBlock();
+        }
+        this.out.flush();
+    }
+
+    /**
+     * Writes the pending data, the frame end mark and the content checksum, and closes the underlying {@link OutputStream}.
+     * 
+     * @see FilterOutputStream#close()
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            if (this.blockLength > 0 || !this.headerWritten) {
+                writeBlock();
+            }
+            byte[] trailer = new byte[8];
+            writeIntLE(trailer, 0, 0);
+            writeIntLE(trailer, 4, this.contentHash.getValue());
+            this.out.write(trailer);
+            this.out.close();
+        } finally {
+            if (this.block != null) {
+                PacketBufferPool.release(this.block);
+                this.block = null;
+            }
+            if (this.compressed != null) {
+                PacketBufferPool.release(this.compressed);
+                this.compressed = null;
+            }
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (this.compressed == null) {
+            this.compressed = PacketBufferPool.acquire(7 + 4 + Lz4Block.maxCompressedLength(BLOCK_SIZE), this);
+        }
+        int pos = 0;
+        if (!this.headerWritten) {
+            writeIntLE(this.compressed, 0, MAGIC);
+            this.compressed[4] = (byte) FLG;
+            this.compressed[5] = (byte) BD;
+            this.compressed[6] = (byte) (XxHash32.hash(this.compressed, 4, 2, 0) >>> 8);
+            pos = 7;
+            this.headerWritten = true;
+        }
+
+        if (this.blockLength > 0) {
+            this.contentHash.update(this.block, 0, this.blockLength);
+            int compressedLength = Lz4Block.compress(this.block, 0, this.blockLength, this.compressed, pos + 4);
+            if (compressedLength < this.blockLength) {
+                writeIntLE(this.compressed, pos, compressedLength);
+                pos += 4 + compressedLength;
+            } else {
+                writeIntLE(this.compressed, pos, this.blockLength | 0x80000000);
+                System.arraycopy(this.block, 0, this.compressed, pos + 4, this.blockLength);
+                pos += 4 + this.blockLength;
+            }
+            this.blockLength = 0;
+        }
+        this.out.write(this.compressed, 0, pos);
+    }
+
+    private void ensureOpen() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    static void writeIntLE(byte[] b, int off, int v) {
+        b[off] = (byte) v;
+        b[off + 1] = (byte) (v >>> 8);
+        b[off + 2] = (byte) (v >>> 16);
+        b[off + 3] = (byte) (v >>> 24);
+    }
+}
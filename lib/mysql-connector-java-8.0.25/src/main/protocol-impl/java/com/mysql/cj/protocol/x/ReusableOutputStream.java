@@ -30,6 +30,7 @@
 package com.mysql.cj.protocol.x;
 
 import java.io.FilterOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 
 /**
@@ -40,6 +41,16 @@ public class ReusableOutputStream extends FilterOutputStream {
         super(out);
     }
 
+    /**
+     * Forwards the whole array slice to the underlying {@link OutputStream}, instead of writing it one byte at a time as {@link FilterOutputStream} does.
+     * 
+     * @see FilterOutputStream#write(byte[], int, int)
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.out.write(b, off, len);
+    }
+
     /**
      * Sets a new underlying {@link OutputStream} in this {@link ReusableOutputStream}.
      * 
@@ -35,12 +35,22 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.google.protobuf.GeneratedMessageV3;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Parser;
+import com.mysql.cj.conf.PropertyDefinitions;
 import com.mysql.cj.exceptions.CJCommunicationsException;
 import com.mysql.cj.exceptions.MysqlErrorNumbers;
 import com.mysql.cj.exceptions.WrongArgumentException;
@@ -56,8 +66,23 @@ import com.mysql.cj.x.protobuf.MysqlxNotice.Frame;
 
 /**
  * Synchronous-only implementation of {@link MessageReader}. This implementation wraps a {@link java.io.InputStream}.
+ * 
+ * Messages for asynchronous operations are read by {@link MessageListener}s run on a driver-wide executor: virtual threads where the JVM supports them,
+ * otherwise a cached pool of daemon threads (system property {@value PropertyDefinitions#SYSP_asyncListenerThreads} set to "platform" forces the latter).
  */
 public class SyncMessageReader implements MessageReader<XMessageHeader, XMessage> {
+    /** Default of the 'xdevapi.async-poll-timeout' connection property. */
+    public static final int DEFAULT_POLL_TIMEOUT = 100;
+
+    /** Number of listeners queued and not yet dispatched, in all readers. */
+    private static final AtomicInteger PENDING_LISTENERS = new AtomicInteger();
+    /** Number of listeners dispatched. */
+    private static final LongAdder DISPATCHED_LISTENERS = new LongAdder();
+    /** Sum of the times listeners waited between being queued and being dispatched. */
+    private static final LongAdder DISPATCH_LATENCY = new LongAdder();
+    /** Longest time a listener waited to be dispatched. */
+    private static final AtomicLong MAX_DISPATCH_LATENCY = new AtomicLong();
+
     /** Stream as a source of messages. */
     private FullReadInputStream inputStream;
 
@@ -65,26 +90,102 @@ public class SyncMessageReader implements MessageReader<XMessageHeader, XMessage
     LinkedList<GeneratedMessageV3> messagesQueue = new LinkedList<>();
 
     /** Queue of <code>MessageListener</code>s waiting to process messages. */
-    BlockingQueue<MessageListener<XMessage>> messageListenerQueue = new LinkedBlockingQueue<>();
-
-    /** Lock to protect the pending message. */
-    Object dispatchingThreadMonitor = new Object();
-    /** Lock to protect async reads from sync ones. */
-    Object waitingSyncOperationMonitor = new Object();
-
-    Thread dispatchingThread = null;
+    BlockingQueue<QueuedListener> messageListenerQueue = new LinkedBlockingQueue<>();
+
+    /** Lock to protect async reads from sync ones, held by the listeners dispatcher while it runs. */
+    private final ReentrantLock readLock = new ReentrantLock();
+    /** Signalled when a listeners dispatcher finishes. */
+    private final Condition dispatchingFinished = this.readLock.newCondition();
+    /** Number of listeners of this reader waiting to be dispatched. */
+    private final AtomicInteger queuedListeners = new AtomicInteger();
+    /** Whether a listeners dispatcher was started and did not finish yet. */
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    /** Thread running the listeners dispatcher. */
+    private volatile Thread dispatchingThread = null;
+
+    /** Time in milliseconds the listeners dispatcher waits for a next listener before finishing. */
+    private final long pollTimeout;
 
     private ProtocolEventHandler protocolEventHandler = null;
 
     public SyncMessageReader(FullReadInputStream inputStream, ProtocolEventHandler protocolEventHandler) {
+        this(inputStream, protocolEventHandler, DEFAULT_POLL_TIMEOUT);
+    }
+
+    public SyncMessageReader(FullReadInputStream inputStream, ProtocolEventHandler protocolEventHandler, int pollTimeout) {
         this.inputStream = inputStream;
         this.protocolEventHandler = protocolEventHandler;
+        this.pollTimeout = Math.max(0, pollTimeout);
+    }
+
+    /**
+     * Holder of the executor running the listeners dispatchers, created on first asynchronous read.
+     */
+    private static class ListenersExecutor {
+        static final Executor EXECUTOR = createExecutor();
+
+        private static Executor createExecutor() {
+            if (!"platform".equalsIgnoreCase(System.getProperty(PropertyDefinitions.SYSP_asyncListenerThreads))) {
+                try {
+                    return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    // virtual threads are not supported by this JVM
+                }
+            }
+            AtomicInteger threadNumber = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "Message listeners dispatching thread " + threadNumber.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    /** Queue entry marking that a synchronous read waits for the listeners queued before it. */
+    private static final QueuedListener WAKEUP = new QueuedListener(null);
+
+    /**
+     * A listener waiting for its messages.
+     */
+    static class QueuedListener {
+        final MessageListener<XMessage> listener;
+        final long queuedAt = System.nanoTime();
+
+        QueuedListener(MessageListener<XMessage> listener) {
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * Acquires the read lock. Unless called from the listeners dispatcher, the outermost read waits until the listeners queued before it got their messages.
+     * A waiting read queues a {@link #WAKEUP} marker so that the dispatcher finishes as soon as it reaches it instead of waiting for the poll timeout.
+     */
+    private void lockForRead() {
+        if (this.readLock.isHeldByCurrentThread()) {
+            this.readLock.lock();
+            return;
+        }
+        if (this.dispatching.get()) {
+            this.messageListenerQueue.offer(WAKEUP);
+        }
+        this.readLock.lock();
+        try {
+            while (this.dispatching.get()) {
+                this.messageListenerQueue.offer(WAKEUP);
+                this.dispatchingFinished.await();
+            }
+        } catch (InterruptedException e) {
+            this.readLock.unlock();
+            Thread.currentThread().interrupt();
+            throw new CJCommunicationsException("Read operation interrupted.", e);
+        }
     }
 
     @Override
     public XMessageHeader readHeader() throws IOException {
         // waiting for ListenersDispatcher completion to perform sync call
-        synchronized (this.waitingSyncOperationMonitor) {
+        lockForRead();
+        try {
             XMessageHeader header;
             if ((header = this.headersQueue.peek()) == null) {
                 header = readHeaderLocal();
@@ -93,11 +194,14 @@ public class SyncMessageReader implements MessageReader<XMessageHeader, XMessage
                 throw new XProtocolError(readMessageLocal(Error.class, true));
             }
             return header;
+        } finally {
+            this.readLock.unlock();
         }
     }
 
     public int getNextNonNoticeMessageType() throws IOException {
-        synchronized (this.waitingSyncOperationMonitor) {
+        lockForRead();
+        try {
             if (!this.headersQueue.isEmpty()) {
                 for (XMessageHeader hdr : this.headersQueue) {
                     if (hdr.getMessageType() != ServerMessages.Type.NOTICE_VALUE) {
@@ -120,6 +224,8 @@ public class SyncMessageReader implements MessageReader<XMessageHeader, XMessage
             } while (header.getMessageType() == ServerMessages.Type.NOTICE_VALUE);
 
             return header.getMessageType();
+        } finally {
+            this.readLock.unlock();
         }
     }
 
@@ -203,7 +309,8 @@ public class SyncMessageReader implements MessageReader<XMessageHeader, XMessage
     @Override
     public XMessage readMessage(Optional<XMessage> reuse, int expectedType) throws IOException {
         // waiting for ListenersDispatcher completion to perform sync call
-        synchronized (this.waitingSyncOperationMonitor) {
+        lockForRead();
+        try {
             try {
                 Class<? extends GeneratedMessageV3> expectedClass = MessageConstants.getMessageClassForType(expectedType);
 
@@ -228,83 +335,158 @@ public class SyncMessageReader implements MessageReader<XMessageHeader, XMessage
             } catch (IOException e) {
                 throw new XProtocolError(e.getMessage(), e);
             }
+        } finally {
+            this.readLock.unlock();
         }
     }
 
     public void pushMessageListener(final MessageListener<XMessage> listener) {
         try {
-            this.messageListenerQueue.put(listener);
+            this.messageListenerQueue.put(new QueuedListener(listener));
         } catch (InterruptedException e) {
             throw new CJCommunicationsException("Cannot queue message listener.", e);
         }
+        this.queuedListeners.incrementAndGet();
+        PENDING_LISTENERS.incrementAndGet();
 
-        synchronized (this.dispatchingThreadMonitor) {
-            if (this.dispatchingThread == null) {
-                ListenersDispatcher ld = new ListenersDispatcher();
-                this.dispatchingThread = new Thread(ld, "Message listeners dispatching thread");
-                this.dispatchingThread.start();
-
-                // We must ensure that ListenersDispatcher is really started before leaving
-                // the synchronized block. Otherwise the race condition is possible: if next
-                // operation is executed synchronously it could consume results of the previous
-                // asynchronous operation.
-                int millis = 5000; // TODO expose via properties ?
-                while (!ld.started) {
-                    try {
-                        Thread.sleep(10);
-                        millis = millis - 10;
-                    } catch (InterruptedException e) {
-                        throw new XProtocolError(e.getMessage(), e);
-                    }
-                    if (millis <= 0) {
-                        throw new XProtocolError("Timeout for starting ListenersDispatcher exceeded.");
-                    }
-                }
+        // Marking the dispatcher as started before returning keeps the next synchronous operation from consuming the results of this asynchronous one,
+        // even if the dispatcher didn't get a thread yet.
+        if (this.dispatching.compareAndSet(false, true)) {
+            startDispatcher();
+        }
+    }
+
+    /**
+     * Starts a listeners dispatcher on the shared executor. If the executor refuses it, the queued listeners are failed.
+     */
+    private void startDispatcher() {
+        try {
+            ListenersExecutor.EXECUTOR.execute(new ListenersDispatcher());
+        } catch (RejectedExecutionException e) {
+            this.readLock.lock();
+            try {
+                this.dispatching.set(false);
+                failQueuedListeners(new CJCommunicationsException("Cannot dispatch message listener.", e));
+                this.dispatchingFinished.signalAll();
+            } finally {
+                this.readLock.unlock();
             }
         }
     }
 
-    private class ListenersDispatcher implements Runnable {
-        /**
-         * The timeout value for queue.poll(timeout, unit) defining the time after which we close and unregister the dispatching thread.
-         * On the other hand, a bigger timeout value allows us to keep dispatcher thread running while multiple concurrent asynchronous
-         * read operations are pending, thus avoiding the delays for new dispatching threads creation.
-         */
-        private static final long POLL_TIMEOUT = 100; // TODO expose via connection property
-        boolean started = false;
+    private void failQueuedListeners(Throwable t) {
+        QueuedListener queued;
+        while ((queued = this.messageListenerQueue.poll()) != null) {
+            if (queued != WAKEUP) {
+                this.queuedListeners.decrementAndGet();
+                PENDING_LISTENERS.decrementAndGet();
+                queued.listener.error(t);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of listeners of this reader waiting to be dispatched.
+     * 
+     * @return queue depth
+     */
+    public int getQueuedListenerCount() {
+        return this.queuedListeners.get();
+    }
+
+    /**
+     * Returns the number of listeners waiting to be dispatched, in all readers.
+     * 
+     * @return total queue depth
+     */
+    public static int getPendingListenerCount() {
+        return PENDING_LISTENERS.get();
+    }
+
+    /**
+     * Returns the number of listeners dispatched since the driver was loaded.
+     * 
+     * @return dispatched listeners
+     */
+    public static long getDispatchedListenerCount() {
+        return DISPATCHED_LISTENERS.sum();
+    }
+
+    /**
+     * Returns the sum of the times listeners waited between being queued and being dispatched.
+     * 
+     * @return total dispatch latency in nanoseconds
+     */
+    public static long getTotalDispatchLatency() {
+        return DISPATCH_LATENCY.sum();
+    }
+
+    /**
+     * Returns the longest time a listener waited between being queued and being dispatched.
+     * 
+     * @return maximum dispatch latency in nanoseconds
+     */
+    public static long getMaxDispatchLatency() {
+        return MAX_DISPATCH_LATENCY.get();
+    }
 
+    private class ListenersDispatcher implements Runnable {
         public ListenersDispatcher() {
         }
 
         @Override
         public void run() {
-            synchronized (SyncMessageReader.this.waitingSyncOperationMonitor) {
-                this.started = true;
-                try {
-                    while (true) {
-                        MessageListener<XMessage> l;
-                        if ((l = SyncMessageReader.this.messageListenerQueue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS)) == null) {
-                            synchronized (SyncMessageReader.this.dispatchingThreadMonitor) {
-                                if (SyncMessageReader.this.messageListenerQueue.peek() == null) {
-                                    SyncMessageReader.this.dispatchingThread = null;
-                                    break;
-                                }
-                            }
-                        } else {
-                            try {
-                                XMessage msg = null;
-                                do {
-                                    XMessageHeader hdr = readHeader();
-                                    msg = readMessage(null, hdr);
-                                } while (!l.processMessage(msg));
-                            } catch (Throwable t) {
-                                l.error(t);
-                            }
+            SyncMessageReader.this.readLock.lock();
+            SyncMessageReader.this.dispatchingThread = Thread.currentThread();
+            try {
+                while (true) {
+                    QueuedListener queued = SyncMessageReader.this.messageListenerQueue.poll(SyncMessageReader.this.pollTimeout, TimeUnit.MILLISECONDS);
+                    if (queued == WAKEUP && !SyncMessageReader.this.readLock.hasQueuedThreads()
+                            && !SyncMessageReader.this.readLock.hasWaiters(SyncMessageReader.this.dispatchingFinished)) {
+                        // left by a read that didn't need to wait after all
+                        continue;
+                    }
+
+                    if (queued == null || queued == WAKEUP) {
+                        SyncMessageReader.this.dispatching.set(false);
+                        // a listener queued meanwhile either sees the flag cleared and starts a new dispatcher, or is taken by this one
+                        if (SyncMessageReader.this.messageListenerQueue.isEmpty() || !SyncMessageReader.this.dispatching.compareAndSet(false, true)) {
+                            break;
                         }
+                        if (queued == WAKEUP) {
+                            // let the waiting read go first, the listeners queued after it get a new dispatcher
+                            startDispatcher();
+                            break;
+                        }
+                        continue;
+                    }
+
+                    SyncMessageReader.this.queuedListeners.decrementAndGet();
+                    PENDING_LISTENERS.decrementAndGet();
+                    long latency = System.nanoTime() - queued.queuedAt;
+                    DISPATCHED_LISTENERS.increment();
+                    DISPATCH_LATENCY.add(latency);
+                    MAX_DISPATCH_LATENCY.accumulateAndGet(latency, Math::max);
+
+                    MessageListener<XMessage> l = queued.listener;
+                    try {
+                        XMessage msg = null;
+                        do {
+                            XMessageHeader hdr = readHeader();
+                            msg = readMessage(null, hdr);
+                        } while (!l.processMessage(msg));
+                    } catch (Throwable t) {
+                        l.error(t);
                     }
-                } catch (InterruptedException e) {
-                    throw new CJCommunicationsException("Read operation interrupted.", e);
                 }
+            } catch (InterruptedException e) {
+                // the executor is shutting down
+                SyncMessageReader.this.dispatching.set(false);
+                failQueuedListeners(new CJCommunicationsException("Read operation interrupted.", e));
+            } finally {
+                SyncMessageReader.this.dispatchingThread = null;
+                SyncMessageReader.this.dispatchingFinished.signalAll();
+                SyncMessageReader.this.readLock.unlock();
             }
         }
     }
@@ -244,7 +244,8 @@ public class XProtocol extends AbstractProtocol<XMessage> implements Protocol<XM
 
         try {
             this.sender = new SyncMessageSender(this.socketConnection.getMysqlOutput());
-            this.reader = new SyncMessageReader(this.socketConnection.getMysqlInput(), this);
+            this.reader = new SyncMessageReader(this.socketConnection.getMysqlInput(), this,
+                    this.propertySet.getIntegerProperty(PropertyKey.xdevapiAsyncPollTimeout).getValue());
         } catch (IOException e) {
             throw new XProtocolError(e.getMessage(), e);
         }
@@ -310,7 +311,8 @@ public class XProtocol extends AbstractProtocol<XMessage> implements Protocol<XM
 
         try {
             this.sender = new SyncMessageSender(this.socketConnection.getMysqlOutput());
-            this.reader = new SyncMessageReader(this.socketConnection.getMysqlInput(), this);
+            this.reader = new SyncMessageReader(this.socketConnection.getMysqlInput(), this,
+                    this.propertySet.getIntegerProperty(PropertyKey.xdevapiAsyncPollTimeout).getValue());
             this.managedResource = this.socketConnection.getMysqlSocket();
         } catch (IOException e) {
             throw new XProtocolError(e.getMessage(), e);
@@ -537,7 +539,7 @@ public class XProtocol extends AbstractProtocol<XMessage> implements Protocol<XM
             try {
                 this.reader = new SyncMessageReader(new FullReadInputStream(
                         new CompressionSplittedInputStream(this.socketConnection.getMysqlInput(), new CompressorStreamsFactory(this.compressionAlgorithm))),
-                        this);
+                        this, this.propertySet.getIntegerProperty(PropertyKey.xdevapiAsyncPollTimeout).getValue());
             } catch (IOException e) {
                 ExceptionFactory.createException(Messages.getString("Protocol.Compression.6"), e);
             }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.x;
+
+/**
+ * 32-bit xxHash, as used by the LZ4 frame format for its header, block and content checksums.
+ */
+final class XxHash32 {
+    private static final int PRIME1 = 0x9E3779B1;
+    private static final int PRIME2 = 0x85EBCA77;
+    private static final int PRIME3 = 0xC2B2AE3D;
+    private static final int PRIME4 = 0x27D4EB2F;
+    private static final int PRIME5 = 0x165667B1;
+
+    private final int seed;
+    private int v1;
+    private int v2;
+    private int v3;
+    private int v4;
+    private long totalLength = 0;
+    private final byte[] pending = new byte[16];
+    private int pendingLength = 0;
+
+    XxHash32(int seed) {
+        this.seed = seed;
+        this.v1 = seed + PRIME1 + PRIME2;
+        this.v2 = seed + PRIME2;
+        this.v3 = seed;
+        this.v4 = seed - PRIME1;
+    }
+
+    /**
+     * Hashes a byte range in one go.
+     * 
+     * @param b
+     *            the data
+     * @param off
+     *            the start offset in the data
+     * @param len
+     *            the number of bytes to hash
+     * @param seed
+     *            the seed
+     * @return the hash
+     */
+    static int hash(byte[] b, int off, int len, int seed) {
+        XxHash32 h = new XxHash32(seed);
+        h.update(b, off, len);
+        return h.getValue();
+    }
+
+    void update(byte[] b, int off, int len) {
+        this.totalLength += len;
+
+        if (this.pendingLength + len < 16) {
+            System.arraycopy(b, off, this.pending, this.pendingLength, len);
+            this.pendingLength += len;
+            return;
+        }
+
+        int end = off + len;
+        if (this.pendingLength > 0) {
+            int fill = 16 - this.pendingLength;
+            System.arraycopy(b, off, this.pending, this.pendingLength, fill);
+            consumeStripe(this.pending, 0);
+            off += fill;
+            this.pendingLength = 0;
+        }
+        for (; off <= end - 16; off += 16) {
+            consumeStripe(b, off);
+        }
+        this.pendingLength = end - off;
+        System.arraycopy(b, off, this.pending, 0, this.pendingLength);
+    }
+
+    int getValue() {
+        int h;
+        if (this.totalLength >= 16) {
+            h = Integer.rotateLeft(this.v1, 1) + Integer.rotateLeft(this.v2, 7) + Integer.rotateLeft(this.v3, 12) + Integer.rotateLeft(this.v4, 18);
+        } else {
+            h = this.seed + PRIME5;
+        }
+        h += (int) this.totalLength;
+
+        int off = 0;
+        for (; off <= this.pendingLength - 4; off += 4) {
+            h += readIntLE(this.pending, off) * PRIME3;
+            h = Integer.rotateLeft(h, 17) * PRIME4;
+        }
+        for (; off < this.pendingLength; off++) {
+            h += (this.pending[off] & 0xFF) * PRIME5;
+            h = Integer.rotateLeft(h, 11) * PRIME1;
+        }
+
+        h ^= h >>> 15;
+        h *= PRIME2;
+        h ^= h >>> 13;
+        h *= PRIME3;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private void consumeStripe(byte[] b, int off) {
+        this.v1 = round(this.v1, readIntLE(b, off));
+        this.v2 = round(this.v2, readIntLE(b, off + 4));
+        this.v3 = round(this.v3, readIntLE(b, off + 8));
+        this.v4 = round(this.v4, readIntLE(b, off + 12));
+    }
+
+    private static int round(int acc, int input) {
+        acc += input * PRIME2;
+        acc = Integer.rotateLeft(acc, 13);
+        return acc * PRIME1;
+    }
+
+    static int readIntLE(byte[] b, int off) {
+        return (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24;
+    }
+}
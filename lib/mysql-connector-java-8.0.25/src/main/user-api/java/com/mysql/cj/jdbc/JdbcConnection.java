@@ -595,6 +595,15 @@ public interface JdbcConnection extends java.sql.Connection, MysqlConnection, Tr
      */
     ClientInfoProvider getClientInfoProviderImpl() throws SQLException;
 
+    /**
+     * Starts pipelining commands on this connection. Only one pipeline can be open at a time.
+     * 
+     * @return a new pipeline
+     * @throws SQLException
+     *             if the connection is closed or another pipeline is open
+     */
+    JdbcPipeline createPipeline() throws SQLException;
+
     /**
      * Set current database for this connection.
      * 
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends several commands on one connection without waiting for each result. Commands are written back to back and their results are read in the order
+ * the commands were sent, so a batch of independent small statements costs about one network round trip instead of one per statement.
+ * 
+ * Each command gets its own future: a statement the server rejects completes only its future exceptionally, the following commands still run. A
+ * communication failure completes all outstanding futures exceptionally and is also thrown to the caller.
+ * 
+ * Commands that depend on state the driver handles between round trips (a database other than the connection's current one, cursor fetch, a query
+ * timeout, streamed parameters of server-side prepared statements, stored procedure calls, LOAD DATA LOCAL) or connections with query interceptors,
+ * compression or profiling run serially instead, so that statements with a query timeout are cancelled as usual, after the results of all earlier commands were read; their futures are complete when the method returns. A command
+ * with another max rows limit than the previous one waits for the pending results before the session limit is changed. Results are always fully read,
+ * fetch size hints are ignored, and data truncation warnings are not turned into exceptions.
+ * 
+ * Results are read when the pipeline is synchronized with {@link #sync()}, or up to the command whose future is waited for with {@code get()} or
+ * {@code join()}, and before any statement is executed on the connection outside of the pipeline. A pipeline is not thread safe.
+ */
+public interface JdbcPipeline extends AutoCloseable {
+
+    /**
+     * Sends a query.
+     * 
+     * @param sql
+     *            an SQL statement that returns a result set
+     * @return the future result set, owned by an internal statement that is closed together with the result set
+     * @throws SQLException
+     *             if the pipeline is closed or the connection failed
+     */
+    CompletableFuture<ResultSet> executeQuery(String sql) throws SQLException;
+
+    /**
+     * Sends an update statement.
+     * 
+     * @param sql
+     *            an SQL statement that returns an update count
+     * @return the future update count
+     * @throws SQLException
+     *             if the pipeline is closed or the connection failed
+     */
+    CompletableFuture<Long> executeUpdate(String sql) throws SQLException;
+
+    /**
+     * Executes a prepared statement of this connection with its current parameter values. The parameters can be changed as soon as this method
+     * returns.
+     * 
+     * @param pstmt
+     *            the prepared statement
+     * @return the future result set, also available from {@link PreparedStatement#getResultSet()} until the statement is executed again
+     * @throws SQLException
+     *             if the pipeline is closed, the statement does not belong to this connection, a parameter is not set or the connection failed
+     */
+    CompletableFuture<ResultSet> executeQuery(PreparedStatement pstmt) throws SQLException;
+
+    /**
+     * Executes a prepared statement of this connection with its current parameter values. The parameters can be changed as soon as this method
+     * returns.
+     * 
+     * @param pstmt
+     *            the prepared statement
+     * @return the future update count
+     * @throws SQLException
+     *             if the pipeline is closed, the statement does not belong to this connection, a parameter is not set or the connection failed
+     */
+    CompletableFuture<Long> executeUpdate(PreparedStatement pstmt) throws SQLException;
+
+    /**
+     * Returns the number of commands sent whose results were not read yet.
+     * 
+     * @return number of pending commands
+     */
+    int getPendingCount();
+
+    /**
+     * Reads the results of all pending commands, completing their futures.
+     * 
+     * @throws SQLException
+     *             if the connection failed
+     */
+    void sync() throws SQLException;
+
+    /**
+     * Synchronizes the pipeline and releases the connection for other use.
+     * 
+     * @throws SQLException
+     *             if the connection failed
+     */
+    @Override
+    void close() throws SQLException;
+}
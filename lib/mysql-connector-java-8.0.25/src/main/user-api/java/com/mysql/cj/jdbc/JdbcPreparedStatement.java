@@ -30,7 +30,9 @@
 package com.mysql.cj.jdbc;
 
 import java.math.BigInteger;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 
 import com.mysql.cj.MysqlType;
 import com.mysql.cj.ParseInfo;
@@ -75,4 +77,36 @@ public interface JdbcPreparedStatement extends java.sql.PreparedStatement, JdbcS
     void setNull(int parameterIndex, MysqlType mysqlType) throws SQLException;
 
     ParameterBindings getParameterBindings() throws SQLException;
+
+    /**
+     * Executes this statement with its current parameter values without blocking the calling thread. See {@link JdbcStatement#executeQueryAsync(String)}.
+     * The parameter values are copied before the method returns, so they can be changed right away.
+     * 
+     * @return the future result set
+     * @throws SQLException
+     *             if this statement is closed
+     */
+    CompletableFuture<ResultSet> executeQueryAsync() throws SQLException;
+
+    /**
+     * Executes this statement with its current parameter values without blocking the calling thread and streams its rows to a handler. See
+     * {@link JdbcStatement#executeQueryAsync(String, JdbcStatement.RowHandler)}. The parameter values are copied before the method returns, so they can be changed right away.
+     * 
+     * @param handler
+     *            receives the rows on a dispatcher thread
+     * @return the future number of rows
+     * @throws SQLException
+     *             if this statement is closed
+     */
+    CompletableFuture<Long> executeQueryAsync(RowHandler handler) throws SQLException;
+
+    /**
+     * Executes this update statement with its current parameter values without blocking the calling thread. See
+     * {@link JdbcStatement#executeQueryAsync(String)}. The parameter values are copied before the method returns, so they can be changed right away.
+     * 
+     * @return the future update count
+     * @throws SQLException
+     *             if this statement is closed
+     */
+    CompletableFuture<Long> executeUpdateAsync() throws SQLException;
 }
@@ -30,7 +30,9 @@
 package com.mysql.cj.jdbc;
 
 import java.io.InputStream;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 
 import com.mysql.cj.PingTarget;
 import com.mysql.cj.Query;
@@ -47,6 +49,22 @@ public interface JdbcStatement extends java.sql.Statement, Query {
 
     public static final int MAX_ROWS = 50000000; // From the MySQL FAQ
 
+    /**
+     * Receives the rows of a query executed with {@link JdbcStatement#executeQueryAsync(String, RowHandler)}.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * Called once for every row, on the thread that reads the result.
+         * 
+         * @param rs
+         *            the result set, positioned on the row; it must not be moved or closed
+         * @throws SQLException
+         *             to stop reading, the query then completes exceptionally
+         */
+        void handleRow(ResultSet rs) throws SQLException;
+    }
+
     /**
      * Workaround for containers that 'check' for sane values of
      * Statement.setFetchSize() so that applications can use
@@ -123,4 +141,46 @@ public interface JdbcStatement extends java.sql.Statement, Query {
     void setHoldResultsOpenOverClose(boolean holdResultsOpenOverClose);
 
     Query getQuery();
+
+    /**
+     * Executes a query without blocking the calling thread.
+     * 
+     * The command is queued on the connection and executed in submission order by a driver-wide pool of dispatcher threads. The I/O is blocking: a
+     * dispatcher thread is taken by one connection for the round trip of all commands queued on it so far, which are pipelined (see
+     * {@link JdbcConnection#createPipeline()}), so the pool size bounds the number of connections that make progress at the same time. A statement
+     * with a query timeout is not pipelined but executed on its own, and cancelled when the timeout expires. The returned future and the actions
+     * depending on it are completed on a dispatcher thread, which must not be blocked.
+     * 
+     * @param sql
+     *            an SQL statement that returns a result set
+     * @return the future result set, owned by an internal statement with the same max rows, escape processing and query timeout settings
+     * @throws SQLException
+     *             if this statement is closed
+     */
+    CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLException;
+
+    /**
+     * Executes a query without blocking the calling thread and streams its rows to a handler, so that the result is never held in memory. See
+     * {@link #executeQueryAsync(String)}.
+     * 
+     * @param sql
+     *            an SQL statement that returns a result set
+     * @param handler
+     *            receives the rows on a dispatcher thread
+     * @return the future number of rows
+     * @throws SQLException
+     *             if this statement is closed
+     */
+    CompletableFuture<Long> executeQueryAsync(String sql, RowHandler handler) throws SQLException;
+
+    /**
+     * Executes an update statement without blocking the calling thread. See {@link #executeQueryAsync(String)}.
+     * 
+     * @param sql
+     *            an SQL statement that returns an update count
+     * @return the future update count, also available from this statement until it is executed again
+     * @throws SQLException
+     *             if this statement is closed
+     */
+    CompletableFuture<Long> executeUpdateAsync(String sql) throws SQLException;
 }
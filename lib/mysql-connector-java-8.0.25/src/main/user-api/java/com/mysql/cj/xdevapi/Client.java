@@ -54,7 +54,7 @@ public interface Client {
 
     public enum ClientProperty {
         POOLING_ENABLED("pooling.enabled"), POOLING_MAX_SIZE("pooling.maxSize"), POOLING_MAX_IDLE_TIME("pooling.maxIdleTime"),
-        POOLING_QUEUE_TIMEOUT("pooling.queueTimeout");
+        POOLING_QUEUE_TIMEOUT("pooling.queueTimeout"), POOLING_MIN_SIZE("pooling.minSize");
 
         private String keyName = "";
 
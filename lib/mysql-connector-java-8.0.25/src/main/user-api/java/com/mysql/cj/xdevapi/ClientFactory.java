@@ -58,6 +58,7 @@ public class ClientFactory {
      * pooling : {
      *     enabled: true|false,
      *     maxSize: integer &gt; 0
+ *     minSize: integer &ge; 0,
      *     maxIdleTime: integer &ge; 0,
      *     queueTimeOut: integer &ge; 0
      * }
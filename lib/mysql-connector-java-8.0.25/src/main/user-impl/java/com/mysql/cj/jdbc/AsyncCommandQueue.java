@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+import com.mysql.cj.conf.PropertyDefinitions;
+import com.mysql.cj.exceptions.ExceptionInterceptor;
+import com.mysql.cj.jdbc.JdbcStatement.RowHandler;
+import com.mysql.cj.jdbc.exceptions.SQLExceptionsMapping;
+
+/**
+ * The queue of asynchronous commands of one connection, see {@link JdbcStatement#executeQueryAsync(String)}.
+ * 
+ * The queues of all connections are served by one driver-wide pool of dispatcher threads (system property
+ * {@value PropertyDefinitions#SYSP_asyncDispatcherThreads}, {@link #DEFAULT_DISPATCHER_THREADS} by default). A queue is scheduled when a command arrives
+ * and then runs on one dispatcher thread at a time: it takes the commands queued so far, sends them through one {@link PipelineImpl}, reads their results
+ * and gives the thread back to the other connections. Commands of a connection therefore run in submission order and cost one round trip per batch
+ * instead of one each.
+ * 
+ * The socket I/O is blocking and done with the connection lock held, so a dispatcher thread serves exactly one connection until its batch is read, and a
+ * streamed query keeps it until the last row. The pool size is the number of connections that make progress at the same time; connections with queued
+ * commands beyond that wait for a free thread. The pool never holds more than one task per connection, and idle threads end after
+ * {@link #DISPATCHER_KEEP_ALIVE_SECONDS} seconds.
+ */
+public class AsyncCommandQueue {
+
+    /** Maximum number of commands taken in one turn, so that a busy connection doesn't starve the others. */
+    static final int MAX_BATCH = 256;
+
+    /** Default number of dispatcher threads. The threads mostly wait for the network, so there are more of them than processors. */
+    static final int DEFAULT_DISPATCHER_THREADS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    /** Time after which an idle dispatcher thread ends. */
+    static final long DISPATCHER_KEEP_ALIVE_SECONDS = 60;
+
+    /**
+     * A command run on a dispatcher thread.
+     */
+    @FunctionalInterface
+    interface AsyncCommand<T> {
+        CompletableFuture<T> execute(PipelineImpl pipeline) throws SQLException;
+    }
+
+    /**
+     * A statement execution run by an asynchronous command.
+     */
+    @FunctionalInterface
+    interface Execution<T> {
+        T execute() throws SQLException;
+    }
+
+    private static class QueuedCommand<T> {
+        final AsyncCommand<T> command;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> result;
+
+        QueuedCommand(AsyncCommand<T> command) {
+            this.command = command;
+        }
+
+        void execute(PipelineImpl pipeline, ExceptionInterceptor exceptionInterceptor) {
+            try {
+                this.result = this.command.execute(pipeline);
+            } catch (Throwable t) {
+                fail(SQLExceptionsMapping.translateException(t, exceptionInterceptor));
+            }
+        }
+
+        void fail(SQLException ex) {
+            this.result = new CompletableFuture<>();
+            this.result.completeExceptionally(ex);
+        }
+
+        void complete() {
+            this.result.whenComplete((value, t) -> {
+                if (t == null) {
+                    this.future.complete(value);
+                } else {
+                    this.future.completeExceptionally(t);
+                }
+            });
+        }
+    }
+
+    /**
+     * Holder of the dispatcher, so that its threads are only created when asynchronous commands are used.
+     */
+    private static class Dispatcher {
+        static final ExecutorService EXECUTOR;
+
+        static {
+            int threads = Math.max(1, Integer.getInteger(PropertyDefinitions.SYSP_asyncDispatcherThreads, DEFAULT_DISPATCHER_THREADS));
+            AtomicInteger threadNumber = new AtomicInteger();
+            // the work queue holds at most one task per connection, see schedule()
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, DISPATCHER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    r -> {
+                        Thread t = new Thread(r, "mysql-cj-async-dispatcher-" + threadNumber.incrementAndGet());
+                        t.setDaemon(true);
+                        // see AbandonedConnectionCleanupThread
+                        ClassLoader classLoader = AsyncCommandQueue.class.getClassLoader();
+                        t.setContextClassLoader(classLoader != null ? classLoader : ClassLoader.getSystemClassLoader());
+                        return t;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            EXECUTOR = executor;
+        }
+    }
+
+    private final ConnectionImpl connection;
+    private final Queue<QueuedCommand<?>> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    AsyncCommandQueue(ConnectionImpl connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Queues a command.
+     * 
+     * @param command
+     *            the command
+     * @param <T>
+     *            result type
+     * @return the future result, completed on a dispatcher thread
+     */
+    <T> CompletableFuture<T> submit(AsyncCommand<T> command) {
+        QueuedCommand<T> queued = new QueuedCommand<>(command);
+        this.commands.add(queued);
+        schedule();
+        return queued.future;
+    }
+
+    private void schedule() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            Dispatcher.EXECUTOR.execute(this::runBatch);
+        }
+    }
+
+    private void runBatch() {
+        List<QueuedCommand<?>> batch = new ArrayList<>();
+        try {
+            QueuedCommand<?> queued;
+            while (batch.size() < MAX_BATCH && (queued = this.commands.poll()) != null) {
+                batch.add(queued);
+            }
+            execute(batch);
+        } finally {
+            this.scheduled.set(false);
+            if (!this.commands.isEmpty()) {
+                schedule();
+            }
+        }
+        // the futures are completed without holding the connection, dependent actions may use it
+        for (QueuedCommand<?> queued : batch) {
+            queued.complete();
+        }
+    }
+
+    private void execute(List<QueuedCommand<?>> batch) {
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            PipelineImpl pipeline;
+            try {
+                pipeline = (PipelineImpl) this.connection.createPipeline();
+            } catch (Throwable t) {
+                SQLException ex = SQLExceptionsMapping.translateException(t, this.connection.getExceptionInterceptor());
+                for (QueuedCommand<?> queued : batch) {
+                    queued.fail(ex);
+                }
+                return;
+            }
+
+            try {
+                for (QueuedCommand<?> queued : batch) {
+                    queued.execute(pipeline, this.connection.getExceptionInterceptor());
+                }
+            } finally {
+                try {
+                    pipeline.close();
+                } catch (Throwable t) {
+                    // the pending commands were failed with the cause
+                }
+            }
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    /**
+     * Executes a query of a statement as a streaming result and passes its rows to a handler. Runs after the results of the commands pipelined before it.
+     * 
+     * @param pipeline
+     *            the pipeline of the current batch
+     * @param stmt
+     *            the statement to stream with
+     * @param execution
+     *            executes the query on the statement
+     * @param handler
+     *            receives the rows
+     * @return the completed future number of rows
+     * @throws SQLException
+     *             if the query or the handler failed
+     */
+    static CompletableFuture<Long> streamRows(PipelineImpl pipeline, StatementImpl stmt, Execution<ResultSet> execution, RowHandler handler)
+            throws SQLException {
+        pipeline.sync();
+
+        stmt.enableStreamingResults();
+        try (ResultSet rs = execution.execute()) {
+            long rows = 0;
+            while (rs.next()) {
+                handler.handleRow(rs);
+                rows++;
+            }
+            return CompletableFuture.completedFuture(rows);
+        } finally {
+            stmt.disableStreamingResults();
+        }
+    }
+}
@@ -55,6 +55,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.Messages;
 import com.mysql.cj.MysqlType;
@@ -504,7 +505,9 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
     private int[] placeholderToParameterIndexMap;
 
     private void generateParameterMap() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.paramInfo == null) {
                 return;
             }
@@ -555,6 +558,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
                     }
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -607,7 +612,9 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
 
     private CallableStatementParam checkIsOutputParam(int paramIndex) throws SQLException {
 
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.callingStoredFunction) {
                 if (paramIndex == 1) {
 
@@ -647,6 +654,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.hasOutputParams = true;
 
             return paramDescriptor;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -658,8 +667,12 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
      *             if a database access error occurs or this method is called on a closed PreparedStatement
      */
     private void checkParameterIndexBounds(int paramIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.paramInfo.checkBounds(paramIndex);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -680,7 +693,9 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
 
     @Override
     public void clearParameters() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             super.clearParameters();
 
             try {
@@ -690,6 +705,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             } finally {
                 this.outputParameterResults = null;
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -704,7 +721,9 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
      *             if we can't build the metadata.
      */
     private void fakeParameterTypes(boolean isReallyProcedure) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             String encoding = this.connection.getSession().getServerSession().getCharacterSetMetadata();
             int collationIndex = this.connection.getSession().getServerSession().getMetadataCollationIndex();
             Field[] fields = new Field[13];
@@ -758,11 +777,15 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
                     new ResultsetRowsStatic(resultRows, new DefaultColumnDefinition(fields)));
 
             convertGetProcedureColumnsToInternalDescriptors(paramTypesRs);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     private void determineParameterTypes() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             java.sql.ResultSet paramTypesRs = null;
 
             try {
@@ -823,18 +846,26 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
                     throw sqlExRethrow;
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     private void convertGetProcedureColumnsToInternalDescriptors(java.sql.ResultSet paramTypesRs) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.paramInfo = new CallableStatementParamInfo(paramTypesRs);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean execute() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             boolean returnVal = false;
 
             checkStreamability();
@@ -872,12 +903,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
 
             // Functions can't return results
             return false;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public java.sql.ResultSet executeQuery() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
 
             checkStreamability();
 
@@ -891,6 +926,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             retrieveOutParams();
 
             return execResults;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -946,7 +983,9 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
      *             if the parameter name is null or empty.
      */
     protected String fixParameterName(String paramNameIn) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (paramNameIn == null) {
                 paramNameIn = "nullpn";
             }
@@ -957,12 +996,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             }
 
             return mangleParameterName(paramNameIn);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Array getArray(int i) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(i);
 
             Array retValue = rs.getArray(mapOutputParameterIndexToRsIndex(i));
@@ -970,12 +1013,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Array getArray(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Array retValue = rs.getArray(fixParameterName(parameterName));
@@ -983,12 +1030,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public BigDecimal getBigDecimal(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             BigDecimal retValue = rs.getBigDecimal(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -996,13 +1047,17 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     @Deprecated
     public BigDecimal getBigDecimal(int parameterIndex, int scale) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             BigDecimal retValue = rs.getBigDecimal(mapOutputParameterIndexToRsIndex(parameterIndex), scale);
@@ -1010,12 +1065,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public BigDecimal getBigDecimal(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             BigDecimal retValue = rs.getBigDecimal(fixParameterName(parameterName));
@@ -1023,12 +1082,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Blob getBlob(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             Blob retValue = rs.getBlob(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1036,12 +1099,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Blob getBlob(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Blob retValue = rs.getBlob(fixParameterName(parameterName));
@@ -1049,12 +1116,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean getBoolean(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             boolean retValue = rs.getBoolean(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1062,12 +1133,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean getBoolean(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             boolean retValue = rs.getBoolean(fixParameterName(parameterName));
@@ -1075,12 +1150,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public byte getByte(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             byte retValue = rs.getByte(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1088,12 +1167,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public byte getByte(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             byte retValue = rs.getByte(fixParameterName(parameterName));
@@ -1101,12 +1184,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public byte[] getBytes(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             byte[] retValue = rs.getBytes(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1114,12 +1201,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public byte[] getBytes(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             byte[] retValue = rs.getBytes(fixParameterName(parameterName));
@@ -1127,12 +1218,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Clob getClob(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             Clob retValue = rs.getClob(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1140,12 +1235,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Clob getClob(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Clob retValue = rs.getClob(fixParameterName(parameterName));
@@ -1153,12 +1252,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Date getDate(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             Date retValue = rs.getDate(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1166,12 +1269,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Date getDate(int parameterIndex, Calendar cal) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             Date retValue = rs.getDate(mapOutputParameterIndexToRsIndex(parameterIndex), cal);
@@ -1179,12 +1286,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Date getDate(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Date retValue = rs.getDate(fixParameterName(parameterName));
@@ -1192,12 +1303,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Date getDate(String parameterName, Calendar cal) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Date retValue = rs.getDate(fixParameterName(parameterName), cal);
@@ -1205,12 +1320,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public double getDouble(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             double retValue = rs.getDouble(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1218,12 +1337,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public double getDouble(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             double retValue = rs.getDouble(fixParameterName(parameterName));
@@ -1231,12 +1354,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public float getFloat(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             float retValue = rs.getFloat(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1244,12 +1371,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public float getFloat(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             float retValue = rs.getFloat(fixParameterName(parameterName));
@@ -1257,12 +1388,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public int getInt(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             int retValue = rs.getInt(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1270,12 +1405,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public int getInt(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             int retValue = rs.getInt(fixParameterName(parameterName));
@@ -1283,12 +1422,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public long getLong(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             long retValue = rs.getLong(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1296,12 +1439,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public long getLong(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             long retValue = rs.getLong(fixParameterName(parameterName));
@@ -1309,11 +1456,15 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     protected int getNamedParamIndex(String paramName, boolean forOut) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.noAccessToProcedureBodies) {
                 throw SQLError.createSQLException("No access to parameters by name when connection has been configured not to access procedure bodies",
                         MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, getExceptionInterceptor());
@@ -1347,12 +1498,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
 
             throw SQLError.createSQLException(Messages.getString("CallableStatement.6", new Object[] { paramName }),
                     MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, getExceptionInterceptor());
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Object getObject(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             CallableStatementParam paramDescriptor = checkIsOutputParam(parameterIndex);
 
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
@@ -1362,12 +1517,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retVal;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Object getObject(int parameterIndex, Map<String, Class<?>> map) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             Object retVal = rs.getObject(mapOutputParameterIndexToRsIndex(parameterIndex), map);
@@ -1375,12 +1534,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retVal;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Object getObject(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Object retValue = rs.getObject(fixParameterName(parameterName));
@@ -1388,12 +1551,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Object getObject(String parameterName, Map<String, Class<?>> map) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Object retValue = rs.getObject(fixParameterName(parameterName), map);
@@ -1401,12 +1568,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public <T> T getObject(int parameterIndex, Class<T> type) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             // remove cast once 1.5, 1.6 EOL'd
@@ -1415,12 +1586,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retVal;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public <T> T getObject(String parameterName, Class<T> type) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             T retValue = ((ResultSetImpl) rs).getObject(fixParameterName(parameterName), type);
@@ -1428,6 +1603,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1445,7 +1622,9 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
      *             parameters were returned.
      */
     protected ResultSetInternalMethods getOutputParameters(int paramIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.outputParamWasNull = false;
 
             if (paramIndex == 1 && this.callingStoredFunction && this.returnValueParam != null) {
@@ -1462,23 +1641,31 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             }
 
             return this.outputParameterResults;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public ParameterMetaData getParameterMetaData() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.placeholderToParameterIndexMap == null) {
                 return this.paramInfo;
             }
 
             return new CallableStatementParamInfo(this.paramInfo);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Ref getRef(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             Ref retValue = rs.getRef(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1486,12 +1673,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Ref getRef(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Ref retValue = rs.getRef(fixParameterName(parameterName));
@@ -1499,12 +1690,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public short getShort(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             short retValue = rs.getShort(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1512,12 +1707,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public short getShort(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             short retValue = rs.getShort(fixParameterName(parameterName));
@@ -1525,12 +1724,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public String getString(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             String retValue = rs.getString(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1538,12 +1741,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public String getString(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             String retValue = rs.getString(fixParameterName(parameterName));
@@ -1551,12 +1758,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Time getTime(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             Time retValue = rs.getTime(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1564,12 +1775,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Time getTime(int parameterIndex, Calendar cal) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             Time retValue = rs.getTime(mapOutputParameterIndexToRsIndex(parameterIndex), cal);
@@ -1577,12 +1792,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Time getTime(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Time retValue = rs.getTime(fixParameterName(parameterName));
@@ -1590,12 +1809,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Time getTime(String parameterName, Calendar cal) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Time retValue = rs.getTime(fixParameterName(parameterName), cal);
@@ -1603,12 +1826,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Timestamp getTimestamp(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             Timestamp retValue = rs.getTimestamp(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1616,12 +1843,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Timestamp getTimestamp(int parameterIndex, Calendar cal) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             Timestamp retValue = rs.getTimestamp(mapOutputParameterIndexToRsIndex(parameterIndex), cal);
@@ -1629,12 +1860,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Timestamp getTimestamp(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Timestamp retValue = rs.getTimestamp(fixParameterName(parameterName));
@@ -1642,12 +1877,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public Timestamp getTimestamp(String parameterName, Calendar cal) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             Timestamp retValue = rs.getTimestamp(fixParameterName(parameterName), cal);
@@ -1655,12 +1894,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public URL getURL(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(parameterIndex);
 
             URL retValue = rs.getURL(mapOutputParameterIndexToRsIndex(parameterIndex));
@@ -1668,12 +1911,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public URL getURL(String parameterName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ResultSetInternalMethods rs = getOutputParameters(0); // definitely not going to be from ?=
 
             URL retValue = rs.getURL(fixParameterName(parameterName));
@@ -1681,12 +1928,16 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             this.outputParamWasNull = rs.wasNull();
 
             return retValue;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     protected int mapOutputParameterIndexToRsIndex(int paramIndex) throws SQLException {
 
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.returnValueParam != null && paramIndex == 1) {
                 return 1;
             }
@@ -1707,6 +1958,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             }
 
             return rsIndex + 1;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1779,8 +2032,12 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
 
     @Override
     public void registerOutParameter(String parameterName, int sqlType) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             registerOutParameter(getNamedParamIndex(parameterName, true), sqlType);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1828,7 +2085,9 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
      *             if an error occurs.
      */
     private void retrieveOutParams() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             int numParameters = this.paramInfo.numberOfParameters();
 
             this.parameterIndexToRsIndex = new int[numParameters];
@@ -1899,6 +2158,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             } else {
                 this.outputParameterResults = null;
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1958,7 +2219,9 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
     }
 
     private void setInOutParamsOnServer() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.paramInfo.numParameters > 0) {
                 for (Iterator<CallableStatementParam> paramIter = this.paramInfo.iterator(); paramIter.hasNext();) {
 
@@ -2022,6 +2285,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
                     }
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2057,8 +2322,12 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
 
     @Override
     public void setObject(String parameterName, Object x, SQLType targetSqlType) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             setObject(getNamedParamIndex(parameterName, false), x, targetSqlType);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2069,13 +2338,19 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
 
     @Override
     public void setObject(String parameterName, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             setObject(getNamedParamIndex(parameterName, false), x, targetSqlType, scaleOrLength);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     private void setOutParams() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.paramInfo.numParameters > 0) {
                 for (Iterator<CallableStatementParam> paramIter = this.paramInfo.iterator(); paramIter.hasNext();) {
                     CallableStatementParam outParamInfo = paramIter.next();
@@ -2114,6 +2389,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
                     }
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2154,8 +2431,12 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
 
     @Override
     public boolean wasNull() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.outputParamWasNull;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2266,7 +2547,9 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
      *             if a database access error occurs or this method is called on a closed PreparedStatement
      */
     private boolean checkReadOnlyProcedure() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.noAccessToProcedureBodies) {
                 return false;
             }
@@ -2323,6 +2606,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             }
             this.paramInfo.isReadOnlySafeChecked = false;
             this.paramInfo.isReadOnlySafeProcedure = false;
+        } finally {
+            connectionLock.unlock();
         }
         return false;
 
@@ -2512,7 +2797,9 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
 
     @Override
     public long executeLargeUpdate() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             long returnVal = -1;
 
             checkStreamability();
@@ -2531,6 +2818,8 @@ public class CallableStatement extends ClientPreparedStatement implements java.s
             retrieveOutParams();
 
             return returnVal;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
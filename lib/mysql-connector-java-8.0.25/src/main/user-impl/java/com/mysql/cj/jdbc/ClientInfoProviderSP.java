@@ -35,6 +35,7 @@ import java.sql.SQLClientInfoException;
 import java.sql.SQLException;
 import java.util.Enumeration;
 import java.util.Properties;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ClientInfoProviderSP implements ClientInfoProvider {
 
@@ -49,121 +50,153 @@ public class ClientInfoProviderSP implements ClientInfoProvider {
 
     PreparedStatement getClientInfoBulkSp;
 
+    private final ReentrantLock lock = new ReentrantLock();
+
     @Override
-    public synchronized void initialize(java.sql.Connection conn, Properties configurationProps) throws SQLException {
-        String identifierQuote = ((JdbcConnection) conn).getSession().getIdentifierQuoteString();
-        String setClientInfoSpName = configurationProps.getProperty(PNAME_clientInfoSetSPName, "setClientInfo");
-        String getClientInfoSpName = configurationProps.getProperty(PNAME_clientInfoGetSPName, "getClientInfo");
-        String getClientInfoBulkSpName = configurationProps.getProperty(PNAME_clientInfoGetBulkSPName, "getClientInfoBulk");
-        String clientInfoDatabase = configurationProps.getProperty(PNAME_clientInfoDatabase, ""); // "" means use current from connection
+    public void initialize(java.sql.Connection conn, Properties configurationProps) throws SQLException {
+        this.lock.lock();
+        try {
+            String identifierQuote = ((JdbcConnection) conn).getSession().getIdentifierQuoteString();
+            String setClientInfoSpName = configurationProps.getProperty(PNAME_clientInfoSetSPName, "setClientInfo");
+            String getClientInfoSpName = configurationProps.getProperty(PNAME_clientInfoGetSPName, "getClientInfo");
+            String getClientInfoBulkSpName = configurationProps.getProperty(PNAME_clientInfoGetBulkSPName, "getClientInfoBulk");
+            String clientInfoDatabase = configurationProps.getProperty(PNAME_clientInfoDatabase, ""); // "" means use current from connection
 
-        String db = "".equals(clientInfoDatabase) ? ((JdbcConnection) conn).getDatabase() : clientInfoDatabase;
+            String db = "".equals(clientInfoDatabase) ? ((JdbcConnection) conn).getDatabase() : clientInfoDatabase;
 
-        this.setClientInfoSp = ((JdbcConnection) conn).clientPrepareStatement(
-                "CALL " + identifierQuote + db + identifierQuote + "." + identifierQuote + setClientInfoSpName + identifierQuote + "(?, ?)");
+            this.setClientInfoSp = ((JdbcConnection) conn).clientPrepareStatement(
+                    "CALL " + identifierQuote + db + identifierQuote + "." + identifierQuote + setClientInfoSpName + identifierQuote + "(?, ?)");
 
-        this.getClientInfoSp = ((JdbcConnection) conn).clientPrepareStatement(
-                "CALL" + identifierQuote + db + identifierQuote + "." + identifierQuote + getClientInfoSpName + identifierQuote + "(?)");
+            this.getClientInfoSp = ((JdbcConnection) conn).clientPrepareStatement(
+                    "CALL" + identifierQuote + db + identifierQuote + "." + identifierQuote + getClientInfoSpName + identifierQuote + "(?)");
 
-        this.getClientInfoBulkSp = ((JdbcConnection) conn).clientPrepareStatement(
-                "CALL " + identifierQuote + db + identifierQuote + "." + identifierQuote + getClientInfoBulkSpName + identifierQuote + "()");
+            this.getClientInfoBulkSp = ((JdbcConnection) conn).clientPrepareStatement(
+                    "CALL " + identifierQuote + db + identifierQuote + "." + identifierQuote + getClientInfoBulkSpName + identifierQuote + "()");
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     @Override
-    public synchronized void destroy() throws SQLException {
-        if (this.setClientInfoSp != null) {
-            this.setClientInfoSp.close();
-            this.setClientInfoSp = null;
-        }
+    public void destroy() throws SQLException {
+        this.lock.lock();
+        try {
+            if (this.setClientInfoSp != null) {
+                this.setClientInfoSp.close();
+                this.setClientInfoSp = null;
+            }
 
-        if (this.getClientInfoSp != null) {
-            this.getClientInfoSp.close();
-            this.getClientInfoSp = null;
-        }
+            if (this.getClientInfoSp != null) {
+                this.getClientInfoSp.close();
+                this.getClientInfoSp = null;
+            }
 
-        if (this.getClientInfoBulkSp != null) {
-            this.getClientInfoBulkSp.close();
-            this.getClientInfoBulkSp = null;
+            if (this.getClientInfoBulkSp != null) {
+                this.getClientInfoBulkSp.close();
+                this.getClientInfoBulkSp = null;
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
     @Override
-    public synchronized Properties getClientInfo(java.sql.Connection conn) throws SQLException {
-        ResultSet rs = null;
+    public Properties getClientInfo(java.sql.Connection conn) throws SQLException {
+        this.lock.lock();
+        try {
+            ResultSet rs = null;
 
-        Properties props = new Properties();
+            Properties props = new Properties();
 
-        try {
-            this.getClientInfoBulkSp.execute();
+            try {
+                this.getClientInfoBulkSp.execute();
 
-            rs = this.getClientInfoBulkSp.getResultSet();
+                rs = this.getClientInfoBulkSp.getResultSet();
 
-            while (rs.next()) {
-                props.setProperty(rs.getString(1), rs.getString(2));
+                while (rs.next()) {
+                    props.setProperty(rs.getString(1), rs.getString(2));
+                }
+            } finally {
+                if (rs != null) {
+                    rs.close();
+                }
             }
+
+            return props;
         } finally {
-            if (rs != null) {
-                rs.close();
-            }
+            this.lock.unlock();
         }
-
-        return props;
     }
 
     @Override
-    public synchronized String getClientInfo(java.sql.Connection conn, String name) throws SQLException {
-        ResultSet rs = null;
+    public String getClientInfo(java.sql.Connection conn, String name) throws SQLException {
+        this.lock.lock();
+        try {
+            ResultSet rs = null;
 
-        String clientInfo = null;
+            String clientInfo = null;
 
-        try {
-            this.getClientInfoSp.setString(1, name);
-            this.getClientInfoSp.execute();
+            try {
+                this.getClientInfoSp.setString(1, name);
+                this.getClientInfoSp.execute();
 
-            rs = this.getClientInfoSp.getResultSet();
+                rs = this.getClientInfoSp.getResultSet();
 
-            if (rs.next()) {
-                clientInfo = rs.getString(1);
+                if (rs.next()) {
+                    clientInfo = rs.getString(1);
+                }
+            } finally {
+                if (rs != null) {
+                    rs.close();
+                }
             }
+
+            return clientInfo;
         } finally {
-            if (rs != null) {
-                rs.close();
-            }
+            this.lock.unlock();
         }
-
-        return clientInfo;
     }
 
     @Override
-    public synchronized void setClientInfo(java.sql.Connection conn, Properties properties) throws SQLClientInfoException {
+    public void setClientInfo(java.sql.Connection conn, Properties properties) throws SQLClientInfoException {
+        this.lock.lock();
         try {
-            Enumeration<?> propNames = properties.propertyNames();
+            try {
+                Enumeration<?> propNames = properties.propertyNames();
 
-            while (propNames.hasMoreElements()) {
-                String name = (String) propNames.nextElement();
-                String value = properties.getProperty(name);
+                while (propNames.hasMoreElements()) {
+                    String name = (String) propNames.nextElement();
+                    String value = properties.getProperty(name);
 
-                setClientInfo(conn, name, value);
-            }
-        } catch (SQLException sqlEx) {
-            SQLClientInfoException clientInfoEx = new SQLClientInfoException();
-            clientInfoEx.initCause(sqlEx);
+                    setClientInfo(conn, name, value);
+                }
+            } catch (SQLException sqlEx) {
+                SQLClientInfoException clientInfoEx = new SQLClientInfoException();
+                clientInfoEx.initCause(sqlEx);
 
-            throw clientInfoEx;
+                throw clientInfoEx;
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
     @Override
-    public synchronized void setClientInfo(java.sql.Connection conn, String name, String value) throws SQLClientInfoException {
+    public void setClientInfo(java.sql.Connection conn, String name, String value) throws SQLClientInfoException {
+        this.lock.lock();
         try {
-            this.setClientInfoSp.setString(1, name);
-            this.setClientInfoSp.setString(2, value);
-            this.setClientInfoSp.execute();
-        } catch (SQLException sqlEx) {
-            SQLClientInfoException clientInfoEx = new SQLClientInfoException();
-            clientInfoEx.initCause(sqlEx);
-
-            throw clientInfoEx;
+            try {
+                this.setClientInfoSp.setString(1, name);
+                this.setClientInfoSp.setString(2, value);
+                this.setClientInfoSp.execute();
+            } catch (SQLException sqlEx) {
+                SQLClientInfoException clientInfoEx = new SQLClientInfoException();
+                clientInfoEx.initCause(sqlEx);
+
+                throw clientInfoEx;
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 }
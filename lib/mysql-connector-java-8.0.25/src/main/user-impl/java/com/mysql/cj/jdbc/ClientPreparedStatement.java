@@ -42,6 +42,7 @@ import java.sql.JDBCType;
 import java.sql.NClob;
 import java.sql.ParameterMetaData;
 import java.sql.Ref;
+import java.sql.ResultSet;
 import java.sql.RowId;
 import java.sql.SQLException;
 import java.sql.SQLType;
@@ -51,6 +52,8 @@ import java.sql.Timestamp;
 import java.sql.Wrapper;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.BindValue;
 import com.mysql.cj.CancelQueryTask;
@@ -251,19 +254,27 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
     @Override
     public void addBatch() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             QueryBindings<?> queryBindings = ((PreparedQuery<?>) this.query).getQueryBindings();
             queryBindings.checkAllParametersSet();
             this.query.addBatch(queryBindings.clone());
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void addBatch(String sql) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.batchHasPlainStatements = true;
 
             super.addBatch(sql);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -272,26 +283,38 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
     }
 
     public String asSql(boolean quoteStreamsAndUnknowns) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return ((PreparedQuery<?>) this.query).asSql(quoteStreamsAndUnknowns);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void clearBatch() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.batchHasPlainStatements = false;
 
             super.clearBatch();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void clearParameters() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             for (BindValue bv : ((PreparedQuery<?>) this.query).getQueryBindings().getBindValues()) {
                 bv.reset();
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -303,14 +326,20 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
      *             if a database access error occurs or this method is called on a closed PreparedStatement
      */
     protected boolean checkReadOnlySafeStatement() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return ((PreparedQuery<?>) this.query).getParseInfo().getFirstStmtChar() == 'S' || !this.connection.isReadOnly();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean execute() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
 
             JdbcConnection locallyScopedConn = this.connection;
 
@@ -393,12 +422,16 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
             }
 
             return ((rs != null) && rs.hasRows());
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     protected long[] executeBatchInternal() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
 
             if (this.connection.isReadOnly()) {
                 throw new SQLException(Messages.getString("PreparedStatement.25") + Messages.getString("PreparedStatement.26"),
@@ -438,6 +471,8 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
                 clearBatch();
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -454,7 +489,9 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
      *             if a database access error occurs or this method is called on a closed PreparedStatement
      */
     protected long[] executePreparedBatchAsMultiStatement(int batchTimeout) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             // This is kind of an abuse, but it gets the job done
             if (this.batchedValuesClause == null) {
                 this.batchedValuesClause = ((PreparedQuery<?>) this.query).getOriginalSql() + ";";
@@ -600,6 +637,8 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
                 clearBatch();
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -624,7 +663,9 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
     }
 
     private String generateMultiStatementForBatch(int numBatches) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             String origSql = ((PreparedQuery<?>) this.query).getOriginalSql();
             StringBuilder newStatementSql = new StringBuilder((origSql.length() + 1) * numBatches);
 
@@ -636,6 +677,8 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
             }
 
             return newStatementSql.toString();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -652,7 +695,9 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
      *             if a database access error occurs or this method is called on a closed PreparedStatement
      */
     protected long[] executeBatchedInserts(int batchTimeout) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             String valuesClause = ((PreparedQuery<?>) this.query).getParseInfo().getValuesClause();
 
             JdbcConnection locallyScopedConn = this.connection;
@@ -773,6 +818,8 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
                 stopQueryTimer(timeoutTask, false, false);
                 resetCancelledState();
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -787,7 +834,9 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
      */
     protected long[] executeBatchSerially(int batchTimeout) throws SQLException {
 
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.connection == null) {
                 checkClosed();
             }
@@ -877,6 +926,8 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
             }
 
             return (updateCounts != null) ? updateCounts : new long[0];
+        } finally {
+            connectionLock.unlock();
         }
 
     }
@@ -908,7 +959,9 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
      */
     protected <M extends Message> ResultSetInternalMethods executeInternal(int maxRowsToRetrieve, M sendPacket, boolean createStreamingResultSet,
             boolean queryIsSelectOnly, ColumnDefinition metadata, boolean isBatch) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             try {
 
                 JdbcConnection locallyScopedConnection = this.connection;
@@ -950,12 +1003,16 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
                 throw npe;
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public java.sql.ResultSet executeQuery() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
 
             JdbcConnection locallyScopedConn = this.connection;
 
@@ -1017,6 +1074,72 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
             this.lastInsertId = this.results.getUpdateID();
 
             return this.results;
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync() throws SQLException {
+        QueryBindings<?> bindings = copyQueryBindings();
+        return getAsyncCommandQueue().submit(pipeline -> executeWithQueryBindings(bindings, () -> pipeline.executeQuery(this)));
+    }
+
+    @Override
+    public CompletableFuture<Long> executeQueryAsync(RowHandler handler) throws SQLException {
+        QueryBindings<?> bindings = copyQueryBindings();
+        return getAsyncCommandQueue()
+                .submit(pipeline -> executeWithQueryBindings(bindings, () -> AsyncCommandQueue.streamRows(pipeline, this, () -> executeQuery(), handler)));
+    }
+
+    @Override
+    public CompletableFuture<Long> executeUpdateAsync() throws SQLException {
+        QueryBindings<?> bindings = copyQueryBindings();
+        return getAsyncCommandQueue().submit(pipeline -> executeWithQueryBindings(bindings, () -> pipeline.executeUpdate(this)));
+    }
+
+    /**
+     * Copies the current parameter values for an asynchronous execution, the same way {@link #addBatch()} does.
+     * 
+     * @return the copy
+     * @throws SQLException
+     *             if this statement is closed
+     */
+    private QueryBindings<?> copyQueryBindings() throws SQLException {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            return ((PreparedQuery<?>) this.query).getQueryBindings().clone();
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    /**
+     * Runs an asynchronous execution with the parameter values copied when it was submitted, then puts the current ones back. Called by the dispatcher
+     * with the connection lock held.
+     * 
+     * @param bindings
+     *            the parameter values copied by {@link #copyQueryBindings()}
+     * @param execution
+     *            the execution
+     * @param <T>
+     *            result type
+     * @return the result of the execution
+     * @throws SQLException
+     *             if the execution failed
+     */
+    @SuppressWarnings("unchecked")
+    <T> T executeWithQueryBindings(QueryBindings<?> bindings, AsyncCommandQueue.Execution<T> execution) throws SQLException {
+        PreparedQuery<QueryBindings<?>> preparedQuery = (PreparedQuery<QueryBindings<?>>) this.query;
+        QueryBindings<?> currentBindings = preparedQuery.getQueryBindings();
+        int executions = bindings.getNumberOfExecutions();
+        preparedQuery.setQueryBindings(bindings);
+        try {
+            return execution.execute();
+        } finally {
+            preparedQuery.setQueryBindings(currentBindings);
+            currentBindings.setNumberOfExecutions(currentBindings.getNumberOfExecutions() + bindings.getNumberOfExecutions() - executions);
         }
     }
 
@@ -1031,13 +1154,17 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
      * keys we need to gather for the batch.
      */
     protected long executeUpdateInternal(boolean clearBatchedGeneratedKeysAndWarnings, boolean isBatch) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (clearBatchedGeneratedKeysAndWarnings) {
                 clearWarnings();
                 this.batchedGeneratedKeys = null;
             }
 
             return executeUpdateInternal(((PreparedQuery<?>) this.query).getQueryBindings(), isBatch);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1056,7 +1183,9 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
      */
     protected long executeUpdateInternal(QueryBindings<?> bindings, boolean isReallyBatch) throws SQLException {
 
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
 
             JdbcConnection locallyScopedConn = this.connection;
 
@@ -1112,6 +1241,8 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
             this.lastInsertId = rs.getUpdateID();
 
             return this.updateCount;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1131,40 +1262,58 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
      *             if a database access error occurs or this method is called on a closed PreparedStatement
      */
     protected ClientPreparedStatement prepareBatchedInsertSQL(JdbcConnection localConn, int numBatches) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ClientPreparedStatement pstmt = new ClientPreparedStatement(localConn, "Rewritten batch of: " + ((PreparedQuery<?>) this.query).getOriginalSql(),
                     this.getCurrentDatabase(), ((PreparedQuery<?>) this.query).getParseInfo().getParseInfoForBatch(numBatches));
             pstmt.setRetrieveGeneratedKeys(this.retrieveGeneratedKeys);
             pstmt.rewrittenBatchSize = numBatches;
 
             return pstmt;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     protected void setRetrieveGeneratedKeys(boolean flag) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.retrieveGeneratedKeys = flag;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public byte[] getBytesRepresentation(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return ((PreparedQuery<?>) this.query).getQueryBindings().getBytesRepresentation(getCoreParameterIndex(parameterIndex));
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public byte[] getOrigBytes(int parameterIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return ((PreparedQuery<?>) this.query).getQueryBindings().getOrigBytes(getCoreParameterIndex(parameterIndex));
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public java.sql.ResultSetMetaData getMetaData() throws SQLException {
 
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             //
             // We could just tack on a LIMIT 0 here no matter what the  statement, and check if a result set was returned or not, but I'm not comfortable with
             // that, myself, so we take the "safer" road, and only allow metadata for _actual_ SELECTS (but not SHOWs).
@@ -1233,19 +1382,27 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
             }
 
             return this.pstmtResultMetaData;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     protected boolean isSelectQuery() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return StringUtils.startsWithIgnoreCaseAndWs(
                     StringUtils.stripComments(((PreparedQuery<?>) this.query).getOriginalSql(), "'\"", "'\"", true, false, true, true), "SELECT");
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public ParameterMetaData getParameterMetaData() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.parameterMetaData == null) {
                 if (this.session.getPropertySet().getBooleanProperty(PropertyKey.generateSimpleParameterMetadata).getValue()) {
                     this.parameterMetaData = new MysqlParameterMetadata(((PreparedQuery<?>) this.query).getParameterCount());
@@ -1256,6 +1413,8 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
             }
 
             return this.parameterMetaData;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1266,7 +1425,9 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
     @SuppressWarnings("unchecked")
     private void initializeFromParseInfo() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
 
             int parameterCount = ((PreparedQuery<ClientPreparedQueryBindings>) this.query).getParseInfo().getStaticSql().length - 1;
             ((PreparedQuery<?>) this.query).setParameterCount(parameterCount);
@@ -1274,13 +1435,19 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
             ((ClientPreparedQuery) this.query).getQueryBindings().setLoadDataQuery(((PreparedQuery<?>) this.query).getParseInfo().isFoundLoadData());
 
             clearParameters();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean isNull(int paramIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return ((PreparedQuery<?>) this.query).getQueryBindings().getBindValues()[getCoreParameterIndex(paramIndex)].isNull();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1292,7 +1459,9 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
             return; // already closed
         }
 
-        synchronized (locallyScopedConn.getConnectionMutex()) {
+        Lock connectionLock = locallyScopedConn.getConnectionLock();
+        connectionLock.lock();
+        try {
 
             // additional check in case Statement was closed
             // while current thread was waiting for lock
@@ -1312,12 +1481,16 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
             ((PreparedQuery<?>) this.query).setOriginalSql(null);
             ((PreparedQuery<?>) this.query).setQueryBindings(null);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public String getPreparedSql() {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.rewrittenBatchSize == 0) {
                 return ((PreparedQuery<?>) this.query).getOriginalSql();
             }
@@ -1327,6 +1500,8 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
             } catch (UnsupportedEncodingException e) {
                 throw new RuntimeException(e);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1349,8 +1524,12 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
     }
 
     public ParameterBindings getParameterBindings() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return new ParameterBindingsImpl((PreparedQuery<?>) this.query, this.session, this.resultSetFactory);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1365,7 +1544,9 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
     }
 
     protected void checkBounds(int paramIndex, int parameterIndexOffset) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if ((paramIndex < 1)) {
                 throw SQLError.createSQLException(Messages.getString("PreparedStatement.49") + paramIndex + Messages.getString("PreparedStatement.50"),
                         MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, this.exceptionInterceptor);
@@ -1378,6 +1559,8 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
                 throw SQLError.createSQLException(Messages.getString("PreparedStatement.63"), MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT,
                         this.exceptionInterceptor);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1394,99 +1577,155 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setAsciiStream(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setAsciiStream(getCoreParameterIndex(parameterIndex), x, length);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setAsciiStream(getCoreParameterIndex(parameterIndex), x, length);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBigDecimal(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBinaryStream(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBinaryStream(getCoreParameterIndex(parameterIndex), x, length);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBinaryStream(getCoreParameterIndex(parameterIndex), x, length);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBlob(int i, java.sql.Blob x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBlob(getCoreParameterIndex(i), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBlob(getCoreParameterIndex(parameterIndex), inputStream);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBlob(getCoreParameterIndex(parameterIndex), inputStream, length);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBoolean(int parameterIndex, boolean x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBoolean(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setByte(int parameterIndex, byte x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setByte(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBytes(int parameterIndex, byte[] x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBytes(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBytes(int parameterIndex, byte[] x, boolean checkForIntroducer, boolean escapeForMBChars) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBytes(getCoreParameterIndex(parameterIndex), x, checkForIntroducer, escapeForMBChars);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1502,64 +1741,100 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setCharacterStream(getCoreParameterIndex(parameterIndex), reader);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setCharacterStream(getCoreParameterIndex(parameterIndex), reader, length);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setCharacterStream(getCoreParameterIndex(parameterIndex), reader, length);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setClob(int parameterIndex, Reader reader) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setCharacterStream(getCoreParameterIndex(parameterIndex), reader);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setCharacterStream(getCoreParameterIndex(parameterIndex), reader, length);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setClob(int i, Clob x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setClob(getCoreParameterIndex(i), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setDate(int parameterIndex, Date x) throws java.sql.SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setDate(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setDate(getCoreParameterIndex(parameterIndex), x, cal);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setDouble(int parameterIndex, double x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setDouble(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1570,57 +1845,89 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
     @Override
     public void setInt(int parameterIndex, int x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setInt(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setLong(int parameterIndex, long x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setLong(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setBigInteger(int parameterIndex, BigInteger x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setBigInteger(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setNCharacterStream(getCoreParameterIndex(parameterIndex), value);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setNCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setNCharacterStream(getCoreParameterIndex(parameterIndex), reader, length);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setNClob(int parameterIndex, Reader reader) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setNClob(getCoreParameterIndex(parameterIndex), reader);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setNClob(getCoreParameterIndex(parameterIndex), reader, length);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setNClob(int parameterIndex, NClob value) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setNClob(getCoreParameterIndex(parameterIndex), value);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1640,22 +1947,34 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
      */
     @Override
     public void setNString(int parameterIndex, String x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setNString(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setNull(int parameterIndex, int sqlType) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setNull(getCoreParameterIndex(parameterIndex)); // MySQL ignores sqlType
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setNull(getCoreParameterIndex(parameterIndex));
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1666,14 +1985,20 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
     @Override
     public void setObject(int parameterIndex, Object parameterObj) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setObject(getCoreParameterIndex(parameterIndex), parameterObj);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setObject(int parameterIndex, Object parameterObj, int targetSqlType) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             try {
                 ((PreparedQuery<?>) this.query).getQueryBindings().setObject(getCoreParameterIndex(parameterIndex), parameterObj,
                         MysqlType.getByJdbcType(targetSqlType));
@@ -1681,23 +2006,31 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
                 throw SQLError.createSQLFeatureNotSupportedException(Messages.getString("Statement.UnsupportedSQLType") + JDBCType.valueOf(targetSqlType),
                         MysqlErrorNumbers.SQL_STATE_DRIVER_NOT_CAPABLE, this.exceptionInterceptor);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setObject(int parameterIndex, Object parameterObj, SQLType targetSqlType) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (targetSqlType instanceof MysqlType) {
                 ((PreparedQuery<?>) this.query).getQueryBindings().setObject(getCoreParameterIndex(parameterIndex), parameterObj, (MysqlType) targetSqlType);
             } else {
                 setObject(parameterIndex, parameterObj, targetSqlType.getVendorTypeNumber());
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setObject(int parameterIndex, Object parameterObj, int targetSqlType, int scale) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             try {
                 ((PreparedQuery<?>) this.query).getQueryBindings().setObject(getCoreParameterIndex(parameterIndex), parameterObj,
                         MysqlType.getByJdbcType(targetSqlType), scale);
@@ -1705,18 +2038,24 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
                 throw SQLError.createSQLFeatureNotSupportedException(Messages.getString("Statement.UnsupportedSQLType") + JDBCType.valueOf(targetSqlType),
                         MysqlErrorNumbers.SQL_STATE_DRIVER_NOT_CAPABLE, this.exceptionInterceptor);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (targetSqlType instanceof MysqlType) {
                 ((PreparedQuery<?>) this.query).getQueryBindings().setObject(getCoreParameterIndex(parameterIndex), x, (MysqlType) targetSqlType,
                         scaleOrLength);
             } else {
                 setObject(parameterIndex, x, targetSqlType.getVendorTypeNumber(), scaleOrLength);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1732,8 +2071,12 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
     @Override
     public void setShort(int parameterIndex, short x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setShort(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1749,43 +2092,67 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
 
     @Override
     public void setString(int parameterIndex, String x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setString(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setTime(int parameterIndex, Time x) throws java.sql.SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setTime(getCoreParameterIndex(parameterIndex), x);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setTime(int parameterIndex, java.sql.Time x, Calendar cal) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setTime(getCoreParameterIndex(parameterIndex), x, cal);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setTimestamp(int parameterIndex, Timestamp x) throws java.sql.SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setTimestamp(getCoreParameterIndex(parameterIndex), x, MysqlType.TIMESTAMP);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setTimestamp(int parameterIndex, java.sql.Timestamp x, Calendar cal) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setTimestamp(getCoreParameterIndex(parameterIndex), x, cal, MysqlType.TIMESTAMP);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     public void setTimestamp(int parameterIndex, Timestamp x, Calendar targetCalendar, int fractionalLength) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings().setTimestamp(getCoreParameterIndex(parameterIndex), x, targetCalendar, fractionalLength,
                     MysqlType.TIMESTAMP);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -32,6 +32,7 @@ package com.mysql.cj.jdbc;
 import java.io.Serializable;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.DatabaseMetaData;
@@ -54,6 +55,8 @@ import java.util.Random;
 import java.util.Stack;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import com.mysql.cj.CacheAdapter;
@@ -80,6 +83,7 @@ import com.mysql.cj.exceptions.UnableToConnectException;
 import com.mysql.cj.interceptors.QueryInterceptor;
 import com.mysql.cj.jdbc.exceptions.SQLError;
 import com.mysql.cj.jdbc.exceptions.SQLExceptionsMapping;
+import com.mysql.cj.jdbc.ha.MultiHostConnectionProxy;
 import com.mysql.cj.jdbc.ha.MultiHostMySQLConnection;
 import com.mysql.cj.jdbc.interceptors.ConnectionLifecycleInterceptor;
 import com.mysql.cj.jdbc.result.CachedResultSetMetaData;
@@ -90,7 +94,7 @@ import com.mysql.cj.jdbc.result.UpdatableResultSet;
 import com.mysql.cj.log.ProfilerEvent;
 import com.mysql.cj.log.StandardLogger;
 import com.mysql.cj.protocol.SocksProxySocketFactory;
-import com.mysql.cj.util.LRUCache;
+import com.mysql.cj.util.ConcurrentLRUCache;
 import com.mysql.cj.util.StringUtils;
 import com.mysql.cj.util.Util;
 
@@ -118,6 +122,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     private JdbcConnection parentProxy = null;
     private JdbcConnection topProxy = null;
     private InvocationHandler realProxy = null;
+    private final Lock ownLock = new ReentrantLock();
+    private volatile Lock connectionLock = this.ownLock;
 
     @Override
     public boolean isProxySet() {
@@ -131,6 +137,11 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
         }
         this.topProxy = proxy;
         this.realProxy = this.topProxy instanceof MultiHostMySQLConnection ? ((MultiHostMySQLConnection) proxy).getThisAsProxy() : null;
+
+        // Share the lock of the multi-host connection proxy that owns the top level connection
+        InvocationHandler handler = this.realProxy != null ? this.realProxy
+                : proxy != null && Proxy.isProxyClass(proxy.getClass()) ? Proxy.getInvocationHandler(proxy) : null;
+        this.connectionLock = handler instanceof MultiHostConnectionProxy ? ((MultiHostConnectionProxy) handler).getLock() : this.ownLock;
     }
 
     // this connection has to be proxied when using multi-host settings so that statements get routed to the right physical connection
@@ -154,11 +165,17 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
         return this;
     }
 
+    @Deprecated
     @Override
     public Object getConnectionMutex() {
         return (this.realProxy != null) ? this.realProxy : getProxy();
     }
 
+    @Override
+    public Lock getConnectionLock() {
+        return this.connectionLock;
+    }
+
     /**
      * Used as a key for caching callable statements which (may) depend on
      * current database...In 5.0.x, they don't (currently), but stored procedure
@@ -300,7 +317,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
      */
     private final CopyOnWriteArrayList<JdbcStatement> openStatements = new CopyOnWriteArrayList<>();
 
-    private LRUCache<CompoundCacheKey, CallableStatement.CallableStatementParamInfo> parsedCallableStatementCache;
+    private ConcurrentLRUCache<CompoundCacheKey, CallableStatement.CallableStatementParamInfo> parsedCallableStatementCache;
 
     /** The password we used */
     private String password = null;
@@ -312,7 +329,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     private boolean readOnly = false;
 
     /** Cache of ResultSet metadata */
-    protected LRUCache<String, CachedResultSetMetaData> resultSetMetadataCache;
+    protected ConcurrentLRUCache<String, CachedResultSetMetaData> resultSetMetadataCache;
 
     /**
      * The type map for UDTs (not implemented, but used by some third-party
@@ -323,8 +340,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     /** The user we're connected as */
     private String user = null;
 
-    private LRUCache<String, Boolean> serverSideStatementCheckCache;
-    private LRUCache<CompoundCacheKey, ServerPreparedStatement> serverSideStatementCache;
+    private ConcurrentLRUCache<String, Boolean> serverSideStatementCheckCache;
+    private ConcurrentLRUCache<CompoundCacheKey, ServerPreparedStatement> serverSideStatementCache;
 
     private HostInfo origHostInfo;
 
@@ -426,7 +443,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             if (this.propertySet.getBooleanProperty(PropertyKey.cacheCallableStmts).getValue()) {
-                this.parsedCallableStatementCache = new LRUCache<>(this.propertySet.getIntegerProperty(PropertyKey.callableStmtCacheSize).getValue());
+                this.parsedCallableStatementCache = new ConcurrentLRUCache<>(this.propertySet.getIntegerProperty(PropertyKey.callableStmtCacheSize).getValue());
             }
 
             if (this.propertySet.getBooleanProperty(PropertyKey.allowMultiQueries).getValue()) {
@@ -434,7 +451,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             if (this.propertySet.getBooleanProperty(PropertyKey.cacheResultSetMetadata).getValue()) {
-                this.resultSetMetadataCache = new LRUCache<>(this.propertySet.getIntegerProperty(PropertyKey.metadataCacheSize).getValue());
+                this.resultSetMetadataCache = new ConcurrentLRUCache<>(this.propertySet.getIntegerProperty(PropertyKey.metadataCacheSize).getValue());
             }
 
             if (this.propertySet.getStringProperty(PropertyKey.socksProxyHost).getStringValue() != null) {
@@ -513,22 +530,20 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
         boolean allowMultiQueries = this.propertySet.getBooleanProperty(PropertyKey.allowMultiQueries).getValue();
 
         if (this.cachePrepStmts.getValue()) {
-            synchronized (this.serverSideStatementCheckCache) {
-                Boolean flag = this.serverSideStatementCheckCache.get(sql);
+            Boolean flag = this.serverSideStatementCheckCache.get(sql);
 
-                if (flag != null) {
-                    return flag.booleanValue();
-                }
-
-                boolean canHandle = StringUtils.canHandleAsServerPreparedStatementNoCache(sql, getServerVersion(), allowMultiQueries,
-                        this.session.getServerSession().isNoBackslashEscapesSet(), this.session.getServerSession().useAnsiQuotedIdentifiers());
+            if (flag != null) {
+                return flag.booleanValue();
+            }
 
-                if (sql.length() < this.prepStmtCacheSqlLimit.getValue()) {
-                    this.serverSideStatementCheckCache.put(sql, canHandle ? Boolean.TRUE : Boolean.FALSE);
-                }
+            boolean canHandle = StringUtils.canHandleAsServerPreparedStatementNoCache(sql, getServerVersion(), allowMultiQueries,
+                    this.session.getServerSession().isNoBackslashEscapesSet(), this.session.getServerSession().useAnsiQuotedIdentifiers());
 
-                return canHandle;
+            if (sql.length() < this.prepStmtCacheSqlLimit.getValue()) {
+                this.serverSideStatementCheckCache.put(sql, canHandle ? Boolean.TRUE : Boolean.FALSE);
             }
+
+            return canHandle;
         }
 
         return StringUtils.canHandleAsServerPreparedStatementNoCache(sql, getServerVersion(), allowMultiQueries,
@@ -537,7 +552,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public void changeUser(String userName, String newPassword) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
 
             if ((userName == null) || userName.equals("")) {
@@ -565,6 +582,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             this.session.setSessionVariables();
 
             setupServerForTruncationChecks();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -708,7 +727,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public void close() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.connectionLifecycleInterceptors != null) {
                 for (ConnectionLifecycleInterceptor cli : this.connectionLifecycleInterceptors) {
                     cli.close();
@@ -716,6 +737,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             realClose(true, true, false, null);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -764,7 +787,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public void commit() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
 
             try {
@@ -807,13 +832,17 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             } finally {
                 this.session.setNeedsPing(this.reconnectAtTxEnd.getValue());
             }
+        } finally {
+            connectionLock.unlock();
         }
         return;
     }
 
     @Override
     public void createNewIO(boolean isForReconnect) {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             // Synchronization Not needed for *new* connections, but definitely for connections going through fail-over, since we might get the new connection
             // up and running *enough* to start sending cached or still-open server-side prepared statements over to the backend before we get a chance to
             // re-prepare them...
@@ -829,6 +858,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             } catch (SQLException ex) {
                 throw ExceptionFactory.createException(UnableToConnectException.class, ex.getMessage(), ex);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -852,7 +883,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
                 boolean oldReadOnly;
                 String oldDb;
 
-                synchronized (getConnectionMutex()) {
+                Lock connectionLock = getConnectionLock();
+                connectionLock.lock();
+                try {
                     // save state from old connection
                     oldAutoCommit = getAutoCommit();
                     oldIsolationLevel = this.isolationLevel;
@@ -860,6 +893,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
                     oldDb = getDatabase();
 
                     this.session.setQueryInterceptors(this.queryInterceptors);
+                } finally {
+                    connectionLock.unlock();
                 }
 
                 // Server properties might be different from previous connection, so initialize again...
@@ -1020,7 +1055,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     }
 
     private void createPreparedStatementCaches() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             int cacheSize = this.propertySet.getIntegerProperty(PropertyKey.prepStmtCacheSize).getValue();
             String parseInfoCacheFactory = this.propertySet.getStringProperty(PropertyKey.parseInfoCacheFactory).getValue();
 
@@ -1052,11 +1089,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             if (this.useServerPrepStmts.getValue()) {
-                this.serverSideStatementCheckCache = new LRUCache<>(cacheSize);
+                this.serverSideStatementCheckCache = new ConcurrentLRUCache<>(cacheSize);
 
-                this.serverSideStatementCache = new LRUCache<CompoundCacheKey, ServerPreparedStatement>(cacheSize) {
-
-                    private static final long serialVersionUID = 7692318650375988114L;
+                this.serverSideStatementCache = new ConcurrentLRUCache<CompoundCacheKey, ServerPreparedStatement>(cacheSize) {
 
                     @Override
                     protected boolean removeEldestEntry(java.util.Map.Entry<CompoundCacheKey, ServerPreparedStatement> eldest) {
@@ -1081,6 +1116,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
                     }
                 };
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1118,22 +1155,34 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public boolean getAutoCommit() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.session.getServerSession().isAutoCommit();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public String getCatalog() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.propertySet.<DatabaseTerm>getEnumProperty(PropertyKey.databaseTerm).getValue() == DatabaseTerm.SCHEMA ? null : this.database;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public String getCharacterSetMetadata() {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.session.getServerSession().getCharacterSetMetadata();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1157,8 +1206,12 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
      */
     @Override
     public long getIdleFor() {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.session.getIdleFor();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1210,7 +1263,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     @Override
     public int getTransactionIsolation() throws SQLException {
 
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.useLocalSessionState.getValue()) {
                 String s = this.session.queryServerVariable(
                         versionMeetsMinimum(8, 0, 3) || (versionMeetsMinimum(5, 7, 20) && !versionMeetsMinimum(8, 0, 0)) ? "@@session.transaction_isolation"
@@ -1229,17 +1284,23 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             return this.isolationLevel;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public java.util.Map<String, Class<?>> getTypeMap() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.typeMap == null) {
                 this.typeMap = new HashMap<>();
             }
 
             return this.typeMap;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1300,7 +1361,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
         this.session.setSessionVariables();
 
-        this.session.loadServerVariables(this.getConnectionMutex(), this.dbmd.getDriverVersion());
+        this.session.loadServerVariables(getConnectionLock(), this.dbmd.getDriverVersion());
 
         this.autoIncrementIncrement = this.session.getServerSession().getServerVariable("auto_increment_increment", 1);
 
@@ -1421,7 +1482,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public boolean isSameResource(JdbcConnection otherConnection) {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (otherConnection == null) {
                 return false;
             }
@@ -1462,6 +1525,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             return false;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1537,22 +1602,20 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
             cStmt = parseCallableStatement(sql);
         } else {
-            synchronized (this.parsedCallableStatementCache) {
-                CompoundCacheKey key = new CompoundCacheKey(getDatabase(), sql);
+            CompoundCacheKey key = new CompoundCacheKey(getDatabase(), sql);
 
-                CallableStatement.CallableStatementParamInfo cachedParamInfo = this.parsedCallableStatementCache.get(key);
+            CallableStatement.CallableStatementParamInfo cachedParamInfo = this.parsedCallableStatementCache.get(key);
 
-                if (cachedParamInfo != null) {
-                    cStmt = CallableStatement.getInstance(getMultiHostSafeProxy(), cachedParamInfo);
-                } else {
-                    cStmt = parseCallableStatement(sql);
-
-                    synchronized (cStmt) {
-                        cachedParamInfo = cStmt.paramInfo;
-                    }
+            if (cachedParamInfo != null) {
+                cStmt = CallableStatement.getInstance(getMultiHostSafeProxy(), cachedParamInfo);
+            } else {
+                cStmt = parseCallableStatement(sql);
 
-                    this.parsedCallableStatementCache.put(key, cachedParamInfo);
+                synchronized (cStmt) {
+                    cachedParamInfo = cStmt.paramInfo;
                 }
+
+                this.parsedCallableStatementCache.put(key, cachedParamInfo);
             }
         }
 
@@ -1591,7 +1654,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public java.sql.PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
 
             //
@@ -1609,35 +1674,33 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
             if (this.useServerPrepStmts.getValue() && canServerPrepare) {
                 if (this.cachePrepStmts.getValue()) {
-                    synchronized (this.serverSideStatementCache) {
-                        pStmt = this.serverSideStatementCache.remove(new CompoundCacheKey(this.database, sql));
+                    pStmt = this.serverSideStatementCache.remove(new CompoundCacheKey(this.database, sql));
 
-                        if (pStmt != null) {
-                            ((com.mysql.cj.jdbc.ServerPreparedStatement) pStmt).setClosed(false);
-                            pStmt.clearParameters();
-                        }
+                    if (pStmt != null) {
+                        ((com.mysql.cj.jdbc.ServerPreparedStatement) pStmt).setClosed(false);
+                        pStmt.clearParameters();
+                    }
 
-                        if (pStmt == null) {
-                            try {
-                                pStmt = ServerPreparedStatement.getInstance(getMultiHostSafeProxy(), nativeSql, this.database, resultSetType,
-                                        resultSetConcurrency);
-                                if (sql.length() < this.prepStmtCacheSqlLimit.getValue()) {
-                                    ((com.mysql.cj.jdbc.ServerPreparedStatement) pStmt).isCacheable = true;
-                                }
+                    if (pStmt == null) {
+                        try {
+                            pStmt = ServerPreparedStatement.getInstance(getMultiHostSafeProxy(), nativeSql, this.database, resultSetType,
+                                    resultSetConcurrency);
+                            if (sql.length() < this.prepStmtCacheSqlLimit.getValue()) {
+                                ((com.mysql.cj.jdbc.ServerPreparedStatement) pStmt).isCacheable = true;
+                            }
 
-                                pStmt.setResultSetType(resultSetType);
-                                pStmt.setResultSetConcurrency(resultSetConcurrency);
-                            } catch (SQLException sqlEx) {
-                                // Punt, if necessary
-                                if (this.emulateUnsupportedPstmts.getValue()) {
-                                    pStmt = (ClientPreparedStatement) clientPrepareStatement(nativeSql, resultSetType, resultSetConcurrency, false);
-
-                                    if (sql.length() < this.prepStmtCacheSqlLimit.getValue()) {
-                                        this.serverSideStatementCheckCache.put(sql, Boolean.FALSE);
-                                    }
-                                } else {
-                                    throw sqlEx;
+                            pStmt.setResultSetType(resultSetType);
+                            pStmt.setResultSetConcurrency(resultSetConcurrency);
+                        } catch (SQLException sqlEx) {
+                            // Punt, if necessary
+                            if (this.emulateUnsupportedPstmts.getValue()) {
+                                pStmt = (ClientPreparedStatement) clientPrepareStatement(nativeSql, resultSetType, resultSetConcurrency, false);
+
+                                if (sql.length() < this.prepStmtCacheSqlLimit.getValue()) {
+                                    this.serverSideStatementCheckCache.put(sql, Boolean.FALSE);
                                 }
+                            } else {
+                                throw sqlEx;
                             }
                         }
                     }
@@ -1661,6 +1724,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             return pStmt;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1704,6 +1769,10 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
         this.session.setForceClosedReason(reason);
 
         try {
+            if (this.openPipeline != null) {
+                this.openPipeline.connectionClosing(!skipLocalTeardown);
+            }
+
             if (!skipLocalTeardown) {
                 if (!getAutoCommit() && issueRollback) {
                     try {
@@ -1765,31 +1834,35 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public void recachePreparedStatement(JdbcPreparedStatement pstmt) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.cachePrepStmts.getValue() && pstmt.isPoolable()) {
-                synchronized (this.serverSideStatementCache) {
-                    Object oldServerPrepStmt = this.serverSideStatementCache.put(
-                            new CompoundCacheKey(pstmt.getCurrentDatabase(), ((PreparedQuery<?>) pstmt.getQuery()).getOriginalSql()),
-                            (ServerPreparedStatement) pstmt);
-                    if (oldServerPrepStmt != null && oldServerPrepStmt != pstmt) {
-                        ((ServerPreparedStatement) oldServerPrepStmt).isCached = false;
-                        ((ServerPreparedStatement) oldServerPrepStmt).setClosed(false);
-                        ((ServerPreparedStatement) oldServerPrepStmt).realClose(true, true);
-                    }
+                Object oldServerPrepStmt = this.serverSideStatementCache.put(
+                        new CompoundCacheKey(pstmt.getCurrentDatabase(), ((PreparedQuery<?>) pstmt.getQuery()).getOriginalSql()),
+                        (ServerPreparedStatement) pstmt);
+                if (oldServerPrepStmt != null && oldServerPrepStmt != pstmt) {
+                    ((ServerPreparedStatement) oldServerPrepStmt).isCached = false;
+                    ((ServerPreparedStatement) oldServerPrepStmt).setClosed(false);
+                    ((ServerPreparedStatement) oldServerPrepStmt).realClose(true, true);
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void decachePreparedStatement(JdbcPreparedStatement pstmt) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.cachePrepStmts.getValue()) {
-                synchronized (this.serverSideStatementCache) {
-                    this.serverSideStatementCache
-                            .remove(new CompoundCacheKey(pstmt.getCurrentDatabase(), ((PreparedQuery<?>) pstmt.getQuery()).getOriginalSql()));
-                }
+                this.serverSideStatementCache
+                        .remove(new CompoundCacheKey(pstmt.getCurrentDatabase(), ((PreparedQuery<?>) pstmt.getQuery()).getOriginalSql()));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1812,7 +1885,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public void rollback() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
 
             try {
@@ -1858,13 +1933,17 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             } finally {
                 this.session.setNeedsPing(this.reconnectAtTxEnd.getValue());
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void rollback(final Savepoint savepoint) throws SQLException {
 
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
 
             try {
@@ -1931,11 +2010,15 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             } finally {
                 this.session.setNeedsPing(this.reconnectAtTxEnd.getValue());
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     private void rollbackNoChecks() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.useLocalTransactionState.getValue()) {
                 if (!this.session.getServerSession().inTransactionOnServer()) {
                     return; // effectively a no-op
@@ -1944,6 +2027,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
             this.session.execSQL(null, "rollback", -1, null, false, this.nullStatementResultSetFactory, null, false);
 
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2007,7 +2092,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public void setAutoCommit(final boolean autoCommitFlag) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
 
             if (this.connectionLifecycleInterceptors != null) {
@@ -2058,6 +2145,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             return;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2069,7 +2158,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     }
 
     public void setDatabase(final String db) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
 
             if (db == null) {
@@ -2119,13 +2210,19 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             this.session.execSQL(null, query.toString(), -1, null, false, this.nullStatementResultSetFactory, null, false);
 
             this.database = db;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public String getDatabase() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.database;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2152,7 +2249,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public void setReadOnlyInternal(boolean readOnlyFlag) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             // note this this is safe even inside a transaction
             if (this.readOnlyPropagatesToServer.getValue() && versionMeetsMinimum(5, 6, 5)) {
                 if (!this.useLocalSessionState.getValue() || (readOnlyFlag != this.readOnly)) {
@@ -2162,6 +2261,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             this.readOnly = readOnlyFlag;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2176,7 +2277,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     private void setSavepoint(MysqlSavepoint savepoint) throws SQLException {
 
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
 
             StringBuilder savePointQuery = new StringBuilder("SAVEPOINT ");
@@ -2193,23 +2296,31 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             } finally {
                 closeStatement(stmt);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public java.sql.Savepoint setSavepoint(String name) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             MysqlSavepoint savepoint = new MysqlSavepoint(name, getExceptionInterceptor());
 
             setSavepoint(savepoint);
 
             return savepoint;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setTransactionIsolation(int level) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
 
             String sql = null;
@@ -2262,18 +2373,26 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
                 this.isolationLevel = level;
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setTypeMap(java.util.Map<String, Class<?>> map) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             this.typeMap = map;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     private void setupServerForTruncationChecks() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             RuntimeProperty<Boolean> jdbcCompliantTruncation = this.propertySet.getProperty(PropertyKey.jdbcCompliantTruncation);
             if (jdbcCompliantTruncation.getValue()) {
                 String currentSqlMode = this.session.getServerSession().getServerVariable("sql_mode");
@@ -2298,6 +2417,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
                     jdbcCompliantTruncation.setValue(false); // server's handling this for us now
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2327,9 +2448,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     @Override
     public CachedResultSetMetaData getCachedMetaData(String sql) {
         if (this.resultSetMetadataCache != null) {
-            synchronized (this.resultSetMetadataCache) {
-                return this.resultSetMetadataCache.get(sql);
-            }
+            return this.resultSetMetadataCache.get(sql);
         }
 
         return null; // no cache exists
@@ -2376,19 +2495,27 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public void transactionBegun() {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.connectionLifecycleInterceptors != null) {
                 this.connectionLifecycleInterceptors.stream().forEach(ConnectionLifecycleInterceptor::transactionBegun);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void transactionCompleted() {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.connectionLifecycleInterceptors != null) {
                 this.connectionLifecycleInterceptors.stream().forEach(ConnectionLifecycleInterceptor::transactionCompleted);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2406,32 +2533,44 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public boolean isServerLocal() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             try {
                 return this.session.isServerLocal(this.getSession());
             } catch (CJException ex) {
                 SQLException sqlEx = SQLExceptionsMapping.translateException(ex, getExceptionInterceptor());
                 throw sqlEx;
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public int getSessionMaxRows() {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.session.getSessionMaxRows();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setSessionMaxRows(int max) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
             if (this.session.getSessionMaxRows() != max) {
                 this.session.setSessionMaxRows(max);
                 this.session.execSQL(null, "SET SQL_SELECT_LIMIT=" + (this.session.getSessionMaxRows() == -1 ? "DEFAULT" : this.session.getSessionMaxRows()),
                         -1, null, false, this.nullStatementResultSetFactory, null, false);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2445,9 +2584,13 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public String getSchema() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
             return this.propertySet.<DatabaseTerm>getEnumProperty(PropertyKey.databaseTerm).getValue() == DatabaseTerm.SCHEMA ? this.database : null;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2478,7 +2621,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public void setNetworkTimeout(Executor executor, final int milliseconds) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             SecurityManager sec = System.getSecurityManager();
 
             if (sec != null) {
@@ -2492,6 +2637,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             checkClosed();
 
             executor.execute(new NetworkTimeoutSetter(this, milliseconds));
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2508,8 +2655,12 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
         public void run() {
             JdbcConnection conn = this.connRef.get();
             if (conn != null) {
-                synchronized (conn.getConnectionMutex()) {
+                Lock connectionLock = conn.getConnectionLock();
+                connectionLock.lock();
+                try {
                     ((NativeSession) conn.getSession()).setSocketTimeout(this.milliseconds);
+                } finally {
+                    connectionLock.unlock();
                 }
             }
         }
@@ -2517,9 +2668,13 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public int getNetworkTimeout() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
             return this.session.getSocketTimeout();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2545,7 +2700,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public boolean isValid(int timeout) throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (isClosed()) {
                 return false;
             }
@@ -2568,6 +2725,55 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             return true;
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    /** The pipeline that owns this connection until it is closed, if any. */
+    private transient PipelineImpl openPipeline = null;
+
+    @Override
+    public JdbcPipeline createPipeline() throws SQLException {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkClosed();
+            if (this.openPipeline != null) {
+                throw SQLError.createSQLException(Messages.getString("Pipeline.3"), MysqlErrorNumbers.SQL_STATE_GENERAL_ERROR, getExceptionInterceptor());
+            }
+            this.openPipeline = new PipelineImpl(this);
+            return this.openPipeline;
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    /** Queue of the asynchronous commands, created on first use. */
+    private transient AsyncCommandQueue asyncCommandQueue = null;
+
+    AsyncCommandQueue getAsyncCommandQueue() {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
+            if (this.asyncCommandQueue == null) {
+                this.asyncCommandQueue = new AsyncCommandQueue(this);
+            }
+            return this.asyncCommandQueue;
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    /**
+     * Called by a pipeline once it stops using this connection.
+     * 
+     * @param pipeline
+     *            the closed pipeline
+     */
+    void pipelineClosed(PipelineImpl pipeline) {
+        if (this.openPipeline == pipeline) {
+            this.openPipeline = null;
         }
     }
 
@@ -2575,7 +2781,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public ClientInfoProvider getClientInfoProviderImpl() throws SQLException {
-        synchronized (getConnectionMutex()) {
+        Lock connectionLock = getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.infoProvider == null) {
                 String clientInfoProvider = this.propertySet.getStringProperty(PropertyKey.clientInfoProvider).getStringValue();
                 try {
@@ -2600,6 +2808,8 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
             }
 
             return this.infoProvider;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
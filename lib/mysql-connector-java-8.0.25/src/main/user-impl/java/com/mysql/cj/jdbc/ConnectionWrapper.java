@@ -45,6 +45,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.Messages;
 import com.mysql.cj.MysqlConnection;
@@ -566,7 +567,8 @@ public class ConnectionWrapper extends WrapperBase implements JdbcConnection {
     }
 
     protected void close(boolean fireClosedEvent) throws SQLException {
-        synchronized (this.pooledConnection) {
+        this.pooledConnection.lock.lock();
+        try {
             if (this.closed) {
                 return;
             }
@@ -582,6 +584,8 @@ public class ConnectionWrapper extends WrapperBase implements JdbcConnection {
             // set closed status to true so that if application client tries to make additional calls a sqlException will be thrown. The physical connection is
             // re-used by the pooled connection each time getConnection is called.
             this.closed = true;
+        } finally {
+            this.pooledConnection.lock.unlock();
         }
     }
 
@@ -884,11 +888,28 @@ public class ConnectionWrapper extends WrapperBase implements JdbcConnection {
         this.mc.abortInternal();
     }
 
+    @Deprecated
     @Override
     public Object getConnectionMutex() {
         return this.mc.getConnectionMutex();
     }
 
+    @Override
+    public Lock getConnectionLock() {
+        return this.mc.getConnectionLock();
+    }
+
+    @Override
+    public JdbcPipeline createPipeline() throws SQLException {
+        try {
+            return this.mc.createPipeline();
+        } catch (SQLException sqlException) {
+            checkAndFireConnectionError(sqlException);
+        }
+
+        return null; // we don't reach this code, compiler can't tell
+    }
+
     @Override
     public int getSessionMaxRows() {
         return this.mc.getSessionMaxRows();
@@ -944,14 +965,19 @@ public class ConnectionWrapper extends WrapperBase implements JdbcConnection {
     }
 
     @Override
-    public synchronized boolean isValid(int timeout) throws SQLException {
+    public boolean isValid(int timeout) throws SQLException {
+        this.pooledConnection.lock.lock();
         try {
-            return ((java.sql.Connection) this.mc).isValid(timeout);
-        } catch (SQLException sqlException) {
-            checkAndFireConnectionError(sqlException);
-        }
+            try {
+                return ((java.sql.Connection) this.mc).isValid(timeout);
+            } catch (SQLException sqlException) {
+                checkAndFireConnectionError(sqlException);
+            }
 
-        return false; // never reached, but compiler can't tell
+            return false; // never reached, but compiler can't tell
+        } finally {
+            this.pooledConnection.lock.unlock();
+        }
     }
 
     @Override
@@ -1035,28 +1061,33 @@ public class ConnectionWrapper extends WrapperBase implements JdbcConnection {
     }
 
     @Override
-    public synchronized <T> T unwrap(java.lang.Class<T> iface) throws java.sql.SQLException {
+    public <T> T unwrap(java.lang.Class<T> iface) throws java.sql.SQLException {
+        this.pooledConnection.lock.lock();
         try {
-            if ("java.sql.Connection".equals(iface.getName()) || "java.sql.Wrapper.class".equals(iface.getName())) {
-                return iface.cast(this);
-            }
-
-            if (this.unwrappedInterfaces == null) {
-                this.unwrappedInterfaces = new HashMap<>();
-            }
-
-            Object cachedUnwrapped = this.unwrappedInterfaces.get(iface);
-
-            if (cachedUnwrapped == null) {
-                cachedUnwrapped = Proxy.newProxyInstance(this.mc.getClass().getClassLoader(), new Class<?>[] { iface },
-                        new ConnectionErrorFiringInvocationHandler(this.mc));
-                this.unwrappedInterfaces.put(iface, cachedUnwrapped);
+            try {
+                if ("java.sql.Connection".equals(iface.getName()) || "java.sql.Wrapper.class".equals(iface.getName())) {
+                    return iface.cast(this);
+                }
+
+                if (this.unwrappedInterfaces == null) {
+                    this.unwrappedInterfaces = new HashMap<>();
+                }
+
+                Object cachedUnwrapped = this.unwrappedInterfaces.get(iface);
+
+                if (cachedUnwrapped == null) {
+                    cachedUnwrapped = Proxy.newProxyInstance(this.mc.getClass().getClassLoader(), new Class<?>[] { iface },
+                            new ConnectionErrorFiringInvocationHandler(this.mc));
+                    this.unwrappedInterfaces.put(iface, cachedUnwrapped);
+                }
+
+                return iface.cast(cachedUnwrapped);
+            } catch (ClassCastException cce) {
+                throw SQLError.createSQLException(Messages.getString("Common.UnableToUnwrap", new Object[] { iface.toString() }),
+                        MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, this.exceptionInterceptor);
             }
-
-            return iface.cast(cachedUnwrapped);
-        } catch (ClassCastException cce) {
-            throw SQLError.createSQLException(Messages.getString("Common.UnableToUnwrap", new Object[] { iface.toString() }),
-                    MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, this.exceptionInterceptor);
+        } finally {
+            this.pooledConnection.lock.unlock();
         }
     }
 
@@ -34,6 +34,7 @@ import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.sql.ConnectionEvent;
 import javax.sql.ConnectionEventListener;
@@ -75,6 +76,9 @@ public class MysqlPooledConnection implements PooledConnection {
 
     private final Map<StatementEventListener, StatementEventListener> statementEventListeners = new HashMap<>();
 
+    /** Guards the logical handle and the listeners; also taken by the handle while it closes. */
+    protected final ReentrantLock lock = new ReentrantLock();
+
     /**
      * Construct a new MysqlPooledConnection and set instance variables
      * 
@@ -89,54 +93,74 @@ public class MysqlPooledConnection implements PooledConnection {
     }
 
     @Override
-    public synchronized void addConnectionEventListener(ConnectionEventListener connectioneventlistener) {
+    public void addConnectionEventListener(ConnectionEventListener connectioneventlistener) {
+        this.lock.lock();
+        try {
 
-        if (this.connectionEventListeners != null) {
-            this.connectionEventListeners.put(connectioneventlistener, connectioneventlistener);
+            if (this.connectionEventListeners != null) {
+                this.connectionEventListeners.put(connectioneventlistener, connectioneventlistener);
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
     @Override
-    public synchronized void removeConnectionEventListener(ConnectionEventListener connectioneventlistener) {
+    public void removeConnectionEventListener(ConnectionEventListener connectioneventlistener) {
+        this.lock.lock();
+        try {
 
-        if (this.connectionEventListeners != null) {
-            this.connectionEventListeners.remove(connectioneventlistener);
+            if (this.connectionEventListeners != null) {
+                this.connectionEventListeners.remove(connectioneventlistener);
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
     @Override
-    public synchronized Connection getConnection() throws SQLException {
-        return getConnection(true, false);
+    public Connection getConnection() throws SQLException {
+        this.lock.lock();
+        try {
+            return getConnection(true, false);
 
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    protected synchronized Connection getConnection(boolean resetServerState, boolean forXa) throws SQLException {
-        if (this.physicalConn == null) {
+    protected Connection getConnection(boolean resetServerState, boolean forXa) throws SQLException {
+        this.lock.lock();
+        try {
+            if (this.physicalConn == null) {
 
-            SQLException sqlException = SQLError.createSQLException(Messages.getString("MysqlPooledConnection.0"), this.exceptionInterceptor);
-            callConnectionEventListeners(CONNECTION_ERROR_EVENT, sqlException);
+                SQLException sqlException = SQLError.createSQLException(Messages.getString("MysqlPooledConnection.0"), this.exceptionInterceptor);
+                callConnectionEventListeners(CONNECTION_ERROR_EVENT, sqlException);
 
-            throw sqlException;
-        }
+                throw sqlException;
+            }
 
-        try {
+            try {
 
-            if (this.logicalHandle != null) {
-                ((ConnectionWrapper) this.logicalHandle).close(false);
-            }
+                if (this.logicalHandle != null) {
+                    ((ConnectionWrapper) this.logicalHandle).close(false);
+                }
 
-            if (resetServerState) {
-                this.physicalConn.resetServerState();
-            }
+                if (resetServerState) {
+                    this.physicalConn.resetServerState();
+                }
 
-            this.logicalHandle = ConnectionWrapper.getInstance(this, this.physicalConn, forXa);
-        } catch (SQLException sqlException) {
-            callConnectionEventListeners(CONNECTION_ERROR_EVENT, sqlException);
+                this.logicalHandle = ConnectionWrapper.getInstance(this, this.physicalConn, forXa);
+            } catch (SQLException sqlException) {
+                callConnectionEventListeners(CONNECTION_ERROR_EVENT, sqlException);
 
-            throw sqlException;
-        }
+                throw sqlException;
+            }
 
-        return this.logicalHandle;
+            return this.logicalHandle;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
@@ -145,20 +169,25 @@ public class MysqlPooledConnection implements PooledConnection {
      * connectionEventListener receives a connectionErrorOccurred event.
      */
     @Override
-    public synchronized void close() throws SQLException {
-        if (this.physicalConn != null) {
-            this.physicalConn.close();
+    public void close() throws SQLException {
+        this.lock.lock();
+        try {
+            if (this.physicalConn != null) {
+                this.physicalConn.close();
 
-            this.physicalConn = null;
-        }
+                this.physicalConn = null;
+            }
 
-        if (this.connectionEventListeners != null) {
-            this.connectionEventListeners.clear();
+            if (this.connectionEventListeners != null) {
+                this.connectionEventListeners.clear();
 
-            this.connectionEventListeners = null;
-        }
+                this.connectionEventListeners = null;
+            }
 
-        this.statementEventListeners.clear();
+            this.statementEventListeners.clear();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
@@ -173,26 +202,31 @@ public class MysqlPooledConnection implements PooledConnection {
      * @param sqlException
      *            the exception being thrown
      */
-    protected synchronized void callConnectionEventListeners(int eventType, SQLException sqlException) {
+    protected void callConnectionEventListeners(int eventType, SQLException sqlException) {
+        this.lock.lock();
+        try {
 
-        if (this.connectionEventListeners == null) {
+            if (this.connectionEventListeners == null) {
 
-            return;
-        }
+                return;
+            }
 
-        Iterator<Map.Entry<ConnectionEventListener, ConnectionEventListener>> iterator = this.connectionEventListeners.entrySet().iterator();
+            Iterator<Map.Entry<ConnectionEventListener, ConnectionEventListener>> iterator = this.connectionEventListeners.entrySet().iterator();
 
-        ConnectionEvent connectionevent = new ConnectionEvent(this, sqlException);
+            ConnectionEvent connectionevent = new ConnectionEvent(this, sqlException);
 
-        while (iterator.hasNext()) {
+            while (iterator.hasNext()) {
 
-            ConnectionEventListener connectioneventlistener = iterator.next().getValue();
+                ConnectionEventListener connectioneventlistener = iterator.next().getValue();
 
-            if (eventType == CONNECTION_CLOSED_EVENT) {
-                connectioneventlistener.connectionClosed(connectionevent);
-            } else if (eventType == CONNECTION_ERROR_EVENT) {
-                connectioneventlistener.connectionErrorOccurred(connectionevent);
+                if (eventType == CONNECTION_CLOSED_EVENT) {
+                    connectioneventlistener.connectionClosed(connectionevent);
+                } else if (eventType == CONNECTION_ERROR_EVENT) {
+                    connectioneventlistener.connectionErrorOccurred(connectionevent);
+                }
             }
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -0,0 +1,621 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+
+import com.mysql.cj.Messages;
+import com.mysql.cj.NativeSession;
+import com.mysql.cj.PreparedQuery;
+import com.mysql.cj.ServerPreparedQuery;
+import com.mysql.cj.ServerPreparedQueryBindValue;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.exceptions.CJCommunicationsException;
+import com.mysql.cj.exceptions.CJException;
+import com.mysql.cj.exceptions.MysqlErrorNumbers;
+import com.mysql.cj.jdbc.exceptions.CommunicationsException;
+import com.mysql.cj.jdbc.exceptions.SQLError;
+import com.mysql.cj.jdbc.exceptions.SQLExceptionsMapping;
+import com.mysql.cj.jdbc.result.ResultSetInternalMethods;
+import com.mysql.cj.protocol.ColumnDefinition;
+import com.mysql.cj.protocol.a.NativePacketPayload;
+import com.mysql.cj.util.StringUtils;
+
+/**
+ * Classic protocol implementation of {@link JdbcPipeline}.
+ * 
+ * Commands are sent as soon as they are submitted. Their results are read when the pipeline is synchronized, when a future is waited for, when a
+ * command has to run serially, or when the commands in flight would exceed {@link #MAX_PENDING_BYTES}: the server stops reading commands while it can't
+ * write its results, so the unread commands must always fit into the socket buffers, otherwise both sides would block on writing.
+ */
+public class PipelineImpl implements JdbcPipeline {
+
+    /** Maximum size of the commands whose results were not read yet. */
+    static final int MAX_PENDING_BYTES = 64 * 1024;
+
+    /**
+     * Turns the result read for a command into the value of its future.
+     */
+    @FunctionalInterface
+    private interface ResultHandler<T> {
+        T handle(ResultSetInternalMethods rs) throws SQLException;
+    }
+
+    /**
+     * A command that is executed serially.
+     */
+    @FunctionalInterface
+    private interface SerialExecution<T> {
+        T execute() throws SQLException;
+    }
+
+    /**
+     * The future of a pipelined command. Waiting for it reads the pending results up to its own.
+     */
+    private class PipelinedFuture<T> extends CompletableFuture<T> {
+        PipelinedFuture() {
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            readUntilDone(this);
+            return super.get();
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            readUntilDone(this);
+            return super.get(timeout, unit);
+        }
+
+        @Override
+        public T join() {
+            readUntilDone(this);
+            return super.join();
+        }
+    }
+
+    /**
+     * A command sent to the server whose result was not read yet.
+     */
+    private static class PendingCommand<T> {
+        final StatementImpl statement;
+        final boolean isBinaryEncoded;
+        final ColumnDefinition metadata;
+        final int length;
+        final ResultHandler<T> handler;
+        final CompletableFuture<T> future;
+
+        PendingCommand(StatementImpl statement, boolean isBinaryEncoded, ColumnDefinition metadata, int length, ResultHandler<T> handler,
+                CompletableFuture<T> future) {
+            this.statement = statement;
+            this.isBinaryEncoded = isBinaryEncoded;
+            this.metadata = metadata;
+            this.length = length;
+            this.handler = handler;
+            this.future = future;
+        }
+
+        void complete(ResultSetInternalMethods rs) {
+            try {
+                this.future.complete(this.handler.handle(rs));
+            } catch (SQLException ex) {
+                this.future.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private final ConnectionImpl connection;
+    private final NativeSession session;
+
+    /** Whether the connection needs every command to run serially (query interceptors, compression, profiling). */
+    private final boolean serialOnly;
+
+    private final Deque<PendingCommand<?>> pending = new ArrayDeque<>();
+    private int pendingBytes = 0;
+
+    /** Owns the results of the text updates. */
+    private StatementImpl updateStatement = null;
+
+    private boolean isClosed = false;
+
+    PipelineImpl(ConnectionImpl connection) {
+        this.connection = connection;
+        this.session = connection.getSession();
+
+        PropertySet propertySet = connection.getPropertySet();
+        this.serialOnly = this.session.shouldIntercept() || propertySet.getBooleanProperty(PropertyKey.useCompression).getValue()
+                || propertySet.getBooleanProperty(PropertyKey.profileSQL).getValue()
+                || propertySet.getBooleanProperty(PropertyKey.logSlowQueries).getValue()
+                || propertySet.getBooleanProperty(PropertyKey.autoGenerateTestcaseScript).getValue();
+
+        // statements executed on the connection while results are pending, e.g. setAutoCommit(), read them first
+        this.session.setPipelinedResultsReader(this::readPending);
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQuery(String sql) throws SQLException {
+        return executeQuery(sql, null);
+    }
+
+    /**
+     * Sends a query with the max rows, escape processing and query timeout settings of a statement.
+     * 
+     * @param sql
+     *            an SQL statement that returns a result set
+     * @param settings
+     *            the statement to take the settings from, or null for the connection defaults
+     * @return the future result set
+     * @throws SQLException
+     *             if the pipeline is closed or the connection failed
+     */
+    CompletableFuture<ResultSet> executeQuery(String sql, StatementImpl settings) throws SQLException {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            StatementImpl stmt = (StatementImpl) this.connection.createStatement();
+            stmt.closeOnCompletion();
+            if (settings != null) {
+                stmt.setMaxRows(settings.getMaxRows());
+                stmt.setEscapeProcessing(settings.doEscapeProcessing);
+                stmt.setTimeoutInMillis(settings.getTimeoutInMillis());
+            }
+
+            try {
+                stmt.checkNullOrEmptyQuery(sql);
+
+                String escapedSql = escape(stmt, sql);
+                char firstStatementChar = StringUtils.firstAlphaCharUc(escapedSql, StatementImpl.findStartOfStatement(escapedSql));
+
+                CompletableFuture<ResultSet> future;
+                if (!canPipeline(stmt, escapedSql, firstStatementChar)) {
+                    future = executeSerially(() -> stmt.executeQuery(sql));
+                } else {
+                    stmt.checkForDml(escapedSql, firstStatementChar);
+                    stmt.clearWarnings();
+
+                    future = sendQuery(stmt, escapedSql, rs -> {
+                        stmt.results = rs;
+                        stmt.lastInsertId = rs.getUpdateID();
+                        return rs;
+                    });
+                }
+                future.whenComplete((rs, ex) -> {
+                    if (ex != null) {
+                        // the statement exists only for this result
+                        try {
+                            stmt.close();
+                        } catch (SQLException e) {
+                            // ignore
+                        }
+                    }
+                });
+                return future;
+            } catch (SQLException ex) {
+                stmt.close();
+                throw ex;
+            }
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> executeUpdate(String sql) throws SQLException {
+        return executeUpdate(sql, null);
+    }
+
+    /**
+     * Sends an update statement on behalf of a statement, which gets its update count.
+     * 
+     * @param sql
+     *            an SQL statement that returns an update count
+     * @param owner
+     *            the statement that owns the result, or null for an internal one
+     * @return the future update count
+     * @throws SQLException
+     *             if the pipeline is closed or the connection failed
+     */
+    CompletableFuture<Long> executeUpdate(String sql, StatementImpl owner) throws SQLException {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            if (owner == null && this.updateStatement == null) {
+                this.updateStatement = (StatementImpl) this.connection.createStatement();
+            }
+            StatementImpl stmt = owner != null ? owner : this.updateStatement;
+
+            stmt.checkNullOrEmptyQuery(sql);
+
+            String escapedSql = escape(stmt, sql);
+            char firstStatementChar = StringUtils.firstAlphaCharUc(escapedSql, StatementImpl.findStartOfStatement(escapedSql));
+
+            if (!canPipeline(stmt, escapedSql, firstStatementChar)) {
+                return executeSerially(() -> stmt.executeLargeUpdate(sql));
+            }
+
+            if (this.connection.isReadOnly(false)) {
+                throw SQLError.createSQLException(Messages.getString("Statement.42") + Messages.getString("Statement.43"),
+                        MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, this.connection.getExceptionInterceptor());
+            }
+
+            if (StringUtils.startsWithIgnoreCaseAndWs(escapedSql, "select")) {
+                throw SQLError.createSQLException(Messages.getString("Statement.46"), "01S03", this.connection.getExceptionInterceptor());
+            }
+
+            return sendQuery(stmt, escapedSql, rs -> {
+                rs.setFirstCharOfQuery(firstStatementChar);
+                stmt.results = rs;
+                stmt.updateCount = rs.getUpdateCount();
+                stmt.lastInsertId = rs.getUpdateID();
+                return stmt.updateCount;
+            });
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQuery(PreparedStatement pstmt) throws SQLException {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            ClientPreparedStatement stmt = unwrap(pstmt);
+            PreparedQuery<?> query = (PreparedQuery<?>) stmt.query;
+
+            if (!canPipeline(stmt)) {
+                return executeSerially(() -> stmt.executeQuery());
+            }
+
+            stmt.checkForDml(query.getOriginalSql(), query.getParseInfo().getFirstStmtChar());
+            stmt.clearWarnings();
+
+            return sendPrepared(stmt, rs -> {
+                stmt.results = rs;
+                stmt.lastInsertId = rs.getUpdateID();
+                return rs;
+            });
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Long> executeUpdate(PreparedStatement pstmt) throws SQLException {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            ClientPreparedStatement stmt = unwrap(pstmt);
+            PreparedQuery<?> query = (PreparedQuery<?>) stmt.query;
+
+            if (!canPipeline(stmt)) {
+                return executeSerially(() -> stmt.executeLargeUpdate());
+            }
+
+            if (this.connection.isReadOnly(false)) {
+                throw SQLError.createSQLException(Messages.getString("PreparedStatement.34") + Messages.getString("PreparedStatement.35"),
+                        MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, this.connection.getExceptionInterceptor());
+            }
+
+            if (query.getParseInfo().getFirstStmtChar() == 'S' && stmt.isSelectQuery()) {
+                throw SQLError.createSQLException(Messages.getString("PreparedStatement.37"), "01S03", this.connection.getExceptionInterceptor());
+            }
+
+            stmt.clearWarnings();
+
+            return sendPrepared(stmt, rs -> {
+                rs.setFirstCharOfQuery(query.getParseInfo().getFirstStmtChar());
+                stmt.results = rs;
+                stmt.updateCount = rs.getUpdateCount();
+                stmt.lastInsertId = rs.getUpdateID();
+                return stmt.updateCount;
+            });
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    @Override
+    public int getPendingCount() {
+        return this.pending.size();
+    }
+
+    @Override
+    public void sync() throws SQLException {
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            while (!this.pending.isEmpty()) {
+                readNext();
+            }
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws SQLException {
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            if (this.isClosed) {
+                return;
+            }
+            try {
+                sync();
+            } finally {
+                release();
+            }
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    /**
+     * Called when the connection is closed: reads the pending results if the connection is still usable and fails the rest.
+     * 
+     * @param readPending
+     *            whether the connection can still be read from
+     */
+    void connectionClosing(boolean readPending) {
+        if (readPending) {
+            try {
+                sync();
+            } catch (SQLException ex) {
+                // the pending commands were failed already
+            }
+        }
+        failPending(SQLError.createSQLException(Messages.getString("Pipeline.2"), MysqlErrorNumbers.SQL_STATE_CONNECTION_NOT_OPEN,
+                this.connection.getExceptionInterceptor()));
+        release();
+    }
+
+    /**
+     * Reads all pending results before the connection sends a command outside of the pipeline. Failures complete the futures of the commands they belong
+     * to; a connection failure leaves no response outstanding, so the command then fails on its own.
+     */
+    private void readPending() {
+        try {
+            sync();
+        } catch (SQLException ex) {
+            // the pending commands were failed already
+        }
+    }
+
+    private void release() {
+        this.isClosed = true;
+        this.session.setPipelinedResultsReader(null);
+        if (this.updateStatement != null) {
+            try {
+                this.updateStatement.close();
+            } catch (SQLException ex) {
+                // ignore
+            }
+            this.updateStatement = null;
+        }
+        this.connection.pipelineClosed(this);
+    }
+
+    private JdbcConnection checkClosed() throws SQLException {
+        if (this.isClosed) {
+            throw SQLError.createSQLException(Messages.getString("Pipeline.0"), MysqlErrorNumbers.SQL_STATE_CONNECTION_NOT_OPEN,
+                    this.connection.getExceptionInterceptor());
+        }
+        if (this.connection.isClosed()) {
+            this.connection.throwConnectionClosedException();
+        }
+        return this.connection;
+    }
+
+    private String escape(StatementImpl stmt, String sql) throws SQLException {
+        if (!stmt.doEscapeProcessing) {
+            return sql;
+        }
+        Object escapedSqlResult = EscapeProcessor.escapeSQL(sql, this.session.getServerSession().getSessionTimeZone(),
+                this.session.getServerSession().getCapabilities().serverSupportsFracSecs(), this.session.getServerSession().isServerTruncatesFracSecs(),
+                this.connection.getExceptionInterceptor());
+        return escapedSqlResult instanceof String ? (String) escapedSqlResult : ((EscapeProcessorResult) escapedSqlResult).escapedSql;
+    }
+
+    private ClientPreparedStatement unwrap(PreparedStatement pstmt) throws SQLException {
+        ClientPreparedStatement stmt = pstmt.isWrapperFor(ClientPreparedStatement.class) ? pstmt.unwrap(ClientPreparedStatement.class) : null;
+        if (stmt == null || stmt.checkClosed().getActiveMySQLConnection() != this.connection) {
+            throw SQLError.createSQLException(Messages.getString("Pipeline.1"), MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT,
+                    this.connection.getExceptionInterceptor());
+        }
+        return stmt;
+    }
+
+    /**
+     * Checks whether a text statement can be pipelined. LOAD DATA LOCAL makes the server request a file in the middle of the results, and the driver
+     * answers pings itself.
+     */
+    private boolean canPipeline(StatementImpl stmt, String sql, char firstStatementChar) throws SQLException {
+        // the cancel timer of a query timeout only runs for commands executed on their own
+        if (this.serialOnly || firstStatementChar == 'L' || sql.startsWith(StatementImpl.PING_MARKER) || stmt.useServerFetch()
+                || stmt.getTimeoutInMillis() != 0 || !this.connection.getDatabase().equals(stmt.getCurrentDatabase())) {
+            return false;
+        }
+        useSessionMaxRows(stmt.maxRows);
+        return true;
+    }
+
+    /**
+     * Checks whether a prepared statement can be pipelined. Stored procedure calls process their output parameters between round trips, and streamed
+     * parameters of server-side prepared statements are sent as separate commands before the execution.
+     */
+    private boolean canPipeline(ClientPreparedStatement stmt) throws SQLException {
+        PreparedQuery<?> query = (PreparedQuery<?>) stmt.query;
+        if (!canPipeline(stmt, query.getOriginalSql(), query.getParseInfo().getFirstStmtChar()) || stmt instanceof CallableStatement) {
+            return false;
+        }
+        if (stmt.query instanceof ServerPreparedQuery) {
+            ServerPreparedQuery serverQuery = (ServerPreparedQuery) stmt.query;
+            if (serverQuery.getQueryBindings().isLongParameterSwitchDetected()) {
+                return false;
+            }
+            for (ServerPreparedQueryBindValue bindValue : serverQuery.getQueryBindings().getBindValues()) {
+                if (bindValue.isStream()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Statement max rows are applied by the server to the whole session, so a command with a different limit has to wait for the pending ones.
+     */
+    private void useSessionMaxRows(int maxRows) throws SQLException {
+        if (this.connection.getSessionMaxRows() != maxRows) {
+            sync();
+            this.connection.setSessionMaxRows(maxRows);
+        }
+    }
+
+    private <T> CompletableFuture<T> executeSerially(SerialExecution<T> execution) throws SQLException {
+        sync();
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(execution.execute());
+        } catch (SQLException ex) {
+            if (ex instanceof CommunicationsException || this.connection.isClosed()) {
+                throw ex;
+            }
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    private <T> CompletableFuture<T> sendQuery(StatementImpl stmt, String sql, ResultHandler<T> handler) throws SQLException {
+        NativePacketPayload packet = this.session.buildQueryPacket(sql);
+        try {
+            return send(stmt, packet, false, null, handler);
+        } finally {
+            packet.release();
+        }
+    }
+
+    private <T> CompletableFuture<T> sendPrepared(ClientPreparedStatement stmt, ResultHandler<T> handler) throws SQLException {
+        PreparedQuery<?> query = (PreparedQuery<?>) stmt.query;
+        try {
+            query.getQueryBindings().checkAllParametersSet();
+
+            if (stmt.query instanceof ServerPreparedQuery) {
+                // the types sent to the server are kept until the next execution reads its result, every pipelined execution repeats them
+                ServerPreparedQuery serverQuery = (ServerPreparedQuery) stmt.query;
+                NativePacketPayload packet = serverQuery.prepareExecutePacket();
+                query.getQueryBindings().setNumberOfExecutions(query.getQueryBindings().getNumberOfExecutions() + 1);
+                return send(stmt, packet, true, serverQuery.getResultFields(), handler);
+            }
+
+            NativePacketPayload packet = query.fillSendPacket();
+            query.getQueryBindings().setNumberOfExecutions(query.getQueryBindings().getNumberOfExecutions() + 1);
+            return send(stmt, packet, false, null, handler);
+        } catch (CJException ex) {
+            throw SQLExceptionsMapping.translateException(ex, this.connection.getExceptionInterceptor());
+        }
+    }
+
+    private <T> CompletableFuture<T> send(StatementImpl stmt, NativePacketPayload packet, boolean isBinaryEncoded, ColumnDefinition metadata,
+            ResultHandler<T> handler) throws SQLException {
+        int length = packet.getPosition();
+
+        // reading results doesn't touch the packet to send
+        while (!this.pending.isEmpty() && this.pendingBytes + length > MAX_PENDING_BYTES) {
+            readNext();
+        }
+
+        PendingCommand<T> command = new PendingCommand<>(stmt, isBinaryEncoded, metadata, length, handler, new PipelinedFuture<>());
+        try {
+            this.session.sendPipelinedPacket(packet);
+        } catch (CJException ex) {
+            SQLException sqlEx = SQLExceptionsMapping.translateException(ex, this.connection.getExceptionInterceptor());
+            failPending(sqlEx);
+            throw sqlEx;
+        }
+
+        this.pending.add(command);
+        this.pendingBytes += length;
+        return command.future;
+    }
+
+    private void readUntilDone(CompletableFuture<?> future) {
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            while (!future.isDone() && !this.pending.isEmpty()) {
+                readNext();
+            }
+        } catch (SQLException ex) {
+            // the future was completed with the failure
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    private void readNext() throws SQLException {
+        PendingCommand<?> command = this.pending.poll();
+        this.pendingBytes -= command.length;
+
+        ResultSetInternalMethods rs;
+        try {
+            rs = this.session.readPipelinedResult(command.isBinaryEncoded, command.metadata, command.statement.getResultSetFactory());
+        } catch (CJException ex) {
+            SQLException sqlEx = SQLExceptionsMapping.translateException(ex, this.connection.getExceptionInterceptor());
+            command.future.completeExceptionally(sqlEx);
+            if (ex instanceof CJCommunicationsException) {
+                failPending(sqlEx);
+                throw sqlEx;
+            }
+            return;
+        }
+        command.complete(rs);
+    }
+
+    private void failPending(SQLException ex) {
+        PendingCommand<?> command;
+        while ((command = this.pending.poll()) != null) {
+            command.future.completeExceptionally(ex);
+        }
+        this.pendingBytes = 0;
+    }
+}
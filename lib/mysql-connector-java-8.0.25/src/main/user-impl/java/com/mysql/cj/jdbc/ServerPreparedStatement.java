@@ -41,6 +41,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Wrapper;
 import java.util.ArrayList;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.CancelQueryTask;
 import com.mysql.cj.Messages;
@@ -48,6 +49,7 @@ import com.mysql.cj.MysqlType;
 import com.mysql.cj.NativeSession;
 import com.mysql.cj.ParseInfo;
 import com.mysql.cj.PreparedQuery;
+import com.mysql.cj.QueryBindings;
 import com.mysql.cj.ServerPreparedQuery;
 import com.mysql.cj.ServerPreparedQueryBindValue;
 import com.mysql.cj.ServerPreparedQueryBindings;
@@ -168,14 +170,31 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
 
     @Override
     public void addBatch() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.query.addBatch(((PreparedQuery<?>) this.query).getQueryBindings().clone());
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    @Override
+    <T> T executeWithQueryBindings(QueryBindings<?> bindings, AsyncCommandQueue.Execution<T> execution) throws SQLException {
+        // the server may know other types than the copied ones by now, see executeBatchSerially()
+        ((ServerPreparedQueryBindings) bindings).getSendTypesToServer().set(true);
+        try {
+            return super.executeWithQueryBindings(bindings, execution);
+        } finally {
+            ((ServerPreparedQuery) this.query).getQueryBindings().getSendTypesToServer().set(true);
         }
     }
 
     @Override
     public String asSql(boolean quoteStreamsAndUnknowns) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ClientPreparedStatement pStmtForSub = null;
 
             try {
@@ -234,6 +253,8 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
                     }
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -248,8 +269,12 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
 
     @Override
     public void clearParameters() {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((ServerPreparedQuery) this.query).clearParameters(true);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -265,7 +290,9 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
             return; // already closed
         }
 
-        synchronized (locallyScopedConn.getConnectionMutex()) {
+        Lock connectionLock = locallyScopedConn.getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.isClosed) {
                 return; // already closed
             }
@@ -282,12 +309,16 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
 
             this.isClosed = false;
             realClose(true, true);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     protected long[] executeBatchSerially(int batchTimeout) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             JdbcConnection locallyScopedConn = this.connection;
 
             if (locallyScopedConn.isReadOnly()) {
@@ -392,6 +423,8 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
 
                 clearBatch();
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -408,7 +441,9 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
     @Override
     protected <M extends Message> com.mysql.cj.jdbc.result.ResultSetInternalMethods executeInternal(int maxRowsToRetrieve, M sendPacket,
             boolean createStreamingResultSet, boolean queryIsSelectOnly, ColumnDefinition metadata, boolean isBatch) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ((PreparedQuery<?>) this.query).getQueryBindings()
                     .setNumberOfExecutions(((PreparedQuery<?>) this.query).getQueryBindings().getNumberOfExecutions() + 1);
 
@@ -451,6 +486,8 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
 
                 throw sqlEx;
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -467,33 +504,45 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
      *             if a database access error occurs or this method is called on a closed PreparedStatement
      */
     protected ServerPreparedQueryBindValue getBinding(int parameterIndex, boolean forLongData) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             int i = getCoreParameterIndex(parameterIndex);
             return ((ServerPreparedQuery) this.query).getQueryBindings().getBinding(i, forLongData);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public java.sql.ResultSetMetaData getMetaData() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             ColumnDefinition resultFields = ((ServerPreparedQuery) this.query).getResultFields();
 
             return resultFields == null || resultFields.getFields() == null ? null
                     : new ResultSetMetaData(this.session, resultFields.getFields(),
                             this.session.getPropertySet().getBooleanProperty(PropertyKey.useOldAliasMetadataBehavior).getValue(),
                             this.session.getPropertySet().getBooleanProperty(PropertyKey.yearIsDateType).getValue(), this.exceptionInterceptor);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public ParameterMetaData getParameterMetaData() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.parameterMetaData == null) {
                 this.parameterMetaData = new MysqlParameterMetadata(this.session, ((ServerPreparedQuery) this.query).getParameterFields(),
                         ((PreparedQuery<?>) this.query).getParameterCount(), this.exceptionInterceptor);
             }
 
             return this.parameterMetaData;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -509,7 +558,9 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
             return; // already closed
         }
 
-        synchronized (locallyScopedConn.getConnectionMutex()) {
+        Lock connectionLock = locallyScopedConn.getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.connection != null) {
                 //
                 // Don't communicate with the server if we're being called from the finalizer...
@@ -531,13 +582,17 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
 
                 // Finally deallocate the prepared statement.
                 if (calledExplicitly && !locallyScopedConn.isClosed()) {
-                    synchronized (locallyScopedConn.getConnectionMutex()) {
+                    Lock connectionLock2 = locallyScopedConn.getConnectionLock();
+                    connectionLock2.lock();
+                    try {
                         try {
                             ((NativeSession) locallyScopedConn.getSession()).sendCommand(
                                     this.commandBuilder.buildComStmtClose(null, ((ServerPreparedQuery) this.query).getServerStatementId()), true, 0);
                         } catch (CJException sqlEx) {
                             exceptionDuringClose = sqlEx;
                         }
+                    } finally {
+                        connectionLock2.unlock();
                     }
                 }
 
@@ -545,6 +600,8 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
                     throw exceptionDuringClose;
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -556,7 +613,9 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
      *             if an error occurs.
      */
     protected void rePrepare() {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.invalidationException = null;
 
             try {
@@ -593,6 +652,8 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
                     this.connection.unregisterStatement(this);
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -627,14 +688,20 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
      *             if a database access error occurs or this method is called on a closed PreparedStatement
      */
     protected ResultSetInternalMethods serverExecute(int maxRowsToRetrieve, boolean createStreamingResultSet, ColumnDefinition metadata) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.results = ((ServerPreparedQuery) this.query).serverExecute(maxRowsToRetrieve, createStreamingResultSet, metadata, this.resultSetFactory);
             return this.results;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     protected void serverPrepare(String sql) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             SQLException t = null;
 
             try {
@@ -670,6 +737,8 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
                     throw t;
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -796,7 +865,9 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
 
     @Override
     protected ClientPreparedStatement prepareBatchedInsertSQL(JdbcConnection localConn, int numBatches) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             try {
                 ClientPreparedStatement pstmt = ((Wrapper) localConn.prepareStatement(((PreparedQuery<?>) this.query).getParseInfo().getSqlForBatch(numBatches),
                         this.resultSetConcurrency, this.query.getResultType().getIntValue())).unwrap(ClientPreparedStatement.class);
@@ -810,6 +881,8 @@ public class ServerPreparedStatement extends ClientPreparedStatement {
 
                 throw sqlEx;
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -40,7 +40,9 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.CancelQueryTask;
 import com.mysql.cj.CharsetMapping;
@@ -262,10 +264,14 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public void addBatch(String sql) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (sql != null) {
                 this.query.addBatch(sql);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -388,8 +394,12 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public void clearBatch() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.query.clearBatchedArgs();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -400,10 +410,14 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public void clearWarnings() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             setClearWarningsCalled(true);
             this.warningChain = null;
             // TODO souldn't we also clear warnings from _server_ ?
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -439,7 +453,9 @@ public class StatementImpl implements JdbcStatement {
             return; // already closed
         }
 
-        synchronized (locallyScopedConn.getConnectionMutex()) {
+        Lock connectionLock = locallyScopedConn.getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.openResults != null) {
                 for (ResultSetInternalMethods element : this.openResults) {
                     try {
@@ -451,6 +467,8 @@ public class StatementImpl implements JdbcStatement {
 
                 this.openResults.clear();
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -480,7 +498,9 @@ public class StatementImpl implements JdbcStatement {
     @Override
     public void removeOpenResultSet(ResultSetInternalMethods rs) {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 if (this.openResults != null) {
                     this.openResults.remove(rs);
                 }
@@ -501,6 +521,8 @@ public class StatementImpl implements JdbcStatement {
                 if (!this.isImplicitlyClosingResults && !hasMoreResults) {
                     checkAndPerformCloseOnCompletionAction();
                 }
+            } finally {
+                connectionLock.unlock();
             }
         } catch (StatementIsClosedException e) {
             // we can't break the interface, having this be no-op in case of error is ok
@@ -510,12 +532,16 @@ public class StatementImpl implements JdbcStatement {
     @Override
     public int getOpenResultSetCount() {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 if (this.openResults != null) {
                     return this.openResults.size();
                 }
 
                 return 0;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (StatementIsClosedException e) {
             // we can't break the interface, having this be no-op in case of error is ok
@@ -530,12 +556,16 @@ public class StatementImpl implements JdbcStatement {
      */
     private void checkAndPerformCloseOnCompletionAction() {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 if (isCloseOnCompletion() && !this.dontTrackOpenResources.getValue() && getOpenResultSetCount() == 0
                         && (this.results == null || !this.results.hasRows() || this.results.isClosed())
                         && (this.generatedKeysResults == null || !this.generatedKeysResults.hasRows() || this.generatedKeysResults.isClosed())) {
                     realClose(false, false);
                 }
+            } finally {
+                connectionLock.unlock();
             }
         } catch (SQLException e) {
         }
@@ -549,7 +579,9 @@ public class StatementImpl implements JdbcStatement {
      *             if a database access error occurs or this method is called on a closed Statement
      */
     private ResultSetInternalMethods createResultSetUsingServerFetch(String sql) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             java.sql.PreparedStatement pStmt = this.connection.prepareStatement(sql, this.query.getResultType().getIntValue(), this.resultSetConcurrency);
 
             pStmt.setFetchSize(this.query.getResultFetchSize());
@@ -572,6 +604,8 @@ public class StatementImpl implements JdbcStatement {
             this.results = rs;
 
             return rs;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -592,22 +626,30 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public void enableStreamingResults() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.originalResultSetType = this.query.getResultType();
             this.originalFetchSize = this.query.getResultFetchSize();
 
             setFetchSize(Integer.MIN_VALUE);
             setResultSetType(Type.FORWARD_ONLY);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void disableStreamingResults() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.query.getResultFetchSize() == Integer.MIN_VALUE && this.query.getResultType() == Type.FORWARD_ONLY) {
                 setFetchSize(this.originalFetchSize);
                 setResultSetType(this.originalResultSetType);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -649,7 +691,9 @@ public class StatementImpl implements JdbcStatement {
     private boolean executeInternal(String sql, boolean returnGeneratedKeys) throws SQLException {
         JdbcConnection locallyScopedConn = checkClosed();
 
-        synchronized (locallyScopedConn.getConnectionMutex()) {
+        Lock connectionLock = locallyScopedConn.getConnectionLock();
+        connectionLock.lock();
+        try {
             checkClosed();
 
             checkNullOrEmptyQuery(sql);
@@ -759,6 +803,8 @@ public class StatementImpl implements JdbcStatement {
             } finally {
                 this.query.getStatementExecuting().set(false);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -769,8 +815,12 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public void resetCancelledState() {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.query.resetCancelledState();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -797,7 +847,9 @@ public class StatementImpl implements JdbcStatement {
     protected long[] executeBatchInternal() throws SQLException {
         JdbcConnection locallyScopedConn = checkClosed();
 
-        synchronized (locallyScopedConn.getConnectionMutex()) {
+        Lock connectionLock = locallyScopedConn.getConnectionLock();
+        connectionLock.lock();
+        try {
             if (locallyScopedConn.isReadOnly()) {
                 throw SQLError.createSQLException(Messages.getString("Statement.34") + Messages.getString("Statement.35"),
                         MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, getExceptionInterceptor());
@@ -910,6 +962,8 @@ public class StatementImpl implements JdbcStatement {
 
                 clearBatch();
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -947,7 +1001,9 @@ public class StatementImpl implements JdbcStatement {
 
         JdbcConnection locallyScopedConn = checkClosed();
 
-        synchronized (locallyScopedConn.getConnectionMutex()) {
+        Lock connectionLock = locallyScopedConn.getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!multiQueriesEnabled) {
                 this.session.enableMultiQueries();
             }
@@ -1046,11 +1102,15 @@ public class StatementImpl implements JdbcStatement {
                     }
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     protected int processMultiCountsAndKeys(StatementImpl batchedStatement, int updateCountCounter, long[] updateCounts) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             updateCounts[updateCountCounter++] = batchedStatement.getLargeUpdateCount();
 
             boolean doGenKeys = this.batchedGeneratedKeys != null;
@@ -1078,6 +1138,8 @@ public class StatementImpl implements JdbcStatement {
             }
 
             return updateCountCounter;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1100,7 +1162,9 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public java.sql.ResultSet executeQuery(String sql) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             JdbcConnection locallyScopedConn = this.connection;
 
             this.retrieveGeneratedKeys = false;
@@ -1195,11 +1259,15 @@ public class StatementImpl implements JdbcStatement {
             }
 
             return this.results;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     protected void doPingInstead() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.pingTarget != null) {
                 try {
                     this.pingTarget.doPing();
@@ -1214,11 +1282,15 @@ public class StatementImpl implements JdbcStatement {
 
             ResultSetInternalMethods fakeSelectOneResultSet = generatePingResultSet();
             this.results = fakeSelectOneResultSet;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     protected ResultSetInternalMethods generatePingResultSet() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             String encoding = this.session.getServerSession().getCharacterSetMetadata();
             int collationIndex = this.session.getServerSession().getMetadataCollationIndex();
             Field[] fields = { new Field(null, "1", collationIndex, encoding, MysqlType.BIGINT, 1) };
@@ -1229,12 +1301,18 @@ public class StatementImpl implements JdbcStatement {
 
             return this.resultSetFactory.createFromResultsetRows(ResultSet.CONCUR_READ_ONLY, ResultSet.TYPE_SCROLL_INSENSITIVE,
                     new ResultsetRowsStatic(rows, new DefaultColumnDefinition(fields)));
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     public void executeSimpleNonQuery(JdbcConnection c, String nonQuery) throws SQLException {
-        synchronized (c.getConnectionMutex()) {
+        Lock connectionLock = c.getConnectionLock();
+        connectionLock.lock();
+        try {
             ((NativeSession) c.getSession()).<ResultSetImpl>execSQL(this, nonQuery, -1, null, false, getResultSetFactory(), null, false).close();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1244,7 +1322,9 @@ public class StatementImpl implements JdbcStatement {
     }
 
     protected long executeUpdateInternal(String sql, boolean isBatch, boolean returnGeneratedKeys) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             JdbcConnection locallyScopedConn = this.connection;
 
             checkNullOrEmptyQuery(sql);
@@ -1330,6 +1410,8 @@ public class StatementImpl implements JdbcStatement {
             this.lastInsertId = rs.getUpdateID();
 
             return this.updateCount;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1350,8 +1432,12 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public java.sql.Connection getConnection() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.connection;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1362,14 +1448,20 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public int getFetchSize() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.query.getResultFetchSize();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public java.sql.ResultSet getGeneratedKeys() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.retrieveGeneratedKeys) {
                 throw SQLError.createSQLException(Messages.getString("Statement.GeneratedKeysNotRequested"), MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT,
                         getExceptionInterceptor());
@@ -1391,6 +1483,8 @@ public class StatementImpl implements JdbcStatement {
                     new ResultsetRowsStatic(this.batchedGeneratedKeys, new DefaultColumnDefinition(fields)));
 
             return this.generatedKeysResults;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1405,7 +1499,9 @@ public class StatementImpl implements JdbcStatement {
     }
 
     protected ResultSetInternalMethods getGeneratedKeysInternal(long numKeys) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             String encoding = this.session.getServerSession().getCharacterSetMetadata();
             int collationIndex = this.session.getServerSession().getMetadataCollationIndex();
             Field[] fields = new Field[1];
@@ -1455,6 +1551,8 @@ public class StatementImpl implements JdbcStatement {
                     new ResultsetRowsStatic(rowSet, new DefaultColumnDefinition(fields)));
 
             return gkRs;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1470,8 +1568,12 @@ public class StatementImpl implements JdbcStatement {
      * @return the last update ID.
      */
     public long getLastInsertID() {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.lastInsertId;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1487,7 +1589,9 @@ public class StatementImpl implements JdbcStatement {
      * @return the current update count.
      */
     public long getLongUpdateCount() {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.results == null) {
                 return -1;
             }
@@ -1497,24 +1601,34 @@ public class StatementImpl implements JdbcStatement {
             }
 
             return this.updateCount;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public int getMaxFieldSize() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.maxFieldSize;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public int getMaxRows() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.maxRows <= 0) {
                 return 0;
             }
 
             return this.maxRows;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1525,7 +1639,9 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public boolean getMoreResults(int current) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.results == null) {
                 return false;
             }
@@ -1601,13 +1717,19 @@ public class StatementImpl implements JdbcStatement {
                 checkAndPerformCloseOnCompletionAction();
             }
             return moreResults;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public int getQueryTimeout() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return getTimeoutInMillis() / 1000;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1681,15 +1803,23 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public java.sql.ResultSet getResultSet() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return ((this.results != null) && this.results.hasRows()) ? (java.sql.ResultSet) this.results : null;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public int getResultSetConcurrency() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.resultSetConcurrency;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1700,8 +1830,12 @@ public class StatementImpl implements JdbcStatement {
 
     protected ResultSetInternalMethods getResultSetInternal() {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 return this.results;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (StatementIsClosedException e) {
             return this.results; // you end up with the same thing as before, you'll get exception when actually trying to use it
@@ -1710,8 +1844,12 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public int getResultSetType() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.query.getResultType().getIntValue();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1722,7 +1860,9 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public java.sql.SQLWarning getWarnings() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
 
             if (isClearWarningsCalled()) {
                 return null;
@@ -1737,6 +1877,8 @@ public class StatementImpl implements JdbcStatement {
             }
 
             return this.warningChain;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1816,8 +1958,12 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public void setEscapeProcessing(boolean enable) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.doEscapeProcessing = enable;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1836,20 +1982,28 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public void setFetchSize(int rows) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (((rows < 0) && (rows != Integer.MIN_VALUE)) || ((this.maxRows > 0) && (rows > this.getMaxRows()))) {
                 throw SQLError.createSQLException(Messages.getString("Statement.7"), MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, getExceptionInterceptor());
             }
 
             this.query.setResultFetchSize(rows);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setHoldResultsOpenOverClose(boolean holdResultsOpenOverClose) {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 this.holdResultsOpenOverClose = holdResultsOpenOverClose;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (StatementIsClosedException e) {
             // FIXME: can't break interface at this point
@@ -1858,7 +2012,9 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public void setMaxFieldSize(int max) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (max < 0) {
                 throw SQLError.createSQLException(Messages.getString("Statement.11"), MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, getExceptionInterceptor());
             }
@@ -1871,6 +2027,8 @@ public class StatementImpl implements JdbcStatement {
             }
 
             this.maxFieldSize = max;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1881,12 +2039,16 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public void setQueryTimeout(int seconds) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (seconds < 0) {
                 throw SQLError.createSQLException(Messages.getString("Statement.21"), MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, getExceptionInterceptor());
             }
 
             setTimeoutInMillis(seconds * 1000);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1900,10 +2062,14 @@ public class StatementImpl implements JdbcStatement {
      */
     void setResultSetConcurrency(int concurrencyFlag) throws SQLException {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 this.resultSetConcurrency = concurrencyFlag;
                 // updating resultset factory because concurrency is cached there
                 this.resultSetFactory = new ResultSetFactory(this.connection, this);
+            } finally {
+                connectionLock.unlock();
             }
         } catch (StatementIsClosedException e) {
             // FIXME: Can't break interface atm, we'll get the exception later when you try and do something useful with a closed statement...
@@ -1920,10 +2086,14 @@ public class StatementImpl implements JdbcStatement {
      */
     void setResultSetType(Resultset.Type typeFlag) throws SQLException {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 this.query.setResultType(typeFlag);
                 // updating resultset factory because type is cached there
                 this.resultSetFactory = new ResultSetFactory(this.connection, this);
+            } finally {
+                connectionLock.unlock();
             }
         } catch (StatementIsClosedException e) {
             // FIXME: Can't break interface atm, we'll get the exception later when you try and do something useful with a closed statement...
@@ -1935,7 +2105,9 @@ public class StatementImpl implements JdbcStatement {
     }
 
     protected void getBatchedGeneratedKeys(java.sql.Statement batchedStatement) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.retrieveGeneratedKeys) {
                 java.sql.ResultSet rs = null;
 
@@ -1951,11 +2123,15 @@ public class StatementImpl implements JdbcStatement {
                     }
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     protected void getBatchedGeneratedKeys(int maxKeys) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.retrieveGeneratedKeys) {
                 java.sql.ResultSet rs = null;
 
@@ -1975,13 +2151,38 @@ public class StatementImpl implements JdbcStatement {
                     }
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
-    private boolean useServerFetch() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(String sql) throws SQLException {
+        return getAsyncCommandQueue().submit(pipeline -> pipeline.executeQuery(sql, this));
+    }
+
+    @Override
+    public CompletableFuture<Long> executeQueryAsync(String sql, RowHandler handler) throws SQLException {
+        return getAsyncCommandQueue().submit(pipeline -> AsyncCommandQueue.streamRows(pipeline, this, () -> executeQuery(sql), handler));
+    }
+
+    @Override
+    public CompletableFuture<Long> executeUpdateAsync(String sql) throws SQLException {
+        return getAsyncCommandQueue().submit(pipeline -> pipeline.executeUpdate(sql, this));
+    }
+
+    AsyncCommandQueue getAsyncCommandQueue() throws SQLException {
+        return ((ConnectionImpl) checkClosed().getActiveMySQLConnection()).getAsyncCommandQueue();
+    }
+
+    boolean useServerFetch() throws SQLException {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.session.getPropertySet().getBooleanProperty(PropertyKey.useCursorFetch).getValue() && this.query.getResultFetchSize() > 0
                     && this.query.getResultType() == Type.FORWARD_ONLY;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1991,8 +2192,12 @@ public class StatementImpl implements JdbcStatement {
         if (locallyScopedConn == null) {
             return true;
         }
-        synchronized (locallyScopedConn.getConnectionMutex()) {
+        Lock connectionLock = locallyScopedConn.getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.isClosed;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2084,15 +2289,23 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public void closeOnCompletion() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.closeOnCompletion = true;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean isCloseOnCompletion() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.closeOnCompletion;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2129,7 +2342,9 @@ public class StatementImpl implements JdbcStatement {
 
     @Override
     public long getLargeUpdateCount() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (this.results == null) {
                 return -1;
             }
@@ -2139,12 +2354,16 @@ public class StatementImpl implements JdbcStatement {
             }
 
             return this.results.getUpdateCount();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setLargeMaxRows(long max) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if ((max > MAX_ROWS) || (max < 0)) {
                 throw SQLError.createSQLException(Messages.getString("Statement.15") + max + " > " + MAX_ROWS + ".",
                         MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, getExceptionInterceptor());
@@ -2155,6 +2374,8 @@ public class StatementImpl implements JdbcStatement {
             }
 
             this.maxRows = (int) max;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2198,6 +2419,11 @@ public class StatementImpl implements JdbcStatement {
         return this.query.getCancelTimeoutMutex();
     }
 
+    @Override
+    public Lock getCancelTimeoutLock() {
+        return this.query.getCancelTimeoutLock();
+    }
+
     @Override
     public void closeQuery() {
         if (this.query != null) {
@@ -79,20 +79,25 @@ public class SuspendableXAConnection extends MysqlPooledConnection implements XA
         XIDS_TO_PHYSICAL_CONNECTIONS.remove(xid);
     }
 
-    private synchronized void switchToXid(Xid xid) throws XAException {
-        if (xid == null) {
-            throw new XAException();
-        }
-
+    private void switchToXid(Xid xid) throws XAException {
+        this.lock.lock();
         try {
-            if (!xid.equals(this.currentXid)) {
-                XAConnection toSwitchTo = findConnectionForXid(this.underlyingConnection, xid);
-                this.currentXAConnection = toSwitchTo;
-                this.currentXid = xid;
-                this.currentXAResource = toSwitchTo.getXAResource();
+            if (xid == null) {
+                throw new XAException();
             }
-        } catch (SQLException sqlEx) {
-            throw new XAException();
+
+            try {
+                if (!xid.equals(this.currentXid)) {
+                    XAConnection toSwitchTo = findConnectionForXid(this.underlyingConnection, xid);
+                    this.currentXAConnection = toSwitchTo;
+                    this.currentXid = xid;
+                    this.currentXAResource = toSwitchTo.getXAResource();
+                }
+            } catch (SQLException sqlEx) {
+                throw new XAException();
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -173,12 +178,17 @@ public class SuspendableXAConnection extends MysqlPooledConnection implements XA
     }
 
     @Override
-    public synchronized java.sql.Connection getConnection() throws SQLException {
-        if (this.currentXAConnection == null) {
-            return getConnection(false, true);
-        }
+    public java.sql.Connection getConnection() throws SQLException {
+        this.lock.lock();
+        try {
+            if (this.currentXAConnection == null) {
+                return getConnection(false, true);
+            }
 
-        return this.currentXAConnection.getConnection();
+            return this.currentXAConnection.getConnection();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     @Override
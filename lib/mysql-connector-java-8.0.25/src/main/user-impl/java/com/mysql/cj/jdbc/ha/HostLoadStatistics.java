@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.jdbc.ha;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Load of one host as seen by all load-balanced connections of this JVM: the number of transactions currently outstanding on it and a decaying,
+ * peak-sensitive exponentially weighted moving average (EWMA) of their response times. Kept up to date by {@link LoadBalancedConnectionProxy} and read by
+ * the load-aware {@link BalanceStrategy} implementations. All updates are lock-free.
+ * <p>
+ * An outstanding transaction is one that did a round trip to the host and didn't end yet: with auto-commit off, from the first statement executed after
+ * the previous commit or rollback until the next one; with auto-commit on, each statement while it executes, or an asynchronous execution until its
+ * future completes. Connections that are merely open, idle in a pool or only call local methods don't count, and a transaction stops counting when its connection is closed, fails, is switched to another host or is
+ * garbage collected without being closed, see {@link TransactionTracker}. The response time of a transaction is measured over the same span.
+ * <p>
+ * The average follows a slower response time at once and decays towards faster ones with the time constant {@link #DECAY_TIME_NANOS}. It also decays towards
+ * zero while no transaction completes on the host, so that a host that was slow once is tried again later. Hosts without outstanding transactions whose
+ * statistics weren't used for {@link #IDLE_TIME_NANOS} are dropped when statistics for another host are created, so that the statistics of hosts removed
+ * from the connection URLs don't accumulate.
+ */
+public class HostLoadStatistics {
+    /** Time constant of the response time average. */
+    public static final long DECAY_TIME_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /** Time after which the statistics of an unused host are dropped; the average has decayed to nothing by then. */
+    public static final long IDLE_TIME_NANOS = 10 * DECAY_TIME_NANOS;
+
+    private static final ConcurrentHashMap<String, HostLoadStatistics> hostStatistics = new ConcurrentHashMap<>();
+
+    /** Trackers whose owners were garbage collected. */
+    private static final ReferenceQueue<Object> abandonedTrackers = new ReferenceQueue<>();
+
+    /** Keeps the trackers reachable until their owners are garbage collected. */
+    private static final Set<TransactionTracker> trackers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger outstandingTransactions = new AtomicInteger();
+    private final AtomicReference<Average> responseTime = new AtomicReference<>();
+    private volatile long lastUsedNanos = System.nanoTime();
+
+    /**
+     * Counts the transaction of one owner, typically a load-balanced connection, on at most one host at a time. Once the owner is garbage collected, the
+     * transaction it still counted is released by the next call to {@link HostLoadStatistics#getInstance(String)}. Not thread safe, the owner must serialize
+     * its calls.
+     */
+    public static final class TransactionTracker extends PhantomReference<Object> {
+        private volatile HostLoadStatistics hostLoad;
+        private long startNanos;
+
+        TransactionTracker(Object owner) {
+            super(owner, abandonedTrackers);
+        }
+
+        /**
+         * @return the statistics of the host the transaction is counted on, or null if none is
+         */
+        public HostLoadStatistics getHostLoad() {
+            return this.hostLoad;
+        }
+
+        /**
+         * Starts counting a transaction on a host, unless one is already counted.
+         * 
+         * @param load
+         *            the statistics of the host
+         * @param nowNanos
+         *            the current {@link System#nanoTime()}
+         */
+        public void start(HostLoadStatistics load, long nowNanos) {
+            if (this.hostLoad == null) {
+                load.transactionStarted();
+                this.startNanos = nowNanos;
+                this.hostLoad = load;
+            }
+        }
+
+        /**
+         * Ends the counted transaction, if any, and records its response time.
+         * 
+         * @param nowNanos
+         *            the current {@link System#nanoTime()}
+         */
+        public void end(long nowNanos) {
+            HostLoadStatistics load = this.hostLoad;
+            if (load != null) {
+                this.hostLoad = null;
+                load.transactionEnded(nowNanos - this.startNanos, nowNanos);
+            }
+        }
+
+        /**
+         * Stops counting the transaction, if any, without a response time.
+         */
+        public void abandon() {
+            HostLoadStatistics load = this.hostLoad;
+            if (load != null) {
+                this.hostLoad = null;
+                load.transactionAbandoned();
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics shared by all connections to the given host.
+     * 
+     * @param hostPortPair
+     *            the host in "host:port" form
+     * @return the statistics of the host
+     */
+    public static HostLoadStatistics getInstance(String hostPortPair) {
+        releaseAbandonedTrackers();
+        HostLoadStatistics load = hostStatistics.get(hostPortPair);
+        if (load == null) {
+            removeIdleHosts(System.nanoTime());
+            load = hostStatistics.computeIfAbsent(hostPortPair, h -> new HostLoadStatistics());
+        }
+        return load;
+    }
+
+    /**
+     * Creates a tracker for the transactions of an owner.
+     * 
+     * @param owner
+     *            the owner, whose garbage collection releases the transaction still counted
+     * @return the tracker
+     */
+    public static TransactionTracker newTransactionTracker(Object owner) {
+        releaseAbandonedTrackers();
+        TransactionTracker tracker = new TransactionTracker(owner);
+        trackers.add(tracker);
+        return tracker;
+    }
+
+    /**
+     * Releases the transactions counted by trackers whose owners were garbage collected.
+     */
+    static void releaseAbandonedTrackers() {
+        Reference<?> reference;
+        while ((reference = abandonedTrackers.poll()) != null) {
+            TransactionTracker tracker = (TransactionTracker) reference;
+            trackers.remove(tracker);
+            tracker.abandon();
+        }
+    }
+
+    /**
+     * Drops the statistics of the hosts without outstanding transactions that weren't used for {@link #IDLE_TIME_NANOS}.
+     * 
+     * @param nowNanos
+     *            the current {@link System#nanoTime()}
+     */
+    static void removeIdleHosts(long nowNanos) {
+        hostStatistics.values().removeIf(load -> load.outstandingTransactions.get() <= 0 && nowNanos - load.lastUsedNanos > IDLE_TIME_NANOS);
+    }
+
+    /**
+     * @return the number of hosts with statistics
+     */
+    static int getHostCount() {
+        return hostStatistics.size();
+    }
+
+    /**
+     * Records that a transaction started on this host.
+     */
+    public void transactionStarted() {
+        this.lastUsedNanos = System.nanoTime();
+        this.outstandingTransactions.incrementAndGet();
+    }
+
+    /**
+     * Records that a transaction on this host completed.
+     * 
+     * @param elapsedNanos
+     *            the response time of the transaction
+     * @param nowNanos
+     *            the current {@link System#nanoTime()}
+     */
+    public void transactionEnded(long elapsedNanos, long nowNanos) {
+        this.outstandingTransactions.decrementAndGet();
+        recordResponseTime(elapsedNanos, nowNanos);
+    }
+
+    /**
+     * Records that a transaction left this host without completing, because its connection failed, was closed or moved to another host.
+     */
+    public void transactionAbandoned() {
+        this.outstandingTransactions.decrementAndGet();
+    }
+
+    /**
+     * @return the number of transactions currently outstanding on this host
+     */
+    public int getOutstandingTransactions() {
+        return Math.max(this.outstandingTransactions.get(), 0);
+    }
+
+    /**
+     * Adds a response time sample to the average.
+     * 
+     * @param elapsedNanos
+     *            the response time
+     * @param nowNanos
+     *            the current {@link System#nanoTime()}
+     */
+    public void recordResponseTime(long elapsedNanos, long nowNanos) {
+        Average prev;
+        Average next;
+        do {
+            prev = this.responseTime.get();
+            double value;
+            if (prev == null || elapsedNanos >= prev.value) {
+                value = elapsedNanos;
+            } else {
+                double weight = prev.weightAt(nowNanos);
+                value = prev.value * weight + elapsedNanos * (1 - weight);
+            }
+            next = new Average(value, nowNanos);
+        } while (!this.responseTime.compareAndSet(prev, next));
+    }
+
+    /**
+     * Returns the response time average, decayed for the time since the last sample.
+     * 
+     * @param nowNanos
+     *            the current {@link System#nanoTime()}
+     * @return the average response time in nanoseconds, or 0 if no transaction completed on this host yet
+     */
+    public double getResponseTime(long nowNanos) {
+        Average average = this.responseTime.get();
+        return average == null ? 0 : average.value * average.weightAt(nowNanos);
+    }
+
+    /**
+     * Returns the expected cost of sending one more transaction to this host, the "peak EWMA" of the response time multiplied by the number of transactions
+     * that would be outstanding on it.
+     * 
+     * @param nowNanos
+     *            the current {@link System#nanoTime()}
+     * @return the cost, 0 for a host without samples
+     */
+    public double getCost(long nowNanos) {
+        return getResponseTime(nowNanos) * (getOutstandingTransactions() + 1);
+    }
+
+    private static final class Average {
+        final double value;
+        final long timestamp;
+
+        Average(double value, long timestamp) {
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+
+        double weightAt(long nowNanos) {
+            long elapsed = nowNanos - this.timestamp;
+            return elapsed <= 0 ? 1 : Math.exp(-(double) elapsed / DECAY_TIME_NANOS);
+        }
+    }
+}
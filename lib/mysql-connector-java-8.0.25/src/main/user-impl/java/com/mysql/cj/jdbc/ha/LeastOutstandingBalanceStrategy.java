@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.jdbc.ha;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load balancing strategy "leastOutstanding": routes each transaction to the host with the fewest transactions currently open on it from this JVM, see
+ * {@link HostLoadStatistics#getOutstandingTransactions()}. Ties are broken at random.
+ */
+public class LeastOutstandingBalanceStrategy extends LoadAwareBalanceStrategy {
+
+    public LeastOutstandingBalanceStrategy() {
+    }
+
+    @Override
+    public int chooseHost(List<String> configuredHosts, Set<String> blocklistedHosts, HostLoadStatistics[] loads, long nowNanos) {
+        int bestHostIndex = -1;
+        int leastOutstanding = Integer.MAX_VALUE;
+        int ties = 0;
+
+        for (int i = 0; i < loads.length; i++) {
+            if (blocklistedHosts.contains(configuredHosts.get(i))) {
+                continue;
+            }
+            int outstanding = loads[i].getOutstandingTransactions();
+            if (outstanding < leastOutstanding) {
+                bestHostIndex = i;
+                leastOutstanding = outstanding;
+                ties = 1;
+            } else if (outstanding == leastOutstanding && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                bestHostIndex = i;
+            }
+        }
+        return bestHostIndex;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.jdbc.ha;
+
+import java.lang.reflect.InvocationHandler;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.mysql.cj.jdbc.ConnectionImpl;
+import com.mysql.cj.jdbc.JdbcConnection;
+
+/**
+ * Base of the strategies that pick a host from the {@link HostLoadStatistics} of the configured hosts rather than from the response times of the current
+ * connection only. Subclasses choose the host; connecting, blocklisting and retrying work as in {@link BestResponseTimeBalanceStrategy}.
+ */
+public abstract class LoadAwareBalanceStrategy implements BalanceStrategy {
+
+    @Override
+    public ConnectionImpl pickConnection(InvocationHandler proxy, List<String> configuredHosts, Map<String, JdbcConnection> liveConnections,
+            long[] responseTimes, int numRetries) throws SQLException {
+        LoadBalancedConnectionProxy lbProxy = (LoadBalancedConnectionProxy) proxy;
+
+        HostLoadStatistics[] loads = new HostLoadStatistics[configuredHosts.size()];
+        for (int i = 0; i < loads.length; i++) {
+            loads[i] = lbProxy.getHostLoadStatistics(configuredHosts.get(i));
+        }
+
+        Map<String, Long> blockList = lbProxy.getGlobalBlocklist();
+
+        SQLException ex = null;
+
+        for (int attempts = 0; attempts < numRetries;) {
+            // safety
+            if (blockList.size() == configuredHosts.size()) {
+                blockList = lbProxy.getGlobalBlocklist();
+            }
+
+            int hostIndex = chooseHost(configuredHosts, blockList.keySet(), loads, System.nanoTime());
+            if (hostIndex < 0) {
+                hostIndex = 0;
+            }
+            String host = configuredHosts.get(hostIndex);
+
+            ConnectionImpl conn = (ConnectionImpl) liveConnections.get(host);
+
+            if (conn == null) {
+                try {
+                    conn = lbProxy.createConnectionForHost(host);
+                } catch (SQLException sqlEx) {
+                    ex = sqlEx;
+
+                    if (lbProxy.shouldExceptionTriggerConnectionSwitch(sqlEx)) {
+                        lbProxy.addToGlobalBlocklist(host);
+                        blockList.put(host, null);
+
+                        if (blockList.size() == configuredHosts.size()) {
+                            attempts++;
+                            try {
+                                Thread.sleep(250);
+                            } catch (InterruptedException e) {
+                            }
+                            blockList = lbProxy.getGlobalBlocklist(); // try again after a little bit
+                        }
+
+                        continue;
+                    }
+
+                    throw sqlEx;
+                }
+            }
+
+            return conn;
+        }
+
+        if (ex != null) {
+            throw ex;
+        }
+
+        return null; // we won't get here, compiler can't tell
+    }
+
+    /**
+     * Chooses the host for the next transaction.
+     * 
+     * @param configuredHosts
+     *            the hosts in "host:port" form
+     * @param blocklistedHosts
+     *            hosts that must not be chosen
+     * @param loads
+     *            the statistics of each configured host, in the same order
+     * @param nowNanos
+     *            the current {@link System#nanoTime()}
+     * @return index of the chosen host in configuredHosts, or -1 if all of them are blocklisted
+     */
+    public abstract int chooseHost(List<String> configuredHosts, Set<String> blocklistedHosts, HostLoadStatistics[] loads, long nowNanos);
+}
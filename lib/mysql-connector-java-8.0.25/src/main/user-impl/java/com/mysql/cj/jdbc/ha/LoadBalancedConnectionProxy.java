@@ -44,11 +44,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 import com.mysql.cj.Messages;
 import com.mysql.cj.PingTarget;
+import com.mysql.cj.Session;
 import com.mysql.cj.conf.ConnectionUrl;
 import com.mysql.cj.conf.HostInfo;
 import com.mysql.cj.conf.PropertyKey;
@@ -62,6 +64,7 @@ import com.mysql.cj.jdbc.ConnectionGroup;
 import com.mysql.cj.jdbc.ConnectionGroupManager;
 import com.mysql.cj.jdbc.ConnectionImpl;
 import com.mysql.cj.jdbc.JdbcConnection;
+import com.mysql.cj.jdbc.JdbcStatement;
 import com.mysql.cj.jdbc.exceptions.SQLError;
 import com.mysql.cj.jdbc.exceptions.SQLExceptionsMapping;
 import com.mysql.cj.util.Util;
@@ -101,6 +104,8 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
 
     private boolean inTransaction = false;
     private long transactionStartTime = 0;
+    // counts the outstanding transaction in the load statistics of its host, see HostLoadStatistics
+    private final HostLoadStatistics.TransactionTracker transactionTracker = HostLoadStatistics.newTransactionTracker(this);
     private long transactionCount = 0;
 
     private LoadBalanceExceptionChecker exceptionChecker;
@@ -206,6 +211,15 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
                 case "serverAffinity":
                     this.balancer = new ServerAffinityStrategy(props.getProperty(PropertyKey.serverAffinityOrder.getKeyName(), null));
                     break;
+                case "ewma":
+                    this.balancer = new EwmaBalanceStrategy();
+                    break;
+                case "leastOutstanding":
+                    this.balancer = new LeastOutstandingBalanceStrategy();
+                    break;
+                case "powerOfTwoChoices":
+                    this.balancer = new PowerOfTwoChoicesBalanceStrategy();
+                    break;
                 default:
                     this.balancer = (BalanceStrategy) Class.forName(strategy).newInstance();
             }
@@ -247,6 +261,67 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
         pickNewConnection();
     }
 
+    /**
+     * Proxy class to intercept and deal with errors that may occur in any object bound to the current connection.
+     * Additionally counts statement executions in the load statistics of their host; asynchronous executions are measured until their future
+     * completes.
+     */
+    class LoadBalancedJdbcInterfaceProxy extends JdbcInterfaceProxy {
+        LoadBalancedJdbcInterfaceProxy(Object toInvokeOn) {
+            super(toInvokeOn);
+        }
+
+        @SuppressWarnings("synthetic-access")
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!(this.invokeOn instanceof JdbcStatement) || !method.getName().startsWith("execute")) {
+                return super.invoke(proxy, method, args);
+            }
+
+            LoadBalancedConnectionProxy.this.lock.lock();
+            try {
+                HostLoadStatistics autoCommitHostLoad = statementStarting((JdbcStatement) this.invokeOn);
+                if (autoCommitHostLoad == null) {
+                    return super.invoke(proxy, method, args);
+                }
+
+                long start = System.nanoTime();
+                Object result;
+                try {
+                    result = super.invoke(proxy, method, args);
+                } catch (Throwable t) {
+                    autoCommitHostLoad.transactionAbandoned();
+                    throw t;
+                }
+                if (result instanceof CompletableFuture) {
+                    // async executions are only queued here, they are outstanding until their future completes
+                    ((CompletableFuture<?>) result).whenComplete((r, ex) -> {
+                        if (ex == null) {
+                            long now = System.nanoTime();
+                            autoCommitHostLoad.transactionEnded(now - start, now);
+                        } else {
+                            autoCommitHostLoad.transactionAbandoned();
+                        }
+                    });
+                } else {
+                    long now = System.nanoTime();
+                    autoCommitHostLoad.transactionEnded(now - start, now);
+                }
+                return result;
+            } finally {
+                LoadBalancedConnectionProxy.this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Gets locally bound instances of LoadBalancedJdbcInterfaceProxy.
+     */
+    @Override
+    JdbcInterfaceProxy getNewJdbcInterfaceProxy(Object toProxy) {
+        return new LoadBalancedJdbcInterfaceProxy(toProxy);
+    }
+
     /**
      * Wraps this object with a new load balanced Connection instance.
      * 
@@ -307,26 +382,32 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
      *             if an error occurs
      */
     @Override
-    synchronized void invalidateConnection(JdbcConnection conn) throws SQLException {
-        super.invalidateConnection(conn);
+    void invalidateConnection(JdbcConnection conn) throws SQLException {
+        this.lock.lock();
+        try {
+            super.invalidateConnection(conn);
 
-        // add host to the global blocklist, if enabled
-        if (this.isGlobalBlocklistEnabled()) {
-            String host = this.connectionsToHostsMap.get(conn);
-            if (host != null) {
-                addToGlobalBlocklist(host);
+            // add host to the global blocklist, if enabled
+            if (this.isGlobalBlocklistEnabled()) {
+                String host = this.connectionsToHostsMap.get(conn);
+                if (host != null) {
+                    addToGlobalBlocklist(host);
+                }
             }
-        }
 
-        // remove from liveConnections
-        this.liveConnections.remove(this.connectionsToHostsMap.get(conn));
-        Object mappedHost = this.connectionsToHostsMap.remove(conn);
-        if (mappedHost != null && this.hostsToListIndexMap.containsKey(mappedHost)) {
-            int hostIndex = this.hostsToListIndexMap.get(mappedHost);
-            // reset the statistics for the host
-            synchronized (this.responseTimes) {
-                this.responseTimes[hostIndex] = 0;
+            // remove from liveConnections
+            this.liveConnections.remove(this.connectionsToHostsMap.get(conn));
+            Object mappedHost = this.connectionsToHostsMap.remove(conn);
+            if (mappedHost != null && this.hostsToListIndexMap.containsKey(mappedHost)) {
+                int hostIndex = this.hostsToListIndexMap.get(mappedHost);
+                // reset the statistics for the host
+                synchronized (this.responseTimes) {
+                    this.responseTimes[hostIndex] = 0;
+                }
             }
+        } finally {
+            updateTransactionHostLoad();
+            this.lock.unlock();
         }
     }
 
@@ -337,54 +418,108 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
      *             if an error occurs
      */
     @Override
-    public synchronized void pickNewConnection() throws SQLException {
-        if (this.isClosed && this.closedExplicitly) {
-            return;
-        }
+    public void pickNewConnection() throws SQLException {
+        this.lock.lock();
+        try {
+            if (this.isClosed && this.closedExplicitly) {
+                return;
+            }
 
-        List<String> hostPortList = Collections.unmodifiableList(this.hostsList.stream().map(hi -> hi.getHostPortPair()).collect(Collectors.toList()));
+            List<String> hostPortList = Collections.unmodifiableList(this.hostsList.stream().map(hi -> hi.getHostPortPair()).collect(Collectors.toList()));
 
-        if (this.currentConnection == null) { // startup
-            this.currentConnection = this.balancer.pickConnection(this, hostPortList, Collections.unmodifiableMap(this.liveConnections),
-                    this.responseTimes.clone(), this.retriesAllDown);
-            return;
-        }
+            if (this.currentConnection == null) { // startup
+                this.currentConnection = this.balancer.pickConnection(this, hostPortList, Collections.unmodifiableMap(this.liveConnections),
+                        this.responseTimes.clone(), this.retriesAllDown);
+                return;
+            }
 
-        if (this.currentConnection.isClosed()) {
-            invalidateCurrentConnection();
-        }
+            if (this.currentConnection.isClosed()) {
+                invalidateCurrentConnection();
+            }
 
-        int pingTimeout = this.currentConnection.getPropertySet().getIntegerProperty(PropertyKey.loadBalancePingTimeout).getValue();
-        boolean pingBeforeReturn = this.currentConnection.getPropertySet().getBooleanProperty(PropertyKey.loadBalanceValidateConnectionOnSwapServer).getValue();
+            int pingTimeout = this.currentConnection.getPropertySet().getIntegerProperty(PropertyKey.loadBalancePingTimeout).getValue();
+            boolean pingBeforeReturn = this.currentConnection.getPropertySet().getBooleanProperty(PropertyKey.loadBalanceValidateConnectionOnSwapServer).getValue();
 
-        for (int hostsTried = 0, hostsToTry = this.hostsList.size(); hostsTried < hostsToTry; hostsTried++) {
-            ConnectionImpl newConn = null;
-            try {
-                newConn = (ConnectionImpl) this.balancer.pickConnection(this, hostPortList, Collections.unmodifiableMap(this.liveConnections),
-                        this.responseTimes.clone(), this.retriesAllDown);
+            for (int hostsTried = 0, hostsToTry = this.hostsList.size(); hostsTried < hostsToTry; hostsTried++) {
+                ConnectionImpl newConn = null;
+                try {
+                    newConn = (ConnectionImpl) this.balancer.pickConnection(this, hostPortList, Collections.unmodifiableMap(this.liveConnections),
+                            this.responseTimes.clone(), this.retriesAllDown);
 
-                if (this.currentConnection != null) {
-                    if (pingBeforeReturn) {
-                        newConn.pingInternal(true, pingTimeout);
-                    }
+                    if (this.currentConnection != null) {
+                        if (pingBeforeReturn) {
+                            newConn.pingInternal(true, pingTimeout);
+                        }
 
-                    syncSessionState(this.currentConnection, newConn);
-                }
+                        syncSessionState(this.currentConnection, newConn);
+                    }
 
-                this.currentConnection = newConn;
-                return;
+                    this.currentConnection = newConn;
+                    return;
 
-            } catch (SQLException e) {
-                if (shouldExceptionTriggerConnectionSwitch(e) && newConn != null) {
-                    // connection error, close up shop on current connection
-                    invalidateConnection(newConn);
+                } catch (SQLException e) {
+                    if (shouldExceptionTriggerConnectionSwitch(e) && newConn != null) {
+                        // connection error, close up shop on current connection
+                        invalidateConnection(newConn);
+                    }
                 }
             }
+
+            // no hosts available to swap connection to, close up.
+            this.isClosed = true;
+            this.closedReason = "Connection closed after inability to pick valid new connection during load-balance.";
+        } finally {
+            updateTransactionHostLoad();
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Stops counting the outstanding transaction in the {@link HostLoadStatistics} once it can't continue: the connection was closed or its current
+     * connection is not the one on the host the transaction was counted on any more.
+     */
+    private void updateTransactionHostLoad() {
+        HostLoadStatistics counted = this.transactionTracker.getHostLoad();
+        if (counted == null) {
+            return;
+        }
+        String host = !this.isClosed && this.currentConnection != null ? this.connectionsToHostsMap.get(this.currentConnection) : null;
+        if (host == null || getHostLoadStatistics(host) != counted) {
+            this.transactionTracker.abandon();
+        }
+    }
+
+    /**
+     * Called before a statement of this connection executes, with the lock held. With auto-commit off, the execution starts the outstanding transaction
+     * unless it is already counted; with auto-commit on, the execution is a transaction of its own and the returned statistics must be told when it ends.
+     * 
+     * @param stmt
+     *            the statement
+     * @return the statistics of the host that executes an auto-commit statement, null otherwise
+     */
+    private HostLoadStatistics statementStarting(JdbcStatement stmt) {
+        Session session = stmt.getQuery().getSession();
+        if (session == null || session.getHostInfo() == null) {
+            return null;
+        }
+        HostLoadStatistics hostLoad = getHostLoadStatistics(session.getHostInfo().getHostPortPair());
+        if (!session.getServerSession().isAutoCommit()) {
+            this.transactionTracker.start(hostLoad, System.nanoTime());
+            return null;
         }
+        hostLoad.transactionStarted();
+        return hostLoad;
+    }
 
-        // no hosts available to swap connection to, close up.
-        this.isClosed = true;
-        this.closedReason = "Connection closed after inability to pick valid new connection during load-balance.";
+    /**
+     * Returns the load statistics of a host, shared by all load-balanced connections of this JVM.
+     * 
+     * @param hostPortPair
+     *            The host:port pair identifying the host.
+     * @return the {@link HostLoadStatistics} of the host
+     */
+    public HostLoadStatistics getHostLoadStatistics(String hostPortPair) {
+        return HostLoadStatistics.getInstance(hostPortPair);
     }
 
     /**
@@ -398,24 +533,29 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
      *             if an error occurs
      */
     @Override
-    public synchronized ConnectionImpl createConnectionForHost(HostInfo hostInfo) throws SQLException {
-        ConnectionImpl conn = super.createConnectionForHost(hostInfo);
+    public ConnectionImpl createConnectionForHost(HostInfo hostInfo) throws SQLException {
+        this.lock.lock();
+        try {
+            ConnectionImpl conn = super.createConnectionForHost(hostInfo);
 
-        this.liveConnections.put(hostInfo.getHostPortPair(), conn);
-        this.connectionsToHostsMap.put(conn, hostInfo.getHostPortPair());
+            this.liveConnections.put(hostInfo.getHostPortPair(), conn);
+            this.connectionsToHostsMap.put(conn, hostInfo.getHostPortPair());
 
-        removeFromGlobalBlocklist(hostInfo.getHostPortPair());
+            removeFromGlobalBlocklist(hostInfo.getHostPortPair());
 
-        this.totalPhysicalConnections++;
+            this.totalPhysicalConnections++;
 
-        for (QueryInterceptor stmtInterceptor : conn.getQueryInterceptorsInstances()) {
-            if (stmtInterceptor instanceof LoadBalancedAutoCommitInterceptor) {
-                ((LoadBalancedAutoCommitInterceptor) stmtInterceptor).resumeCounters();
-                break;
+            for (QueryInterceptor stmtInterceptor : conn.getQueryInterceptorsInstances()) {
+                if (stmtInterceptor instanceof LoadBalancedAutoCommitInterceptor) {
+                    ((LoadBalancedAutoCommitInterceptor) stmtInterceptor).resumeCounters();
+                    break;
+                }
             }
-        }
 
-        return conn;
+            return conn;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     @Override
@@ -445,89 +585,117 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
      * @throws SQLException
      *             if an error occurs
      */
-    public synchronized ConnectionImpl createConnectionForHost(String hostPortPair) throws SQLException {
-        for (HostInfo hi : this.hostsList) {
-            if (hi.getHostPortPair().equals(hostPortPair)) {
-                return createConnectionForHost(hi);
+    public ConnectionImpl createConnectionForHost(String hostPortPair) throws SQLException {
+        this.lock.lock();
+        try {
+            for (HostInfo hi : this.hostsList) {
+                if (hi.getHostPortPair().equals(hostPortPair)) {
+                    return createConnectionForHost(hi);
+                }
             }
+            return null;
+        } finally {
+            this.lock.unlock();
         }
-        return null;
     }
 
     /**
      * Closes all live connections.
      */
-    private synchronized void closeAllConnections() {
-        // close all underlying connections
-        for (Connection c : this.liveConnections.values()) {
-            try {
-                c.close();
-            } catch (SQLException e) {
+    private void closeAllConnections() {
+        this.lock.lock();
+        try {
+            // close all underlying connections
+            for (Connection c : this.liveConnections.values()) {
+                try {
+                    c.close();
+                } catch (SQLException e) {
+                }
             }
-        }
 
-        if (!this.isClosed) {
-            if (this.connectionGroup != null) {
-                this.connectionGroup.closeConnectionProxy(this);
+            if (!this.isClosed) {
+                if (this.connectionGroup != null) {
+                    this.connectionGroup.closeConnectionProxy(this);
+                }
             }
-        }
 
-        this.liveConnections.clear();
-        this.connectionsToHostsMap.clear();
+            this.liveConnections.clear();
+            this.connectionsToHostsMap.clear();
+        } finally {
+            updateTransactionHostLoad();
+            this.lock.unlock();
+        }
     }
 
     /**
      * Closes all live connections.
      */
     @Override
-    synchronized void doClose() {
-        closeAllConnections();
+    void doClose() {
+        this.lock.lock();
+        try {
+            closeAllConnections();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
      * Aborts all live connections
      */
     @Override
-    synchronized void doAbortInternal() {
-        // abort all underlying connections
-        for (JdbcConnection c : this.liveConnections.values()) {
-            try {
-                c.abortInternal();
-            } catch (SQLException e) {
+    void doAbortInternal() {
+        this.lock.lock();
+        try {
+            // abort all underlying connections
+            for (JdbcConnection c : this.liveConnections.values()) {
+                try {
+                    c.abortInternal();
+                } catch (SQLException e) {
+                }
             }
-        }
 
-        if (!this.isClosed) {
-            if (this.connectionGroup != null) {
-                this.connectionGroup.closeConnectionProxy(this);
+            if (!this.isClosed) {
+                if (this.connectionGroup != null) {
+                    this.connectionGroup.closeConnectionProxy(this);
+                }
             }
-        }
 
-        this.liveConnections.clear();
-        this.connectionsToHostsMap.clear();
+            this.liveConnections.clear();
+            this.connectionsToHostsMap.clear();
+        } finally {
+            updateTransactionHostLoad();
+            this.lock.unlock();
+        }
     }
 
     /**
      * Aborts all live connections, using the provided Executor.
      */
     @Override
-    synchronized void doAbort(Executor executor) {
-        // close all underlying connections
-        for (Connection c : this.liveConnections.values()) {
-            try {
-                c.abort(executor);
-            } catch (SQLException e) {
+    void doAbort(Executor executor) {
+        this.lock.lock();
+        try {
+            // close all underlying connections
+            for (Connection c : this.liveConnections.values()) {
+                try {
+                    c.abort(executor);
+                } catch (SQLException e) {
+                }
             }
-        }
 
-        if (!this.isClosed) {
-            if (this.connectionGroup != null) {
-                this.connectionGroup.closeConnectionProxy(this);
+            if (!this.isClosed) {
+                if (this.connectionGroup != null) {
+                    this.connectionGroup.closeConnectionProxy(this);
+                }
             }
-        }
 
-        this.liveConnections.clear();
-        this.connectionsToHostsMap.clear();
+            this.liveConnections.clear();
+            this.connectionsToHostsMap.clear();
+        } finally {
+            updateTransactionHostLoad();
+            this.lock.unlock();
+        }
     }
 
     /**
@@ -536,74 +704,84 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
      * This is the continuation of MultiHostConnectionProxy#invoke(Object, Method, Object[]).
      */
     @Override
-    public synchronized Object invokeMore(Object proxy, Method method, Object[] args) throws Throwable {
-        String methodName = method.getName();
-
-        if (this.isClosed && !allowedOnClosedConnection(method) && method.getExceptionTypes().length > 0) { // TODO remove method.getExceptionTypes().length ?
-            if (this.autoReconnect && !this.closedExplicitly) {
-                // try to reconnect first!
-                this.currentConnection = null;
-                pickNewConnection();
-                this.isClosed = false;
-                this.closedReason = null;
-            } else {
-                String reason = "No operations allowed after connection closed.";
-                if (this.closedReason != null) {
-                    reason += " " + this.closedReason;
-                }
+    public Object invokeMore(Object proxy, Method method, Object[] args) throws Throwable {
+        this.lock.lock();
+        try {
+            String methodName = method.getName();
+
+            if (this.isClosed && !allowedOnClosedConnection(method) && method.getExceptionTypes().length > 0) { // TODO remove method.getExceptionTypes().length ?
+                if (this.autoReconnect && !this.closedExplicitly) {
+                    // try to reconnect first!
+                    this.currentConnection = null;
+                    pickNewConnection();
+                    this.isClosed = false;
+                    this.closedReason = null;
+                } else {
+                    String reason = "No operations allowed after connection closed.";
+                    if (this.closedReason != null) {
+                        reason += " " + this.closedReason;
+                    }
 
-                for (Class<?> excls : method.getExceptionTypes()) {
-                    if (SQLException.class.isAssignableFrom(excls)) {
-                        throw SQLError.createSQLException(reason, MysqlErrorNumbers.SQL_STATE_CONNECTION_NOT_OPEN,
-                                null /* no access to an interceptor here... */);
+                    for (Class<?> excls : method.getExceptionTypes()) {
+                        if (SQLException.class.isAssignableFrom(excls)) {
+                            throw SQLError.createSQLException(reason, MysqlErrorNumbers.SQL_STATE_CONNECTION_NOT_OPEN,
+                                    null /* no access to an interceptor here... */);
+                        }
                     }
+                    throw ExceptionFactory.createException(CJCommunicationsException.class, reason);
                 }
-                throw ExceptionFactory.createException(CJCommunicationsException.class, reason);
             }
-        }
 
-        if (!this.inTransaction) {
-            this.inTransaction = true;
-            this.transactionStartTime = System.nanoTime();
-            this.transactionCount++;
-        }
+            if (!this.inTransaction) {
+                this.inTransaction = true;
+                this.transactionStartTime = System.nanoTime();
+                this.transactionCount++;
+            }
 
-        Object result = null;
+            Object result = null;
 
-        try {
-            result = method.invoke(this.thisAsConnection, args);
+            try {
+                result = method.invoke(this.thisAsConnection, args);
 
-            if (result != null) {
-                if (result instanceof com.mysql.cj.jdbc.JdbcStatement) {
-                    ((com.mysql.cj.jdbc.JdbcStatement) result).setPingTarget(this);
+                if (result != null) {
+                    if (result instanceof com.mysql.cj.jdbc.JdbcStatement) {
+                        ((com.mysql.cj.jdbc.JdbcStatement) result).setPingTarget(this);
+                    }
+                    result = proxyIfReturnTypeIsJdbcInterface(method.getReturnType(), result);
                 }
-                result = proxyIfReturnTypeIsJdbcInterface(method.getReturnType(), result);
-            }
 
-        } catch (InvocationTargetException e) {
-            dealWithInvocationException(e);
+            } catch (InvocationTargetException e) {
+                dealWithInvocationException(e);
 
-        } finally {
-            if ("commit".equals(methodName) || "rollback".equals(methodName)) {
-                this.inTransaction = false;
+            } finally {
+                if ("commit".equals(methodName) || "rollback".equals(methodName)) {
+                    this.inTransaction = false;
 
-                // Update stats
-                String host = this.connectionsToHostsMap.get(this.currentConnection);
-                // avoid NPE if the connection has already been removed from connectionsToHostsMap in invalidateCurrenctConnection()
-                if (host != null) {
-                    synchronized (this.responseTimes) {
-                        Integer hostIndex = (this.hostsToListIndexMap.get(host));
+                    // Update stats
+                    String host = this.connectionsToHostsMap.get(this.currentConnection);
+                    // avoid NPE if the connection has already been removed from connectionsToHostsMap in invalidateCurrenctConnection()
+                    if (host != null) {
+                        synchronized (this.responseTimes) {
+                            Integer hostIndex = (this.hostsToListIndexMap.get(host));
 
-                        if (hostIndex != null && hostIndex < this.responseTimes.length) {
-                            this.responseTimes[hostIndex] = System.nanoTime() - this.transactionStartTime;
+                            if (hostIndex != null && hostIndex < this.responseTimes.length) {
+                                this.responseTimes[hostIndex] = System.nanoTime() - this.transactionStartTime;
+                            }
                         }
                     }
+                    this.transactionTracker.end(System.nanoTime());
+                    pickNewConnection();
+                } else if (this.transactionTracker.getHostLoad() != null && "setAutoCommit".equals(methodName) && this.currentConnection != null
+                        && this.currentConnection.getSession().getServerSession().isAutoCommit()) {
+                    // enabling auto-commit committed the transaction
+                    this.transactionTracker.end(System.nanoTime());
                 }
-                pickNewConnection();
             }
-        }
 
-        return result;
+            return result;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
@@ -613,64 +791,72 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
      *             if an error occurs
      */
     @Override
-    public synchronized void doPing() throws SQLException {
-        SQLException se = null;
-        boolean foundHost = false;
-        int pingTimeout = this.currentConnection.getPropertySet().getIntegerProperty(PropertyKey.loadBalancePingTimeout).getValue();
+    public void doPing() throws SQLException {
+        this.lock.lock();
+        try {
+            SQLException se = null;
+            boolean foundHost = false;
+            int pingTimeout = this.currentConnection.getPropertySet().getIntegerProperty(PropertyKey.loadBalancePingTimeout).getValue();
 
-        synchronized (this) {
-            for (HostInfo hi : this.hostsList) {
-                String host = hi.getHostPortPair();
-                ConnectionImpl conn = this.liveConnections.get(host);
-                if (conn == null) {
-                    continue;
-                }
-                try {
-                    if (pingTimeout == 0) {
-                        conn.ping();
-                    } else {
-                        conn.pingInternal(true, pingTimeout);
-                    }
-                    foundHost = true;
-                } catch (SQLException e) {
-                    // give up if it is the current connection, otherwise NPE faking resultset later.
-                    if (host.equals(this.connectionsToHostsMap.get(this.currentConnection))) {
-                        // clean up underlying connections, since connection pool won't do it
-                        closeAllConnections();
-                        this.isClosed = true;
-                        this.closedReason = "Connection closed because ping of current connection failed.";
-                        throw e;
+            this.lock.lock();
+            try {
+                for (HostInfo hi : this.hostsList) {
+                    String host = hi.getHostPortPair();
+                    ConnectionImpl conn = this.liveConnections.get(host);
+                    if (conn == null) {
+                        continue;
                     }
+                    try {
+                        if (pingTimeout == 0) {
+                            conn.ping();
+                        } else {
+                            conn.pingInternal(true, pingTimeout);
+                        }
+                        foundHost = true;
+                    } catch (SQLException e) {
+                        // give up if it is the current connection, otherwise NPE faking resultset later.
+                        if (host.equals(this.connectionsToHostsMap.get(this.currentConnection))) {
+                            // clean up underlying connections, since connection pool won't do it
+                            closeAllConnections();
+                            this.isClosed = true;
+                            this.closedReason = "Connection closed because ping of current connection failed.";
+                            throw e;
+                        }
 
-                    // if the Exception is caused by ping connection lifetime checks, don't add to blocklist
-                    if (e.getMessage().equals(Messages.getString("Connection.exceededConnectionLifetime"))) {
-                        // only set the return Exception if it's null
-                        if (se == null) {
+                        // if the Exception is caused by ping connection lifetime checks, don't add to blocklist
+                        if (e.getMessage().equals(Messages.getString("Connection.exceededConnectionLifetime"))) {
+                            // only set the return Exception if it's null
+                            if (se == null) {
+                                se = e;
+                            }
+                        } else {
+                            // overwrite the return Exception no matter what
                             se = e;
+                            if (isGlobalBlocklistEnabled()) {
+                                addToGlobalBlocklist(host);
+                            }
                         }
-                    } else {
-                        // overwrite the return Exception no matter what
-                        se = e;
-                        if (isGlobalBlocklistEnabled()) {
-                            addToGlobalBlocklist(host);
-                        }
+                        // take the connection out of the liveConnections Map
+                        this.liveConnections.remove(this.connectionsToHostsMap.get(conn));
                     }
-                    // take the connection out of the liveConnections Map
-                    this.liveConnections.remove(this.connectionsToHostsMap.get(conn));
                 }
+            } finally {
+                this.lock.unlock();
             }
-        }
-        // if there were no successful pings
-        if (!foundHost) {
-            closeAllConnections();
-            this.isClosed = true;
-            this.closedReason = "Connection closed due to inability to ping any active connections.";
-            // throw the stored Exception, if exists
-            if (se != null) {
-                throw se;
+            // if there were no successful pings
+            if (!foundHost) {
+                closeAllConnections();
+                this.isClosed = true;
+                this.closedReason = "Connection closed due to inability to ping any active connections.";
+                // throw the stored Exception, if exists
+                if (se != null) {
+                    throw se;
+                }
+                // or create a new SQLException and throw it, must be no liveConnections
+                ((ConnectionImpl) this.currentConnection).throwConnectionClosedException();
             }
-            // or create a new SQLException and throw it, must be no liveConnections
-            ((ConnectionImpl) this.currentConnection).throwConnectionClosedException();
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -778,50 +964,55 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
      * @return
      *         A local hosts blocklist.
      */
-    public synchronized Map<String, Long> getGlobalBlocklist() {
-        if (!isGlobalBlocklistEnabled()) {
-            if (this.hostsToRemove.isEmpty()) {
-                return new HashMap<>(1);
-            }
-            HashMap<String, Long> fakedBlocklist = new HashMap<>();
-            for (String h : this.hostsToRemove) {
-                fakedBlocklist.put(h, System.currentTimeMillis() + 5000);
+    public Map<String, Long> getGlobalBlocklist() {
+        this.lock.lock();
+        try {
+            if (!isGlobalBlocklistEnabled()) {
+                if (this.hostsToRemove.isEmpty()) {
+                    return new HashMap<>(1);
+                }
+                HashMap<String, Long> fakedBlocklist = new HashMap<>();
+                for (String h : this.hostsToRemove) {
+                    fakedBlocklist.put(h, System.currentTimeMillis() + 5000);
+                }
+                return fakedBlocklist;
             }
-            return fakedBlocklist;
-        }
-
-        // Make a local copy of the blocklist
-        Map<String, Long> blocklistClone = new HashMap<>(globalBlocklist.size());
-        // Copy everything from synchronized global blocklist to local copy for manipulation
-        synchronized (globalBlocklist) {
-            blocklistClone.putAll(globalBlocklist);
-        }
-        Set<String> keys = blocklistClone.keySet();
 
-        // We're only interested in blocklisted hosts that are in the hostList
-        keys.retainAll(this.hostsList.stream().map(hi -> hi.getHostPortPair()).collect(Collectors.toList()));
-
-        // Don't need to synchronize here as we using a local copy
-        for (Iterator<String> i = keys.iterator(); i.hasNext();) {
-            String host = i.next();
-            // OK if null is returned because another thread already purged Map entry.
-            Long timeout = globalBlocklist.get(host);
-            if (timeout != null && timeout < System.currentTimeMillis()) {
-                // Timeout has expired, remove from blocklist
-                synchronized (globalBlocklist) {
-                    globalBlocklist.remove(host);
+            // Make a local copy of the blocklist
+            Map<String, Long> blocklistClone = new HashMap<>(globalBlocklist.size());
+            // Copy everything from synchronized global blocklist to local copy for manipulation
+            synchronized (globalBlocklist) {
+                blocklistClone.putAll(globalBlocklist);
+            }
+            Set<String> keys = blocklistClone.keySet();
+
+            // We're only interested in blocklisted hosts that are in the hostList
+            keys.retainAll(this.hostsList.stream().map(hi -> hi.getHostPortPair()).collect(Collectors.toList()));
+
+            // Don't need to synchronize here as we using a local copy
+            for (Iterator<String> i = keys.iterator(); i.hasNext();) {
+                String host = i.next();
+                // OK if null is returned because another thread already purged Map entry.
+                Long timeout = globalBlocklist.get(host);
+                if (timeout != null && timeout < System.currentTimeMillis()) {
+                    // Timeout has expired, remove from blocklist
+                    synchronized (globalBlocklist) {
+                        globalBlocklist.remove(host);
+                    }
+                    i.remove();
                 }
-                i.remove();
+
+            }
+            if (keys.size() == this.hostsList.size()) {
+                // return an empty blocklist, let the BalanceStrategy implementations try to connect to everything since it appears that all hosts are
+                // unavailable - we don't want to wait for loadBalanceBlocklistTimeout to expire.
+                return new HashMap<>(1);
             }
 
+            return blocklistClone;
+        } finally {
+            this.lock.unlock();
         }
-        if (keys.size() == this.hostsList.size()) {
-            // return an empty blocklist, let the BalanceStrategy implementations try to connect to everything since it appears that all hosts are
-            // unavailable - we don't want to wait for loadBalanceBlocklistTimeout to expire.
-            return new HashMap<>(1);
-        }
-
-        return blocklistClone;
     }
 
     /**
@@ -832,8 +1023,13 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
      * @deprecated
      */
     @Deprecated
-    public synchronized Map<String, Long> getGlobalBlacklist() {
-        return getGlobalBlocklist();
+    public Map<String, Long> getGlobalBlacklist() {
+        this.lock.lock();
+        try {
+            return getGlobalBlocklist();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
@@ -852,7 +1048,8 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
 
         int timeBetweenChecks = this.hostRemovalGracePeriod > 1000 ? 1000 : this.hostRemovalGracePeriod;
 
-        synchronized (this) {
+        this.lock.lock();
+        try {
             addToGlobalBlocklist(hostPortPair, System.currentTimeMillis() + this.hostRemovalGracePeriod + timeBetweenChecks);
 
             long cur = System.currentTimeMillis();
@@ -871,6 +1068,8 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
                     // better to swallow this and retry.
                 }
             }
+        } finally {
+            this.lock.unlock();
         }
 
         removeHost(hostPortPair);
@@ -884,35 +1083,40 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
      * @throws SQLException
      *             if an error occurs
      */
-    public synchronized void removeHost(String hostPortPair) throws SQLException {
-        if (this.connectionGroup != null) {
-            if (this.connectionGroup.getInitialHosts().size() == 1 && this.connectionGroup.getInitialHosts().contains(hostPortPair)) {
-                throw SQLError.createSQLException(Messages.getString("LoadBalancedConnectionProxy.0"), null);
+    public void removeHost(String hostPortPair) throws SQLException {
+        this.lock.lock();
+        try {
+            if (this.connectionGroup != null) {
+                if (this.connectionGroup.getInitialHosts().size() == 1 && this.connectionGroup.getInitialHosts().contains(hostPortPair)) {
+                    throw SQLError.createSQLException(Messages.getString("LoadBalancedConnectionProxy.0"), null);
+                }
             }
-        }
-
-        this.hostsToRemove.add(hostPortPair);
 
-        this.connectionsToHostsMap.remove(this.liveConnections.remove(hostPortPair));
-        if (this.hostsToListIndexMap.remove(hostPortPair) != null) {
-            long[] newResponseTimes = new long[this.responseTimes.length - 1];
-            int newIdx = 0;
-            for (HostInfo hostInfo : this.hostsList) {
-                String host = hostInfo.getHostPortPair();
-                if (!this.hostsToRemove.contains(host)) {
-                    Integer idx = this.hostsToListIndexMap.get(host);
-                    if (idx != null && idx < this.responseTimes.length) {
-                        newResponseTimes[newIdx] = this.responseTimes[idx];
+            this.hostsToRemove.add(hostPortPair);
+
+            this.connectionsToHostsMap.remove(this.liveConnections.remove(hostPortPair));
+            if (this.hostsToListIndexMap.remove(hostPortPair) != null) {
+                long[] newResponseTimes = new long[this.responseTimes.length - 1];
+                int newIdx = 0;
+                for (HostInfo hostInfo : this.hostsList) {
+                    String host = hostInfo.getHostPortPair();
+                    if (!this.hostsToRemove.contains(host)) {
+                        Integer idx = this.hostsToListIndexMap.get(host);
+                        if (idx != null && idx < this.responseTimes.length) {
+                            newResponseTimes[newIdx] = this.responseTimes[idx];
+                        }
+                        this.hostsToListIndexMap.put(host, newIdx++);
                     }
-                    this.hostsToListIndexMap.put(host, newIdx++);
                 }
+                this.responseTimes = newResponseTimes;
             }
-            this.responseTimes = newResponseTimes;
-        }
 
-        if (hostPortPair.equals(this.currentConnection.getHostPortPair())) {
-            invalidateConnection(this.currentConnection);
-            pickNewConnection();
+            if (hostPortPair.equals(this.currentConnection.getHostPortPair())) {
+                invalidateConnection(this.currentConnection);
+                pickNewConnection();
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -923,60 +1127,100 @@ public class LoadBalancedConnectionProxy extends MultiHostConnectionProxy implem
      *            The host to be added.
      * @return true if host was added and false if the host list already contains it
      */
-    public synchronized boolean addHost(String hostPortPair) {
-        if (this.hostsToListIndexMap.containsKey(hostPortPair)) {
-            return false;
-        }
+    public boolean addHost(String hostPortPair) {
+        this.lock.lock();
+        try {
+            if (this.hostsToListIndexMap.containsKey(hostPortPair)) {
+                return false;
+            }
 
-        long[] newResponseTimes = new long[this.responseTimes.length + 1];
-        System.arraycopy(this.responseTimes, 0, newResponseTimes, 0, this.responseTimes.length);
+            long[] newResponseTimes = new long[this.responseTimes.length + 1];
+            System.arraycopy(this.responseTimes, 0, newResponseTimes, 0, this.responseTimes.length);
 
-        this.responseTimes = newResponseTimes;
-        if (this.hostsList.stream().noneMatch(hi -> hostPortPair.equals(hi.getHostPortPair()))) {
-            this.hostsList.add(this.connectionUrl.getHostOrSpawnIsolated(hostPortPair));
-        }
-        this.hostsToListIndexMap.put(hostPortPair, this.responseTimes.length - 1);
-        this.hostsToRemove.remove(hostPortPair);
+            this.responseTimes = newResponseTimes;
+            if (this.hostsList.stream().noneMatch(hi -> hostPortPair.equals(hi.getHostPortPair()))) {
+                this.hostsList.add(this.connectionUrl.getHostOrSpawnIsolated(hostPortPair));
+            }
+            this.hostsToListIndexMap.put(hostPortPair, this.responseTimes.length - 1);
+            this.hostsToRemove.remove(hostPortPair);
 
-        return true;
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    public synchronized boolean inTransaction() {
-        return this.inTransaction;
+    public boolean inTransaction() {
+        this.lock.lock();
+        try {
+            return this.inTransaction;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    public synchronized long getTransactionCount() {
-        return this.transactionCount;
+    public long getTransactionCount() {
+        this.lock.lock();
+        try {
+            return this.transactionCount;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    public synchronized long getActivePhysicalConnectionCount() {
-        return this.liveConnections.size();
+    public long getActivePhysicalConnectionCount() {
+        this.lock.lock();
+        try {
+            return this.liveConnections.size();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    public synchronized long getTotalPhysicalConnectionCount() {
-        return this.totalPhysicalConnections;
+    public long getTotalPhysicalConnectionCount() {
+        this.lock.lock();
+        try {
+            return this.totalPhysicalConnections;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    public synchronized long getConnectionGroupProxyID() {
-        return this.connectionGroupProxyID;
+    public long getConnectionGroupProxyID() {
+        this.lock.lock();
+        try {
+            return this.connectionGroupProxyID;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    public synchronized String getCurrentActiveHost() {
-        JdbcConnection c = this.currentConnection;
-        if (c != null) {
-            Object o = this.connectionsToHostsMap.get(c);
-            if (o != null) {
-                return o.toString();
+    public String getCurrentActiveHost() {
+        this.lock.lock();
+        try {
+            JdbcConnection c = this.currentConnection;
+            if (c != null) {
+                Object o = this.connectionsToHostsMap.get(c);
+                if (o != null) {
+                    return o.toString();
+                }
             }
+            return null;
+        } finally {
+            this.lock.unlock();
         }
-        return null;
     }
 
-    public synchronized long getCurrentTransactionDuration() {
-        if (this.inTransaction && this.transactionStartTime > 0) {
-            return System.nanoTime() - this.transactionStartTime;
+    public long getCurrentTransactionDuration() {
+        this.lock.lock();
+        try {
+            if (this.inTransaction && this.transactionStartTime > 0) {
+                return System.nanoTime() - this.transactionStartTime;
+            }
+            return 0;
+        } finally {
+            this.lock.unlock();
         }
-        return 0;
     }
 
     /**
@@ -38,6 +38,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.mysql.cj.conf.ConnectionUrl;
 import com.mysql.cj.conf.HostInfo;
@@ -85,6 +87,10 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
     // exception is caught in every proxy instance belonging to the same call stack.
     protected Throwable lastExceptionDealtWith = null;
 
+    // Guards this proxy's state and, through ConnectionImpl.getConnectionLock(), every underlying connection it manages. A ReentrantLock rather than the
+    // object monitor so that virtual threads blocked on network I/O while holding it don't pin their carrier thread.
+    final ReentrantLock lock = new ReentrantLock();
+
     /**
      * Proxy class to intercept and deal with errors that may occur in any object bound to the current connection.
      */
@@ -101,7 +107,8 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
                 return args[0].equals(this);
             }
 
-            synchronized (MultiHostConnectionProxy.this) {
+            MultiHostConnectionProxy.this.lock.lock();
+            try {
                 Object result = null;
 
                 try {
@@ -112,6 +119,8 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
                 }
 
                 return result;
+            } finally {
+                MultiHostConnectionProxy.this.lock.unlock();
             }
         }
     }
@@ -163,6 +172,16 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
         return numHosts;
     }
 
+    /**
+     * Get the lock shared by this proxy and the connections it manages.
+     *
+     * @return
+     *         The lock that replaces this proxy's monitor.
+     */
+    public Lock getLock() {
+        return this.lock;
+    }
+
     /**
      * Get this connection's proxy.
      * A multi-host connection may not be at top level in the multi-host connections chain. In such case the first connection in the chain is available as a
@@ -314,8 +333,13 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
      * @throws SQLException
      *             if an error occurs
      */
-    synchronized void invalidateCurrentConnection() throws SQLException {
-        invalidateConnection(this.currentConnection);
+    void invalidateCurrentConnection() throws SQLException {
+        this.lock.lock();
+        try {
+            invalidateConnection(this.currentConnection);
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
@@ -326,13 +350,18 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
      * @throws SQLException
      *             if an error occurs
      */
-    synchronized void invalidateConnection(JdbcConnection conn) throws SQLException {
+    void invalidateConnection(JdbcConnection conn) throws SQLException {
+        this.lock.lock();
         try {
-            if (conn != null && !conn.isClosed()) {
-                conn.realClose(true, !conn.getAutoCommit(), true, null);
+            try {
+                if (conn != null && !conn.isClosed()) {
+                    conn.realClose(true, !conn.getAutoCommit(), true, null);
+                }
+            } catch (SQLException e) {
+                // swallow this exception, current connection should be useless anyway.
             }
-        } catch (SQLException e) {
-            // swallow this exception, current connection should be useless anyway.
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -354,14 +383,19 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
      * @throws SQLException
      *             if an error occurs
      */
-    synchronized ConnectionImpl createConnectionForHost(HostInfo hostInfo) throws SQLException {
-        ConnectionImpl conn = (ConnectionImpl) ConnectionImpl.getInstance(hostInfo);
-        JdbcConnection topmostProxy = getProxy();
-        if (topmostProxy != this.thisAsConnection) {
-            conn.setProxy(this.thisAsConnection); // First call sets this connection as underlying connection parent proxy (its creator).
+    ConnectionImpl createConnectionForHost(HostInfo hostInfo) throws SQLException {
+        this.lock.lock();
+        try {
+            ConnectionImpl conn = (ConnectionImpl) ConnectionImpl.getInstance(hostInfo);
+            JdbcConnection topmostProxy = getProxy();
+            if (topmostProxy != this.thisAsConnection) {
+                conn.setProxy(this.thisAsConnection); // First call sets this connection as underlying connection parent proxy (its creator).
+            }
+            conn.setProxy(topmostProxy); // Set the topmost proxy in the underlying connection.
+            return conn;
+        } finally {
+            this.lock.unlock();
         }
-        conn.setProxy(topmostProxy); // Set the topmost proxy in the underlying connection.
-        return conn;
     }
 
     /**
@@ -466,62 +500,67 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
      *             if an error occurs
      */
     @Override
-    public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        String methodName = method.getName();
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        this.lock.lock();
+        try {
+            String methodName = method.getName();
 
-        if (METHOD_GET_MULTI_HOST_SAFE_PROXY.equals(methodName)) {
-            return this.thisAsConnection;
-        }
+            if (METHOD_GET_MULTI_HOST_SAFE_PROXY.equals(methodName)) {
+                return this.thisAsConnection;
+            }
 
-        if (METHOD_EQUALS.equals(methodName)) {
-            // Let args[0] "unwrap" to its InvocationHandler if it is a proxy.
-            return args[0].equals(this);
-        }
+            if (METHOD_EQUALS.equals(methodName)) {
+                // Let args[0] "unwrap" to its InvocationHandler if it is a proxy.
+                return args[0].equals(this);
+            }
 
-        if (METHOD_HASH_CODE.equals(methodName)) {
-            return this.hashCode();
-        }
+            if (METHOD_HASH_CODE.equals(methodName)) {
+                return this.hashCode();
+            }
 
-        if (METHOD_CLOSE.equals(methodName)) {
-            doClose();
-            this.isClosed = true;
-            this.closedReason = "Connection explicitly closed.";
-            this.closedExplicitly = true;
-            return null;
-        }
+            if (METHOD_CLOSE.equals(methodName)) {
+                doClose();
+                this.isClosed = true;
+                this.closedReason = "Connection explicitly closed.";
+                this.closedExplicitly = true;
+                return null;
+            }
 
-        if (METHOD_ABORT_INTERNAL.equals(methodName)) {
-            doAbortInternal();
-            this.currentConnection.abortInternal();
-            this.isClosed = true;
-            this.closedReason = "Connection explicitly closed.";
-            return null;
-        }
+            if (METHOD_ABORT_INTERNAL.equals(methodName)) {
+                doAbortInternal();
+                this.currentConnection.abortInternal();
+                this.isClosed = true;
+                this.closedReason = "Connection explicitly closed.";
+                return null;
+            }
 
-        if (METHOD_ABORT.equals(methodName) && args.length == 1) {
-            doAbort((Executor) args[0]);
-            this.isClosed = true;
-            this.closedReason = "Connection explicitly closed.";
-            return null;
-        }
+            if (METHOD_ABORT.equals(methodName) && args.length == 1) {
+                doAbort((Executor) args[0]);
+                this.isClosed = true;
+                this.closedReason = "Connection explicitly closed.";
+                return null;
+            }
 
-        if (METHOD_IS_CLOSED.equals(methodName)) {
-            return this.isClosed;
-        }
+            if (METHOD_IS_CLOSED.equals(methodName)) {
+                return this.isClosed;
+            }
 
-        try {
-            return invokeMore(proxy, method, args);
-        } catch (InvocationTargetException e) {
-            throw e.getCause() != null ? e.getCause() : e;
-        } catch (Exception e) {
-            // Check if the captured exception must be wrapped by an unchecked exception.
-            Class<?>[] declaredException = method.getExceptionTypes();
-            for (Class<?> declEx : declaredException) {
-                if (declEx.isAssignableFrom(e.getClass())) {
-                    throw e;
+            try {
+                return invokeMore(proxy, method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause() != null ? e.getCause() : e;
+            } catch (Exception e) {
+                // Check if the captured exception must be wrapped by an unchecked exception.
+                Class<?>[] declaredException = method.getExceptionTypes();
+                for (Class<?> declEx : declaredException) {
+                    if (declEx.isAssignableFrom(e.getClass())) {
+                        throw e;
+                    }
                 }
+                throw new IllegalStateException(e.getMessage(), e);
             }
-            throw new IllegalStateException(e.getMessage(), e);
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -46,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.Messages;
 import com.mysql.cj.ServerVersion;
@@ -55,6 +56,7 @@ import com.mysql.cj.exceptions.MysqlErrorNumbers;
 import com.mysql.cj.interceptors.QueryInterceptor;
 import com.mysql.cj.jdbc.ClientInfoProvider;
 import com.mysql.cj.jdbc.JdbcConnection;
+import com.mysql.cj.jdbc.JdbcPipeline;
 import com.mysql.cj.jdbc.JdbcPreparedStatement;
 import com.mysql.cj.jdbc.JdbcPropertySet;
 import com.mysql.cj.jdbc.exceptions.SQLError;
@@ -93,8 +95,11 @@ public class MultiHostMySQLConnection implements JdbcConnection {
 
     @Override
     public JdbcConnection getActiveMySQLConnection() {
-        synchronized (this.thisAsProxy) {
+        getThisAsProxy().lock.lock();
+        try {
             return this.thisAsProxy.currentConnection;
+        } finally {
+            getThisAsProxy().lock.unlock();
         }
     }
 
@@ -640,11 +645,22 @@ public class MultiHostMySQLConnection implements JdbcConnection {
         return getActiveMySQLConnection().getNetworkTimeout();
     }
 
+    @Deprecated
     @Override
     public Object getConnectionMutex() {
         return getActiveMySQLConnection().getConnectionMutex();
     }
 
+    @Override
+    public Lock getConnectionLock() {
+        return getActiveMySQLConnection().getConnectionLock();
+    }
+
+    @Override
+    public JdbcPipeline createPipeline() throws SQLException {
+        return getActiveMySQLConnection().createPipeline();
+    }
+
     @Override
     public int getSessionMaxRows() {
         return getActiveMySQLConnection().getSessionMaxRows();
@@ -729,8 +745,11 @@ public class MultiHostMySQLConnection implements JdbcConnection {
 
     @Override
     public ClientInfoProvider getClientInfoProviderImpl() throws SQLException {
-        synchronized (getThisAsProxy()) {
+        getThisAsProxy().lock.lock();
+        try {
             return getActiveMySQLConnection().getClientInfoProviderImpl();
+        } finally {
+            getThisAsProxy().lock.unlock();
         }
     }
 
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.jdbc.ha;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load balancing strategy "powerOfTwoChoices": picks two distinct hosts at random and routes the transaction to the one with the lower
+ * {@link HostLoadStatistics#getCost(long)}, or with fewer open transactions if both costs are equal. Sampling keeps hosts that look best to every connection
+ * from being flooded, while still avoiding slow and busy ones.
+ */
+public class PowerOfTwoChoicesBalanceStrategy extends LoadAwareBalanceStrategy {
+
+    public PowerOfTwoChoicesBalanceStrategy() {
+    }
+
+    @Override
+    public int chooseHost(List<String> configuredHosts, Set<String> blocklistedHosts, HostLoadStatistics[] loads, long nowNanos) {
+        int[] allowed = new int[loads.length];
+        int numAllowed = 0;
+        for (int i = 0; i < loads.length; i++) {
+            if (!blocklistedHosts.contains(configuredHosts.get(i))) {
+                allowed[numAllowed++] = i;
+            }
+        }
+        if (numAllowed <= 1) {
+            return numAllowed == 0 ? -1 : allowed[0];
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(numAllowed);
+        int second = random.nextInt(numAllowed - 1);
+        if (second >= first) {
+            second++;
+        }
+        HostLoadStatistics a = loads[allowed[first]];
+        HostLoadStatistics b = loads[allowed[second]];
+
+        double costA = a.getCost(nowNanos);
+        double costB = b.getCost(nowNanos);
+        if (costA != costB) {
+            return costA < costB ? allowed[first] : allowed[second];
+        }
+        return a.getOutstandingTransactions() <= b.getOutstandingTransactions() ? allowed[first] : allowed[second];
+    }
+}
@@ -54,8 +54,13 @@ public class ReplicationMySQLConnection extends MultiHostMySQLConnection impleme
     }
 
     @Override
-    public synchronized JdbcConnection getCurrentConnection() {
-        return getThisAsProxy().getCurrentConnection();
+    public JdbcConnection getCurrentConnection() {
+        getThisAsProxy().lock.lock();
+        try {
+            return getThisAsProxy().getCurrentConnection();
+        } finally {
+            getThisAsProxy().lock.unlock();
+        }
     }
 
     @Override
@@ -64,8 +69,13 @@ public class ReplicationMySQLConnection extends MultiHostMySQLConnection impleme
     }
 
     @Override
-    public synchronized JdbcConnection getSourceConnection() {
-        return getThisAsProxy().getSourceConnection();
+    public JdbcConnection getSourceConnection() {
+        getThisAsProxy().lock.lock();
+        try {
+            return getThisAsProxy().getSourceConnection();
+        } finally {
+            getThisAsProxy().lock.unlock();
+        }
     }
 
     private JdbcConnection getValidatedSourceConnection() {
@@ -98,8 +108,13 @@ public class ReplicationMySQLConnection extends MultiHostMySQLConnection impleme
     }
 
     @Override
-    public synchronized JdbcConnection getReplicaConnection() {
-        return getThisAsProxy().getReplicasConnection();
+    public JdbcConnection getReplicaConnection() {
+        getThisAsProxy().lock.lock();
+        try {
+            return getThisAsProxy().getReplicasConnection();
+        } finally {
+            getThisAsProxy().lock.unlock();
+        }
     }
 
     private JdbcConnection getValidatedReplicasConnection() {
@@ -142,47 +157,62 @@ public class ReplicationMySQLConnection extends MultiHostMySQLConnection impleme
     }
 
     @Override
-    public synchronized void ping() throws SQLException {
-        JdbcConnection conn;
-        try {
-            if ((conn = getValidatedSourceConnection()) != null) {
-                conn.ping();
-            }
-        } catch (SQLException e) {
-            if (isSourceConnection()) {
-                throw e;
-            }
-        }
+    public void ping() throws SQLException {
+        getThisAsProxy().lock.lock();
         try {
-            if ((conn = getValidatedReplicasConnection()) != null) {
-                conn.ping();
+            JdbcConnection conn;
+            try {
+                if ((conn = getValidatedSourceConnection()) != null) {
+                    conn.ping();
+                }
+            } catch (SQLException e) {
+                if (isSourceConnection()) {
+                    throw e;
+                }
             }
-        } catch (SQLException e) {
-            if (!isSourceConnection()) {
-                throw e;
+            try {
+                if ((conn = getValidatedReplicasConnection()) != null) {
+                    conn.ping();
+                }
+            } catch (SQLException e) {
+                if (!isSourceConnection()) {
+                    throw e;
+                }
             }
+        } finally {
+            getThisAsProxy().lock.unlock();
         }
     }
 
     @Override
-    public synchronized void changeUser(String userName, String newPassword) throws SQLException {
-        JdbcConnection conn;
-        if ((conn = getValidatedSourceConnection()) != null) {
-            conn.changeUser(userName, newPassword);
-        }
-        if ((conn = getValidatedReplicasConnection()) != null) {
-            conn.changeUser(userName, newPassword);
+    public void changeUser(String userName, String newPassword) throws SQLException {
+        getThisAsProxy().lock.lock();
+        try {
+            JdbcConnection conn;
+            if ((conn = getValidatedSourceConnection()) != null) {
+                conn.changeUser(userName, newPassword);
+            }
+            if ((conn = getValidatedReplicasConnection()) != null) {
+                conn.changeUser(userName, newPassword);
+            }
+        } finally {
+            getThisAsProxy().lock.unlock();
         }
     }
 
     @Override
-    public synchronized void setStatementComment(String comment) {
-        JdbcConnection conn;
-        if ((conn = getValidatedSourceConnection()) != null) {
-            conn.setStatementComment(comment);
-        }
-        if ((conn = getValidatedReplicasConnection()) != null) {
-            conn.setStatementComment(comment);
+    public void setStatementComment(String comment) {
+        getThisAsProxy().lock.lock();
+        try {
+            JdbcConnection conn;
+            if ((conn = getValidatedSourceConnection()) != null) {
+                conn.setStatementComment(comment);
+            }
+            if ((conn = getValidatedReplicasConnection()) != null) {
+                conn.setStatementComment(comment);
+            }
+        } finally {
+            getThisAsProxy().lock.unlock();
         }
     }
 
@@ -244,9 +274,14 @@ public class ReplicationMySQLConnection extends MultiHostMySQLConnection impleme
 
     @Deprecated
     @Override
-    public synchronized void clearHasTriedMaster() {
-        getThisAsProxy().sourceConnection.clearHasTriedMaster();
-        getThisAsProxy().replicasConnection.clearHasTriedMaster();
+    public void clearHasTriedMaster() {
+        getThisAsProxy().lock.lock();
+        try {
+            getThisAsProxy().sourceConnection.clearHasTriedMaster();
+            getThisAsProxy().replicasConnection.clearHasTriedMaster();
+        } finally {
+            getThisAsProxy().lock.unlock();
+        }
     }
 
 }
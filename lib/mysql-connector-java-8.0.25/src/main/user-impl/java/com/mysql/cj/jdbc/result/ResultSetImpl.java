@@ -64,6 +64,7 @@ import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.Messages;
 import com.mysql.cj.MysqlType;
@@ -328,7 +329,9 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public void initializeWithMetadata() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             initRowsWithMetadata();
 
             if (this.useUsageAdvisor) {
@@ -365,12 +368,16 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
                 this.session.getProtocol().getMetricsHolder().reportNumberOfTablesAccessed(tableNamesSet.size());
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean absolute(int row) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (isStrictlyForwardOnly()) {
                 throw ExceptionFactory.createException(Messages.getString("ResultSet.ForwardOnly"));
             }
@@ -413,12 +420,16 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             setRowPositionValidity();
 
             return b;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void afterLast() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (isStrictlyForwardOnly()) {
                 throw ExceptionFactory.createException(Messages.getString("ResultSet.ForwardOnly"));
             }
@@ -429,12 +440,16 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             }
 
             setRowPositionValidity();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void beforeFirst() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (isStrictlyForwardOnly()) {
                 throw ExceptionFactory.createException(Messages.getString("ResultSet.ForwardOnly"));
             }
@@ -447,6 +462,8 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             this.thisRow = null;
 
             setRowPositionValidity();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -484,7 +501,9 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
      *             if the index is out of bounds
      */
     protected final void checkColumnBounds(int columnIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if ((columnIndex < 1)) {
                 throw SQLError.createSQLException(
                         Messages.getString("ResultSet.Column_Index_out_of_range_low",
@@ -500,6 +519,8 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             if (this.useUsageAdvisor) {
                 this.columnUsed[columnIndex - 1] = true;
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -539,8 +560,12 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public void clearWarnings() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             this.warningChain = null;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -574,7 +599,9 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public int findColumn(String columnName) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             Integer index = this.columnDefinition.findColumn(columnName, this.useColumnNamesInFindColumn, 1);
 
             if (index == -1) {
@@ -584,12 +611,16 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             }
 
             return index;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean first() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (isStrictlyForwardOnly()) {
                 throw ExceptionFactory.createException(Messages.getString("ResultSet.ForwardOnly"));
             }
@@ -606,6 +637,8 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             setRowPositionValidity();
 
             return b;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1072,23 +1105,35 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public int getFetchDirection() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.fetchDirection;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public int getFetchSize() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.fetchSize;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public char getFirstCharOfQuery() {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 return this.firstCharOfQuery;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (SQLException e) {
             throw new RuntimeException(e); // FIXME: Need to evolve interface
@@ -1285,7 +1330,9 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             throw SQLError.createSQLException("Type parameter can not be null", MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, getExceptionInterceptor());
         }
 
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (type.equals(String.class)) {
                 return (T) getString(columnIndex);
 
@@ -1419,6 +1466,8 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
             throw SQLError.createSQLException("Conversion not supported for type " + type.getName(), MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT,
                     getExceptionInterceptor());
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1610,12 +1659,16 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
     @Override
     public java.sql.Statement getStatement() throws SQLException {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 if (this.wrapperStatement != null) {
                     return this.wrapperStatement;
                 }
 
                 return this.owningStatement;
+            } finally {
+                connectionLock.unlock();
             }
 
         } catch (SQLException sqlEx) {
@@ -1678,8 +1731,12 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public java.sql.SQLWarning getWarnings() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.warningChain;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1690,31 +1747,47 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public boolean isAfterLast() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             boolean b = this.rowData.isAfterLast();
 
             return b;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean isBeforeFirst() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.rowData.isBeforeFirst();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean isFirst() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.rowData.isFirst();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean isLast() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return this.rowData.isLast();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1731,7 +1804,9 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public boolean last() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (isStrictlyForwardOnly()) {
                 throw ExceptionFactory.createException(Messages.getString("ResultSet.ForwardOnly"));
             }
@@ -1748,6 +1823,8 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             setRowPositionValidity();
 
             return b;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1763,7 +1840,9 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public boolean next() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
 
             boolean b;
 
@@ -1790,6 +1869,8 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             setRowPositionValidity();
 
             return b;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1807,7 +1888,9 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
      *                if a database access error occurs
      */
     public boolean prev() throws java.sql.SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
 
             int rowIndex = this.rowData.getPosition();
 
@@ -1832,17 +1915,23 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             setRowPositionValidity();
 
             return b;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public boolean previous() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (isStrictlyForwardOnly()) {
                 throw ExceptionFactory.createException(Messages.getString("ResultSet.ForwardOnly"));
             }
 
             return prev();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1854,7 +1943,9 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             return; // already closed
         }
 
-        synchronized (locallyScopedConn.getConnectionMutex()) {
+        Lock connectionLock = locallyScopedConn.getConnectionLock();
+        connectionLock.lock();
+        try {
             // additional check in case ResultSet was closed while current thread was waiting for lock
             if (this.isClosed) {
                 return;
@@ -1944,6 +2035,8 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
                     throw exceptionDuringClose;
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1959,7 +2052,9 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public boolean relative(int rows) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (isStrictlyForwardOnly()) {
                 throw ExceptionFactory.createException(Messages.getString("ResultSet.ForwardOnly"));
             }
@@ -1976,6 +2071,8 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             setRowPositionValidity();
 
             return (!this.rowData.isAfterLast() && !this.rowData.isBeforeFirst());
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1996,7 +2093,9 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public void setFetchDirection(int direction) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if ((direction != FETCH_FORWARD) && (direction != FETCH_REVERSE) && (direction != FETCH_UNKNOWN)) {
                 throw SQLError.createSQLException(Messages.getString("ResultSet.Illegal_value_for_fetch_direction_64"),
                         MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, getExceptionInterceptor());
@@ -2008,26 +2107,36 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
             }
 
             this.fetchDirection = direction;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setFetchSize(int rows) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (rows < 0) { /* || rows > getMaxRows() */
                 throw SQLError.createSQLException(Messages.getString("ResultSet.Value_must_be_between_0_and_getMaxRows()_66"),
                         MysqlErrorNumbers.SQL_STATE_ILLEGAL_ARGUMENT, getExceptionInterceptor());
             }
 
             this.fetchSize = rows;
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void setFirstCharOfQuery(char c) {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 this.firstCharOfQuery = c;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (SQLException e) {
             throw new RuntimeException(e); // FIXME: Need to evolve public interface
@@ -2037,8 +2146,12 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
     @Override
     public void setOwningStatement(JdbcStatement owningStatement) {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 this.owningStatement = (StatementImpl) owningStatement;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (SQLException e) {
             throw new RuntimeException(e); // FIXME: Need to evolve public interface
@@ -2053,8 +2166,12 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
      */
     public synchronized void setResultSetConcurrency(int concurrencyFlag) {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 this.resultSetConcurrency = concurrencyFlag;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (SQLException e) {
             throw new RuntimeException(e); // TODO: FIXME: Need to evolve public interface
@@ -2070,8 +2187,12 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
      */
     public synchronized void setResultSetType(int typeFlag) {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 this.resultSetType = typeFlag;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (SQLException e) {
             throw new RuntimeException(e); // TODO: FIXME: Need to evolve public interface
@@ -2086,8 +2207,12 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
      */
     public void setServerInfo(String info) {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 this.serverInfo = info;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (SQLException e) {
             throw new RuntimeException(e); // TODO: FIXME: Need to evolve public interface
@@ -2097,8 +2222,12 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
     @Override
     public synchronized void setStatementUsedForFetchingRows(JdbcPreparedStatement stmt) {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 this.statementUsedForFetchingRows = stmt;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (SQLException e) {
             throw new RuntimeException(e); // TODO: FIXME: Need to evolve public interface
@@ -2108,8 +2237,12 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
     @Override
     public synchronized void setWrapperStatement(java.sql.Statement wrapperStatement) {
         try {
-            synchronized (checkClosed().getConnectionMutex()) {
+            Lock connectionLock = checkClosed().getConnectionLock();
+            connectionLock.lock();
+            try {
                 this.wrapperStatement = wrapperStatement;
+            } finally {
+                connectionLock.unlock();
             }
         } catch (SQLException e) {
             throw new RuntimeException(e); // TODO: FIXME: Need to evolve public interface
@@ -2690,9 +2823,15 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
         return this.owningStatement == null ? 0 : this.owningStatement.getServerStatementId();
     }
 
+    @Deprecated
     @Override
     public Object getSyncMutex() {
         return this.connection != null ? this.connection.getConnectionMutex() : null;
     }
 
+    @Override
+    public Lock getSyncLock() {
+        return this.connection != null ? this.connection.getConnectionLock() : null;
+    }
+
 }
@@ -45,6 +45,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.Messages;
 import com.mysql.cj.MysqlType;
@@ -394,7 +395,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void deleteRow() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.isUpdatable) {
                 throw new NotUpdatable(this.notUpdatableReason);
             }
@@ -429,6 +432,8 @@ public class UpdatableResultSet extends ResultSetImpl {
             this.rowData.remove();
 
             prev(); // position on previous row - Bug#27431
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -713,8 +718,12 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public int getConcurrency() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             return (this.isUpdatable ? CONCUR_UPDATABLE : CONCUR_READ_ONLY);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -728,7 +737,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void insertRow() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 throw SQLError.createSQLException(Messages.getString("UpdatableResultSet.7"), getExceptionInterceptor());
             }
@@ -756,6 +767,8 @@ public class UpdatableResultSet extends ResultSetImpl {
 
             this.rowData.addRow(resultSetRow);
             resetInserter();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -797,7 +810,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void moveToCurrentRow() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.isUpdatable) {
                 throw new NotUpdatable(this.notUpdatableReason);
             }
@@ -806,12 +821,16 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.onInsertRow = false;
                 this.thisRow = this.savedCurrentRow;
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void moveToInsertRow() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.isUpdatable) {
                 throw new NotUpdatable(this.notUpdatableReason);
             }
@@ -880,6 +899,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                     }
                 }
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -925,7 +946,9 @@ public class UpdatableResultSet extends ResultSetImpl {
             return;
         }
 
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             SQLException sqlEx = null;
 
             if (this.useUsageAdvisor) {
@@ -972,12 +995,16 @@ public class UpdatableResultSet extends ResultSetImpl {
             if (sqlEx != null) {
                 throw sqlEx;
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
     @Override
     public void refreshRow() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (isStrictlyForwardOnly()) {
                 throw ExceptionFactory.createException(Messages.getString("ResultSet.ForwardOnly"));
             }
@@ -997,6 +1024,8 @@ public class UpdatableResultSet extends ResultSetImpl {
             }
 
             refreshRow(this.updater, this.thisRow);
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1180,7 +1209,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateRow() throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.isUpdatable) {
                 throw new NotUpdatable(this.notUpdatableReason);
             }
@@ -1195,6 +1226,8 @@ public class UpdatableResultSet extends ResultSetImpl {
 
             // fixes calling updateRow() and then doing more updates on same row...
             syncUpdate();
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1210,7 +1243,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateAsciiStream(int columnIndex, java.io.InputStream x, int length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1222,6 +1257,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setAsciiStream(columnIndex, x, length);
                 this.thisRow.setBytes(columnIndex - 1, STREAM_DATA_MARKER);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1232,7 +1269,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1244,6 +1283,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setBigDecimal(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, x == null ? null : StringUtils.getBytes(x.toString()));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1254,7 +1295,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateBinaryStream(int columnIndex, java.io.InputStream x, int length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1266,6 +1309,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setBinaryStream(columnIndex, x, length);
                 this.thisRow.setBytes(columnIndex - 1, x == null ? null : STREAM_DATA_MARKER);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1276,7 +1321,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateBlob(int columnIndex, java.sql.Blob blob) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1288,6 +1335,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setBlob(columnIndex, blob);
                 this.thisRow.setBytes(columnIndex - 1, blob == null ? null : STREAM_DATA_MARKER);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1298,7 +1347,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateBoolean(int columnIndex, boolean x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1310,6 +1361,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setBoolean(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1320,7 +1373,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateByte(int columnIndex, byte x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1332,6 +1387,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setByte(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1342,7 +1399,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateBytes(int columnIndex, byte[] x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1354,6 +1413,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setBytes(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, x);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1364,7 +1425,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateCharacterStream(int columnIndex, java.io.Reader x, int length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1376,6 +1439,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setCharacterStream(columnIndex, x, length);
                 this.thisRow.setBytes(columnIndex - 1, x == null ? null : STREAM_DATA_MARKER);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1386,12 +1451,16 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateClob(int columnIndex, java.sql.Clob clob) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (clob == null) {
                 updateNull(columnIndex);
             } else {
                 updateCharacterStream(columnIndex, clob.getCharacterStream(), (int) clob.length());
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1402,7 +1471,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateDate(int columnIndex, java.sql.Date x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1414,6 +1485,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setDate(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1424,7 +1497,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateDouble(int columnIndex, double x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1436,6 +1511,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setDouble(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1446,7 +1523,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateFloat(int columnIndex, float x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1458,6 +1537,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setFloat(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1468,7 +1549,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateInt(int columnIndex, int x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1480,6 +1563,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setInt(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1490,7 +1575,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateLong(int columnIndex, long x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1502,6 +1589,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setLong(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1512,7 +1601,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateNull(int columnIndex) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1524,6 +1615,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setNull(columnIndex, 0);
                 this.thisRow.setBytes(columnIndex - 1, null);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1588,7 +1681,9 @@ public class UpdatableResultSet extends ResultSetImpl {
      *             if an error occurs
      */
     protected void updateObjectInternal(int columnIndex, Object x, SQLType targetType, int scaleOrLength) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1609,6 +1704,8 @@ public class UpdatableResultSet extends ResultSetImpl {
 
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1639,7 +1736,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateShort(int columnIndex, short x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1651,6 +1750,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setShort(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1661,7 +1762,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateString(int columnIndex, String x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1673,6 +1776,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setString(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, x == null ? null : StringUtils.getBytes(x, this.charEncoding));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1683,7 +1788,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateTime(int columnIndex, java.sql.Time x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1695,6 +1802,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setTime(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1705,7 +1814,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateTimestamp(int columnIndex, java.sql.Timestamp x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             if (!this.onInsertRow) {
                 if (!this.doingUpdates) {
                     this.doingUpdates = true;
@@ -1717,6 +1828,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setTimestamp(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, this.inserter.getBytesRepresentation(columnIndex));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1932,7 +2045,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             String fieldEncoding = this.getMetadata().getFields()[columnIndex - 1].getEncoding();
             if (fieldEncoding == null || !fieldEncoding.equals("UTF-8")) {
                 throw new SQLException(Messages.getString("ResultSet.16"));
@@ -1949,6 +2064,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setNCharacterStream(columnIndex, x, length);
                 this.thisRow.setBytes(columnIndex - 1, x == null ? null : STREAM_DATA_MARKER);
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -1987,7 +2104,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateNClob(int columnIndex, java.sql.NClob nClob) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             String fieldEncoding = this.getMetadata().getFields()[columnIndex - 1].getEncoding();
             if (fieldEncoding == null || !fieldEncoding.equals("UTF-8")) {
                 throw new SQLException(Messages.getString("ResultSet.17"));
@@ -1998,6 +2117,8 @@ public class UpdatableResultSet extends ResultSetImpl {
             } else {
                 updateNCharacterStream(columnIndex, nClob.getCharacterStream(), (int) nClob.length());
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -2018,7 +2139,9 @@ public class UpdatableResultSet extends ResultSetImpl {
 
     @Override
     public void updateNString(int columnIndex, String x) throws SQLException {
-        synchronized (checkClosed().getConnectionMutex()) {
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
             String fieldEncoding = this.getMetadata().getFields()[columnIndex - 1].getEncoding();
             if (fieldEncoding == null || !fieldEncoding.equals("UTF-8")) {
                 throw new SQLException(Messages.getString("ResultSet.18"));
@@ -2035,6 +2158,8 @@ public class UpdatableResultSet extends ResultSetImpl {
                 this.inserter.setNString(columnIndex, x);
                 this.thisRow.setBytes(columnIndex - 1, x == null ? null : StringUtils.getBytes(x, fieldEncoding));
             }
+        } finally {
+            connectionLock.unlock();
         }
     }
 
@@ -32,16 +32,24 @@ package com.mysql.cj.xdevapi;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -61,21 +69,49 @@ import com.mysql.cj.protocol.x.XProtocol;
 import com.mysql.cj.protocol.x.XProtocolError;
 import com.mysql.cj.util.StringUtils;
 
+/**
+ * {@link Client} implementation.
+ * <p>
+ * The pool state is guarded by a fair lock that is never held while talking to the server: new protocols are opened, reset and validated outside of it,
+ * with their pool slot reserved beforehand. Borrowers waiting for a free slot park on a condition of that lock and are served in arrival order. A background
+ * task closes idle protocols past <code>pooling.maxIdleTime</code>, validates protocols idle for long and opens protocols up to <code>pooling.minSize</code>.
+ */
 public class ClientImpl implements Client, ProtocolEventListener {
+    /** Period of the pool maintenance task, in milliseconds. */
+    static final long MAINTENANCE_INTERVAL = 1000;
+    /** Idle protocols unused for longer than this are validated by the maintenance task, in milliseconds. */
+    static final long VALIDATION_INTERVAL = 30_000;
+    /** Number of recent borrows the latency percentiles are computed from. */
+    static final int LATENCY_SAMPLES = 1024;
+
     boolean isClosed = false;
 
     private ConnectionUrl connUrl = null;
 
     private boolean poolingEnabled = true;
     private int maxSize = 25;
+    private int minSize = 0;
     int maxIdleTime = 0;
     private int queueTimeout = 0;
 
     private int demotedTimeout = 120_000;
     Map<HostInfo, Long> demotedHosts = null;
 
+    /** Lock of the pool state. Fair, so that parked borrowers get the protocols in arrival order. */
+    private final ReentrantLock poolLock = new ReentrantLock(true);
+    /** Signalled when a protocol becomes idle or a pool slot is freed. */
+    private final Condition poolChanged = this.poolLock.newCondition();
+
     BlockingQueue<PooledXProtocol> idleProtocols = null;
     Set<WeakReference<PooledXProtocol>> activeProtocols = null;
+    /** Number of pool slots reserved for protocols being opened, reset or validated. */
+    int pendingProtocols = 0;
+
+    private ScheduledFuture<?> maintenanceTask = null;
+
+    /** Latencies of the last {@link #LATENCY_SAMPLES} borrows, in nanoseconds. */
+    private final AtomicLongArray borrowLatencies = new AtomicLongArray(LATENCY_SAMPLES);
+    private final AtomicLong borrowCount = new AtomicLong();
 
     Set<WeakReference<Session>> nonPooledSessions = null;
 
@@ -131,6 +167,18 @@ public class ClientImpl implements Client, ProtocolEventListener {
                             jsonVal.toFormattedString()));
                 }
             }
+            jsonVal = poolingDoc.remove("minSize");
+            if (jsonVal != null) {
+                if (JsonNumber.class.isAssignableFrom(jsonVal.getClass())) {
+                    props.setProperty(ClientProperty.POOLING_MIN_SIZE.getKeyName(), ((JsonNumber) jsonVal).toString());
+                } else if (JsonString.class.isAssignableFrom(jsonVal.getClass())) {
+                    throw new XDevAPIError(String.format("Client option '%s' does not support value '%s'.", ClientProperty.POOLING_MIN_SIZE.getKeyName(),
+                            ((JsonString) jsonVal).getString()));
+                } else {
+                    throw new XDevAPIError(String.format("Client option '%s' does not support value '%s'.", ClientProperty.POOLING_MIN_SIZE.getKeyName(),
+                            jsonVal.toFormattedString()));
+                }
+            }
             jsonVal = poolingDoc.remove("maxIdleTime");
             if (jsonVal != null) {
                 if (JsonNumber.class.isAssignableFrom(jsonVal.getClass())) {
@@ -195,6 +243,19 @@ public class ClientImpl implements Client, ProtocolEventListener {
             }
         }
 
+        propKey = ClientProperty.POOLING_MIN_SIZE.getKeyName();
+        if (clientProps.containsKey(propKey)) {
+            propValue = clientProps.getProperty(propKey);
+            try {
+                this.minSize = IntegerPropertyDefinition.integerFrom(propKey, propValue, 1, null);
+            } catch (WrongArgumentException e) {
+                throw new XDevAPIError(String.format("Client option '%s' does not support value '%s'.", propKey, propValue), e);
+            }
+            if (this.minSize < 0) {
+                throw new XDevAPIError(String.format("Client option '%s' does not support value '%s'.", propKey, propValue));
+            }
+        }
+
         propKey = ClientProperty.POOLING_MAX_IDLE_TIME.getKeyName();
         if (clientProps.containsKey(propKey)) {
             propValue = clientProps.getProperty(propKey);
@@ -234,9 +295,10 @@ public class ClientImpl implements Client, ProtocolEventListener {
         validateAndInitializeClientProps(clientProps);
 
         if (this.poolingEnabled) {
-            this.demotedHosts = new HashMap<>();
+            this.demotedHosts = new ConcurrentHashMap<>();
             this.idleProtocols = new LinkedBlockingQueue<>(this.maxSize);
             this.activeProtocols = new HashSet<>(this.maxSize);
+            this.maintenanceTask = PoolMaintenance.schedule(this);
         } else {
             this.nonPooledSessions = new HashSet<>();
         }
@@ -270,106 +332,154 @@ public class ClientImpl implements Client, ProtocolEventListener {
             }
         }
 
-        PooledXProtocol prot = null;
+        long start = System.nanoTime();
         List<HostInfo> hostsList = this.connUrl.getHostsList();
 
-        synchronized (this) {
-            // 0. Close and remove idle protocols connected to a host that is not usable anymore.
-            List<PooledXProtocol> toCloseAndRemove = this.idleProtocols.stream().filter(p -> !p.isHostInfoValid(hostsList)).collect(Collectors.toList());
-            toCloseAndRemove.stream().peek(PooledXProtocol::realClose).peek(this.idleProtocols::remove).map(PooledXProtocol::getHostInfo).sequential()
-                    .forEach(this.demotedHosts::remove);
+        // 0. Close and remove idle protocols connected to a host that is not usable anymore.
+        List<PooledXProtocol> toClose = new ArrayList<>();
+        this.poolLock.lock();
+        try {
+            for (Iterator<PooledXProtocol> it = this.idleProtocols.iterator(); it.hasNext();) {
+                PooledXProtocol p = it.next();
+                if (!p.isHostInfoValid(hostsList)) {
+                    it.remove();
+                    toClose.add(p);
+                    this.demotedHosts.remove(p.getHostInfo());
+                }
+            }
+            if (!toClose.isEmpty()) {
+                this.poolChanged.signalAll();
+            }
+        } finally {
+            this.poolLock.unlock();
         }
+        toClose.forEach(PooledXProtocol::realClose);
 
-        long start = System.currentTimeMillis();
-        while (prot == null && (this.queueTimeout == 0 || System.currentTimeMillis() < start + this.queueTimeout)) { // TODO how to avoid endless loop?
-            synchronized (this.idleProtocols) {
-                if (this.idleProtocols.peek() != null) {
-                    // 1. If there are idle Protocols then return one of them. 
-                    PooledXProtocol tryProt = this.idleProtocols.poll();
-                    if (tryProt.isOpen()) { // ignore closed Session, try next idle Session
-                        if (tryProt.isIdleTimeoutReached()) {
-                            tryProt.realClose(); // close expired Session, try next idle Session
-                        } else {
-                            try {
-                                tryProt.reset();
-                                prot = tryProt;
-                            } catch (CJCommunicationsException | XProtocolError e) {
-                                // This session is useless, let's try another one.
-                            }
-                        }
+        PooledXProtocol prot = null;
+        while (prot == null) {
+            PooledXProtocol tryProt = null;
+            this.poolLock.lock();
+            try {
+                while (true) {
+                    if (this.isClosed) {
+                        throw new XDevAPIError("Client is closed.");
                     }
-
-                } else if (this.idleProtocols.size() + this.activeProtocols.size() < this.maxSize) {
-                    // 2. No idle Protocols but the pool has free space. Adding new Protocol to pool.
-                    CJException latestException = null;
-                    List<HostInfo> hostsToRevisit = new ArrayList<>();
-                    for (HostInfo hi : hostsList) {
-                        if (this.demotedHosts.containsKey(hi)) {
-                            if (start - this.demotedHosts.get(hi) > this.demotedTimeout) {
-                                this.demotedHosts.remove(hi);
-                            } else {
-                                hostsToRevisit.add(hi);
-                                continue;
-                            }
-                        }
-                        try {
-                            prot = newPooledXProtocol(hi);
-                            break;
-                        } catch (CJCommunicationsException e) {
-                            if (e.getCause() == null) {
-                                throw e;
-                            }
-                            latestException = e;
-                            this.demotedHosts.put(hi, System.currentTimeMillis());
-                        }
+                    if ((tryProt = this.idleProtocols.poll()) != null || getPoolSize() < this.maxSize) {
+                        // 1. Take an idle Protocol or, if there is none but the pool has free space, reserve a slot for a new one.
+                        this.pendingProtocols++;
+                        break;
                     }
-                    if (prot == null) {
-                        // All non-demoted hosts have failed, let's try the ones that were previously demoted before calling it a failure.
-                        for (HostInfo hi : hostsToRevisit) {
-                            try {
-                                prot = newPooledXProtocol(hi);
-                                // This host is fine now so re-promote it.
-                                this.demotedHosts.remove(hi);
-                                break;
-                            } catch (CJCommunicationsException e) {
-                                if (e.getCause() == null) {
-                                    throw e;
-                                }
-                                latestException = e;
-                                this.demotedHosts.put(hi, System.currentTimeMillis());
-                            }
+                    if (this.queueTimeout == 0) {
+                        // 2. No idle Protocols, no free space in the pool. Waiting indefinitely for idle Protocol.
+                        this.poolChanged.await();
+                    } else {
+                        // 3. No idle Protocols, no free space in the pool. Waiting queueTimeout milliseconds for idle Protocol.
+                        long remaining = start + TimeUnit.MILLISECONDS.toNanos(this.queueTimeout) - System.nanoTime();
+                        if (remaining <= 0) {
+                            throw new XDevAPIError("Session can not be obtained within " + this.queueTimeout + " milliseconds.");
                         }
+                        this.poolChanged.awaitNanos(remaining);
                     }
-                    if (prot == null && latestException != null) {
-                        throw ExceptionFactory.createException(CJCommunicationsException.class, Messages.getString("Session.Create.Failover.0"),
-                                latestException);
-                    }
+                }
+            } catch (InterruptedException e) {
+                throw new XDevAPIError("Session can not be obtained within " + this.queueTimeout + " milliseconds.", e);
+            } finally {
+                this.poolLock.unlock();
+            }
 
-                } else if (this.queueTimeout > 0) {
-                    // 3. No idle Protocols, no free space in the pool. Waiting queueTimeout milliseconds for idle Protocol.
-                    long currentTimeout = this.queueTimeout - (System.currentTimeMillis() - start);
-                    try {
-                        if (currentTimeout > 0) {
-                            prot = this.idleProtocols.poll(currentTimeout, TimeUnit.MILLISECONDS);
-                        }
-                    } catch (InterruptedException e) {
-                        throw new XDevAPIError("Session can not be obtained within " + this.queueTimeout + " milliseconds.", e);
-                    }
+            if (tryProt == null) {
+                try {
+                    prot = newPooledXProtocol(hostsList);
+                } catch (RuntimeException e) {
+                    releaseSlot();
+                    throw e;
+                }
+            } else if (tryProt.isOpen() && !tryProt.isIdleTimeoutReached() && tryProt.tryReset()) {
+                prot = tryProt;
+            } else {
+                // closed, expired or useless Session, try next idle Session
+                tryProt.realClose();
+                releaseSlot();
+            }
+        }
+
+        boolean closed;
+        this.poolLock.lock();
+        try {
+            this.pendingProtocols--;
+            closed = this.isClosed;
+            if (!closed) {
+                this.activeProtocols.add(new WeakReference<>(prot));
+            }
+        } finally {
+            this.poolLock.unlock();
+        }
+        if (closed) {
+            prot.realClose();
+            throw new XDevAPIError("Client is closed.");
+        }
 
+        long latency = System.nanoTime() - start;
+        this.borrowLatencies.set((int) (this.borrowCount.getAndIncrement() % LATENCY_SAMPLES), latency);
+
+        SessionImpl sess = new SessionImpl(prot);
+        return sess;
+    }
+
+    /**
+     * Opens a new protocol to the first usable host, trying demoted hosts last.
+     * 
+     * @param hostsList
+     *            the hosts of the client
+     * @return the new protocol
+     */
+    private PooledXProtocol newPooledXProtocol(List<HostInfo> hostsList) {
+        long start = System.currentTimeMillis();
+        PooledXProtocol prot = null;
+        CJException latestException = null;
+        List<HostInfo> hostsToRevisit = new ArrayList<>();
+        for (HostInfo hi : hostsList) {
+            Long demotedSince = this.demotedHosts.get(hi);
+            if (demotedSince != null) {
+                if (start - demotedSince > this.demotedTimeout) {
+                    this.demotedHosts.remove(hi);
                 } else {
-                    // 4. No idle Protocols, no free space in the pool. Waiting indefinitely for idle Protocol.
-                    prot = this.idleProtocols.poll(); // TODO endless lock ?
+                    hostsToRevisit.add(hi);
+                    continue;
                 }
             }
+            try {
+                prot = newPooledXProtocol(hi);
+                break;
+            } catch (CJCommunicationsException e) {
+                if (e.getCause() == null) {
+                    throw e;
+                }
+                latestException = e;
+                this.demotedHosts.put(hi, System.currentTimeMillis());
+            }
         }
         if (prot == null) {
-            throw new XDevAPIError("Session can not be obtained within " + this.queueTimeout + " milliseconds.");
+            // All non-demoted hosts have failed, let's try the ones that were previously demoted before calling it a failure.
+            for (HostInfo hi : hostsToRevisit) {
+                try {
+                    prot = newPooledXProtocol(hi);
+                    // This host is fine now so re-promote it.
+                    this.demotedHosts.remove(hi);
+                    break;
+                } catch (CJCommunicationsException e) {
+                    if (e.getCause() == null) {
+                        throw e;
+                    }
+                    latestException = e;
+                    this.demotedHosts.put(hi, System.currentTimeMillis());
+                }
+            }
         }
-        synchronized (this) {
-            this.activeProtocols.add(new WeakReference<>(prot));
+        if (prot == null) {
+            throw ExceptionFactory.createException(CJCommunicationsException.class, Messages.getString("Session.Create.Failover.0"), latestException);
         }
-        SessionImpl sess = new SessionImpl(prot);
-        return sess;
+        return prot;
     }
 
     private PooledXProtocol newPooledXProtocol(HostInfo hi) {
@@ -382,25 +492,213 @@ public class ClientImpl implements Client, ProtocolEventListener {
         return tryProt;
     }
 
-    @Override
-    public void close() {
-        synchronized (this) {
-            if (this.poolingEnabled) {
-                if (!this.isClosed) {
-                    this.isClosed = true;
-                    this.idleProtocols.forEach(s -> s.realClose());
-                    this.idleProtocols.clear();
-                    this.activeProtocols.stream().map(WeakReference::get).filter(Objects::nonNull).forEach(s -> s.realClose());
-                    this.activeProtocols.clear();
+    /**
+     * Number of protocols in the pool, idle, active or pending. Called with the pool lock held.
+     * 
+     * @return pool size
+     */
+    private int getPoolSize() {
+        return this.idleProtocols.size() + this.activeProtocols.size() + this.pendingProtocols;
+    }
+
+    /**
+     * Frees a slot reserved for a pending protocol that didn't make it into the pool.
+     */
+    private void releaseSlot() {
+        this.poolLock.lock();
+        try {
+            this.pendingProtocols--;
+            this.poolChanged.signal();
+        } finally {
+            this.poolLock.unlock();
+        }
+    }
+
+    /**
+     * Puts a pending protocol, opened or validated by the maintenance task, into the idle queue.
+     * 
+     * @param prot
+     *            the protocol
+     */
+    private void returnPending(PooledXProtocol prot) {
+        boolean closed;
+        this.poolLock.lock();
+        try {
+            this.pendingProtocols--;
+            closed = this.isClosed;
+            if (!closed) {
+                this.idleProtocols.add(prot);
+            }
+            this.poolChanged.signal();
+        } finally {
+            this.poolLock.unlock();
+        }
+        if (closed) {
+            prot.realClose();
+        }
+    }
+
+    /**
+     * Pool maintenance run periodically: drops sessions that were garbage collected without being closed, closes expired idle protocols, validates protocols
+     * idle for longer than {@link #VALIDATION_INTERVAL} and opens new protocols until the pool holds <code>pooling.minSize</code> of them.
+     */
+    void maintain() {
+        List<PooledXProtocol> expired = new ArrayList<>();
+        List<PooledXProtocol> toValidate = new ArrayList<>();
+        int toOpen;
+        this.poolLock.lock();
+        try {
+            if (this.isClosed) {
+                return;
+            }
+            boolean freed = this.activeProtocols.removeIf(wp -> wp.get() == null);
+            long now = System.currentTimeMillis();
+            for (Iterator<PooledXProtocol> it = this.idleProtocols.iterator(); it.hasNext();) {
+                PooledXProtocol p = it.next();
+                if (!p.isOpen() || p.isIdleTimeoutReached()) {
+                    it.remove();
+                    expired.add(p);
+                    freed = true;
+                } else if (now - p.lastValidated > VALIDATION_INTERVAL) {
+                    it.remove();
+                    toValidate.add(p);
                 }
+            }
+            this.pendingProtocols += toValidate.size();
+            toOpen = Math.max(0, Math.min(this.minSize, this.maxSize) - getPoolSize());
+            this.pendingProtocols += toOpen;
+            if (freed) {
+                this.poolChanged.signalAll();
+            }
+        } finally {
+            this.poolLock.unlock();
+        }
+
+        expired.forEach(PooledXProtocol::realClose);
+        for (PooledXProtocol p : toValidate) {
+            if (p.tryReset()) {
+                returnPending(p);
             } else {
+                p.realClose();
+                releaseSlot();
+            }
+        }
+        List<HostInfo> hostsList = this.connUrl.getHostsList();
+        for (int i = 0; i < toOpen; i++) {
+            PooledXProtocol p;
+            try {
+                p = newPooledXProtocol(hostsList);
+            } catch (CJException e) {
+                // no host is usable now, the next run tries again
+                for (; i < toOpen; i++) {
+                    releaseSlot();
+                }
+                break;
+            }
+            p.idleSince = System.currentTimeMillis();
+            returnPending(p);
+        }
+    }
+
+    /**
+     * Returns a percentile of the time {@link #getSession()} took to return a pooled session, over the last {@value #LATENCY_SAMPLES} calls.
+     * 
+     * @param percentile
+     *            percentile, from 0 to 100
+     * @return borrow latency in nanoseconds, 0 if no session was borrowed yet
+     */
+    public long getBorrowLatencyPercentile(double percentile) {
+        int count = (int) Math.min(this.borrowCount.get(), LATENCY_SAMPLES);
+        if (count == 0) {
+            return 0;
+        }
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = this.borrowLatencies.get(i);
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * count) - 1;
+        return samples[Math.max(0, index)];
+    }
+
+    /**
+     * Holder of the thread running the maintenance of all pools.
+     */
+    private static class PoolMaintenance implements Runnable {
+        static final ScheduledThreadPoolExecutor EXECUTOR;
+
+        static {
+            EXECUTOR = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = new Thread(r, "mysql-cj-xdevapi-pool-maintenance");
+                t.setDaemon(true);
+                return t;
+            });
+            EXECUTOR.setRemoveOnCancelPolicy(true);
+        }
+
+        /** The client is only weakly referenced, so that a client that is never closed can still be collected. */
+        private final WeakReference<ClientImpl> client;
+        private volatile ScheduledFuture<?> future = null;
+
+        private PoolMaintenance(ClientImpl client) {
+            this.client = new WeakReference<>(client);
+        }
+
+        static ScheduledFuture<?> schedule(ClientImpl client) {
+            PoolMaintenance task = new PoolMaintenance(client);
+            task.future = EXECUTOR.scheduleWithFixedDelay(task, 0, MAINTENANCE_INTERVAL, TimeUnit.MILLISECONDS);
+            return task.future;
+        }
+
+        @Override
+        public void run() {
+            ClientImpl c = this.client.get();
+            if (c == null) {
+                if (this.future != null) {
+                    this.future.cancel(false);
+                }
+                return;
+            }
+            try {
+                c.maintain();
+            } catch (Throwable t) {
+                // keep the task scheduled, the next run tries again
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!this.poolingEnabled) {
+            synchronized (this) {
                 this.nonPooledSessions.stream().map(WeakReference::get).filter(Objects::nonNull).filter(Session::isOpen).forEach(s -> s.close());
             }
+            return;
         }
+
+        List<PooledXProtocol> toClose = new ArrayList<>();
+        this.poolLock.lock();
+        try {
+            if (this.isClosed) {
+                return;
+            }
+            this.isClosed = true;
+            this.maintenanceTask.cancel(false);
+            toClose.addAll(this.idleProtocols);
+            this.idleProtocols.clear();
+            this.activeProtocols.stream().map(WeakReference::get).filter(Objects::nonNull).forEach(toClose::add);
+            this.activeProtocols.clear();
+            // waiting borrowers fail with "Client is closed."
+            this.poolChanged.signalAll();
+        } finally {
+            this.poolLock.unlock();
+        }
+        toClose.forEach(PooledXProtocol::realClose);
     }
 
     void idleProtocol(PooledXProtocol prot) {
-        synchronized (this) {
+        this.poolLock.lock();
+        try {
             if (!this.isClosed) {
                 List<WeakReference<PooledXProtocol>> removeThem = new ArrayList<>();
                 for (WeakReference<PooledXProtocol> wps : this.activeProtocols) {
@@ -418,12 +716,17 @@ public class ClientImpl implements Client, ProtocolEventListener {
                 for (WeakReference<PooledXProtocol> wr : removeThem) {
                     this.activeProtocols.remove(wr);
                 }
+                this.poolChanged.signal();
             }
+        } finally {
+            this.poolLock.unlock();
         }
     }
 
     public class PooledXProtocol extends XProtocol {
         long idleSince = -1;
+        /** Time of the last successful reset. */
+        long lastValidated = System.currentTimeMillis();
         HostInfo hostInfo = null;
 
         public PooledXProtocol(HostInfo hostInfo, PropertySet propertySet) {
@@ -434,10 +737,25 @@ public class ClientImpl implements Client, ProtocolEventListener {
         @Override
         public void close() {
             reset();
-            this.idleSince = System.currentTimeMillis();
+            this.idleSince = this.lastValidated = System.currentTimeMillis();
             idleProtocol(this);
         }
 
+        /**
+         * Resets the session state, which also checks that the connection is usable.
+         * 
+         * @return true if the reset succeeded
+         */
+        boolean tryReset() {
+            try {
+                reset();
+                this.lastValidated = System.currentTimeMillis();
+                return true;
+            } catch (CJCommunicationsException | XProtocolError e) {
+                return false;
+            }
+        }
+
         public HostInfo getHostInfo() {
             return this.hostInfo;
         }
@@ -461,31 +779,51 @@ public class ClientImpl implements Client, ProtocolEventListener {
 
     @Override
     public void handleEvent(EventType type, Object info, Throwable reason) {
+        List<PooledXProtocol> toClose = new ArrayList<>();
         switch (type) {
             case SERVER_SHUTDOWN:
                 HostInfo hi = ((PooledXProtocol) info).getHostInfo();
-                synchronized (this) {
+                this.poolLock.lock();
+                try {
                     // Close and remove idle protocols connected to a host that is not usable anymore.
-                    List<PooledXProtocol> toCloseAndRemove = this.idleProtocols.stream().filter(p -> p.getHostInfo().equalHostPortPair(hi))
-                            .collect(Collectors.toList());
-                    toCloseAndRemove.stream().peek(PooledXProtocol::realClose).peek(this.idleProtocols::remove).map(PooledXProtocol::getHostInfo).sequential()
-                            .forEach(this.demotedHosts::remove);
+                    for (Iterator<PooledXProtocol> it = this.idleProtocols.iterator(); it.hasNext();) {
+                        PooledXProtocol p = it.next();
+                        if (p.getHostInfo().equalHostPortPair(hi)) {
+                            it.remove();
+                            toClose.add(p);
+                            this.demotedHosts.remove(p.getHostInfo());
+                        }
+                    }
 
                     removeActivePooledXProtocol((PooledXProtocol) info);
+                } finally {
+                    this.poolLock.unlock();
                 }
+                toClose.add((PooledXProtocol) info);
                 break;
 
             case SERVER_CLOSED_SESSION:
-                synchronized (this) {
+                this.poolLock.lock();
+                try {
                     removeActivePooledXProtocol((PooledXProtocol) info);
+                } finally {
+                    this.poolLock.unlock();
                 }
+                toClose.add((PooledXProtocol) info);
                 break;
 
             default:
                 break;
         }
+        toClose.forEach(PooledXProtocol::realClose);
     }
 
+    /**
+     * Removes a protocol from the active ones. Called with the pool lock held.
+     * 
+     * @param prot
+     *            the protocol
+     */
     private void removeActivePooledXProtocol(PooledXProtocol prot) {
         WeakReference<PooledXProtocol> wprot = null;
         for (WeakReference<PooledXProtocol> wps : this.activeProtocols) {
@@ -498,6 +836,6 @@ public class ClientImpl implements Client, ProtocolEventListener {
             }
         }
         this.activeProtocols.remove(wprot);
-        prot.realClose();
+        this.poolChanged.signalAll();
     }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.SharedParseInfoCacheFactory.SharedParseInfoCache;
+import com.mysql.cj.SharedParseInfoCacheFactory.Store;
+import com.mysql.cj.conf.DefaultPropertySet;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.protocol.a.NativeServerSession;
+
+/**
+ * Tests for {@link SharedParseInfoCacheFactory}.
+ */
+public class SharedParseInfoCacheFactoryTest {
+    private static final String URL = "jdbc:mysql://localhost:3306/test";
+
+    private PropertySet propertySet = new DefaultPropertySet();
+    private NativeServerSession serverSession = new NativeServerSession(this.propertySet);
+    private AtomicReference<String> quote = new AtomicReference<>("`");
+    private Session session = (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Session.class }, (p, m, a) -> {
+        switch (m.getName()) {
+            case "getIdentifierQuoteString":
+                return this.quote.get();
+            case "getServerSession":
+                return this.serverSession;
+            case "getPropertySet":
+                return this.propertySet;
+            default:
+                return null;
+        }
+    });
+
+    public SharedParseInfoCacheFactoryTest() {
+        this.serverSession.setServerVariables(new HashMap<>());
+    }
+
+    private ParseInfo parse(String sql) {
+        return new ParseInfo(sql, this.session, "UTF-8");
+    }
+
+    private MysqlConnection connection() {
+        return (MysqlConnection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { MysqlConnection.class },
+                (p, m, a) -> "getSession".equals(m.getName()) ? this.session : null);
+    }
+
+    /**
+     * Caches of different connections see each other's entries.
+     */
+    @Test
+    public void sharedBetweenConnections() {
+        Store store = new Store(64);
+        SharedParseInfoCache first = new SharedParseInfoCache(store, connection(), URL, 256);
+        SharedParseInfoCache second = new SharedParseInfoCache(store, connection(), URL, 256);
+
+        String sql = "SELECT * FROM t WHERE id = ?";
+        ParseInfo parsed = parse(sql);
+        first.put(sql, parsed);
+        assertSame(parsed, second.get(sql));
+        assertEquals(1, store.size());
+
+        second.invalidate(sql);
+        assertNull(first.get(sql));
+
+        // statements longer than prepStmtCacheSqlLimit are not cached
+        SharedParseInfoCache limited = new SharedParseInfoCache(store, connection(), URL, 10);
+        limited.put(sql, parsed);
+        assertNull(first.get(sql));
+    }
+
+    /**
+     * Entries are not shared between sessions whose SQL mode or encoding parse statements differently.
+     */
+    @Test
+    public void keyedBySessionState() {
+        Store store = new Store(64);
+        SharedParseInfoCache cache = new SharedParseInfoCache(store, connection(), URL, 256);
+
+        String sql = "INSERT INTO t VALUES (?, '\\'?')";
+        ParseInfo parsed = parse(sql);
+        cache.put(sql, parsed);
+        assertSame(parsed, cache.get(sql));
+
+        this.serverSession.getServerVariables().put("sql_mode", "NO_BACKSLASH_ESCAPES");
+        assertNull(cache.get(sql));
+        ParseInfo noBackslashEscapes = parse(sql);
+        cache.put(sql, noBackslashEscapes);
+        assertSame(noBackslashEscapes, cache.get(sql));
+
+        this.serverSession.getServerVariables().remove("sql_mode");
+        assertSame(parsed, cache.get(sql));
+
+        this.quote.set("\"");
+        assertNull(cache.get(sql));
+        this.quote.set("`");
+
+        this.propertySet.getStringProperty(PropertyKey.characterEncoding).setValue("latin1");
+        assertNull(cache.get(sql));
+        this.propertySet.getStringProperty(PropertyKey.characterEncoding).setValue(null);
+
+        // invalidateAll() drops only the entries of the current session state
+        cache.invalidateAll();
+        assertNull(cache.get(sql));
+        this.serverSession.getServerVariables().put("sql_mode", "NO_BACKSLASH_ESCAPES");
+        assertSame(noBackslashEscapes, cache.get(sql));
+
+        // owners that aren't connections share by URL
+        SharedParseInfoCache byUrl = new SharedParseInfoCache(store, new Object(), URL, 256);
+        assertNull(byUrl.get(sql));
+        byUrl.put(sql, parsed);
+        assertSame(parsed, new SharedParseInfoCache(store, new Object(), URL, 256).get(sql));
+        assertNull(new SharedParseInfoCache(store, new Object(), URL + "2", 256).get(sql));
+    }
+
+    /**
+     * The store stays within its capacity, and statements used more than once survive a scan of statements used only once.
+     */
+    @Test
+    public void segmentedEviction() {
+        Store store = new Store(160);
+        SharedParseInfoCache cache = new SharedParseInfoCache(store, connection(), URL, 256);
+
+        for (int i = 0; i < 50; i++) {
+            String sql = "SELECT " + i;
+            cache.put(sql, parse(sql));
+            assertNotNull(cache.get(sql));
+        }
+        for (int i = 0; i < 10000; i++) {
+            String sql = "SELECT 'once', " + i;
+            cache.put(sql, parse(sql));
+            assertTrue(store.size() <= 160);
+        }
+        assertEquals(160, store.size());
+        for (int i = 0; i < 50; i++) {
+            assertNotNull(cache.get("SELECT " + i), "SELECT " + i);
+        }
+    }
+
+    /**
+     * Concurrent readers and writers on all shards.
+     */
+    @Test
+    public void concurrentAccess() throws Exception {
+        Store store = new Store(256);
+        ParseInfo[] parsed = new ParseInfo[512];
+        for (int i = 0; i < parsed.length; i++) {
+            parsed[i] = parse("SELECT " + i);
+        }
+        Thread[] threads = new Thread[4];
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int t = 0; t < threads.length; t++) {
+            SharedParseInfoCache cache = new SharedParseInfoCache(store, connection(), URL, 256);
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 100000; i++) {
+                        int n = (i * 31 + seed * 7) % parsed.length;
+                        String sql = "SELECT " + n;
+                        ParseInfo cached = cache.get(sql);
+                        if (cached == null) {
+                            cache.put(sql, parsed[n]);
+                        } else if (cached != parsed[n]) {
+                            throw new AssertionError("Wrong entry for " + sql);
+                        }
+                    }
+                    cache.invalidateAll(Collections.singleton("SELECT 0"));
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertNull(failure.get());
+        assertTrue(store.size() <= 256);
+    }
+}
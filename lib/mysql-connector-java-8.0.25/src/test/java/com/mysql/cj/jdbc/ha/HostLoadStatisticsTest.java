@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.jdbc.ha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link HostLoadStatistics} and the load-aware balance strategies.
+ */
+public class HostLoadStatisticsTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final List<String> HOSTS = Arrays.asList("a:3306", "b:3306", "c:3306");
+
+    @Test
+    public void decayingPeakAverage() {
+        HostLoadStatistics stats = new HostLoadStatistics();
+        assertEquals(0, stats.getResponseTime(0));
+
+        stats.transactionStarted();
+        stats.transactionStarted();
+        assertEquals(2, stats.getOutstandingTransactions());
+        stats.transactionEnded(10 * MS, 1000 * MS);
+        stats.transactionAbandoned();
+        assertEquals(0, stats.getOutstandingTransactions());
+        assertEquals(10 * MS, stats.getResponseTime(1000 * MS), 1);
+
+        // slower samples are taken at once
+        stats.recordResponseTime(50 * MS, 1000 * MS);
+        assertEquals(50 * MS, stats.getResponseTime(1000 * MS), 1);
+
+        // faster ones pull the average down with the decay time
+        stats.recordResponseTime(10 * MS, 1000 * MS + HostLoadStatistics.DECAY_TIME_NANOS);
+        double expected = 10 * MS + 40 * MS * Math.exp(-1);
+        assertEquals(expected, stats.getResponseTime(1000 * MS + HostLoadStatistics.DECAY_TIME_NANOS), 1);
+
+        // without samples the average fades
+        assertEquals(expected * Math.exp(-2), stats.getResponseTime(1000 * MS + 3 * HostLoadStatistics.DECAY_TIME_NANOS), 1);
+
+        stats.transactionStarted();
+        assertEquals(2 * stats.getResponseTime(5000 * MS), stats.getCost(5000 * MS), 1);
+
+        assertSame(HostLoadStatistics.getInstance("host:3306"), HostLoadStatistics.getInstance("host:3306"));
+    }
+
+    @Test
+    public void strategiesAvoidLoadedHosts() {
+        HostLoadStatistics[] loads = { new HostLoadStatistics(), new HostLoadStatistics(), new HostLoadStatistics() };
+        long now = 1000 * MS;
+        loads[0].recordResponseTime(5 * MS, now);
+        loads[1].recordResponseTime(1 * MS, now);
+        loads[2].recordResponseTime(2 * MS, now);
+        for (int i = 0; i < 3; i++) {
+            loads[1].transactionStarted();
+        }
+        Set<String> none = Collections.emptySet();
+
+        // costs: a = 5, b = 4, c = 2
+        assertEquals(2, new EwmaBalanceStrategy().chooseHost(HOSTS, none, loads, now));
+        assertEquals(0, new LeastOutstandingBalanceStrategy().chooseHost(HOSTS, Collections.singleton("c:3306"), loads, now));
+        assertEquals(-1, new EwmaBalanceStrategy().chooseHost(HOSTS, new HashSet<>(HOSTS), loads, now));
+
+        // the two random choices always differ, so the costliest host is never picked
+        PowerOfTwoChoicesBalanceStrategy p2c = new PowerOfTwoChoicesBalanceStrategy();
+        int[] picks = new int[3];
+        for (int i = 0; i < 3000; i++) {
+            picks[p2c.chooseHost(HOSTS, none, loads, now)]++;
+        }
+        assertEquals(0, picks[0]);
+        assertTrue(picks[2] > picks[1]);
+        assertNotEquals(0, picks[1]);
+        assertEquals(1, p2c.chooseHost(HOSTS, new HashSet<>(Arrays.asList("a:3306", "c:3306")), loads, now));
+    }
+
+    @Test
+    public void trackerCountsOneTransactionAtATime() {
+        HostLoadStatistics a = new HostLoadStatistics();
+        HostLoadStatistics b = new HostLoadStatistics();
+        Object owner = new Object();
+        HostLoadStatistics.TransactionTracker tracker = HostLoadStatistics.newTransactionTracker(owner);
+
+        tracker.start(a, 1000 * MS);
+        tracker.start(b, 1005 * MS);
+        assertSame(a, tracker.getHostLoad());
+        assertEquals(1, a.getOutstandingTransactions());
+        assertEquals(0, b.getOutstandingTransactions());
+
+        tracker.end(1020 * MS);
+        assertNull(tracker.getHostLoad());
+        assertEquals(0, a.getOutstandingTransactions());
+        assertEquals(20 * MS, a.getResponseTime(1020 * MS), 1);
+
+        tracker.start(b, 2000 * MS);
+        tracker.abandon();
+        tracker.end(2020 * MS);
+        assertEquals(0, b.getOutstandingTransactions());
+        assertEquals(0, b.getResponseTime(2020 * MS));
+        assertNotNull(owner); // keeps the owner reachable until here
+    }
+
+    @Test
+    public void garbageCollectedOwnerReleasesItsTransaction() throws Exception {
+        HostLoadStatistics load = new HostLoadStatistics();
+        Object owner = new Object();
+        HostLoadStatistics.newTransactionTracker(owner).start(load, System.nanoTime());
+        assertEquals(1, load.getOutstandingTransactions());
+
+        owner = null;
+        for (int i = 0; i < 100 && load.getOutstandingTransactions() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+            HostLoadStatistics.releaseAbandonedTrackers();
+        }
+        assertEquals(0, load.getOutstandingTransactions());
+    }
+
+    @Test
+    public void idleHostsAreDropped() {
+        HostLoadStatistics idle = HostLoadStatistics.getInstance("idle:3306");
+        HostLoadStatistics busy = HostLoadStatistics.getInstance("busy:3306");
+        busy.transactionStarted();
+        int hosts = HostLoadStatistics.getHostCount();
+
+        HostLoadStatistics.removeIdleHosts(System.nanoTime());
+        assertEquals(hosts, HostLoadStatistics.getHostCount());
+
+        HostLoadStatistics.removeIdleHosts(System.nanoTime() + 2 * HostLoadStatistics.IDLE_TIME_NANOS);
+        assertEquals(1, HostLoadStatistics.getHostCount());
+        assertSame(busy, HostLoadStatistics.getInstance("busy:3306"));
+        assertNotEquals(idle, HostLoadStatistics.getInstance("idle:3306"));
+        busy.transactionAbandoned();
+    }
+}
@@ -29,18 +29,25 @@
 
 package com.mysql.cj.protocol.a;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Random;
+import java.util.zip.Deflater;
 import java.util.zip.InflaterOutputStream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import com.mysql.cj.conf.DefaultPropertySet;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.log.NullLogger;
 import com.mysql.cj.protocol.MessageSender;
 
 public class CompressedPacketSenderTest extends PacketSenderTestBase {
@@ -293,4 +300,134 @@ public class CompressedPacketSenderTest extends PacketSenderTestBase {
         assertEquals(packetSequence, sentPacket[CompressedPacketSender.COMP_HEADER_LENGTH + 3]);
         checkSequentiallyFilledPacket(sentPacket, CompressedPacketSender.COMP_HEADER_LENGTH + NativeConstants.HEADER_LENGTH, packetLen);
     }
+
+    /**
+     * Tests that a class of packets that doesn't compress is sent uncompressed for a while, without affecting other classes, and probed again later.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void adaptiveCompressionSkipsIncompressiblePackets() throws IOException {
+        CompressedPacketSender compressedSender = new CompressedPacketSender(new BufferedOutputStream(this.outputStream));
+
+        byte[] random = new byte[2000];
+        new Random(1).nextBytes(random);
+        random[0] = NativeConstants.COM_QUERY;
+        byte[] text = new byte[2000];
+        text[0] = NativeConstants.COM_STMT_EXECUTE;
+
+        // a few attempts are needed before a class is considered incompressible
+        int attempts = 0;
+        while (compressedSender.getSkippedCount() == 0) {
+            compressedSender.send(random, random.length, (byte) 0);
+            assertTrue(++attempts < 10);
+        }
+        long compressionTime = compressedSender.getCompressionTime();
+        for (int i = 1; i < CompressedPacketSender.MIN_SKIP; i++) {
+            compressedSender.send(random, random.length, (byte) 0);
+        }
+        assertEquals(CompressedPacketSender.MIN_SKIP, compressedSender.getSkippedCount());
+        assertEquals(compressionTime, compressedSender.getCompressionTime());
+
+        // other commands are still compressed
+        compressedSender.send(text, text.length, (byte) 0);
+        assertEquals(CompressedPacketSender.MIN_SKIP, compressedSender.getSkippedCount());
+
+        // probed again, then skipped for twice as long
+        compressedSender.send(random, random.length, (byte) 0);
+        assertEquals(CompressedPacketSender.MIN_SKIP, compressedSender.getSkippedCount());
+        for (int i = 0; i < 2 * CompressedPacketSender.MIN_SKIP; i++) {
+            compressedSender.send(random, random.length, (byte) 0);
+        }
+        assertEquals(3 * CompressedPacketSender.MIN_SKIP, compressedSender.getSkippedCount());
+
+        // all packets can still be read back
+        CompressedPackets packets = new CompressedPackets(this.outputStream.toByteArray());
+        int count = 0;
+        while (packets.nextPayload()) {
+            count++;
+            assertEquals(2000, NativeUtils.decodeMysqlThreeByteInteger(packets.payload));
+        }
+        assertEquals(attempts + CompressedPacketSender.MIN_SKIP + 1 + 2 * CompressedPacketSender.MIN_SKIP, count);
+
+        assertEquals(count * 2004L, compressedSender.getBytesIn());
+        assertEquals(this.outputStream.size(), compressedSender.getBytesOut());
+        compressedSender.stop();
+    }
+
+    /**
+     * Tests that the compression level is applied and that non-adaptive compression tries every packet.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void compressionLevel() throws IOException {
+        byte[] packet = new byte[100000];
+        Random random = new Random(2);
+        for (int i = 0; i < packet.length; i++) {
+            packet[i] = (byte) ('a' + random.nextInt(4));
+        }
+
+        long[] sizes = new long[2];
+        int[] levels = new int[] { Deflater.BEST_SPEED, Deflater.BEST_COMPRESSION };
+        for (int i = 0; i < levels.length; i++) {
+            CompressedPacketSender compressedSender = new CompressedPacketSender(new BufferedOutputStream(this.outputStream), levels[i], false);
+            compressedSender.send(packet, packet.length, (byte) 0);
+            sizes[i] = compressedSender.getBytesOut();
+            compressedSender.stop();
+            this.outputStream.reset();
+        }
+        assertTrue(sizes[1] < sizes[0]);
+
+        CompressedPacketSender compressedSender = new CompressedPacketSender(new BufferedOutputStream(this.outputStream), Deflater.DEFAULT_COMPRESSION, false);
+        new Random(3).nextBytes(packet);
+        for (int i = 0; i < 20; i++) {
+            compressedSender.send(packet, packet.length, (byte) 0);
+        }
+        assertEquals(0, compressedSender.getSkippedCount());
+        compressedSender.stop();
+    }
+
+    /**
+     * Tests reading compressed packets back with {@link CompressedInputStream}, including packets split across reads and larger than the buffers it keeps.
+     * 
+     * @throws IOException
+     */
+    @Test
+    public void compressedInputStreamRoundTrip() throws IOException {
+        CompressedPacketSender compressedSender = new CompressedPacketSender(new BufferedOutputStream(this.outputStream));
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Random random = new Random(4);
+        for (int len : new int[] { 10, 3000, 70000, 200000, 49, 5000 }) {
+            byte[] packet = new byte[len];
+            for (int i = 0; i < len; i++) {
+                packet[i] = (byte) (i % 7 == 0 ? random.nextInt() : i % 13);
+            }
+            compressedSender.send(packet, len, (byte) 0);
+            expected.write(NativeUtils.encodeMysqlThreeByteInteger(len));
+            expected.write(0);
+            expected.write(packet);
+        }
+        compressedSender.stop();
+
+        DefaultPropertySet propertySet = new DefaultPropertySet();
+        CompressedInputStream in = new CompressedInputStream(new ByteArrayInputStream(this.outputStream.toByteArray()),
+                propertySet.getBooleanProperty(PropertyKey.traceProtocol), new NullLogger(null));
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        byte[] buf = new byte[6000];
+        actual.write(in.read());
+        assertEquals(3, in.skip(3));
+        actual.write(new byte[3]);
+        int n;
+        while ((n = in.read(buf, 0, 1 + random.nextInt(buf.length - 1))) > 0) {
+            actual.write(buf, 0, n);
+        }
+        byte[] expectedBytes = expected.toByteArray();
+        expectedBytes[1] = expectedBytes[2] = expectedBytes[3] = 0;
+        assertArrayEquals(expectedBytes, actual.toByteArray());
+
+        assertEquals(this.outputStream.size(), in.getBytesIn());
+        assertEquals(expectedBytes.length, in.getBytesOut());
+        in.close();
+    }
 }
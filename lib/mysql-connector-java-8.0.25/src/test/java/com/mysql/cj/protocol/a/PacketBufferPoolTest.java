@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.a;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.protocol.a.NativeConstants.StringLengthDataType;
+
+/**
+ * Tests for the shared packet buffer pool.
+ */
+public class PacketBufferPoolTest {
+    @Test
+    public void sizeClasses() {
+        assertSizeClass(1024, 1);
+        assertSizeClass(1024, 1024);
+        assertSizeClass(2048, 1025);
+        assertSizeClass(65536, 40000);
+        assertSizeClass(PacketBufferPool.MAX_POOLED_LENGTH, NativeConstants.MAX_PACKET_SIZE);
+        // too large to pool: exact size
+        assertSizeClass(PacketBufferPool.MAX_POOLED_LENGTH + 1, PacketBufferPool.MAX_POOLED_LENGTH + 1);
+    }
+
+    private void assertSizeClass(int expected, int length) {
+        byte[] buffer = PacketBufferPool.acquire(length, this);
+        assertEquals(expected, buffer.length);
+        PacketBufferPool.release(buffer);
+    }
+
+    @Test
+    public void releasedBuffersAreReused() {
+        for (int length : new int[] { 100, 5000, 300000, 5000000 }) {
+            byte[] buffer = PacketBufferPool.acquire(length, this);
+            PacketBufferPool.release(buffer);
+            long reused = PacketBufferPool.getReusedCount();
+            assertSame(buffer, PacketBufferPool.acquire(length, this));
+            assertEquals(reused + 1, PacketBufferPool.getReusedCount());
+            PacketBufferPool.release(buffer);
+        }
+
+        // foreign and oversized arrays are ignored
+        PacketBufferPool.release(new byte[1000]);
+        PacketBufferPool.release(new byte[PacketBufferPool.MAX_POOLED_LENGTH + 1]);
+    }
+
+    @Test
+    public void pooledPayload() {
+        NativePacketPayload packet = NativePacketPayload.acquire(10);
+        assertTrue(packet.isPooled());
+        assertEquals(10, packet.getPayloadLength());
+        assertEquals(1024, packet.getCapacity());
+
+        // growing keeps the contents and gives the old buffer back
+        byte[] small = packet.getByteBuffer();
+        byte[] data = new byte[3000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        packet.setPosition(0);
+        packet.writeBytes(StringLengthDataType.STRING_FIXED, data, 0, 1000);
+        packet.writeBytes(StringLengthDataType.STRING_FIXED, data, 1000, 2000);
+        assertEquals(4096, packet.getCapacity());
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], packet.getByteBuffer()[i]);
+        }
+        assertSame(small, PacketBufferPool.acquire(1024, this));
+        PacketBufferPool.release(small);
+
+        byte[] large = packet.getByteBuffer();
+        packet.release();
+        assertFalse(packet.isPooled());
+        assertEquals(0, packet.getCapacity());
+        assertEquals(0, packet.getPayloadLength());
+        packet.release(); // no-op
+        assertSame(large, PacketBufferPool.acquire(4096, this));
+        PacketBufferPool.release(large);
+
+        // unpooled payloads never touch the pool
+        NativePacketPayload plain = new NativePacketPayload(2048);
+        plain.release();
+        assertEquals(2048, plain.getCapacity());
+    }
+
+    @Test
+    public void concurrentUse() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final byte mark = (byte) t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20000; i++) {
+                        int length = 512 << (i % 8);
+                        byte[] buffer = PacketBufferPool.acquire(length, this);
+                        buffer[0] = mark;
+                        buffer[length - 1] = mark;
+                        Thread.yield();
+                        // nobody else may have been handed the same buffer meanwhile
+                        assertEquals(mark, buffer[0]);
+                        assertEquals(mark, buffer[length - 1]);
+                        PacketBufferPool.release(buffer);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(0, PacketBufferPool.getLeakedCount());
+    }
+}
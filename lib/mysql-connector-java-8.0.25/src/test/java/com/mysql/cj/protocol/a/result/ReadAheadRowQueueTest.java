@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.a.result;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.result.Row;
+
+/**
+ * Tests for the queue behind streaming result set read-ahead.
+ */
+public class ReadAheadRowQueueTest {
+    @Test
+    public void rowsArriveInOrder() throws Exception {
+        ReadAheadRowQueue queue = new ReadAheadRowQueue(4, new ReentrantLock());
+        int rowCount = 100000;
+        Thread producer = new Thread(() -> {
+            put(queue, 0, rowCount);
+            queue.finish(null);
+        });
+        producer.start();
+
+        for (int i = 0; i < rowCount; i++) {
+            Row row = queue.take();
+            assertEquals(i, row.getBytes(0)[0] & 0xff | (row.getBytes(0)[1] & 0xff) << 8 | (row.getBytes(0)[2] & 0xff) << 16);
+        }
+        assertNull(queue.take());
+        assertNull(queue.take());
+        producer.join();
+    }
+
+    @Test
+    public void producerWaitsWhileFull() throws Exception {
+        ReadAheadRowQueue queue = new ReadAheadRowQueue(3, new ReentrantLock()); // rounded up to 4
+        CountDownLatch putting = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            put(queue, 0, 4);
+            putting.countDown();
+            put(queue, 4, 5);
+            queue.finish(null);
+        });
+        producer.start();
+
+        assertTrue(putting.await(10, TimeUnit.SECONDS));
+        producer.join(200);
+        assertTrue(producer.isAlive(), "the fifth row must wait for a free slot");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, queue.take().getBytes(0)[0]);
+        }
+        producer.join();
+        assertNull(queue.take());
+    }
+
+    @Test
+    public void waitingConsumerReleasesTheConnectionLock() throws Exception {
+        ReentrantLock lock = new ReentrantLock();
+        ReadAheadRowQueue queue = new ReadAheadRowQueue(16, lock);
+        Thread producer = new Thread(() -> {
+            put(queue, 0, 100);
+            queue.finish(null);
+        });
+
+        // the application thread holds the connection lock while it asks for rows, possibly more than once
+        lock.lock();
+        lock.lock();
+        try {
+            producer.start();
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, queue.take().getBytes(0)[0]);
+                assertEquals(2, lock.getHoldCount());
+            }
+            assertNull(queue.take());
+        } finally {
+            lock.unlock();
+            lock.unlock();
+        }
+        producer.join();
+    }
+
+    @Test
+    public void failureReachesConsumer() throws Exception {
+        ReadAheadRowQueue queue = new ReadAheadRowQueue(8, new ReentrantLock());
+        RuntimeException failure = new RuntimeException("read failed");
+        Thread producer = new Thread(() -> {
+            put(queue, 1, 2);
+            queue.finish(failure);
+        });
+        producer.start();
+
+        assertEquals(1, queue.take().getBytes(0)[0]);
+        assertNull(queue.take());
+        assertSame(failure, queue.getFailure());
+        producer.join();
+    }
+
+    @Test
+    public void cancelReleasesProducer() throws Exception {
+        ReadAheadRowQueue queue = new ReadAheadRowQueue(2, new ReentrantLock());
+        Thread producer = new Thread(() -> {
+            put(queue, 0, 1000);
+            queue.finish(null);
+        });
+        producer.start();
+
+        assertEquals(0, queue.take().getBytes(0)[0]);
+        queue.cancel();
+        queue.awaitFinished();
+        producer.join();
+
+        assertNull(queue.take());
+        // all rows but the one taken were read and never taken
+        assertEquals(999, queue.getSkippedRows());
+        assertFalse(producer.isAlive());
+    }
+
+    /**
+     * Puts rows the way the read-ahead thread of {@link ResultsetRowsStreaming} does, holding the lock for each batch.
+     */
+    private static void put(ReadAheadRowQueue queue, int from, int to) {
+        int i = from;
+        while (i < to) {
+            queue.getLock().lock();
+            try {
+                for (int batch = queue.awaitBatch(); batch > 0 && i < to; batch--) {
+                    if (!queue.put(row(i++))) {
+                        break;
+                    }
+                }
+            } finally {
+                queue.getLock().unlock();
+            }
+        }
+    }
+
+    private static Row row(int i) {
+        return new ByteArrayRow(new byte[][] { { (byte) i, (byte) (i >> 8), (byte) (i >> 16) } }, null);
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.a.result;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.MysqlType;
+import com.mysql.cj.conf.DefaultPropertySet;
+import com.mysql.cj.protocol.ColumnDefinition;
+import com.mysql.cj.protocol.ResultsetRows;
+import com.mysql.cj.protocol.ValueDecoder;
+import com.mysql.cj.protocol.a.MysqlBinaryValueDecoder;
+import com.mysql.cj.protocol.a.MysqlTextValueDecoder;
+import com.mysql.cj.result.DefaultColumnDefinition;
+import com.mysql.cj.result.Field;
+import com.mysql.cj.result.Row;
+import com.mysql.cj.result.StringValueFactory;
+import com.mysql.cj.result.ValueFactory;
+import com.mysql.cj.util.LazyString;
+
+/**
+ * Tests for {@link ResultsetRowsColumnar}, checked against {@link ResultsetRowsStatic} holding the same rows.
+ */
+public class ResultsetRowsColumnarTest {
+    private ValueFactory<String> vf = new StringValueFactory(new DefaultPropertySet());
+
+    @Test
+    public void textValues() {
+        ColumnDefinition cdef = new DefaultColumnDefinition(new Field[] { //
+                field(MysqlType.FIELD_TYPE_LONG, 0, MysqlType.INT), //
+                field(MysqlType.FIELD_TYPE_LONG, MysqlType.FIELD_FLAG_UNSIGNED, MysqlType.INT_UNSIGNED), //
+                field(MysqlType.FIELD_TYPE_LONGLONG, 0, MysqlType.BIGINT), //
+                field(MysqlType.FIELD_TYPE_LONGLONG, MysqlType.FIELD_FLAG_UNSIGNED, MysqlType.BIGINT_UNSIGNED), //
+                field(MysqlType.FIELD_TYPE_TINY, MysqlType.FIELD_FLAG_ZEROFILL, MysqlType.TINYINT), //
+                field(MysqlType.FIELD_TYPE_DATE, 0, MysqlType.DATE), //
+                field(MysqlType.FIELD_TYPE_DATETIME, 0, MysqlType.DATETIME), //
+                field(MysqlType.FIELD_TYPE_TIME, 0, MysqlType.TIME), //
+                field(MysqlType.FIELD_TYPE_DOUBLE, 0, MysqlType.DOUBLE), //
+                field(MysqlType.FIELD_TYPE_VAR_STRING, 0, MysqlType.VARCHAR) });
+
+        String[][] values = { //
+                { "0", "0", "0", "0", "000", "2021-05-01", "2021-05-01 10:20:30", "00:00:00", "0", "" }, //
+                { "-2147483648", "4294967295", "-9223372036854775808", "9223372036854775807", "007", "0000-00-00", "0000-00-00 00:00:00", "-838:59:59",
+                        "1.5e300", "abc" }, //
+                { null, null, null, null, null, null, null, null, null, null }, //
+                { "2147483647", "17", "9223372036854775807", "18446744073709551615", "255", "9999-12-31", "2021-05-01 10:20:30.5", "838:59:59.000001",
+                        "-0.1", "\u00e9t\u00e9" }, //
+                { "42", "1", "-1", "1", "001", "1970-01-01", "2021-05-01 23:59:59.999999", "-00:00:01.12", "3", null } };
+
+        assertSameRows(cdef, textRows(values), false);
+    }
+
+    @Test
+    public void binaryValues() {
+        ColumnDefinition cdef = new DefaultColumnDefinition(new Field[] { //
+                field(MysqlType.FIELD_TYPE_TINY, 0, MysqlType.TINYINT), //
+                field(MysqlType.FIELD_TYPE_SHORT, 0, MysqlType.SMALLINT), //
+                field(MysqlType.FIELD_TYPE_LONG, 0, MysqlType.INT), //
+                field(MysqlType.FIELD_TYPE_FLOAT, 0, MysqlType.FLOAT), //
+                field(MysqlType.FIELD_TYPE_LONGLONG, 0, MysqlType.BIGINT), //
+                field(MysqlType.FIELD_TYPE_DOUBLE, 0, MysqlType.DOUBLE), //
+                field(MysqlType.FIELD_TYPE_DATETIME, 0, MysqlType.DATETIME), //
+                field(MysqlType.FIELD_TYPE_TIME, 0, MysqlType.TIME), //
+                field(MysqlType.FIELD_TYPE_VAR_STRING, 0, MysqlType.VARCHAR) });
+
+        List<Row> rows = new ArrayList<>();
+        rows.add(binaryRow(new byte[] { -1 }, le(-2, 2), le(Integer.MIN_VALUE, 4), le(Float.floatToIntBits(1.25f), 4), le(Long.MIN_VALUE, 8),
+                le(Double.doubleToLongBits(Math.PI), 8), new byte[0], new byte[0], bytes("x")));
+        rows.add(binaryRow(new byte[] { 7 }, le(300, 2), le(123456, 4), le(Float.floatToIntBits(-0.5f), 4), le(1L << 40, 8),
+                le(Double.doubleToLongBits(-1e-300), 8), new byte[] { (byte) 0xe5, 0x07, 5, 1 }, new byte[] { 1, 2, 0, 0, 0, 10, 20, 30 }, new byte[0]));
+        rows.add(binaryRow(null, null, null, null, null, null, null, null, null));
+        rows.add(binaryRow(new byte[] { 0 }, le(0, 2), le(0, 4), le(0, 4), le(0, 8), le(0, 8), new byte[] { (byte) 0xe5, 0x07, 5, 1, 10, 20, 30 },
+                new byte[] { 0, 34, 0, 0, 0, 22, 59, 59, 0x3f, 0x42, 0x0f, 0 }, bytes("yz")));
+        rows.add(binaryRow(new byte[] { 1 }, le(1, 2), le(1, 4), le(1, 4), le(1, 8), le(1, 8),
+                new byte[] { (byte) 0xe5, 0x07, 5, 1, 10, 20, 30, 0x40, (byte) 0xe2, 0x01, 0 }, new byte[] { 1, 0, 0, 0, 0, 0, 0, 1 }, null));
+
+        assertSameRows(cdef, rows, true);
+    }
+
+    @Test
+    public void navigation() {
+        ColumnDefinition cdef = new DefaultColumnDefinition(new Field[] { field(MysqlType.FIELD_TYPE_LONG, 0, MysqlType.INT) });
+        String[][] values = new String[5][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new String[] { String.valueOf(i) };
+        }
+        ResultsetRows expected = new ResultsetRowsStatic(textRows(values), cdef);
+        ResultsetRowsColumnar actual = columnar(cdef, textRows(values), false);
+
+        assertSamePosition(expected, actual);
+        for (int i = 0; i < 7; i++) {
+            assertSameRow(expected.next(), actual.next(), 1);
+            assertSamePosition(expected, actual);
+        }
+        expected.beforeLast();
+        actual.beforeLast();
+        assertSamePosition(expected, actual);
+        expected.setCurrentRow(2);
+        actual.setCurrentRow(2);
+        assertSamePosition(expected, actual);
+        assertSameRow(expected.get(expected.getPosition()), actual.get(actual.getPosition()), 1);
+        for (int move : new int[] { -1, 2, -10, 3, 10 }) {
+            expected.moveRowRelative(move);
+            actual.moveRowRelative(move);
+            assertSamePosition(expected, actual);
+        }
+        expected.beforeFirst();
+        actual.beforeFirst();
+        assertSamePosition(expected, actual);
+        assertNull(actual.get(-1));
+        assertNull(actual.get(5));
+
+        ResultsetRowsColumnar empty = columnar(cdef, new ArrayList<>(), false);
+        assertTrue(empty.isEmpty());
+        assertTrue(empty.wasEmpty());
+        assertNull(empty.next());
+    }
+
+    /**
+     * A buffered result of integers and timestamps should take a fraction of the heap it takes with one byte array per cell.
+     */
+    @Test
+    public void heapUsage() {
+        ColumnDefinition cdef = new DefaultColumnDefinition(new Field[] { //
+                field(MysqlType.FIELD_TYPE_LONG, 0, MysqlType.INT), //
+                field(MysqlType.FIELD_TYPE_LONGLONG, 0, MysqlType.BIGINT), //
+                field(MysqlType.FIELD_TYPE_DATETIME, 0, MysqlType.DATETIME), //
+                field(MysqlType.FIELD_TYPE_DOUBLE, 0, MysqlType.DOUBLE) });
+        int rowCount = 200000;
+
+        long before = usedHeap();
+        List<Row> rows = new ArrayList<>(rowCount);
+        ValueDecoder decoder = new MysqlBinaryValueDecoder();
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(new ByteArrayRow(new byte[][] { le(i, 4), le(i * 31L, 8), new byte[] { (byte) 0xe5, 0x07, 5, 1, 10, 20, (byte) (i % 60) },
+                    le(Double.doubleToLongBits(i / 3.0), 8) }, null, decoder));
+        }
+        long rowHeap = usedHeap() - before;
+
+        before = usedHeap();
+        ResultsetRowsColumnar columnar = columnar(cdef, rows, true);
+        long columnarHeap = usedHeap() - before;
+
+        assertEquals(rowCount, columnar.size());
+        assertSameRow(rows.get(rowCount - 1).setMetadata(cdef), columnar.get(rowCount - 1), 4);
+        assertTrue(columnarHeap * 4 < rowHeap, "columnar: " + columnarHeap + " bytes, rows: " + rowHeap + " bytes");
+    }
+
+    private void assertSameRows(ColumnDefinition cdef, List<Row> rows, boolean binaryEncoded) {
+        ResultsetRows expected = new ResultsetRowsStatic(rows, cdef);
+        ResultsetRows actual = columnar(cdef, rows, binaryEncoded);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameRow(expected.get(i), actual.get(i), cdef.getFields().length);
+        }
+    }
+
+    private void assertSameRow(Row expected, Row actual, int columnCount) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        for (int col = 0; col < columnCount; col++) {
+            assertEquals(expected.getNull(col), actual.getNull(col));
+            assertArrayEquals(expected.getBytes(col), actual.getBytes(col), "column " + col);
+            assertEquals(expected.getValue(col, this.vf), actual.getValue(col, this.vf), "column " + col);
+            assertEquals(expected.wasNull(), actual.wasNull());
+        }
+    }
+
+    private static void assertSamePosition(ResultsetRows expected, ResultsetRows actual) {
+        assertEquals(expected.getPosition(), actual.getPosition());
+        assertEquals(expected.hasNext(), actual.hasNext());
+        assertEquals(expected.isBeforeFirst(), actual.isBeforeFirst());
+        assertEquals(expected.isAfterLast(), actual.isAfterLast());
+        assertEquals(expected.isFirst(), actual.isFirst());
+        assertEquals(expected.isLast(), actual.isLast());
+    }
+
+    private static ResultsetRowsColumnar columnar(ColumnDefinition cdef, List<Row> rows, boolean binaryEncoded) {
+        ResultsetRowsColumnar columnar = new ResultsetRowsColumnar(cdef, binaryEncoded, null);
+        for (Row row : rows) {
+            columnar.append(row);
+        }
+        columnar.trimToSize();
+        return columnar;
+    }
+
+    private static Field field(int mysqlTypeId, int flags, MysqlType mysqlType) {
+        return new Field(new LazyString("db"), new LazyString("t"), new LazyString("t"), new LazyString("c"), new LazyString("c"), 20, mysqlTypeId,
+                (short) flags, 6, 255, "UTF-8", mysqlType);
+    }
+
+    private static List<Row> textRows(String[][] values) {
+        List<Row> rows = new ArrayList<>();
+        for (String[] row : values) {
+            byte[][] rowBytes = new byte[row.length][];
+            for (int i = 0; i < row.length; i++) {
+                rowBytes[i] = row[i] == null ? null : bytes(row[i]);
+            }
+            rows.add(new ByteArrayRow(rowBytes, null, new MysqlTextValueDecoder()));
+        }
+        return rows;
+    }
+
+    private static Row binaryRow(byte[]... values) {
+        return new ByteArrayRow(values, null, new MysqlBinaryValueDecoder());
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] le(long value, int length) {
+        byte[] b = new byte[length];
+        for (int i = 0; i < length; i++) {
+            b[i] = (byte) (value >>> (8 * i));
+        }
+        return b;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
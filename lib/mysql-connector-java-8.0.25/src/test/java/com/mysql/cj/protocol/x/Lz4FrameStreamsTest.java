@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.protocol.x;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Lz4FrameOutputStream} and {@link Lz4FrameInputStream}.
+ */
+public class Lz4FrameStreamsTest {
+    /**
+     * "MySQL Connector/J " * 8 compressed by the reference LZ4 library, with linked blocks, block checksums, content size and content checksum.
+     */
+    private static final byte[] referenceFrame = new byte[] { (byte) 0x04, (byte) 0x22, (byte) 0x4D, (byte) 0x18, (byte) 0x7C, (byte) 0x40, (byte) 0x90,
+            (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0xB3, (byte) 0x1D, (byte) 0x00, (byte) 0x00,
+            (byte) 0x00, (byte) 0xFF, (byte) 0x03, (byte) 0x4D, (byte) 0x79, (byte) 0x53, (byte) 0x51, (byte) 0x4C, (byte) 0x20, (byte) 0x43, (byte) 0x6F,
+            (byte) 0x6E, (byte) 0x6E, (byte) 0x65, (byte) 0x63, (byte) 0x74, (byte) 0x6F, (byte) 0x72, (byte) 0x2F, (byte) 0x4A, (byte) 0x20, (byte) 0x12,
+            (byte) 0x00, (byte) 0x66, (byte) 0x50, (byte) 0x6F, (byte) 0x72, (byte) 0x2F, (byte) 0x4A, (byte) 0x20, (byte) 0xA5, (byte) 0xBD, (byte) 0xF0,
+            (byte) 0x48, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x2F, (byte) 0x0A, (byte) 0xC7, (byte) 0xEE };
+
+    private static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new Lz4FrameOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] frame) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = new Lz4FrameInputStream(new ByteArrayInputStream(frame))) {
+            byte[] buf = new byte[1000];
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                bytes.write(buf, 0, n);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] rows(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < length) {
+            sb.append(random.nextInt(100000)).append('\t').append("customer-").append(random.nextInt(500)).append('\t').append("2021-05-")
+                    .append(10 + random.nextInt(20)).append('\n');
+        }
+        return sb.substring(0, length).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Tests round trips of data of assorted sizes and compressibility.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        byte[] random = new byte[200000];
+        new Random(1).nextBytes(random);
+        byte[][] samples = new byte[][] { new byte[0], "a".getBytes(), rows(12, 2), rows(13, 3), rows(1000, 4), rows(64 * 1024, 5), rows(300000, 6),
+                new byte[100000], random };
+        for (byte[] sample : samples) {
+            byte[] frame = compress(sample);
+            assertArrayEquals(sample, decompress(frame), "length " + sample.length);
+        }
+
+        // incompressible blocks are stored, compressible ones shrink
+        assertEquals(random.length + 4 * 4 + 15, compress(random).length);
+        assertTrue(compress(rows(300000, 6)).length < 150000);
+    }
+
+    /**
+     * Tests writing one byte at a time and in slices across block boundaries.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testPartialWrites() throws Exception {
+        byte[] data = rows(150000, 7);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new Lz4FrameOutputStream(bytes)) {
+            for (int i = 0; i < 100; i++) {
+                out.write(data[i]);
+            }
+            for (int off = 100; off < data.length; off += 7919) {
+                out.write(data, off, Math.min(7919, data.length - off));
+            }
+        }
+        assertArrayEquals(data, decompress(bytes.toByteArray()));
+    }
+
+    /**
+     * Tests decompressing a frame produced by the reference implementation.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testReferenceFrame() throws Exception {
+        byte[] expected = new byte[0];
+        for (int i = 0; i < 8; i++) {
+            expected = concat(expected, "MySQL Connector/J ".getBytes(StandardCharsets.US_ASCII));
+        }
+        assertArrayEquals(expected, decompress(referenceFrame));
+        assertEquals(0x02CC5D05, XxHash32.hash(new byte[0], 0, 0, 0));
+        assertEquals(0x32D153FF, XxHash32.hash("abc".getBytes(StandardCharsets.US_ASCII), 0, 3, 0));
+    }
+
+    /**
+     * Tests linked blocks, whose matches refer to the previous blocks, and skippable and concatenated frames.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testLinkedBlocksAndConcatenatedFrames() throws Exception {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(new byte[] { 0x50, 0x2A, 0x4D, 0x18, 3, 0, 0, 0, 1, 2, 3 }); // skippable frame
+        frame.write(new byte[] { 0x04, 0x22, 0x4D, 0x18, 0x40, 0x40 }); // linked blocks, no checksums
+        frame.write(XxHash32.hash(new byte[] { 0x40, 0x40 }, 0, 2, 0) >>> 8);
+        frame.write(new byte[] { 9, 0, 0, 0, (byte) 0x80, 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h' }); // literals only
+        frame.write(new byte[] { 5, 0, 0, 0, 0x04, 8, 0, 0x10, 'z' }); // 8 bytes back into the previous block, then "z"
+        frame.write(new byte[] { 0, 0, 0, 0 });
+        frame.write(compress("!".getBytes()));
+
+        assertArrayEquals("abcdefghabcdefghz!".getBytes(StandardCharsets.US_ASCII), decompress(frame.toByteArray()));
+    }
+
+    /**
+     * Tests that malformed frames are rejected with an {@link IOException}.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testMalformedFrames() throws Exception {
+        byte[] frame = compress(rows(100000, 8));
+
+        // bad magic, bad header checksum, truncated frame
+        byte[] bad = frame.clone();
+        bad[0]++;
+        assertThrows(IOException.class, () -> decompress(bad));
+        byte[] badHeader = frame.clone();
+        badHeader[6]++;
+        assertThrows(IOException.class, () -> decompress(badHeader));
+        assertThrows(IOException.class, () -> decompress(Arrays.copyOf(frame, frame.length - 3)));
+
+        // corrupted content is caught by the block decoder or the content checksum
+        Random random = new Random(9);
+        for (int i = 0; i < 200; i++) {
+            byte[] corrupted = frame.clone();
+            corrupted[11 + random.nextInt(corrupted.length - 11)] ^= 1 << random.nextInt(8);
+            assertThrows(IOException.class, () -> decompress(corrupted));
+        }
+
+        // a match reaching before the start of the data
+        ByteArrayOutputStream badMatch = new ByteArrayOutputStream();
+        badMatch.write(new byte[] { 0x04, 0x22, 0x4D, 0x18, 0x60, 0x40 });
+        badMatch.write(XxHash32.hash(new byte[] { 0x60, 0x40 }, 0, 2, 0) >>> 8);
+        badMatch.write(new byte[] { 6, 0, 0, 0, 0x10, 'a', 2, 0, 0x10, 'b', 0, 0, 0, 0 });
+        assertThrows(IOException.class, () -> decompress(badMatch.toByteArray()));
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] c = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, c, a.length, b.length);
+        return c;
+    }
+}
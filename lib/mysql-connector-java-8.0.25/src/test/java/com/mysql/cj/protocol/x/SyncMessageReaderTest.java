@@ -39,7 +39,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
@@ -48,6 +52,7 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Parser;
 import com.mysql.cj.exceptions.WrongArgumentException;
 import com.mysql.cj.protocol.FullReadInputStream;
+import com.mysql.cj.protocol.MessageListener;
 import com.mysql.cj.x.protobuf.Mysqlx.Error;
 import com.mysql.cj.x.protobuf.Mysqlx.Ok;
 import com.mysql.cj.x.protobuf.Mysqlx.ServerMessages;
@@ -168,6 +173,50 @@ public class SyncMessageReaderTest {
         }
     }
 
+    /**
+     * Messages of listeners queued before a synchronous read are dispatched to them before the synchronous read is done.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testListenerDispatch() throws Exception {
+        ByteArrayOutputStream x = new ByteArrayOutputStream();
+        for (int i = 0; i < 4; ++i) {
+            x.write(okMsgPacket);
+        }
+        // a long poll timeout must not delay the synchronous read
+        this.reader = new SyncMessageReader(new FullReadInputStream(new ByteArrayInputStream(x.toByteArray())), null, 60000);
+
+        long dispatched = SyncMessageReader.getDispatchedListenerCount();
+        List<CompletableFuture<XMessage>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            CompletableFuture<XMessage> f = new CompletableFuture<>();
+            futures.add(f);
+            this.reader.pushMessageListener(new MessageListener<XMessage>() {
+                @Override
+                public boolean processMessage(XMessage message) {
+                    f.complete(message);
+                    return true;
+                }
+
+                @Override
+                public void error(Throwable ex) {
+                    f.completeExceptionally(ex);
+                }
+            });
+        }
+
+        long start = System.currentTimeMillis();
+        this.reader.readMessage(null, ServerMessages.Type.OK_VALUE);
+        assertTrue(System.currentTimeMillis() - start < 30000);
+        for (CompletableFuture<XMessage> f : futures) {
+            assertTrue(f.isDone());
+            assertTrue(f.get(0, TimeUnit.MILLISECONDS).getMessage() instanceof Ok);
+        }
+        assertEquals(0, this.reader.getQueuedListenerCount());
+        assertTrue(SyncMessageReader.getDispatchedListenerCount() - dispatched >= 3);
+    }
+
     /**
      * Verification test to help prevent bugs in the typecode/class/parser mapping tables. We check that all classes that are mapped have a parser.
      * 
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package com.mysql.cj.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ConcurrentLRUCache}.
+ */
+public class ConcurrentLRUCacheTest {
+
+    /**
+     * Used by a single thread, the cache keeps and evicts exactly the same entries as {@link LRUCache}.
+     */
+    @Test
+    public void sameEvictionsAsLRUCache() {
+        Random random = new Random(20210611);
+        LRUCache<Integer, Integer> expected = new LRUCache<>(50);
+        ConcurrentLRUCache<Integer, Integer> actual = new ConcurrentLRUCache<>(50);
+
+        for (int i = 0; i < 200000; i++) {
+            Integer key = random.nextInt(120);
+            switch (random.nextInt(10)) {
+                case 0:
+                    assertEquals(expected.remove(key), actual.remove(key));
+                    break;
+                case 1:
+                case 2:
+                case 3:
+                    assertEquals(expected.put(key, i), actual.put(key, i));
+                    break;
+                default:
+                    assertEquals(expected.get(key), actual.get(key));
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected.keySet(), actual.keySet());
+    }
+
+    @Test
+    public void statistics() {
+        ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<>(2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3"); // evicts "b"
+        assertNull(cache.get("b"));
+        assertEquals("1", cache.get("a"));
+        assertEquals("3", cache.get("c"));
+
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getEvictionCount());
+
+        assertEquals("1", cache.putIfAbsent("a", "x"));
+        assertEquals("1", cache.get("a"));
+        assertTrue(cache.containsKey("c"));
+
+        cache.clear();
+        assertTrue(cache.isEmpty());
+        assertNull(cache.get("a"));
+    }
+
+    /**
+     * Subclasses can veto evictions and release the evicted values, as the server-side prepared statement cache does.
+     */
+    @Test
+    public void removeEldestEntryHook() {
+        List<String> released = new ArrayList<>();
+        ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<String, String>(3) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                boolean removeIt = super.removeEldestEntry(eldest);
+                if (removeIt) {
+                    released.add(eldest.getValue());
+                }
+                return removeIt;
+            }
+        };
+        for (int i = 0; i < 10; i++) {
+            cache.put("k" + i, "v" + i);
+            cache.get("k0");
+        }
+        assertEquals(3, cache.size());
+        assertTrue(cache.containsKey("k0"));
+        assertEquals(7, released.size());
+        assertFalse(released.contains("v0"));
+
+        cache.entrySet().removeIf(e -> e.getKey().equals("k0"));
+        assertFalse(cache.containsKey("k0"));
+        assertEquals(2, cache.size());
+    }
+
+    /**
+     * Threads asking for the same absent key at the same time compute its value once, and computed entries are evicted like added ones.
+     */
+    @Test
+    public void computeIfAbsent() throws Exception {
+        ConcurrentLRUCache<String, String> cache = new ConcurrentLRUCache<>(2);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Function<String, String> slowFunction = k -> {
+            computations.incrementAndGet();
+            computing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            return k.toUpperCase();
+        };
+
+        Thread[] threads = new Thread[8];
+        String[] results = new String[threads.length];
+        for (int t = 0; t < threads.length; t++) {
+            int index = t;
+            threads[t] = new Thread(() -> results[index] = cache.computeIfAbsent("a", slowFunction));
+            threads[t].start();
+        }
+        assertTrue(computing.await(10, TimeUnit.SECONDS));
+        // other keys don't wait for the computation
+        assertEquals("B", cache.computeIfAbsent("b", String::toUpperCase));
+        release.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(1, computations.get());
+        for (String result : results) {
+            assertEquals("A", result);
+        }
+
+        assertNull(cache.computeIfAbsent("c", k -> null));
+        assertFalse(cache.containsKey("c"));
+
+        cache.get("a");
+        assertEquals("C", cache.computeIfAbsent("c", String::toUpperCase));
+        assertEquals(2, cache.size());
+        assertFalse(cache.containsKey("b"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    /**
+     * Lookups and updates from several threads leave the cache within its size, with values matching their keys.
+     */
+    @Test
+    public void concurrentAccess() throws Exception {
+        ConcurrentLRUCache<Integer, String> cache = new ConcurrentLRUCache<>(64);
+        Thread[] threads = new Thread[4];
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    Random random = new Random(seed);
+                    start.await();
+                    for (int i = 0; i < 200000; i++) {
+                        Integer key = random.nextInt(100);
+                        int op = random.nextInt(20);
+                        if (op == 0) {
+                            cache.remove(key);
+                        } else if (op < 5) {
+                            cache.put(key, String.valueOf(key));
+                        } else if (op < 8) {
+                            String value = cache.computeIfAbsent(key, String::valueOf);
+                            if (!value.equals(String.valueOf(key))) {
+                                throw new AssertionError("Wrong value " + value + " for " + key);
+                            }
+                        } else {
+                            String value = cache.get(key);
+                            if (value != null && !value.equals(String.valueOf(key))) {
+                                throw new AssertionError("Wrong value " + value + " for " + key);
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertNull(failure.get());
+        assertTrue(cache.size() <= 64);
+        assertEquals(cache.size(), cache.entrySet().size());
+
+        // the access list still matches the entries: filling the cache evicts every old entry exactly once
+        long evictions = cache.getEvictionCount();
+        int size = cache.size();
+        for (int i = 1000; i < 1064; i++) {
+            cache.put(i, String.valueOf(i));
+        }
+        assertEquals(64, cache.size());
+        assertEquals(evictions + size, cache.getEvictionCount());
+        for (int i = 1000; i < 1064; i++) {
+            assertEquals(String.valueOf(i), cache.get(i));
+        }
+    }
+}
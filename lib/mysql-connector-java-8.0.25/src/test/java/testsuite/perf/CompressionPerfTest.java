@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package testsuite.perf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.protocol.x.CompressionAlgorithm;
+import com.mysql.cj.protocol.x.CompressorStreamsFactory;
+
+/**
+ * Compares the natively supported X Protocol compression algorithms, "lz4_message" and "deflate_stream", on batches of row messages shaped like those of
+ * typical result sets. Doesn't need a server: the messages are compressed and decompressed through the same {@link CompressorStreamsFactory} the protocol
+ * uses, one batch per compressed message, the way the server combines messages.
+ */
+public class CompressionPerfTest {
+    private static final int NUM_ROWS = 100000;
+
+    private static final int ROWS_PER_MESSAGE = 50;
+
+    private static final int NUM_TESTS = 10;
+
+    /**
+     * Measures compression and decompression throughput, CPU time and ratio of both algorithms and checks that LZ4 is not grossly slower than deflate.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testResultSetCompression() throws Exception {
+        List<byte[]> messages = buildMessages();
+        long rawBytes = 0;
+        for (byte[] message : messages) {
+            rawBytes += message.length;
+        }
+
+        System.out.println("\nX Protocol compression of " + messages.size() + " messages, " + rawBytes / 1024 + " KiB of row data (best of " + NUM_TESTS
+                + " runs)\n");
+        long[] lz4 = measure("lz4_message", messages, rawBytes);
+        long[] deflate = measure("deflate_stream", messages, rawBytes);
+
+        // LZ4 trades ratio for speed; allow for noise but catch a gross regression
+        assertTrue(lz4[0] < 2 * deflate[0]);
+        assertTrue(lz4[1] < 2 * deflate[1]);
+    }
+
+    /**
+     * @return CPU nanoseconds spent compressing, CPU nanoseconds spent decompressing
+     */
+    private long[] measure(String algorithm, List<byte[]> messages, long rawBytes) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        CompressionAlgorithm compressionAlgorithm = CompressionAlgorithm.getDefaultInstances().get(algorithm);
+        long bestCompressCpu = Long.MAX_VALUE;
+        long bestCompressWall = Long.MAX_VALUE;
+        long bestDecompressCpu = Long.MAX_VALUE;
+        long bestDecompressWall = Long.MAX_VALUE;
+        long compressedBytes = 0;
+
+        for (int t = 0; t < NUM_TESTS; t++) {
+            // compress
+            CompressorStreamsFactory factory = new CompressorStreamsFactory(compressionAlgorithm);
+            List<byte[]> payloads = new ArrayList<>(messages.size());
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            long cpu = threads.getCurrentThreadCpuTime();
+            long wall = System.nanoTime();
+            for (byte[] message : messages) {
+                buffer.reset();
+                OutputStream out = factory.getOutputStreamInstance(buffer);
+                out.write(message);
+                out.close();
+                payloads.add(buffer.toByteArray());
+            }
+            bestCompressCpu = Math.min(bestCompressCpu, threads.getCurrentThreadCpuTime() - cpu);
+            bestCompressWall = Math.min(bestCompressWall, System.nanoTime() - wall);
+
+            compressedBytes = 0;
+            for (byte[] payload : payloads) {
+                compressedBytes += payload.length;
+            }
+
+            // decompress
+            factory = new CompressorStreamsFactory(compressionAlgorithm);
+            List<byte[]> decompressed = new ArrayList<>(messages.size());
+            cpu = threads.getCurrentThreadCpuTime();
+            wall = System.nanoTime();
+            for (int i = 0; i < payloads.size(); i++) {
+                InputStream in = factory.getInputStreamInstance(new ByteArrayInputStream(payloads.get(i)));
+                byte[] message = new byte[messages.get(i).length];
+                readFully(in, message);
+                decompressed.add(message);
+            }
+            bestDecompressCpu = Math.min(bestDecompressCpu, threads.getCurrentThreadCpuTime() - cpu);
+            bestDecompressWall = Math.min(bestDecompressWall, System.nanoTime() - wall);
+
+            for (int i = 0; i < messages.size(); i++) {
+                assertArrayEquals(messages.get(i), decompressed.get(i));
+            }
+        }
+
+        System.out.println(String.format("%-15s ratio %5.2f, compress %7.1f MB/s (%4d ms CPU), decompress %7.1f MB/s (%4d ms CPU)", algorithm,
+                (double) rawBytes / compressedBytes, rawBytes * 1000.0 / bestCompressWall, bestCompressCpu / 1000000, rawBytes * 1000.0 / bestDecompressWall,
+                bestDecompressCpu / 1000000));
+        return new long[] { bestCompressCpu, bestDecompressCpu };
+    }
+
+    /**
+     * Builds batches of X Protocol Row messages for a result set of an id, a name, an e-mail, a decimal amount, a date and a status.
+     */
+    private List<byte[]> buildMessages() {
+        Random random = new Random(1);
+        String[] names = new String[] { "Anika", "Bruno", "Chen", "Dmitri", "Elena", "Farid", "Greta", "Hiro", "Ines", "Jonas" };
+        String[] statuses = new String[] { "NEW", "CONFIRMED", "CANCELLED", "COMPLETED" };
+
+        List<byte[]> messages = new ArrayList<>();
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        ByteArrayOutputStream row = new ByteArrayOutputStream();
+        for (int i = 0; i < NUM_ROWS; i++) {
+            String name = names[random.nextInt(names.length)] + " " + names[random.nextInt(names.length)] + "son";
+            row.reset();
+            field(row, Integer.toString(100000 + i));
+            field(row, name);
+            field(row, name.toLowerCase().replace(' ', '.') + "@example.com");
+            field(row, random.nextInt(100000) + "." + random.nextInt(100));
+            field(row, "2021-0" + (1 + random.nextInt(9)) + "-" + (10 + random.nextInt(18)) + " " + (10 + random.nextInt(12)) + ":00:00");
+            field(row, statuses[random.nextInt(statuses.length)]);
+
+            int length = row.size() + 1;
+            batch.write(length);
+            batch.write(length >>> 8);
+            batch.write(length >>> 16);
+            batch.write(length >>> 24);
+            batch.write(13); // Mysqlx.Resultset.Row
+            batch.write(row.toByteArray(), 0, row.size());
+
+            if (i % ROWS_PER_MESSAGE == ROWS_PER_MESSAGE - 1) {
+                messages.add(batch.toByteArray());
+                batch.reset();
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Writes a Row field the way protobuf encodes it: tag, varint length, bytes.
+     */
+    private static void field(ByteArrayOutputStream row, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        row.write(0x0A);
+        int length = bytes.length;
+        while (length >= 0x80) {
+            row.write(length & 0x7F | 0x80);
+            length >>>= 7;
+        }
+        row.write(length);
+        row.write(bytes, 0, bytes.length);
+    }
+
+    private static void readFully(InputStream in, byte[] b) throws Exception {
+        for (int off = 0; off < b.length;) {
+            int n = in.read(b, off, b.length - off);
+            if (n < 0) {
+                throw new EOFException();
+            }
+            off += n;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package testsuite.perf;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.util.ConcurrentLRUCache;
+import com.mysql.cj.util.LRUCache;
+
+/**
+ * Compares {@link ConcurrentLRUCache} with a {@link LRUCache} guarded by its monitor, the way the driver used it, under lookups from several threads. The load
+ * mimics the connection URL cache during a connection storm: mostly hits on a small set of keys, with a few misses that add new entries. Doesn't need a
+ * server.
+ */
+public class LRUCachePerfTest {
+    private static final int NUM_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private static final int OPS_PER_THREAD = 1000000;
+
+    private static final int CACHE_SIZE = 100;
+
+    private static final int NUM_KEYS = 120;
+
+    private static final int NUM_TESTS = 5;
+
+    private static final String[] KEYS = new String[NUM_KEYS];
+
+    static {
+        for (int i = 0; i < NUM_KEYS; i++) {
+            KEYS[i] = "jdbc:mysql://db" + i + ".example.com:3306/test?useSSL=false&cachePrepStmts=true";
+        }
+    }
+
+    /**
+     * Measures throughput of both caches and checks that the concurrent one is not grossly slower than the synchronized one.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testContendedLookups() throws Exception {
+        System.out.println("\nLRU cache lookups from " + NUM_THREADS + " threads on " + Runtime.getRuntime().availableProcessors() + " CPUs (best of " + NUM_TESTS
+                + " runs)\n");
+
+        LRUCache<String, String> lruCache = new LRUCache<>(CACHE_SIZE);
+        long synchronizedNanos = measure("synchronized LRUCache", lruCache, key -> {
+            synchronized (lruCache) {
+                String value = lruCache.get(key);
+                if (value == null) {
+                    lruCache.put(key, key);
+                }
+                return value;
+            }
+        });
+
+        ConcurrentLRUCache<String, String> concurrentCache = new ConcurrentLRUCache<>(CACHE_SIZE);
+        long concurrentNanos = measure("ConcurrentLRUCache", concurrentCache, key -> {
+            String value = concurrentCache.get(key);
+            if (value == null) {
+                concurrentCache.putIfAbsent(key, key);
+            }
+            return value;
+        });
+        System.out.println(String.format("%-22s hits %d, misses %d, evictions %d", "", concurrentCache.getHitCount(), concurrentCache.getMissCount(),
+                concurrentCache.getEvictionCount()));
+
+        // allow for noise but catch a gross regression
+        assertTrue(concurrentNanos < 2 * synchronizedNanos);
+    }
+
+    /**
+     * @return best wall-clock nanoseconds of all runs
+     */
+    private long measure(String name, Map<String, String> cache, Function<String, String> lookup) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int t = 0; t < NUM_TESTS; t++) {
+            cache.clear();
+            Thread[] threads = new Thread[NUM_THREADS];
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            for (int i = 0; i < NUM_THREADS; i++) {
+                int seed = i;
+                threads[i] = new Thread(() -> {
+                    try {
+                        start.await();
+                        int x = seed * 7919 + 1;
+                        for (int n = 0; n < OPS_PER_THREAD; n++) {
+                            // xorshift, skewed towards the first keys
+                            x ^= x << 13;
+                            x ^= x >>> 17;
+                            x ^= x << 5;
+                            int r = (x & 0x7fffffff) % (NUM_KEYS * NUM_KEYS);
+                            lookup.apply(KEYS[NUM_KEYS - 1 - (int) Math.sqrt(r)]);
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+                threads[i].start();
+            }
+            long wall = System.nanoTime();
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            best = Math.min(best, System.nanoTime() - wall);
+            if (failure.get() != null) {
+                throw new AssertionError(failure.get());
+            }
+        }
+        System.out.println(String.format("%-22s %8.1f Mops/s", name, (double) NUM_THREADS * OPS_PER_THREAD * 1000 / best));
+        return best;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package testsuite.perf;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.jdbc.ha.EwmaBalanceStrategy;
+import com.mysql.cj.jdbc.ha.HostLoadStatistics;
+import com.mysql.cj.jdbc.ha.LeastOutstandingBalanceStrategy;
+import com.mysql.cj.jdbc.ha.LoadAwareBalanceStrategy;
+import com.mysql.cj.jdbc.ha.PowerOfTwoChoicesBalanceStrategy;
+
+/**
+ * Compares the tail latency of the load balancing strategies in a discrete-event simulation of a replica set, so it doesn't need servers. Transactions arrive
+ * at random at 70% of the total capacity of five hosts that run a few transactions at a time and queue the rest; one host is four times slower than the others.
+ * "random" and "bestResponseTime" are modelled after {@link com.mysql.cj.jdbc.ha.RandomBalanceStrategy} and
+ * {@link com.mysql.cj.jdbc.ha.BestResponseTimeBalanceStrategy}, the load-aware strategies are the driver's own, fed with simulated time.
+ */
+public class LoadBalanceStrategyPerfTest {
+    private static final int NUM_HOSTS = 5;
+
+    private static final int SLOTS_PER_HOST = 4;
+
+    private static final long SERVICE_TIME = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private static final long SLOW_SERVICE_TIME = 4 * SERVICE_TIME;
+
+    private static final double LOAD = 0.7;
+
+    private static final int NUM_TRANSACTIONS = 300000;
+
+    private static final List<String> HOSTS;
+
+    static {
+        List<String> hosts = new ArrayList<>();
+        for (int i = 0; i < NUM_HOSTS; i++) {
+            hosts.add("replica" + i + ":3306");
+        }
+        HOSTS = Collections.unmodifiableList(hosts);
+    }
+
+    private interface Chooser {
+        int choose(HostLoadStatistics[] loads, long[] lastResponseTimes, long now, Random random);
+    }
+
+    /**
+     * Runs the same arrivals through every strategy, prints the latency percentiles and checks that the load-aware strategies cut the tail latency of "random".
+     */
+    @Test
+    public void testTailLatency() {
+        System.out.println("\nSimulated transaction latency (ms), " + NUM_HOSTS + " hosts, one " + SLOW_SERVICE_TIME / SERVICE_TIME + "x slower, load "
+                + (int) (LOAD * 100) + "%\n");
+        System.out.println(String.format("%-18s %8s %8s %8s %8s   %s", "strategy", "p50", "p99", "p99.9", "max", "share of the slow host"));
+
+        double[] random = simulate("random", (loads, last, now, r) -> r.nextInt(NUM_HOSTS));
+        simulate("bestResponseTime", (loads, last, now, r) -> {
+            int best = 0;
+            for (int i = 1; i < NUM_HOSTS; i++) {
+                if (last[i] < last[best]) {
+                    best = i;
+                }
+            }
+            return best;
+        });
+        double[] ewma = simulate("ewma", strategy(new EwmaBalanceStrategy()));
+        double[] leastOutstanding = simulate("leastOutstanding", strategy(new LeastOutstandingBalanceStrategy()));
+        double[] powerOfTwoChoices = simulate("powerOfTwoChoices", strategy(new PowerOfTwoChoicesBalanceStrategy()));
+
+        // p99
+        assertTrue(ewma[1] < random[1]);
+        assertTrue(leastOutstanding[1] < random[1]);
+        assertTrue(powerOfTwoChoices[1] < random[1]);
+    }
+
+    private static Chooser strategy(LoadAwareBalanceStrategy strategy) {
+        Set<String> noBlocklist = Collections.emptySet();
+        return (loads, last, now, r) -> strategy.chooseHost(HOSTS, noBlocklist, loads, now);
+    }
+
+    /**
+     * @return p50, p99, p99.9 and max latency in milliseconds
+     */
+    private double[] simulate(String name, Chooser chooser) {
+        Random random = new Random(42);
+        HostLoadStatistics[] loads = new HostLoadStatistics[NUM_HOSTS];
+        long[] lastResponseTimes = new long[NUM_HOSTS];
+        int[] busySlots = new int[NUM_HOSTS];
+        int[] transactionsPerHost = new int[NUM_HOSTS];
+        List<ArrayDeque<Long>> queues = new ArrayList<>();
+        for (int i = 0; i < NUM_HOSTS; i++) {
+            loads[i] = new HostLoadStatistics();
+            queues.add(new ArrayDeque<>());
+        }
+
+        double capacityPerNano = SLOTS_PER_HOST * ((NUM_HOSTS - 1) / (double) SERVICE_TIME + 1 / (double) SLOW_SERVICE_TIME);
+        double meanInterArrival = 1 / (capacityPerNano * LOAD);
+
+        // completion events: { time, host, arrival time }
+        PriorityQueue<long[]> completions = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        long[] latencies = new long[NUM_TRANSACTIONS];
+        int completed = 0;
+        long nextArrival = 0;
+        int arrived = 0;
+
+        while (completed < NUM_TRANSACTIONS) {
+            if (arrived < NUM_TRANSACTIONS && (completions.isEmpty() || nextArrival <= completions.peek()[0])) {
+                long now = nextArrival;
+                int host = chooser.choose(loads, lastResponseTimes, now, random);
+                loads[host].transactionStarted();
+                transactionsPerHost[host]++;
+                if (busySlots[host] < SLOTS_PER_HOST) {
+                    busySlots[host]++;
+                    completions.add(new long[] { now + serviceTime(host, random), host, now });
+                } else {
+                    queues.get(host).add(now);
+                }
+                arrived++;
+                nextArrival = now + (long) (-Math.log(1 - random.nextDouble()) * meanInterArrival);
+            } else {
+                long[] event = completions.poll();
+                long now = event[0];
+                int host = (int) event[1];
+                long latency = now - event[2];
+                latencies[completed++] = latency;
+                lastResponseTimes[host] = latency;
+                loads[host].transactionEnded(latency, now);
+
+                Long queued = queues.get(host).poll();
+                if (queued != null) {
+                    completions.add(new long[] { now + serviceTime(host, random), host, queued });
+                } else {
+                    busySlots[host]--;
+                }
+            }
+        }
+
+        Arrays.sort(latencies);
+        double[] result = { percentile(latencies, 0.5), percentile(latencies, 0.99), percentile(latencies, 0.999), latencies[latencies.length - 1] / 1e6 };
+        System.out.println(String.format("%-18s %8.1f %8.1f %8.1f %8.1f   %5.1f%%", name, result[0], result[1], result[2], result[3],
+                transactionsPerHost[0] * 100.0 / NUM_TRANSACTIONS));
+        return result;
+    }
+
+    private static long serviceTime(int host, Random random) {
+        return (long) (-Math.log(1 - random.nextDouble()) * (host == 0 ? SLOW_SERVICE_TIME : SERVICE_TIME));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
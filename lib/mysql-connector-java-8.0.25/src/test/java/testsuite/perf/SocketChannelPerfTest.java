@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package testsuite.perf;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.NativeSession;
+import com.mysql.cj.conf.PropertyDefinitions.SslMode;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcConnection;
+import com.mysql.cj.protocol.a.ChannelSocketConnection;
+import com.mysql.cj.protocol.a.NativeSocketConnection;
+
+import testsuite.BaseTestCase;
+
+/**
+ * Compares the socket channel transport ('useSocketChannel=true') with the default stream transport on large result sets and large packets.
+ */
+public class SocketChannelPerfTest extends BaseTestCase {
+    private static final int NUM_ROWS = 100000;
+
+    private static final int NUM_TESTS = 10;
+
+    private static final int BLOB_SIZE = 4 * 1024 * 1024;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        createTable("socketChannelPerfTest", "(id INT NOT NULL PRIMARY KEY, n BIGINT, charField VARCHAR(200))");
+
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            value.append("abcdefghijklmnopqrstuvqxyzABCDEFGHIJKLMNOPQRSTUVWXYZ");
+        }
+        this.pstmt = this.conn.prepareStatement("INSERT INTO socketChannelPerfTest VALUES (?, ?, ?)");
+        for (int i = 0; i < NUM_ROWS; i++) {
+            this.pstmt.setInt(1, i);
+            this.pstmt.setLong(2, i * 31L);
+            this.pstmt.setString(3, value.toString());
+            this.pstmt.addBatch();
+            if (i % 1000 == 999) {
+                this.pstmt.executeBatch();
+            }
+        }
+        this.pstmt.close();
+    }
+
+    /**
+     * Reads the whole table through both transports, buffered and streamed, and checks that they return the same data.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testLargeResultSet() throws Exception {
+        long[] streams = retrieve(false);
+        long[] channel = retrieve(true);
+
+        assertEquals(streams[0], channel[0]);
+
+        System.out.println("\nLarge Result Set Retrieval (" + NUM_ROWS + " rows x " + NUM_TESTS + ")\n");
+        System.out.println("Socket streams: " + streams[1] / 1000000 + " ms buffered, " + streams[2] / 1000000 + " ms streamed");
+        System.out.println("Socket channel: " + channel[1] / 1000000 + " ms buffered, " + channel[2] / 1000000 + " ms streamed");
+
+        // the channel transport exists to be faster; allow for noise but catch a gross regression
+        assertTrue(channel[1] < 2 * streams[1]);
+        assertTrue(channel[2] < 2 * streams[2]);
+    }
+
+    /**
+     * Round-trips packets larger than the send buffer, which the channel transport writes with gathering writes straight from the packet.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testLargePackets() throws Exception {
+        createTable("socketChannelPerfBlobs", "(id INT NOT NULL PRIMARY KEY, b LONGBLOB)");
+
+        byte[] blob = new byte[BLOB_SIZE];
+        for (int i = 0; i < blob.length; i++) {
+            blob[i] = (byte) (i * 7);
+        }
+
+        for (boolean useSocketChannel : new boolean[] { false, true }) {
+            try (Connection c = getConnection(useSocketChannel)) {
+                long begin = System.nanoTime();
+                for (int i = 0; i < NUM_TESTS; i++) {
+                    try (PreparedStatement ps = c.prepareStatement("REPLACE INTO socketChannelPerfBlobs VALUES (?, ?)")) {
+                        ps.setInt(1, i);
+                        ps.setBytes(2, blob);
+                        ps.executeUpdate();
+                    }
+                    try (Statement s = c.createStatement(); ResultSet r = s.executeQuery("SELECT b FROM socketChannelPerfBlobs WHERE id = " + i)) {
+                        assertTrue(r.next());
+                        assertArrayEquals(blob, r.getBytes(1));
+                    }
+                }
+                System.out.println((useSocketChannel ? "Socket channel" : "Socket streams") + ": " + (System.nanoTime() - begin) / 1000000 + " ms for "
+                        + NUM_TESTS + " round trips of " + BLOB_SIZE + " bytes");
+            }
+        }
+    }
+
+    /**
+     * @return checksum of the data read, nanoseconds spent on buffered reads, nanoseconds spent on streamed reads
+     */
+    private long[] retrieve(boolean useSocketChannel) throws Exception {
+        long[] result = new long[3];
+        try (Connection c = getConnection(useSocketChannel)) {
+            for (int i = 0; i < NUM_TESTS; i++) {
+                try (Statement s = c.createStatement()) {
+                    long begin = System.nanoTime();
+                    result[0] += traverse(s.executeQuery("SELECT * FROM socketChannelPerfTest"));
+                    result[1] += System.nanoTime() - begin;
+                }
+                try (Statement s = c.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    s.setFetchSize(Integer.MIN_VALUE);
+                    long begin = System.nanoTime();
+                    result[0] += traverse(s.executeQuery("SELECT * FROM socketChannelPerfTest"));
+                    result[2] += System.nanoTime() - begin;
+                }
+            }
+        }
+        return result;
+    }
+
+    private long traverse(ResultSet r) throws Exception {
+        long sum = 0;
+        int rows = 0;
+        while (r.next()) {
+            sum += r.getInt(1) + r.getLong(2) + r.getString(3).length();
+            rows++;
+        }
+        r.close();
+        assertEquals(NUM_ROWS, rows);
+        return sum;
+    }
+
+    private Connection getConnection(boolean useSocketChannel) throws Exception {
+        Properties props = new Properties();
+        props.setProperty(PropertyKey.sslMode.getKeyName(), SslMode.DISABLED.name());
+        props.setProperty(PropertyKey.allowPublicKeyRetrieval.getKeyName(), "true");
+        props.setProperty(PropertyKey.useSocketChannel.getKeyName(), String.valueOf(useSocketChannel));
+        props.setProperty(PropertyKey.maxAllowedPacket.getKeyName(), String.valueOf(2 * BLOB_SIZE));
+        Connection c = getConnectionWithProps(props);
+        assertEquals(useSocketChannel ? ChannelSocketConnection.class : NativeSocketConnection.class,
+                ((NativeSession) ((JdbcConnection) c).getSession()).getProtocol().getSocketConnection().getClass());
+        return c;
+    }
+}
@@ -100,6 +100,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
 import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 
@@ -141,7 +142,7 @@ import com.mysql.cj.protocol.ColumnDefinition;
 import com.mysql.cj.protocol.Resultset;
 import com.mysql.cj.protocol.ResultsetRows;
 import com.mysql.cj.protocol.ServerSession;
-import com.mysql.cj.util.LRUCache;
+import com.mysql.cj.util.ConcurrentLRUCache;
 import com.mysql.cj.util.TimeUtil;
 
 import testsuite.BaseQueryInterceptor;
@@ -4777,6 +4778,11 @@ public class StatementRegressionTest extends BaseTestCase {
             public Object getSyncMutex() {
                 return null;
             }
+
+            @Override
+            public Lock getSyncLock() {
+                return null;
+            }
         };
 
         resultSetInternalMethods.close();
@@ -10320,7 +10326,7 @@ public class StatementRegressionTest extends BaseTestCase {
         stmtsCacheField.setAccessible(true);
         ToIntFunction<Connection> getStmtsCacheSize = (c) -> {
             try {
-                LRUCache<?, ?> stmtsCacheObj = (LRUCache<?, ?>) stmtsCacheField.get(c);
+                ConcurrentLRUCache<?, ?> stmtsCacheObj = (ConcurrentLRUCache<?, ?>) stmtsCacheField.get(c);
                 return stmtsCacheObj == null ? -1 : stmtsCacheObj.size();
             } catch (IllegalArgumentException | IllegalAccessException e) {
                 fail("Fail getting the statemets cache size.");
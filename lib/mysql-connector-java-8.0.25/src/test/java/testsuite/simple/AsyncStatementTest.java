@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+package testsuite.simple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcPreparedStatement;
+import com.mysql.cj.jdbc.JdbcStatement;
+
+import testsuite.BaseTestCase;
+
+/**
+ * Tests for the asynchronous statement executions, {@link JdbcStatement#executeQueryAsync(String)} and related.
+ */
+public class AsyncStatementTest extends BaseTestCase {
+
+    /**
+     * Asynchronous text and prepared executions complete in submission order, prepared ones with the parameter values set when they were submitted.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testAsyncExecutions() throws Exception {
+        createTable("testAsyncExecutions", "(id INT NOT NULL PRIMARY KEY, val VARCHAR(20))");
+
+        for (boolean useServerPrepStmts : new boolean[] { false, true }) {
+            Properties props = new Properties();
+            props.setProperty(PropertyKey.useServerPrepStmts.getKeyName(), Boolean.toString(useServerPrepStmts));
+            Connection testConn = getConnectionWithProps(props);
+            this.stmt.executeUpdate("TRUNCATE TABLE testAsyncExecutions");
+
+            JdbcStatement asyncStmt = testConn.createStatement().unwrap(JdbcStatement.class);
+            List<CompletableFuture<Long>> updates = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                updates.add(asyncStmt.executeUpdateAsync("INSERT INTO testAsyncExecutions VALUES (" + i + ", 'row" + i + "')"));
+            }
+            CompletableFuture<ResultSet> count = asyncStmt.executeQueryAsync("SELECT COUNT(*) FROM testAsyncExecutions");
+
+            JdbcPreparedStatement select = testConn.prepareStatement("SELECT val FROM testAsyncExecutions WHERE id = ?").unwrap(JdbcPreparedStatement.class);
+            select.setInt(1, 7);
+            CompletableFuture<ResultSet> row = select.executeQueryAsync();
+            // the parameters were copied, the queued execution keeps its own
+            select.setString(1, "3");
+            CompletableFuture<ResultSet> otherRow = select.executeQueryAsync();
+
+            for (CompletableFuture<Long> update : updates) {
+                assertEquals(1L, update.get(10, TimeUnit.SECONDS).longValue());
+            }
+            ResultSet countRs = count.get(10, TimeUnit.SECONDS);
+            assertTrue(countRs.next());
+            assertEquals(10, countRs.getInt(1));
+
+            ResultSet rowRs = row.get(10, TimeUnit.SECONDS);
+            assertTrue(rowRs.next());
+            assertEquals("row7", rowRs.getString(1));
+            ResultSet otherRowRs = otherRow.get(10, TimeUnit.SECONDS);
+            assertTrue(otherRowRs.next());
+            assertEquals("row3", otherRowRs.getString(1));
+
+            JdbcPreparedStatement delete = testConn.prepareStatement("DELETE FROM testAsyncExecutions WHERE id < ?").unwrap(JdbcPreparedStatement.class);
+            delete.setInt(1, 5);
+            assertEquals(5L, delete.executeUpdateAsync().get(10, TimeUnit.SECONDS).longValue());
+
+            testConn.close();
+        }
+    }
+
+    /**
+     * A failing command fails only its own future.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testAsyncErrorIsolation() throws Exception {
+        Connection testConn = getConnectionWithProps(new Properties());
+        JdbcStatement asyncStmt = testConn.createStatement().unwrap(JdbcStatement.class);
+
+        CompletableFuture<ResultSet> before = asyncStmt.executeQueryAsync("SELECT 1");
+        CompletableFuture<ResultSet> failing = asyncStmt.executeQueryAsync("SELEKT 2");
+        CompletableFuture<ResultSet> after = asyncStmt.executeQueryAsync("SELECT 3");
+
+        ResultSet rs = before.get(10, TimeUnit.SECONDS);
+        assertTrue(rs.next());
+        assertEquals(1, rs.getInt(1));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> failing.get(10, TimeUnit.SECONDS));
+        assertTrue(ex.getCause() instanceof SQLSyntaxErrorException);
+
+        rs = after.get(10, TimeUnit.SECONDS);
+        assertTrue(rs.next());
+        assertEquals(3, rs.getInt(1));
+
+        testConn.close();
+    }
+
+    /**
+     * Rows of a query passed to a handler as they are streamed.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testAsyncRowHandler() throws Exception {
+        createTable("testAsyncRowHandler", "(id INT NOT NULL PRIMARY KEY)");
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            values.append(i == 0 ? "" : ",").append("(").append(i).append(")");
+        }
+        this.stmt.executeUpdate("INSERT INTO testAsyncRowHandler VALUES " + values);
+
+        Connection testConn = getConnectionWithProps(new Properties());
+        JdbcStatement asyncStmt = testConn.createStatement().unwrap(JdbcStatement.class);
+        long[] sum = new long[1];
+        CompletableFuture<Long> rows = asyncStmt.executeQueryAsync("SELECT id FROM testAsyncRowHandler", rs -> sum[0] += rs.getInt(1));
+        CompletableFuture<ResultSet> next = asyncStmt.executeQueryAsync("SELECT 1");
+
+        assertEquals(1000L, rows.get(10, TimeUnit.SECONDS).longValue());
+        assertEquals(999L * 1000 / 2, sum[0]);
+        assertTrue(next.get(10, TimeUnit.SECONDS).next());
+
+        testConn.close();
+    }
+
+    /**
+     * Many connections share the dispatcher threads.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testManyConnections() throws Exception {
+        List<Connection> connections = new ArrayList<>();
+        List<CompletableFuture<ResultSet>> results = new ArrayList<>();
+        try {
+            for (int c = 0; c < 20; c++) {
+                Connection testConn = getConnectionWithProps(new Properties());
+                connections.add(testConn);
+                JdbcStatement asyncStmt = testConn.createStatement().unwrap(JdbcStatement.class);
+                for (int i = 0; i < 50; i++) {
+                    results.add(asyncStmt.executeQueryAsync("SELECT " + (c * 50 + i)));
+                }
+            }
+            for (int i = 0; i < results.size(); i++) {
+                ResultSet rs = results.get(i).get(30, TimeUnit.SECONDS);
+                assertTrue(rs.next());
+                assertEquals(i, rs.getInt(1));
+            }
+        } finally {
+            for (Connection testConn : connections) {
+                testConn.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package testsuite.simple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcConnection;
+import com.mysql.cj.jdbc.JdbcPipeline;
+import com.mysql.cj.jdbc.JdbcStatement;
+import com.mysql.cj.jdbc.exceptions.MySQLTimeoutException;
+
+import testsuite.BaseTestCase;
+
+/**
+ * Tests for command pipelining with {@link JdbcConnection#createPipeline()}.
+ */
+public class PipelineTest extends BaseTestCase {
+
+    /**
+     * Text queries, text updates and both kinds of prepared statements in one pipeline.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testPipelinedCommands() throws Exception {
+        createTable("testPipelinedCommands", "(id INT NOT NULL PRIMARY KEY, val VARCHAR(20))");
+
+        for (boolean useServerPrepStmts : new boolean[] { false, true }) {
+            Properties props = new Properties();
+            props.setProperty(PropertyKey.useServerPrepStmts.getKeyName(), Boolean.toString(useServerPrepStmts));
+            Connection testConn = getConnectionWithProps(props);
+            this.stmt.executeUpdate("TRUNCATE TABLE testPipelinedCommands");
+
+            PreparedStatement insert = testConn.prepareStatement("INSERT INTO testPipelinedCommands VALUES (?, ?)");
+            PreparedStatement select = testConn.prepareStatement("SELECT val FROM testPipelinedCommands WHERE id = ?");
+
+            List<CompletableFuture<Long>> updates = new ArrayList<>();
+            List<CompletableFuture<ResultSet>> queries = new ArrayList<>();
+            try (JdbcPipeline pipeline = ((JdbcConnection) testConn).createPipeline()) {
+                for (int i = 0; i < 10; i++) {
+                    insert.setInt(1, i);
+                    insert.setString(2, "v" + i);
+                    updates.add(pipeline.executeUpdate(insert));
+                    select.setInt(1, i);
+                    queries.add(pipeline.executeQuery(select));
+                }
+                updates.add(pipeline.executeUpdate("UPDATE testPipelinedCommands SET val = CONCAT(val, 'x')"));
+                queries.add(pipeline.executeQuery("SELECT COUNT(*) FROM testPipelinedCommands"));
+                assertEquals(22, pipeline.getPendingCount());
+
+                pipeline.sync();
+                assertEquals(0, pipeline.getPendingCount());
+            }
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals(1L, updates.get(i).get().longValue());
+                this.rs = queries.get(i).get();
+                assertTrue(this.rs.next());
+                assertEquals("v" + i, this.rs.getString(1)); // read before the UPDATE
+                assertFalse(this.rs.next());
+            }
+            assertEquals(10L, updates.get(10).get().longValue());
+            this.rs = queries.get(10).get();
+            assertTrue(this.rs.next());
+            assertEquals(10, this.rs.getInt(1));
+
+            // the connection is usable again
+            this.rs = testConn.createStatement().executeQuery("SELECT val FROM testPipelinedCommands WHERE id = 3");
+            assertTrue(this.rs.next());
+            assertEquals("v3x", this.rs.getString(1));
+            testConn.close();
+        }
+    }
+
+    /**
+     * A failing command fails only its own future; waiting for a future reads the results up to it.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testErrorIsolation() throws Exception {
+        createTable("testErrorIsolation", "(id INT NOT NULL PRIMARY KEY)");
+
+        try (JdbcPipeline pipeline = ((JdbcConnection) this.conn).createPipeline()) {
+            CompletableFuture<Long> first = pipeline.executeUpdate("INSERT INTO testErrorIsolation VALUES (1)");
+            CompletableFuture<Long> duplicate = pipeline.executeUpdate("INSERT INTO testErrorIsolation VALUES (1)");
+            CompletableFuture<ResultSet> bad = pipeline.executeQuery("SELECT * FROM testErrorIsolationMissing");
+            CompletableFuture<ResultSet> last = pipeline.executeQuery("SELECT COUNT(*) FROM testErrorIsolation");
+
+            assertEquals(1L, first.get().longValue());
+            assertEquals(2, pipeline.getPendingCount());
+
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> duplicate.get());
+            assertTrue(ex.getCause() instanceof SQLException);
+            ex = assertThrows(ExecutionException.class, () -> bad.get());
+            assertTrue(ex.getCause() instanceof SQLSyntaxErrorException);
+
+            this.rs = last.get();
+            assertTrue(this.rs.next());
+            assertEquals(1, this.rs.getInt(1));
+        }
+    }
+
+    /**
+     * Commands that need serial execution complete before the call returns, and statements executed on the connection read the pending results first.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testSerialFallbackAndExclusiveUse() throws Exception {
+        createTable("testSerialFallback", "(id INT NOT NULL PRIMARY KEY)");
+
+        // a statement of another database runs serially
+        this.conn.setCatalog("mysql");
+        PreparedStatement otherDb = this.conn.prepareStatement("SELECT COUNT(*) FROM " + this.dbName + ".testSerialFallback");
+        this.conn.setCatalog(this.dbName);
+
+        try (JdbcPipeline pipeline = ((JdbcConnection) this.conn).createPipeline()) {
+            assertThrows(SQLException.class, () -> ((JdbcConnection) this.conn).createPipeline());
+
+            CompletableFuture<Long> insert = pipeline.executeUpdate("INSERT INTO testSerialFallback VALUES (1), (2), (3)");
+            assertFalse(insert.isDone());
+            this.rs = this.stmt.executeQuery("SELECT COUNT(*) FROM testSerialFallback");
+            assertTrue(insert.isDone());
+            assertEquals(3L, insert.get().longValue());
+            assertTrue(this.rs.next());
+            assertEquals(3, this.rs.getInt(1));
+
+            CompletableFuture<ResultSet> count = pipeline.executeQuery(otherDb);
+            assertTrue(insert.isDone());
+            assertTrue(count.isDone());
+            assertEquals(0, pipeline.getPendingCount());
+
+            // max rows is applied to the session before the command is sent
+            this.pstmt = this.conn.prepareStatement("SELECT id FROM testSerialFallback ORDER BY id");
+            this.pstmt.setMaxRows(2);
+            CompletableFuture<ResultSet> limited = pipeline.executeQuery(this.pstmt);
+            CompletableFuture<ResultSet> unlimited = pipeline.executeQuery("SELECT id FROM testSerialFallback ORDER BY id");
+            pipeline.sync();
+
+            this.rs = count.get();
+            assertTrue(this.rs.next());
+            assertEquals(3, this.rs.getInt(1));
+            this.rs = limited.get();
+            assertTrue(this.rs.next());
+            assertTrue(this.rs.next());
+            assertFalse(this.rs.next());
+            this.rs = unlimited.get();
+            assertTrue(this.rs.last());
+            assertEquals(3, this.rs.getRow());
+        }
+        assertEquals(3, getRowCount("testSerialFallback"));
+    }
+
+    /**
+     * Transaction control between pipelined statements waits for the results sent before it.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testTransactionControlBetweenCommands() throws Exception {
+        createTable("testTransactionControl", "(id INT NOT NULL PRIMARY KEY) ENGINE=InnoDB");
+
+        Connection testConn = getConnectionWithProps("");
+        try (JdbcPipeline pipeline = ((JdbcConnection) testConn).createPipeline()) {
+            CompletableFuture<Long> committed = pipeline.executeUpdate("INSERT INTO testTransactionControl VALUES (1)");
+            testConn.setAutoCommit(false);
+            assertTrue(committed.isDone());
+
+            CompletableFuture<Long> rolledBack = pipeline.executeUpdate("INSERT INTO testTransactionControl VALUES (2)");
+            CompletableFuture<ResultSet> inTransaction = pipeline.executeQuery("SELECT COUNT(*) FROM testTransactionControl");
+            testConn.rollback();
+            assertEquals(1L, rolledBack.get().longValue());
+            this.rs = inTransaction.get();
+            assertTrue(this.rs.next());
+            assertEquals(2, this.rs.getInt(1));
+
+            testConn.setAutoCommit(true);
+            CompletableFuture<ResultSet> afterRollback = pipeline.executeQuery("SELECT COUNT(*) FROM testTransactionControl");
+            this.rs = afterRollback.get();
+            assertTrue(this.rs.next());
+            assertEquals(1, this.rs.getInt(1));
+        } finally {
+            testConn.close();
+        }
+    }
+
+    /**
+     * Statements with a query timeout run serially and are cancelled when it expires, also through the async API.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testQueryTimeout() throws Exception {
+        try (JdbcPipeline pipeline = ((JdbcConnection) this.conn).createPipeline()) {
+            this.pstmt = this.conn.prepareStatement("SELECT SLEEP(5)");
+            this.pstmt.setQueryTimeout(1);
+            CompletableFuture<ResultSet> timedOut = pipeline.executeQuery(this.pstmt);
+            assertTrue(timedOut.isDone());
+            ExecutionException ex = assertThrows(ExecutionException.class, timedOut::get);
+            assertTrue(ex.getCause() instanceof MySQLTimeoutException, ex.getCause().toString());
+        }
+
+        Statement timeoutStmt = this.conn.createStatement();
+        timeoutStmt.setQueryTimeout(1);
+        CompletableFuture<ResultSet> async = ((JdbcStatement) timeoutStmt).executeQueryAsync("SELECT SLEEP(5)");
+        ExecutionException ex = assertThrows(ExecutionException.class, async::get);
+        assertTrue(ex.getCause() instanceof MySQLTimeoutException, ex.getCause().toString());
+        timeoutStmt.close();
+    }
+
+    /**
+     * More commands than fit into the in-flight window.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testManyCommands() throws Exception {
+        createTable("testManyCommands", "(id INT NOT NULL PRIMARY KEY, val TEXT)");
+
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            value.append('x');
+        }
+        List<CompletableFuture<Long>> updates = new ArrayList<>();
+        try (JdbcPipeline pipeline = ((JdbcConnection) this.conn).createPipeline()) {
+            for (int i = 0; i < 1000; i++) {
+                updates.add(pipeline.executeUpdate("INSERT INTO testManyCommands VALUES (" + i + ", '" + value + "')"));
+                assertTrue(pipeline.getPendingCount() < 100);
+            }
+        }
+        for (CompletableFuture<Long> update : updates) {
+            assertEquals(1L, update.get().longValue());
+        }
+        assertEquals(1000, getRowCount("testManyCommands"));
+    }
+}
@@ -90,7 +90,7 @@ import com.mysql.cj.jdbc.ServerPreparedStatement;
 import com.mysql.cj.jdbc.exceptions.MySQLStatementCancelledException;
 import com.mysql.cj.jdbc.exceptions.MySQLTimeoutException;
 import com.mysql.cj.jdbc.interceptors.ServerStatusDiffInterceptor;
-import com.mysql.cj.util.LRUCache;
+import com.mysql.cj.util.ConcurrentLRUCache;
 import com.mysql.cj.util.StringUtils;
 import com.mysql.cj.util.TimeUtil;
 
@@ -1135,6 +1135,122 @@ public class StatementsTest extends BaseTestCase {
         }
     }
 
+    /**
+     * Tests cursor fetches with 'useCursorPrefetch', including other commands and a close while a block is requested ahead.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testRowFetchWithPrefetch() throws Exception {
+        createTable("testRowFetchWithPrefetch", "(field1 int)");
+
+        StringBuilder values = new StringBuilder("INSERT INTO testRowFetchWithPrefetch VALUES (0)");
+        for (int i = 1; i < 100; i++) {
+            values.append(", (").append(i).append(")");
+        }
+        this.stmt.executeUpdate(values.toString());
+
+        Properties props = new Properties();
+        props.setProperty(PropertyKey.useCursorFetch.getKeyName(), "true");
+        props.setProperty(PropertyKey.useCursorPrefetch.getKeyName(), "true");
+
+        try (Connection fetchConn = getConnectionWithProps(props)) {
+            PreparedStatement fetchStmt = fetchConn.prepareStatement("SELECT field1 FROM testRowFetchWithPrefetch ORDER BY field1");
+            Statement otherStmt = fetchConn.createStatement();
+
+            for (int fetchSize : new int[] { 1, 7, 10, 100, 1000 }) {
+                fetchStmt.setFetchSize(fetchSize);
+                this.rs = fetchStmt.executeQuery();
+                for (int i = 0; i < 100; i++) {
+                    assertTrue(this.rs.next());
+                    assertEquals(i, this.rs.getInt(1));
+                    if (i % 13 == 0) {
+                        // the connection is needed while the next block is on its way
+                        ResultSet otherRs = otherStmt.executeQuery("SELECT " + i);
+                        assertTrue(otherRs.next());
+                        assertEquals(i, otherRs.getInt(1));
+                        otherRs.close();
+                    }
+                }
+                assertFalse(this.rs.next());
+                this.rs.close();
+
+                // closed while a block is requested ahead
+                this.rs = fetchStmt.executeQuery();
+                assertTrue(this.rs.next());
+                this.rs.close();
+
+                ResultSet otherRs = otherStmt.executeQuery("SELECT 'still in sync'");
+                assertTrue(otherRs.next());
+                assertEquals("still in sync", otherRs.getString(1));
+                otherRs.close();
+            }
+        }
+    }
+
+    /**
+     * Tests streaming result sets with 'streamingReadAheadRows': all rows in order, close before the end, and results of a multi-statement query.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testStreamingReadAhead() throws Exception {
+        createTable("testStreamingReadAhead", "(id INT PRIMARY KEY, val VARCHAR(100))");
+
+        StringBuilder values = new StringBuilder("INSERT INTO testStreamingReadAhead VALUES (0, 'row 0')");
+        for (int i = 1; i < 1000; i++) {
+            values.append(", (").append(i).append(", 'row ").append(i).append("')");
+        }
+        this.stmt.executeUpdate(values.toString());
+
+        Properties props = new Properties();
+        props.setProperty(PropertyKey.streamingReadAheadRows.getKeyName(), "4");
+        props.setProperty(PropertyKey.allowMultiQueries.getKeyName(), "true");
+
+        for (boolean useServerPrepStmts : new boolean[] { false, true }) {
+            props.setProperty(PropertyKey.useServerPrepStmts.getKeyName(), String.valueOf(useServerPrepStmts));
+
+            try (Connection readAheadConn = getConnectionWithProps(props)) {
+                PreparedStatement streamingStmt = readAheadConn.prepareStatement("SELECT id, val FROM testStreamingReadAhead ORDER BY id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                streamingStmt.setFetchSize(Integer.MIN_VALUE);
+
+                this.rs = streamingStmt.executeQuery();
+                for (int i = 0; i < 1000; i++) {
+                    assertTrue(this.rs.next());
+                    assertEquals(i, this.rs.getInt(1));
+                    assertEquals("row " + i, this.rs.getString(2));
+                }
+                assertFalse(this.rs.next());
+                this.rs.close();
+
+                // closed while rows are still coming
+                this.rs = streamingStmt.executeQuery();
+                assertTrue(this.rs.next());
+                this.rs.close();
+
+                Statement otherStmt = readAheadConn.createStatement();
+                this.rs = otherStmt.executeQuery("SELECT 'still in sync'");
+                assertTrue(this.rs.next());
+                assertEquals("still in sync", this.rs.getString(1));
+                this.rs.close();
+
+                if (!useServerPrepStmts) {
+                    otherStmt.setFetchSize(Integer.MIN_VALUE);
+                    assertTrue(otherStmt.execute("SELECT id FROM testStreamingReadAhead WHERE id < 10; SELECT id FROM testStreamingReadAhead WHERE id >= 990"));
+                    int count = 0;
+                    do {
+                        this.rs = otherStmt.getResultSet();
+                        while (this.rs.next()) {
+                            count++;
+                        }
+                    } while (otherStmt.getMoreResults());
+                    assertEquals(20, count);
+                }
+            }
+        }
+    }
+
     @Test
     public void testSelectColumns() throws SQLException {
         for (int i = 6; i < MAX_COLUMNS_TO_TEST; i += STEP) {
@@ -3831,7 +3947,7 @@ public class StatementsTest extends BaseTestCase {
         stmtsCacheField.setAccessible(true);
         ToIntFunction<Connection> getStmtsCacheSize = (c) -> {
             try {
-                LRUCache<?, ?> stmtsCacheObj = (LRUCache<?, ?>) stmtsCacheField.get(c);
+                ConcurrentLRUCache<?, ?> stmtsCacheObj = (ConcurrentLRUCache<?, ?>) stmtsCacheField.get(c);
                 return stmtsCacheObj == null ? -1 : stmtsCacheObj.size();
             } catch (IllegalArgumentException | IllegalAccessException e) {
                 fail("Fail getting the statemets cache size.");
@@ -3841,7 +3957,7 @@ public class StatementsTest extends BaseTestCase {
         Function<Connection, ServerPreparedStatement> getStmtsCacheSingleElem = (c) -> {
             try {
                 @SuppressWarnings("unchecked")
-                LRUCache<?, ServerPreparedStatement> stmtsCacheObj = (LRUCache<?, ServerPreparedStatement>) stmtsCacheField.get(c);
+                ConcurrentLRUCache<?, ServerPreparedStatement> stmtsCacheObj = (ConcurrentLRUCache<?, ServerPreparedStatement>) stmtsCacheField.get(c);
                 return stmtsCacheObj.get(stmtsCacheObj.keySet().iterator().next());
             } catch (IllegalArgumentException | IllegalAccessException e) {
                 fail("Fail getting the statemets cache element.");
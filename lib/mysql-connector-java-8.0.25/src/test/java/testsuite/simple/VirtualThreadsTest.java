@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License, version 2.0, as published by the
+ * Free Software Foundation.
+ *
+ * This program is also distributed with certain software (including but not
+ * limited to OpenSSL) that is licensed under separate terms, as designated in a
+ * particular file or component or in included license documentation. The
+ * authors of MySQL hereby grant you an additional permission to link the
+ * program and your derivative works with the separately licensed software that
+ * they have included with MySQL.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is
+ * part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at
+ * http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0,
+ * for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301  USA
+ */
+
+package testsuite.simple;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.PooledConnection;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.MysqlConnectionPoolDataSource;
+
+import testsuite.BaseTestCase;
+
+/**
+ * Stress tests running the driver from virtual threads.
+ * 
+ * Virtual threads are created through reflection so that the testsuite still builds on Java 8; the tests are skipped on JVMs without them. Run with
+ * {@code -Djdk.tracePinnedThreads=short} (set by build.xml) so that the JVM reports any virtual thread blocking while pinned to its carrier, which is what
+ * happens when network I/O is done inside a {@code synchronized} block. The report goes to {@code System.out}, which these tests capture and check.
+ */
+public class VirtualThreadsTest extends BaseTestCase {
+    private static final int THREADS = 10000;
+    private static final int POOL_SIZE = 16;
+
+    /**
+     * Runs 10k virtual threads against a small pool of physical connections, each thread borrowing a connection and running server and client prepared
+     * statements and a streaming query. No virtual thread may be reported as pinned.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testPooledConnectionsNoPinning() throws Exception {
+        assumePinningTraced();
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        assumeTrue(executor != null, "Virtual threads are not supported by this JVM.");
+
+        createTable("testVirtualThreads", "(id INT PRIMARY KEY, val VARCHAR(32))");
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            values.append(i == 0 ? "" : ",").append("(").append(i).append(", 'row ").append(i).append("')");
+        }
+        this.stmt.executeUpdate("INSERT INTO testVirtualThreads VALUES " + values);
+
+        // One pool using client-side and one using server-side prepared statements
+        List<BlockingQueue<PooledConnection>> pools = new ArrayList<>();
+        for (boolean serverPrepare : new boolean[] { false, true }) {
+            MysqlConnectionPoolDataSource ds = new MysqlConnectionPoolDataSource();
+            ds.setUrl(dbUrl);
+            ds.getProperty(PropertyKey.useSSL).setValue(false);
+            ds.getProperty(PropertyKey.allowPublicKeyRetrieval).setValue(true);
+            ds.getProperty(PropertyKey.cachePrepStmts).setValue(true);
+            ds.getProperty(PropertyKey.useServerPrepStmts).setValue(serverPrepare);
+            BlockingQueue<PooledConnection> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+            for (int i = 0; i < POOL_SIZE; i++) {
+                pool.add(ds.getPooledConnection());
+            }
+            pools.add(pool);
+        }
+
+        String pinned;
+        try {
+            pinned = capturePinningReport(() -> {
+                List<Future<Integer>> results = new ArrayList<>(THREADS);
+                for (int i = 0; i < THREADS; i++) {
+                    final int id = i % 100;
+                    final BlockingQueue<PooledConnection> pool = pools.get(i % 2);
+                    results.add(executor.submit(() -> {
+                        PooledConnection pc = pool.take();
+                        try (Connection c = pc.getConnection()) {
+                            try (PreparedStatement ps = c.prepareStatement("SELECT val, SLEEP(0.001) FROM testVirtualThreads WHERE id = ?")) {
+                                ps.setInt(1, id);
+                                try (ResultSet r = ps.executeQuery()) {
+                                    assertTrue(r.next());
+                                    assertEquals("row " + id, r.getString(1));
+                                }
+                            }
+                            try (Statement s = c.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                                s.setFetchSize(Integer.MIN_VALUE);
+                                int rows = 0;
+                                try (ResultSet r = s.executeQuery("SELECT id FROM testVirtualThreads")) {
+                                    while (r.next()) {
+                                        rows++;
+                                    }
+                                }
+                                return rows;
+                            }
+                        } finally {
+                            pool.add(pc);
+                        }
+                    }));
+                }
+                for (Future<Integer> f : results) {
+                    assertEquals(100, f.get().intValue());
+                }
+            });
+        } finally {
+            shutdown(executor);
+            for (BlockingQueue<PooledConnection> pool : pools) {
+                for (PooledConnection pc : pool) {
+                    pc.close();
+                }
+            }
+        }
+        assertFalse(pinned.contains("<=="), "Pinned virtual threads reported:\n" + pinned);
+    }
+
+    /**
+     * Runs virtual threads concurrently on one shared connection, so that they queue for the connection lock while its holder waits for the server.
+     * 
+     * @throws Exception
+     */
+    @Test
+    public void testSharedConnectionNoPinning() throws Exception {
+        assumePinningTraced();
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        assumeTrue(executor != null, "Virtual threads are not supported by this JVM.");
+
+        Connection shared = getConnectionWithProps("useServerPrepStmts=true");
+        String pinned;
+        try {
+            pinned = capturePinningReport(() -> {
+                List<Future<Integer>> results = new ArrayList<>();
+                for (int i = 0; i < 1000; i++) {
+                    final int n = i;
+                    results.add(executor.submit(() -> {
+                        try (PreparedStatement ps = shared.prepareStatement("SELECT ?, SLEEP(0.001)")) {
+                            ps.setInt(1, n);
+                            try (ResultSet r = ps.executeQuery()) {
+                                assertTrue(r.next());
+                                return r.getInt(1);
+                            }
+                        }
+                    }));
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    assertEquals(i, results.get(i).get().intValue());
+                }
+            });
+        } finally {
+            shutdown(executor);
+            shared.close();
+        }
+        assertFalse(pinned.contains("<=="), "Pinned virtual threads reported:\n" + pinned);
+    }
+
+    private interface Task {
+        void run() throws Exception;
+    }
+
+    /**
+     * Skips the test unless the JVM reports pinned virtual threads, which is what these tests check; runners other than build.xml must set
+     * {@code -Djdk.tracePinnedThreads=short} themselves.
+     */
+    private static void assumePinningTraced() {
+        assumeTrue(System.getProperty("jdk.tracePinnedThreads") != null, "jdk.tracePinnedThreads is not set, pinning can't be checked.");
+    }
+
+    /**
+     * Runs the task while copying {@code System.out} aside, where the JVM prints its pinned thread traces.
+     * 
+     * @param task
+     *            the task to run
+     * @return the captured output
+     * @throws Exception
+     */
+    private static String capturePinningReport(Task task) throws Exception {
+        PrintStream out = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                out.write(b);
+                captured.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                out.write(b, off, len);
+                captured.write(b, off, len);
+            }
+        }, true));
+        try {
+            task.run();
+        } finally {
+            System.setOut(out);
+        }
+        return captured.toString();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static void shutdown(ExecutorService executor) throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+}
@@ -269,7 +269,7 @@ public class CompressionTest extends DevApiBaseTestCase {
         }
 
         String[] algorithms = new String[] { "", "zstd_stream", "lz4_message", "deflate_stream" };
-        boolean[] expected = new boolean[] { false, false, false, true }; // Only "deflate_stream" is supported by default.
+        boolean[] expected = new boolean[] { false, false, true, true }; // Only "lz4_message" and "deflate_stream" are supported by default.
 
         for (int i = 0; i < algorithms.length; i++) {
             String testCase = "[Algorithm: " + algorithms[i] + "]";
@@ -317,7 +317,7 @@ public class CompressionTest extends DevApiBaseTestCase {
 
     /**
      * Tests compression negotiation with customized compression algorithms selections.
-     * "deflate_stream" is always selected as only "deflate_stream" is natively supported.
+     * The first of "lz4_message" and "deflate_stream" is always selected as only these are natively supported.
      */
     @Test
     public void compressionNegotiationClientSideSelectionNativelySupported() {
@@ -326,14 +326,15 @@ public class CompressionTest extends DevApiBaseTestCase {
         }
 
         /*
-         * Default negotiation is always "deflate_stream" as only "deflate_stream" is supported by default.
+         * Default negotiation is always "lz4_message" or "deflate_stream" as only these are supported by default.
          */
         String[] algorithmsOpts = new String[] { "zstd_stream,lz4_message,deflate_stream", "zstd_stream,deflate_stream,lz4_message",
                 "deflate_stream,zstd_stream,lz4_message" };
-        for (String algorithms : algorithmsOpts) {
-            Session testSession = this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionAlgorithms, algorithms));
+        String[] expected = new String[] { "lz4_message", "deflate_stream", "deflate_stream" };
+        for (int i = 0; i < algorithmsOpts.length; i++) {
+            Session testSession = this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionAlgorithms, algorithmsOpts[i]));
 
-            assertEquals("deflate_stream", compressionAlgorithmAgreed(testSession));
+            assertEquals(expected[i], compressionAlgorithmAgreed(testSession));
             testSession.close();
         }
 
@@ -656,22 +657,22 @@ public class CompressionTest extends DevApiBaseTestCase {
                         + makeParam(PropertyKey.xdevapiCompressionExtensions, "test,anInputStream,anOutputStream")));
 
         assertThrows(WrongArgumentException.class, "Error loading the class anInputStream\\.", () -> this.fact
-                .getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionExtensions, "deflate_stream:anInputStream:anOutputStream")));
+                .getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionExtensions, "lz4_message:anInputStream:anOutputStream")));
         assertThrows(WrongArgumentException.class, "Error loading the class anInputStream\\.",
                 () -> this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompression, Compression.PREFERRED)
-                        + makeParam(PropertyKey.xdevapiCompressionExtensions, "deflate_stream:anInputStream:anOutputStream")));
+                        + makeParam(PropertyKey.xdevapiCompressionExtensions, "lz4_message:anInputStream:anOutputStream")));
         assertThrows(WrongArgumentException.class, "Error loading the class anInputStream\\.",
                 () -> this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompression, Compression.REQUIRED)
-                        + makeParam(PropertyKey.xdevapiCompressionExtensions, "deflate_stream:anInputStream:anOutputStream")));
+                        + makeParam(PropertyKey.xdevapiCompressionExtensions, "lz4_message:anInputStream:anOutputStream")));
 
         assertThrows(WrongArgumentException.class, "Error loading the class anOutputStream\\.", () -> this.fact.getSession(
-                this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionExtensions, "deflate_stream:java.io.InputStream:anOutputStream")));
+                this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionExtensions, "lz4_message:java.io.InputStream:anOutputStream")));
         assertThrows(WrongArgumentException.class, "Error loading the class anOutputStream\\.",
                 () -> this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompression, Compression.PREFERRED)
-                        + makeParam(PropertyKey.xdevapiCompressionExtensions, "deflate_stream:java.io.InputStream:anOutputStream")));
+                        + makeParam(PropertyKey.xdevapiCompressionExtensions, "lz4_message:java.io.InputStream:anOutputStream")));
         assertThrows(WrongArgumentException.class, "Error loading the class anOutputStream\\.",
                 () -> this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompression, Compression.REQUIRED)
-                        + makeParam(PropertyKey.xdevapiCompressionExtensions, "deflate_stream:java.io.InputStream:anOutputStream")));
+                        + makeParam(PropertyKey.xdevapiCompressionExtensions, "lz4_message:java.io.InputStream:anOutputStream")));
 
         assertThrows(WrongArgumentException.class,
                 "Incorrect compression algorithm designation 'test'. The compression algorithm must be identified by \"name_mode\"\\.",
@@ -711,8 +712,9 @@ public class CompressionTest extends DevApiBaseTestCase {
         TestInflaterInputStream.instantiatedAtLeastOnce = false;
         TestSyncFlushDeflaterOutputStream.instantiatedAtLeastOnce = false;
         Session testSession = this.fact.getSession(
-                this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompression, Compression.REQUIRED) + makeParam(PropertyKey.xdevapiCompressionExtensions,
-                        "deflate_stream:" + TestInflaterInputStream.class.getName() + ":" + TestSyncFlushDeflaterOutputStream.class.getName()));
+                this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompression, Compression.REQUIRED)
+                        + makeParam(PropertyKey.xdevapiCompressionAlgorithms, "deflate_stream") + makeParam(PropertyKey.xdevapiCompressionExtensions,
+                                "deflate_stream:" + TestInflaterInputStream.class.getName() + ":" + TestSyncFlushDeflaterOutputStream.class.getName()));
 
         Collection col = testSession.getDefaultSchema().getCollection("validCompressionAlgorithmOption");
 
@@ -750,19 +752,19 @@ public class CompressionTest extends DevApiBaseTestCase {
             return;
         }
 
-        Session testSession = this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionAlgorithms, "zstd,lz4,deflate")
+        Session testSession = this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionAlgorithms, "zstd,deflate,lz4")
                 + makeParam(PropertyKey.xdevapiCompressionExtensions,
                         "deflate:" + TestInflaterInputStream.class.getName() + ":" + TestSyncFlushDeflaterOutputStream.class.getName()));
         assertEquals("deflate_stream", compressionAlgorithmAgreed(testSession));
         testSession.close();
 
-        testSession = this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionAlgorithms, "ZSTD,LZ4,DEFLATE")
+        testSession = this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionAlgorithms, "ZSTD,DEFLATE,LZ4")
                 + makeParam(PropertyKey.xdevapiCompressionExtensions,
                         "deflate:" + TestInflaterInputStream.class.getName() + ":" + TestSyncFlushDeflaterOutputStream.class.getName()));
         assertEquals("deflate_stream", compressionAlgorithmAgreed(testSession));
         testSession.close();
 
-        testSession = this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionAlgorithms, "zstd,lz4,deflate")
+        testSession = this.fact.getSession(this.compressFreeBaseUrl + makeParam(PropertyKey.xdevapiCompressionAlgorithms, "zstd,deflate,lz4")
                 + makeParam(PropertyKey.xdevapiCompressionExtensions,
                         "DEFLATE:" + TestInflaterInputStream.class.getName() + ":" + TestSyncFlushDeflaterOutputStream.class.getName()));
         assertEquals("deflate_stream", compressionAlgorithmAgreed(testSession));
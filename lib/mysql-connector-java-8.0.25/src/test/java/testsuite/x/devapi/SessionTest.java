@@ -1148,6 +1148,66 @@ public class SessionTest extends DevApiBaseTestCase {
         }
     }
 
+    /**
+     * Tests pool pre-warming to pooling.minSize, borrowers parked on a full pool and the borrow latency percentiles.
+     * 
+     * @throws Exception
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPooledSessionsMaintenance() throws Exception {
+        if (!this.isSetForXTests) {
+            return;
+        }
+
+        Field fIdleSessions = ClientImpl.class.getDeclaredField("idleProtocols");
+        fIdleSessions.setAccessible(true);
+
+        Properties props = new Properties();
+        props.setProperty(ClientProperty.POOLING_MAX_SIZE.getKeyName(), "3");
+        props.setProperty(ClientProperty.POOLING_MIN_SIZE.getKeyName(), "2");
+        props.setProperty(ClientProperty.POOLING_QUEUE_TIMEOUT.getKeyName(), "20000");
+        ClientImpl cli = (ClientImpl) new ClientFactory().getClient(this.baseUrl, props);
+        try {
+            BlockingQueue<PooledXProtocol> idle = (BlockingQueue<PooledXProtocol>) fIdleSessions.get(cli);
+            long deadline = System.currentTimeMillis() + 10000;
+            while (idle.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+            assertEquals(2, idle.size());
+
+            List<Session> sessions = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                sessions.add(cli.getSession());
+            }
+            assertEquals(0, idle.size());
+
+            // borrowers parked on the full pool get the sessions in the order they are released
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<Session> f1 = executor.submit(cli::getSession);
+                Future<Session> f2 = executor.submit(cli::getSession);
+                Thread.sleep(500);
+                assertFalse(f1.isDone());
+                assertFalse(f2.isDone());
+                sessions.remove(0).close();
+                sessions.remove(0).close();
+                sessions.add(f1.get(10, TimeUnit.SECONDS));
+                sessions.add(f2.get(10, TimeUnit.SECONDS));
+                for (Session sess : sessions) {
+                    sess.sql("SELECT 1").execute();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertTrue(cli.getBorrowLatencyPercentile(50) > 0);
+            assertTrue(cli.getBorrowLatencyPercentile(99) >= TimeUnit.MILLISECONDS.toNanos(500));
+        } finally {
+            cli.close();
+        }
+    }
+
     @Test
     public void testBug28606708() throws Exception {
         if (!this.isSetForXTests || !isServerRunningOnWindows()) {
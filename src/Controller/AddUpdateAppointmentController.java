@@ -2,7 +2,6 @@ package Controller;
 
 import DAO.AppointmentDAO;
 import DAO.ContactDAO;
-import DAO.CustomerDAO;
 import DAO.UserDAO;
 import Model.Appointment;
 import Model.Customer;
@@ -65,6 +64,8 @@ public class AddUpdateAppointmentController implements Initializable {
 
     /** The appointment being edited (null when adding a new appointment). */
     private Appointment currentAppointment;
+    /** Type-ahead search driving {@link #customerCombo}. */
+    private CustomerPicker customerPicker;
 
     /**
      * Initializes the form, populates ComboBoxes, and sets up time selection.
@@ -81,13 +82,13 @@ public class AddUpdateAppointmentController implements Initializable {
     public void initialize(URL url, ResourceBundle rb) {
         appointmentIdField.setDisable(true);
         try {
-            // Populate contacts, customers, and users
+            // Populate contacts and users; customers are searched as the user types
             contactCombo.setItems(FXCollections.observableArrayList(ContactDAO.getAllContactNames()));
-            customerCombo.setItems(CustomerDAO.getAllCustomers());
             userCombo.setItems(UserDAO.getAllUsers());
         } catch (SQLException e) {
             messageLabel.setText("Error loading data: " + e.getMessage());
         }
+        customerPicker = new CustomerPicker(customerCombo, messageLabel::setText);
         // Populate time ComboBoxes (15-min intervals, lambda used for clarity and efficiency)
         ObservableList<LocalTime> times = IntStream.range(0, 24)
                 .boxed()
@@ -116,9 +117,7 @@ public class AddUpdateAppointmentController implements Initializable {
         endDatePicker.setValue(appt.getEnd().toLocalDate());
         endTimeCombo.setValue(appt.getEnd().toLocalTime());
         // Select customer and user in ComboBoxes by ID
-        customerCombo.getSelectionModel().select(
-                customerCombo.getItems().stream().filter(c -> c.getId() == appt.getCustomerId()).findFirst().orElse(null)
-        );
+        customerPicker.select(appt.getCustomerId());
         userCombo.getSelectionModel().select(
                 userCombo.getItems().stream().filter(u -> u.getId() == appt.getUserId()).findFirst().orElse(null)
         );
@@ -147,7 +146,7 @@ public class AddUpdateAppointmentController implements Initializable {
         LocalDate endDate = endDatePicker.getValue();
         LocalTime startTime = startTimeCombo.getValue();
         LocalTime endTime = endTimeCombo.getValue();
-        Customer customer = customerCombo.getValue();
+        Customer customer = customerPicker.getValue();
         User user = userCombo.getValue();
 
         // Input validation
@@ -1,7 +1,9 @@
 package Controller;
 
 import DAO.AppointmentDAO;
+import DAO.OfflineStore;
 import Model.Appointment;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
@@ -22,6 +24,7 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.ResourceBundle;
 
 /**
@@ -114,6 +117,8 @@ public class AppointmentOverviewController implements Initializable {
     public void initialize(URL location, ResourceBundle resources) {
         this.resources = resources;
         loadAndShowAppointments();
+        // The first load may come from the startup snapshot; reload once it has been refreshed
+        OfflineStore.addRefreshListener(() -> Platform.runLater(this::loadAndShowAppointments));
     }
 
     /**
@@ -187,6 +192,14 @@ public class AppointmentOverviewController implements Initializable {
             );
             monthlyTable.setItems(monthly);
 
+            // Report offline edits the server refused when they were replayed
+            List<String> conflicts = OfflineStore.drainConflicts();
+            if (!conflicts.isEmpty()) {
+                new Alert(Alert.AlertType.WARNING,
+                        "Some changes made while offline were not applied:\n" + String.join("\n", conflicts))
+                        .showAndWait();
+            }
+
         } catch (SQLException ex) {
             new Alert(Alert.AlertType.ERROR,
                     "Could not load appointments:\n" + ex.getMessage())
@@ -0,0 +1,152 @@
+package Controller;
+
+import DAO.CustomerDAO;
+import DAO.CustomerPrefixIndex;
+import DAO.DBConnection;
+import Model.Customer;
+import javafx.concurrent.Task;
+import javafx.scene.control.ComboBox;
+import javafx.util.StringConverter;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Turns a {@code ComboBox<Customer>} into a type-ahead picker.
+ * <p>
+ * Instead of loading every customer into the drop-down, the picker builds a
+ * {@link CustomerPrefixIndex} on a background thread and, as the user types, shows at most
+ * {@link #MAX_RESULTS} matches by name word or ID. The drop-down's ListView only renders
+ * the visible cells, so opening it stays fast even with 100k+ customers.
+ * </p>
+ */
+public class CustomerPicker {
+    /** Maximum number of suggestions shown at once. */
+    private static final int MAX_RESULTS = 50;
+
+    /** The ComboBox being driven. */
+    private final ComboBox<Customer> combo;
+    /** Index of all customers (null until the background build finishes). */
+    private CustomerPrefixIndex index;
+    /** Customer ID to select once the index is ready (0 if none). */
+    private int pendingId = 0;
+    /** Suppresses searching while the picker itself changes the editor text. */
+    private boolean updating = false;
+
+    /**
+     * Attaches the picker to a ComboBox and starts building the index.
+     *
+     * @param combo the customer ComboBox from the form
+     * @param onError called on the JavaFX thread with a message if customers cannot be loaded
+     */
+    public CustomerPicker(ComboBox<Customer> combo, Consumer<String> onError) {
+        this.combo = combo;
+        combo.setEditable(true);
+        combo.setPromptText("Type a name or ID...");
+        combo.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Customer c) {
+                return c == null ? "" : c.getName() + " (#" + c.getId() + ")";
+            }
+
+            @Override
+            public Customer fromString(String text) {
+                return resolve(text);
+            }
+        });
+        combo.getEditor().textProperty().addListener((obs, oldText, text) -> suggest(text));
+
+        Task<CustomerPrefixIndex> build = new Task<>() {
+            @Override
+            protected CustomerPrefixIndex call() throws Exception {
+                // Off the FX thread: load on a connection of its own, not the UI's singleton
+                return DBConnection.withOwnConnection(() -> new CustomerPrefixIndex(CustomerDAO.getAllCustomers()));
+            }
+        };
+        build.setOnSucceeded(e -> {
+            index = build.getValue();
+            if (pendingId != 0) {
+                select(pendingId);
+            }
+        });
+        build.setOnFailed(e -> onError.accept("Error loading customers: " + build.getException().getMessage()));
+        Thread t = new Thread(build, "customer-index");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Selects the customer with the given ID (immediately, or once the index is built).
+     *
+     * @param customerId the Customer_ID to select
+     */
+    public void select(int customerId) {
+        if (index == null) {
+            pendingId = customerId;
+            return;
+        }
+        pendingId = 0;
+        Customer c = index.get(customerId);
+        updating = true;
+        try {
+            if (c != null) {
+                combo.getItems().setAll(c);
+            }
+            combo.setValue(c);
+        } finally {
+            updating = false;
+        }
+    }
+
+    /**
+     * Returns the chosen customer, resolving typed text that was not committed yet.
+     *
+     * @return the selected customer, or null if the text matches none
+     */
+    public Customer getValue() {
+        Customer value = combo.getValue();
+        String text = combo.getEditor().getText();
+        if (value != null && combo.getConverter().toString(value).equals(text)) {
+            return value;
+        }
+        return resolve(text);
+    }
+
+    /** Refreshes the suggestions for the current editor text. */
+    private void suggest(String text) {
+        if (updating || index == null || text == null) {
+            return;
+        }
+        Customer value = combo.getValue();
+        if (value != null && combo.getConverter().toString(value).equals(text)) {
+            return; // text was set from the selection, not typed
+        }
+        List<Customer> matches = index.search(text, MAX_RESULTS);
+        updating = true;
+        try {
+            combo.getItems().setAll(matches);
+        } finally {
+            updating = false;
+        }
+        if (!matches.isEmpty() && !combo.isShowing() && combo.getEditor().isFocused()) {
+            combo.show();
+        }
+    }
+
+    /** Maps editor text back to a customer: "Name (#id)" by ID, otherwise the single best match. */
+    private Customer resolve(String text) {
+        if (index == null || text == null || text.isBlank()) {
+            return null;
+        }
+        int hash = text.lastIndexOf("(#");
+        if (hash >= 0 && text.endsWith(")")) {
+            try {
+                return index.get(Integer.parseInt(text.substring(hash + 2, text.length() - 1)));
+            } catch (NumberFormatException ignored) {
+                // fall through to a prefix search
+            }
+        }
+        List<Customer> matches = index.search(text, 2);
+        return matches.size() == 1 ? matches.get(0) : null;
+    }
+}
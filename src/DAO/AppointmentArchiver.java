@@ -0,0 +1,134 @@
+package DAO;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished appointments out of the hot {@code appointments} table.
+ * <p>
+ * Appointments that ended more than {@link #HORIZON_DAYS} days ago are copied to
+ * {@code appointments_archive} and deleted from {@code appointments} in small batches,
+ * each in its own short transaction on a dedicated connection, with a pause between
+ * batches so the archiver never holds locks for long. Before a batch is deleted its
+ * counts are added to {@code appointment_summary} (per type, month and customer), which
+ * the reports read so historical totals stay complete. Both tables are created by the
+ * {@link SchemaMigrator} scripts.
+ * </p>
+ * The horizon defaults to 365 days and can be changed with the system property
+ * {@code chronomate.archive.days}.
+ */
+public class AppointmentArchiver {
+    /** Logger for archival problems (never fatal). */
+    private static final Logger LOGGER = Logger.getLogger(AppointmentArchiver.class.getName());
+    /** Appointments that ended more than this many days ago are archived. */
+    static final int HORIZON_DAYS = Integer.getInteger("chronomate.archive.days", 365);
+    /** Appointments moved per transaction. */
+    private static final int BATCH_SIZE = 500;
+    /** Pause (ms) between batches. */
+    private static final long PAUSE_MS = 250;
+
+    /**
+     * Starts a daemon thread that archives everything past the horizon once.
+     * Failures (including being offline) are logged and retried on the next start.
+     */
+    public static void archiveInBackground() {
+        Thread t = new Thread(() -> {
+            try {
+                int moved = archive(LocalDateTime.now(ZoneOffset.UTC).minusDays(HORIZON_DAYS));
+                if (moved > 0) {
+                    LOGGER.info("Archived " + moved + " appointments");
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Appointment archival failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "appointment-archiver");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Archives all appointments that ended before the cutoff.
+     *
+     * @param cutoffUtc appointments ending before this UTC time are moved
+     * @return the number of appointments moved
+     */
+    public static int archive(LocalDateTime cutoffUtc) throws SQLException, InterruptedException {
+        SchemaMigrator.ensureMigrated();
+        int total = 0;
+        try (Connection conn = DBConnection.openConnection()) {
+            conn.setAutoCommit(false);
+            int moved;
+            do {
+                moved = archiveBatch(conn, Timestamp.valueOf(cutoffUtc));
+                total += moved;
+                if (moved == BATCH_SIZE) {
+                    Thread.sleep(PAUSE_MS);
+                }
+            } while (moved == BATCH_SIZE);
+        }
+        return total;
+    }
+
+    /**
+     * Moves one batch in a single transaction.
+     *
+     * @return the number of appointments moved
+     */
+    private static int archiveBatch(Connection conn, Timestamp cutoff) throws SQLException {
+        try {
+            List<Integer> ids = new ArrayList<>(BATCH_SIZE);
+            String select = """
+                SELECT Appointment_ID FROM appointments
+                 WHERE End < ?
+                 ORDER BY Appointment_ID
+                 LIMIT ?
+                 FOR UPDATE
+            """;
+            try (PreparedStatement ps = conn.prepareStatement(select)) {
+                ps.setTimestamp(1, cutoff);
+                ps.setInt(2, BATCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+            }
+            if (ids.isEmpty()) {
+                conn.commit();
+                return 0;
+            }
+            String in = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("INSERT INTO appointments_archive SELECT * FROM appointments"
+                        + " WHERE Appointment_ID IN (" + in + ")");
+                st.executeUpdate("""
+                    INSERT INTO appointment_summary (Type, Month_Start, Customer_ID, Appointments)
+                    SELECT Type, DATE_FORMAT(Start, '%%Y-%%m-01'), Customer_ID, COUNT(*)
+                      FROM appointments
+                     WHERE Appointment_ID IN (%s)
+                     GROUP BY Type, DATE_FORMAT(Start, '%%Y-%%m-01'), Customer_ID
+                    ON DUPLICATE KEY UPDATE Appointments = Appointments + VALUES(Appointments)
+                """.formatted(in));
+                st.executeUpdate("DELETE FROM appointments WHERE Appointment_ID IN (" + in + ")");
+            }
+            conn.commit();
+            return ids.size();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+}
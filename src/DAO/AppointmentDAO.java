@@ -11,98 +11,352 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Data Access Object for Appointment CRUD and reporting queries.
  * Handles saving, updating, deleting, and fetching appointment data (with contact join).
  */
 public class AppointmentDAO {
+    /** Appointments of one customer; {@code %s} is the table expression from {@link #source}. */
+    static final String BY_CUSTOMER_SQL = """
+            SELECT a.*, c.Contact_Name
+            FROM %s a
+            JOIN contacts c ON a.Contact_ID = c.Contact_ID
+            WHERE a.Customer_ID = ?
+        """;
+    /** Appointments of one user; {@code %s} is the table expression from {@link #source}. */
+    static final String BY_USER_SQL = """
+            SELECT a.*, c.Contact_Name
+            FROM %s a
+            JOIN contacts c ON a.Contact_ID = c.Contact_ID
+            WHERE a.User_ID = ?
+        """;
+    /** Appointments changed after a server time. */
+    static final String CHANGED_SINCE_SQL = """
+            SELECT a.*, c.Contact_Name
+            FROM appointments a
+            JOIN contacts c ON a.Contact_ID = c.Contact_ID
+            WHERE a.Last_Update > ?
+        """;
 
     /**
      * Inserts a new appointment into the database.
      * On success, sets the generated Appointment_ID on the passed-in model.
+     * If the database is unreachable, the insert is journaled by {@link OfflineStore}
+     * and the model receives a temporary (negative) ID until it is replayed.
      */
     public static void addAppointment(Appointment appt) throws SQLException {
+        try {
+            insertAppointment(appt);
+            OfflineStore.rememberAppointment(appt);
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            OfflineStore.addAppointment(appt, e);
+        }
+    }
+
+    /**
+     * Inserts a new appointment directly (no offline fallback).
+     * On success, sets the generated Appointment_ID on the passed-in model.
+     * The row and its history entry are committed together.
+     */
+    static void insertAppointment(Appointment appt) throws SQLException {
+        String sql = """
+            INSERT INTO appointments
+            (Title, Description, Location, Type, Start, End, Customer_ID, User_ID, Contact_ID, Last_Update)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, UTC_TIMESTAMP())
+        """;
+        inTransaction(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, appt.getTitle());
+                ps.setString(2, appt.getDescription());
+                ps.setString(3, appt.getLocation());
+                ps.setString(4, appt.getType());
+                // Convert start/end to UTC for storage
+                ZonedDateTime zStart = appt.getStart().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
+                ZonedDateTime zEnd = appt.getEnd().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
+                ps.setTimestamp(5, Timestamp.valueOf(zStart.toLocalDateTime()));
+                ps.setTimestamp(6, Timestamp.valueOf(zEnd.toLocalDateTime()));
+                ps.setInt(7, appt.getCustomerId());
+                ps.setInt(8, appt.getUserId());
+                ps.setInt(9, appt.getContactId());
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        appt.setId(rs.getInt(1));
+                    }
+                }
+            }
+            AppointmentHistory.recordInserts(conn, List.of(appt));
+        });
+        DBConnection.noteWrite();
+    }
+
+    /**
+     * Inserts several appointments as one batch in a single transaction: either all are
+     * saved (and receive their generated IDs) or none are. Requires the database; batches
+     * are not journaled offline.
+     *
+     * @param appts the appointments to insert
+     */
+    public static void addAppointments(List<Appointment> appts) throws SQLException {
+        inTransaction(conn -> {
+            insertAppointments(conn, appts);
+        });
+        DBConnection.noteWrite();
+        for (Appointment appt : appts) {
+            OfflineStore.rememberAppointment(appt);
+        }
+    }
+
+    /**
+     * Inserts several appointments and their history rows as one batch on a connection
+     * inside the caller's transaction, setting their generated IDs. The caller commits,
+     * then calls {@link DBConnection#noteWrite()} and updates the {@link OfflineStore}.
+     *
+     * @param conn  the connection of the open transaction
+     * @param appts the appointments to insert
+     */
+    static void insertAppointments(Connection conn, List<Appointment> appts) throws SQLException {
         String sql = """
             INSERT INTO appointments
-            (Title, Description, Location, Type, Start, End, Customer_ID, User_ID, Contact_ID)
-            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            (Title, Description, Location, Type, Start, End, Customer_ID, User_ID, Contact_ID, Last_Update)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, UTC_TIMESTAMP())
         """;
-        try (PreparedStatement ps = DBConnection.getConnection()
-                .prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, appt.getTitle());
-            ps.setString(2, appt.getDescription());
-            ps.setString(3, appt.getLocation());
-            ps.setString(4, appt.getType());
-            // Convert start/end to UTC for storage
-            ZonedDateTime zStart = appt.getStart().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
-            ZonedDateTime zEnd = appt.getEnd().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
-            ps.setTimestamp(5, Timestamp.valueOf(zStart.toLocalDateTime()));
-            ps.setTimestamp(6, Timestamp.valueOf(zEnd.toLocalDateTime()));
-            ps.setInt(7, appt.getCustomerId());
-            ps.setInt(8, appt.getUserId());
-            ps.setInt(9, appt.getContactId());
-            ps.executeUpdate();
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Appointment appt : appts) {
+                ps.setString(1, appt.getTitle());
+                ps.setString(2, appt.getDescription());
+                ps.setString(3, appt.getLocation());
+                ps.setString(4, appt.getType());
+                ZonedDateTime zStart = appt.getStart().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
+                ZonedDateTime zEnd = appt.getEnd().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
+                ps.setTimestamp(5, Timestamp.valueOf(zStart.toLocalDateTime()));
+                ps.setTimestamp(6, Timestamp.valueOf(zEnd.toLocalDateTime()));
+                ps.setInt(7, appt.getCustomerId());
+                ps.setInt(8, appt.getUserId());
+                ps.setInt(9, appt.getContactId());
+                ps.addBatch();
+            }
+            ps.executeBatch();
             try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    appt.setId(rs.getInt(1));
+                for (Appointment appt : appts) {
+                    if (rs.next()) {
+                        appt.setId(rs.getInt(1));
+                    }
                 }
             }
         }
+        AppointmentHistory.recordInserts(conn, appts);
     }
 
     /**
      * Updates an existing appointment's fields (all except its ID).
+     * Journaled by {@link OfflineStore} if the database is unreachable.
      */
     public static void updateAppointment(Appointment appt) throws SQLException {
+        try {
+            writeAppointmentUpdate(appt);
+            OfflineStore.rememberAppointment(appt);
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            OfflineStore.updateAppointment(appt, e);
+        }
+    }
+
+    /**
+     * Updates an existing appointment directly (no offline fallback).
+     * The row and its history entry are committed together.
+     */
+    static void writeAppointmentUpdate(Appointment appt) throws SQLException {
         String sql = """
             UPDATE appointments
                SET Title=?, Description=?, Location=?, Type=?,
-                   Start=?, End=?, Customer_ID=?, User_ID=?, Contact_ID=?
+                   Start=?, End=?, Customer_ID=?, User_ID=?, Contact_ID=?,
+                   Last_Update=UTC_TIMESTAMP()
              WHERE Appointment_ID=?
         """;
-        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql)) {
-            ps.setString(1, appt.getTitle());
-            ps.setString(2, appt.getDescription());
-            ps.setString(3, appt.getLocation());
-            ps.setString(4, appt.getType());
-            ZonedDateTime zStart = appt.getStart().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
-            ZonedDateTime zEnd = appt.getEnd().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
-            ps.setTimestamp(5, Timestamp.valueOf(zStart.toLocalDateTime()));
-            ps.setTimestamp(6, Timestamp.valueOf(zEnd.toLocalDateTime()));
-            ps.setInt(7, appt.getCustomerId());
-            ps.setInt(8, appt.getUserId());
-            ps.setInt(9, appt.getContactId());
-            ps.setInt(10, appt.getId());
-            ps.executeUpdate();
-        }
+        inTransaction(conn -> {
+            // Lock the row so the before image matches what this update replaces
+            Appointment before = fetchAppointmentById(appt.getId(), true);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, appt.getTitle());
+                ps.setString(2, appt.getDescription());
+                ps.setString(3, appt.getLocation());
+                ps.setString(4, appt.getType());
+                ZonedDateTime zStart = appt.getStart().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
+                ZonedDateTime zEnd = appt.getEnd().atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC"));
+                ps.setTimestamp(5, Timestamp.valueOf(zStart.toLocalDateTime()));
+                ps.setTimestamp(6, Timestamp.valueOf(zEnd.toLocalDateTime()));
+                ps.setInt(7, appt.getCustomerId());
+                ps.setInt(8, appt.getUserId());
+                ps.setInt(9, appt.getContactId());
+                ps.setInt(10, appt.getId());
+                if (ps.executeUpdate() > 0) {
+                    AppointmentHistory.recordUpdate(conn, before, appt);
+                }
+            }
+        });
+        DBConnection.noteWrite();
     }
 
     /**
      * Deletes the appointment with the given ID.
+     * Journaled by {@link OfflineStore} if the database is unreachable.
      */
     public static void deleteAppointment(int apptId) throws SQLException {
+        try {
+            removeAppointment(apptId);
+            OfflineStore.forgetAppointment(apptId);
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            OfflineStore.deleteAppointment(apptId, e);
+        }
+    }
+
+    /**
+     * Deletes the appointment with the given ID directly (no offline fallback).
+     * The delete and its history marker are committed together.
+     */
+    static void removeAppointment(int apptId) throws SQLException {
         String sql = "DELETE FROM appointments WHERE Appointment_ID = ?";
-        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql)) {
-            ps.setInt(1, apptId);
-            ps.executeUpdate();
+        inTransaction(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, apptId);
+                if (ps.executeUpdate() > 0) {
+                    AppointmentHistory.recordDeletes(conn, List.of(apptId));
+                }
+            }
+        });
+        DBConnection.noteWrite();
+    }
+
+    /** A write run by {@link #inTransaction(TransactionalWrite)}. */
+    @FunctionalInterface
+    private interface TransactionalWrite {
+        void run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Work with a result run by {@link #inTransaction(TransactionalWork)}.
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    interface TransactionalWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    /** Runs a write without a result, see {@link #inTransaction(TransactionalWork)}. */
+    private static void inTransaction(TransactionalWrite write) throws SQLException {
+        inTransaction(conn -> {
+            write.run(conn);
+            return null;
+        });
+    }
+
+    /**
+     * Runs a write and its history rows in one transaction on the primary connection
+     * and returns the write's result,
+     * rolling back if anything fails, including a runtime exception or error, which is
+     * rethrown as is. Only a failure before the commit is passed on as a connection failure
+     * (which callers journal offline). If the connection drops during the commit itself, the
+     * change may already be saved, so that is reported as an ordinary error instead, and the
+     * change is not replayed a second time.
+     * <p>
+     * Pending migrations are applied before the transaction starts: their DDL runs on a
+     * connection of its own and would wait for the metadata locks this transaction holds.
+     * </p>
+     */
+    static <T> T inTransaction(TransactionalWork<T> work) throws SQLException {
+        Connection conn = DBConnection.getConnection();
+        SchemaMigrator.ensureMigrated();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            T result;
+            try {
+                result = work.run(conn);
+            } catch (SQLException | RuntimeException | Error e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException re) {
+                    e.addSuppressed(re);
+                }
+                throw e;
+            }
+            try {
+                conn.commit();
+            } catch (SQLException e) {
+                if (!DBConnection.isConnectionFailure(e)) throw e;
+                throw new SQLException("Connection lost while saving; the change may or may not have been saved",
+                        "HY000", e.getErrorCode(), e);
+            }
+            return result;
+        } finally {
+            try {
+                conn.setAutoCommit(autoCommit);
+            } catch (SQLException ignored) {
+                // The connection is broken; getConnection() opens a new one next time
+            }
         }
     }
 
     /**
      * Retrieves all appointments, including contact name by joining contacts table.
      * Converts stored UTC timestamps back to local time.
+     * Refreshes the {@link OfflineStore} snapshot, and is served from it while offline
+     * or while the startup snapshot is still warm.
      */
     public static ObservableList<Appointment> getAllAppointments() throws SQLException {
+        ObservableList<Appointment> warm = OfflineStore.warmAppointments();
+        if (warm != null) {
+            return warm;
+        }
+        try {
+            ObservableList<Appointment> list = fetchAllAppointments();
+            OfflineStore.cacheAppointments(list);
+            return list;
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            return OfflineStore.appointments(a -> true, e);
+        }
+    }
+
+    /**
+     * Retrieves all appointments, optionally including those moved to the archive
+     * by {@link AppointmentArchiver}. Archive queries always go to the database.
+     *
+     * @param includeArchive true to also return archived (past-horizon) appointments
+     */
+    public static ObservableList<Appointment> getAllAppointments(boolean includeArchive) throws SQLException {
+        return includeArchive ? fetchAllAppointments(true) : getAllAppointments();
+    }
+
+    /**
+     * Retrieves all hot appointments directly from the database (no offline fallback).
+     */
+    static ObservableList<Appointment> fetchAllAppointments() throws SQLException {
+        return fetchAllAppointments(false);
+    }
+
+    /**
+     * Retrieves all appointments directly from the database (no offline fallback).
+     */
+    private static ObservableList<Appointment> fetchAllAppointments(boolean includeArchive) throws SQLException {
         ObservableList<Appointment> list = FXCollections.observableArrayList();
         String sql = """
             SELECT a.Appointment_ID, a.Title, a.Description, a.Location, a.Type,
                    a.Start, a.End, a.Customer_ID, a.User_ID, a.Contact_ID,
                    c.Contact_Name
-            FROM appointments a
+            FROM %s a
             JOIN contacts c ON a.Contact_ID = c.Contact_ID
-        """;
-        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql);
+        """.formatted(source(includeArchive));
+        try (PreparedStatement ps = DBConnection.getReadConnection().prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 ZonedDateTime zStart = rs.getTimestamp("Start").toLocalDateTime()
@@ -131,24 +385,69 @@ public class AppointmentDAO {
      * Deletes all appointments for a given customer (used before deleting that customer).
      */
     public static void deleteByCustomerId(int customerId) throws SQLException {
-        String sql = "DELETE FROM appointments WHERE Customer_ID = ?";
-        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql)) {
-            ps.setInt(1, customerId);
-            ps.executeUpdate();
-        }
+        String sql = """
+            SELECT Appointment_ID FROM appointments WHERE Customer_ID = ?
+            UNION ALL
+            SELECT Appointment_ID FROM appointments_archive WHERE Customer_ID = ?
+        """;
+        inTransaction(conn -> {
+            List<Integer> ids = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setInt(1, customerId);
+                ps.setInt(2, customerId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt(1));
+                    }
+                }
+            }
+            // Archived rows and their report totals go with the customer as well
+            for (String table : new String[]{"appointments", "appointments_archive", "appointment_summary"}) {
+                try (PreparedStatement ps = conn.prepareStatement("DELETE FROM " + table + " WHERE Customer_ID = ?")) {
+                    ps.setInt(1, customerId);
+                    ps.executeUpdate();
+                }
+            }
+            AppointmentHistory.recordDeletes(conn, ids);
+        });
+        DBConnection.noteWrite();
     }
 
     /**
      * Fetches all appointments for a customer, including contact name.
+     * Served from the {@link OfflineStore} snapshot while offline.
      */
     public static ObservableList<Appointment> getAppointmentsByCustomer(int customerId) throws SQLException {
+        try {
+            return fetchAppointmentsByCustomer(customerId);
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            return OfflineStore.appointments(a -> a.getCustomerId() == customerId, e);
+        }
+    }
+
+    /**
+     * Fetches all appointments for a customer, optionally including archived ones.
+     *
+     * @param includeArchive true to also return archived (past-horizon) appointments
+     */
+    public static ObservableList<Appointment> getAppointmentsByCustomer(int customerId, boolean includeArchive) throws SQLException {
+        return includeArchive ? fetchAppointmentsByCustomer(customerId, true) : getAppointmentsByCustomer(customerId);
+    }
+
+    /**
+     * Fetches all hot appointments for a customer directly from the database (no offline fallback).
+     */
+    static ObservableList<Appointment> fetchAppointmentsByCustomer(int customerId) throws SQLException {
+        return fetchAppointmentsByCustomer(customerId, false);
+    }
+
+    /**
+     * Fetches all appointments for a customer directly from the database (no offline fallback).
+     */
+    private static ObservableList<Appointment> fetchAppointmentsByCustomer(int customerId, boolean includeArchive) throws SQLException {
         ObservableList<Appointment> list = FXCollections.observableArrayList();
-        String sql = """
-            SELECT a.*, c.Contact_Name
-            FROM appointments a
-            JOIN contacts c ON a.Contact_ID = c.Contact_ID
-            WHERE a.Customer_ID = ?
-        """;
+        String sql = BY_CUSTOMER_SQL.formatted(source(includeArchive));
         try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql)) {
             ps.setInt(1, customerId);
             try (ResultSet rs = ps.executeQuery()) {
@@ -178,17 +477,118 @@ public class AppointmentDAO {
 
     /**
      * Fetches all appointments for a given user (for alerts, etc), including contact name.
+     * Served from the {@link OfflineStore} snapshot while offline.
      */
     public static ObservableList<Appointment> getAppointmentsByUser(int userId) throws SQLException {
+        try {
+            return fetchAppointmentsByUser(userId, false);
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            return OfflineStore.appointments(a -> a.getUserId() == userId, e);
+        }
+    }
+
+    /**
+     * Fetches all appointments for a user, optionally including archived ones.
+     *
+     * @param includeArchive true to also return archived (past-horizon) appointments
+     */
+    public static ObservableList<Appointment> getAppointmentsByUser(int userId, boolean includeArchive) throws SQLException {
+        return includeArchive ? fetchAppointmentsByUser(userId, true) : getAppointmentsByUser(userId);
+    }
+
+    /**
+     * Fetches all appointments for a user directly from the database (no offline fallback).
+     */
+    private static ObservableList<Appointment> fetchAppointmentsByUser(int userId, boolean includeArchive) throws SQLException {
         ObservableList<Appointment> list = FXCollections.observableArrayList();
+        String sql = BY_USER_SQL.formatted(source(includeArchive));
+        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql)) {
+            ps.setInt(1, userId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ZonedDateTime zStart = rs.getTimestamp("Start").toLocalDateTime()
+                            .atZone(ZoneId.of("UTC")).withZoneSameInstant(ZoneId.systemDefault());
+                    ZonedDateTime zEnd = rs.getTimestamp("End").toLocalDateTime()
+                            .atZone(ZoneId.of("UTC")).withZoneSameInstant(ZoneId.systemDefault());
+                    list.add(new Appointment(
+                            rs.getInt("Appointment_ID"),
+                            rs.getString("Title"),
+                            rs.getString("Description"),
+                            rs.getString("Location"),
+                            rs.getString("Type"),
+                            zStart.toLocalDateTime(),
+                            zEnd.toLocalDateTime(),
+                            rs.getInt("Customer_ID"),
+                            rs.getInt("User_ID"),
+                            rs.getInt("Contact_ID"),
+                            rs.getString("Contact_Name")
+                    ));
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Fetches a single appointment by ID directly from the database (used for replay conflict checks).
+     *
+     * @return the appointment, or null if it no longer exists
+     */
+    static Appointment fetchAppointmentById(int apptId) throws SQLException {
+        return fetchAppointmentById(apptId, false);
+    }
+
+    /**
+     * Fetches one appointment, optionally locking its row until the current transaction ends.
+     *
+     * @return the appointment, or null if it no longer exists
+     */
+    private static Appointment fetchAppointmentById(int apptId, boolean forUpdate) throws SQLException {
         String sql = """
             SELECT a.*, c.Contact_Name
             FROM appointments a
             JOIN contacts c ON a.Contact_ID = c.Contact_ID
-            WHERE a.User_ID = ?
-        """;
+            WHERE a.Appointment_ID = ?
+        """ + (forUpdate ? " FOR UPDATE OF a" : "");
         try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql)) {
-            ps.setInt(1, userId);
+            ps.setInt(1, apptId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    ZonedDateTime zStart = rs.getTimestamp("Start").toLocalDateTime()
+                            .atZone(ZoneId.of("UTC")).withZoneSameInstant(ZoneId.systemDefault());
+                    ZonedDateTime zEnd = rs.getTimestamp("End").toLocalDateTime()
+                            .atZone(ZoneId.of("UTC")).withZoneSameInstant(ZoneId.systemDefault());
+                    return new Appointment(
+                            rs.getInt("Appointment_ID"),
+                            rs.getString("Title"),
+                            rs.getString("Description"),
+                            rs.getString("Location"),
+                            rs.getString("Type"),
+                            zStart.toLocalDateTime(),
+                            zEnd.toLocalDateTime(),
+                            rs.getInt("Customer_ID"),
+                            rs.getInt("User_ID"),
+                            rs.getInt("Contact_ID"),
+                            rs.getString("Contact_Name")
+                    );
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fetches appointments inserted or updated after a server time
+     * (delta refresh of the local snapshot).
+     *
+     * @param sinceUtc server UTC time of the previous refresh
+     */
+    static ObservableList<Appointment> fetchAppointmentsChangedSince(LocalDateTime sinceUtc) throws SQLException {
+        ObservableList<Appointment> list = FXCollections.observableArrayList();
+        String sql = CHANGED_SINCE_SQL;
+        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(sinceUtc));
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
                     ZonedDateTime zStart = rs.getTimestamp("Start").toLocalDateTime()
@@ -214,16 +614,53 @@ public class AppointmentDAO {
         return list;
     }
 
-    // -------- Reporting queries below (untouched, use as needed) --------
+    /**
+     * Fetches the IDs of all appointments
+     * (used to drop deleted rows from the local snapshot).
+     */
+    static Set<Integer> fetchAppointmentIds() throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        String sql = "SELECT Appointment_ID FROM appointments";
+        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Table expression to select appointments from: the hot table alone, or the hot
+     * table plus the archive.
+     */
+    private static String source(boolean includeArchive) throws SQLException {
+        if (!includeArchive) {
+            return "appointments";
+        }
+        SchemaMigrator.ensureMigrated();
+        return "(SELECT * FROM appointments UNION ALL SELECT * FROM appointments_archive)";
+    }
+
+    // -------- Reporting queries below --------
+    // Totals combine the hot table with appointment_summary, which holds the counts of
+    // everything AppointmentArchiver has moved out.
 
     public static ObservableList<ReportTypeMonth> getCountByTypeAndMonth() throws SQLException {
         ObservableList<ReportTypeMonth> list = FXCollections.observableArrayList();
         String sql = """
-            SELECT Type, MONTHNAME(Start) AS Month, COUNT(*) AS C
-              FROM appointments
+            SELECT Type, MONTHNAME(Month_Start) AS Month, SUM(C) AS C
+              FROM (SELECT Type, DATE_FORMAT(Start, '%Y-%m-01') AS Month_Start, COUNT(*) AS C
+                      FROM appointments
+                     GROUP BY Type, Month_Start
+                    UNION ALL
+                    SELECT Type, Month_Start, Appointments
+                      FROM appointment_summary) t
              GROUP BY Type, Month
         """;
-        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql);
+        SchemaMigrator.ensureMigrated();
+        try (PreparedStatement ps = DBConnection.getReadConnection().prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 list.add(new ReportTypeMonth(
@@ -251,7 +688,7 @@ public class AppointmentDAO {
               JOIN contacts c ON a.Contact_ID = c.Contact_ID
              ORDER BY c.Contact_Name, a.Start
         """;
-        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql);
+        try (PreparedStatement ps = DBConnection.getReadConnection().prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 LocalDateTime start = rs.getTimestamp("Start").toLocalDateTime();
@@ -273,12 +710,18 @@ public class AppointmentDAO {
     public static ObservableList<CustomerAppointmentCount> getCountByCustomer() throws SQLException {
         ObservableList<CustomerAppointmentCount> list = FXCollections.observableArrayList();
         String sql = """
-            SELECT cu.Customer_Name AS Name, COUNT(a.Appointment_ID) AS C
+            SELECT cu.Customer_Name AS Name, COALESCE(SUM(t.C), 0) AS C
               FROM customers cu
-         LEFT JOIN appointments a ON cu.Customer_ID = a.Customer_ID
+         LEFT JOIN (SELECT Customer_ID, COUNT(*) AS C
+                      FROM appointments
+                     GROUP BY Customer_ID
+                    UNION ALL
+                    SELECT Customer_ID, Appointments
+                      FROM appointment_summary) t ON cu.Customer_ID = t.Customer_ID
              GROUP BY cu.Customer_Name
         """;
-        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement(sql);
+        SchemaMigrator.ensureMigrated();
+        try (PreparedStatement ps = DBConnection.getReadConnection().prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
                 list.add(new CustomerAppointmentCount(
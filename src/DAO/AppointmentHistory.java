@@ -0,0 +1,449 @@
+package DAO;
+
+import Model.Appointment;
+import Model.Contact;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Append-only change history of appointments, with time-travel reads.
+ * <p>
+ * Every write path in the DAO layer appends one row per changed appointment to
+ * {@code appointment_history}: a full image on insert, the changed columns only on
+ * update, or a delete marker. Every {@link #SNAPSHOT_EVERY}th version stores a full image
+ * instead of a diff, so reconstructing an appointment as of any instant reads the latest
+ * full image at or before it and replays at most {@code SNAPSHOT_EVERY - 1} diffs, using
+ * the {@code (Appointment_ID, Version)} key. Rows that set the times also carry the post-image
+ * Start/End, which lets {@link #scheduleAsOf} find a day's candidates through the Start
+ * index instead of scanning the history.
+ * </p>
+ * <p>
+ * Changes are encoded as {@code <column code><value>} fields separated by {@code U+001F};
+ * times are UTC ISO-8601 as stored in {@code appointments}. History rows are written on
+ * the same connection and in the same transaction as the change itself. Writers must call
+ * {@link SchemaMigrator#ensureMigrated()} before opening that transaction, since migration
+ * DDL on {@code appointments} would wait for the transaction's metadata lock.
+ * </p>
+ */
+public class AppointmentHistory {
+    /** Full image written every this many versions (version 1, the insert, is always full). */
+    static final int SNAPSHOT_EVERY = 16;
+    /** Field separator inside {@code Changes}. */
+    private static final char SEP = '\u001F';
+    /** Max IDs per IN list. */
+    private static final int CHUNK_SIZE = 1000;
+
+    /** Column codes used in encoded changes. */
+    static final char TITLE = 'T', DESCRIPTION = 'D', LOCATION = 'L', TYPE = 'Y',
+            START = 'S', END = 'E', CUSTOMER = 'C', USER = 'U', CONTACT = 'K';
+
+    /** Latest full image of one appointment at or before an instant, with the diffs after it. */
+    static final String AS_OF_SQL = """
+            SELECT Kind, Changes
+              FROM appointment_history
+             WHERE Appointment_ID = ? AND Changed_At <= ?
+               AND Version >= (SELECT COALESCE(MAX(Version), 1)
+                                 FROM appointment_history
+                                WHERE Appointment_ID = ? AND Kind = 'F' AND Changed_At <= ?)
+             ORDER BY Version
+        """;
+    /** Appointments whose times, as set at or before an instant, touched a UTC range. */
+    static final String DAY_CANDIDATES_SQL = """
+            SELECT DISTINCT Appointment_ID
+              FROM appointment_history
+             WHERE Start >= ? AND Start < ? AND End > ? AND Changed_At <= ?
+        """;
+
+    // -------- Recording (called from the DAO write paths) --------
+
+    /**
+     * Records newly inserted appointments (version 1, full image).
+     *
+     * @param conn  the connection the inserts ran on
+     * @param appts the inserted appointments, with their generated IDs
+     */
+    static void recordInserts(Connection conn, Collection<Appointment> appts) throws SQLException {
+        Map<Integer, Map<Character, String>> images = new LinkedHashMap<>();
+        for (Appointment a : appts) {
+            images.put(a.getId(), image(a));
+        }
+        append(conn, images, Collections.emptyMap(), 'F');
+    }
+
+    /**
+     * Records an update as the columns that differ between the before and after images.
+     *
+     * @param conn   the connection the update ran on
+     * @param before the row before the update (null if unknown; then every column is recorded)
+     * @param after  the row after the update
+     */
+    static void recordUpdate(Connection conn, Appointment before, Appointment after) throws SQLException {
+        Map<Character, String> old = before == null ? Collections.emptyMap() : image(before);
+        Map<Character, String> diff = new LinkedHashMap<>();
+        image(after).forEach((column, value) -> {
+            if (!Objects.equals(old.get(column), value)) {
+                diff.put(column, value);
+            }
+        });
+        if (diff.isEmpty()) {
+            return;
+        }
+        // Keep both times on rows that change either, for day lookups
+        if (diff.containsKey(START) || diff.containsKey(END)) {
+            diff.put(START, utc(after.getStart()));
+            diff.put(END, utc(after.getEnd()));
+        }
+        recordChanges(conn, Map.of(after.getId(), diff));
+    }
+
+    /**
+     * Records column changes for several appointments (e.g. a bulk operation).
+     * A diff that changes the times must contain both {@link #START} and {@link #END}.
+     *
+     * @param conn  the connection (and transaction) the changes ran on
+     * @param diffs appointment ID to changed columns (codes as in this class, UTC times)
+     */
+    static void recordChanges(Connection conn, Map<Integer, Map<Character, String>> diffs) throws SQLException {
+        append(conn, Collections.emptyMap(), diffs, 'U');
+    }
+
+    /**
+     * Records deleted appointments.
+     *
+     * @param conn the connection the deletes ran on
+     * @param ids  the deleted appointment IDs
+     */
+    static void recordDeletes(Connection conn, Collection<Integer> ids) throws SQLException {
+        Map<Integer, Map<Character, String>> markers = new LinkedHashMap<>();
+        for (int id : ids) {
+            markers.put(id, Collections.emptyMap());
+        }
+        append(conn, Collections.emptyMap(), markers, 'D');
+    }
+
+    /**
+     * Appends one history row per appointment. {@code images} are inserts (version 1);
+     * {@code changes} get the next version, upgraded to a full image of the current row
+     * when that version is due for a snapshot.
+     */
+    private static void append(Connection conn, Map<Integer, Map<Character, String>> images,
+                               Map<Integer, Map<Character, String>> changes, char kind) throws SQLException {
+        if (images.isEmpty() && changes.isEmpty()) {
+            return;
+        }
+        String sql = """
+            INSERT INTO appointment_history (Appointment_ID, Version, Kind, Changed_At, Start, End, Changes)
+            VALUES (?, ?, ?, UTC_TIMESTAMP(6), ?, ?, ?)
+        """;
+        Map<Integer, Integer> versions = latestVersions(conn, changes.keySet());
+        List<Integer> due = new ArrayList<>();
+        if (kind == 'U') {
+            for (int id : changes.keySet()) {
+                if (versions.getOrDefault(id, 0) % SNAPSHOT_EVERY == 0) {
+                    due.add(id);
+                }
+            }
+        }
+        Map<Integer, Map<Character, String>> snapshots = currentImages(conn, due);
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Map.Entry<Integer, Map<Character, String>> e : images.entrySet()) {
+                addRow(ps, e.getKey(), 1, 'F', e.getValue());
+            }
+            for (Map.Entry<Integer, Map<Character, String>> e : changes.entrySet()) {
+                int id = e.getKey();
+                Map<Character, String> full = snapshots.get(id);
+                if (full != null) {
+                    addRow(ps, id, versions.getOrDefault(id, 0) + 1, 'F', full);
+                } else {
+                    addRow(ps, id, versions.getOrDefault(id, 0) + 1, kind, e.getValue());
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void addRow(PreparedStatement ps, int id, int version, char kind, Map<Character, String> columns) throws SQLException {
+        ps.setInt(1, id);
+        ps.setInt(2, version);
+        ps.setString(3, String.valueOf(kind));
+        String start = columns.get(START), end = columns.get(END);
+        ps.setTimestamp(4, start == null || end == null ? null : Timestamp.valueOf(LocalDateTime.parse(start)));
+        ps.setTimestamp(5, start == null || end == null ? null : Timestamp.valueOf(LocalDateTime.parse(end)));
+        ps.setString(6, encode(columns));
+        ps.addBatch();
+    }
+
+    /**
+     * Latest recorded version per appointment (absent if none). A locking read, so it sees
+     * the latest committed rows rather than the transaction's snapshot and holds the
+     * appointments' history range until commit: a concurrent writer waits instead of
+     * allocating the same {@code (Appointment_ID, Version)}.
+     */
+    private static Map<Integer, Integer> latestVersions(Connection conn, Collection<Integer> ids) throws SQLException {
+        Map<Integer, Integer> versions = new HashMap<>();
+        for (List<Integer> chunk : chunks(ids)) {
+            String sql = "SELECT Appointment_ID, MAX(Version) FROM appointment_history WHERE Appointment_ID IN ("
+                    + placeholders(chunk.size()) + ") GROUP BY Appointment_ID FOR UPDATE";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, 1, chunk);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        versions.put(rs.getInt(1), rs.getInt(2));
+                    }
+                }
+            }
+        }
+        return versions;
+    }
+
+    /** Full images of the current rows (post-change, same transaction). */
+    private static Map<Integer, Map<Character, String>> currentImages(Connection conn, List<Integer> ids) throws SQLException {
+        Map<Integer, Map<Character, String>> images = new HashMap<>();
+        for (List<Integer> chunk : chunks(ids)) {
+            String sql = "SELECT * FROM appointments WHERE Appointment_ID IN (" + placeholders(chunk.size()) + ")";
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                bind(ps, 1, chunk);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Map<Character, String> m = new LinkedHashMap<>();
+                        m.put(TITLE, rs.getString("Title"));
+                        m.put(DESCRIPTION, rs.getString("Description"));
+                        m.put(LOCATION, rs.getString("Location"));
+                        m.put(TYPE, rs.getString("Type"));
+                        m.put(START, rs.getTimestamp("Start").toLocalDateTime().toString());
+                        m.put(END, rs.getTimestamp("End").toLocalDateTime().toString());
+                        m.put(CUSTOMER, String.valueOf(rs.getInt("Customer_ID")));
+                        m.put(USER, String.valueOf(rs.getInt("User_ID")));
+                        m.put(CONTACT, String.valueOf(rs.getInt("Contact_ID")));
+                        images.put(rs.getInt("Appointment_ID"), m);
+                    }
+                }
+            }
+        }
+        return images;
+    }
+
+    // -------- Time travel --------
+
+    /**
+     * Reconstructs an appointment as it was at a past instant.
+     *
+     * @param apptId  the appointment ID
+     * @param instant the instant (local time)
+     * @return the appointment as of that instant, or null if it did not exist then
+     */
+    public static Appointment asOf(int apptId, LocalDateTime instant) throws SQLException {
+        SchemaMigrator.ensureMigrated();
+        Timestamp at = Timestamp.valueOf(toUtc(instant));
+        Map<Character, String> state = null;
+        try (PreparedStatement ps = DBConnection.getReadConnection().prepareStatement(AS_OF_SQL)) {
+            ps.setInt(1, apptId);
+            ps.setTimestamp(2, at);
+            ps.setInt(3, apptId);
+            ps.setTimestamp(4, at);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    state = apply(state, rs.getString("Kind").charAt(0), rs.getString("Changes"));
+                }
+            }
+        }
+        return state == null ? null : toAppointment(apptId, state, contactNames());
+    }
+
+    /**
+     * Reconstructs a day's schedule as it was at a past instant: every appointment that,
+     * at that instant, overlapped the given local day.
+     *
+     * @param day     the local day
+     * @param instant the instant (local time)
+     * @return the appointments of that day as of the instant, ordered by start
+     */
+    public static List<Appointment> scheduleAsOf(LocalDate day, LocalDateTime instant) throws SQLException {
+        SchemaMigrator.ensureMigrated();
+        LocalDateTime from = toUtc(day.atStartOfDay());
+        LocalDateTime to = toUtc(day.plusDays(1).atStartOfDay());
+        Timestamp at = Timestamp.valueOf(toUtc(instant));
+        Connection conn = DBConnection.getReadConnection();
+
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(DAY_CANDIDATES_SQL)) {
+            ps.setTimestamp(1, Timestamp.valueOf(from.minusDays(1))); // appointments starting the day before
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            ps.setTimestamp(3, Timestamp.valueOf(from));
+            ps.setTimestamp(4, at);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+
+        Map<Integer, Map<Character, String>> states = new HashMap<>();
+        for (List<Integer> chunk : chunks(ids)) {
+            String sql = """
+                SELECT h.Appointment_ID, h.Kind, h.Changes
+                  FROM appointment_history h
+                  JOIN (SELECT Appointment_ID, MAX(Version) AS V
+                          FROM appointment_history
+                         WHERE Appointment_ID IN (%s) AND Kind = 'F' AND Changed_At <= ?
+                         GROUP BY Appointment_ID) s
+                    ON s.Appointment_ID = h.Appointment_ID AND h.Version >= s.V
+                 WHERE h.Changed_At <= ?
+                 ORDER BY h.Appointment_ID, h.Version
+            """.formatted(placeholders(chunk.size()));
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int p = bind(ps, 1, chunk);
+                ps.setTimestamp(p++, at);
+                ps.setTimestamp(p, at);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt(1);
+                        states.put(id, apply(states.get(id), rs.getString(2).charAt(0), rs.getString(3)));
+                    }
+                }
+            }
+        }
+
+        Map<Integer, String> names = contactNames();
+        List<Appointment> list = new ArrayList<>();
+        for (Map.Entry<Integer, Map<Character, String>> e : states.entrySet()) {
+            Map<Character, String> s = e.getValue();
+            if (s == null || LocalDateTime.parse(s.get(START)).compareTo(to) >= 0
+                    || LocalDateTime.parse(s.get(END)).compareTo(from) <= 0) {
+                continue; // deleted, or on another day at that instant
+            }
+            list.add(toAppointment(e.getKey(), s, names));
+        }
+        list.sort((a, b) -> a.getStart().compareTo(b.getStart()));
+        return list;
+    }
+
+    /** Applies one history row to a reconstructed state (null = absent). */
+    private static Map<Character, String> apply(Map<Character, String> state, char kind, String changes) {
+        switch (kind) {
+            case 'F':
+                return decode(changes);
+            case 'D':
+                return null;
+            default:
+                Map<Character, String> next = state == null ? new HashMap<>() : new HashMap<>(state);
+                next.putAll(decode(changes));
+                return next;
+        }
+    }
+
+    // -------- Encoding --------
+
+    /** Full image of an appointment (times converted to UTC). */
+    private static Map<Character, String> image(Appointment a) {
+        Map<Character, String> m = new LinkedHashMap<>();
+        m.put(TITLE, a.getTitle());
+        m.put(DESCRIPTION, a.getDescription());
+        m.put(LOCATION, a.getLocation());
+        m.put(TYPE, a.getType());
+        m.put(START, utc(a.getStart()));
+        m.put(END, utc(a.getEnd()));
+        m.put(CUSTOMER, String.valueOf(a.getCustomerId()));
+        m.put(USER, String.valueOf(a.getUserId()));
+        m.put(CONTACT, String.valueOf(a.getContactId()));
+        return m;
+    }
+
+    private static String encode(Map<Character, String> columns) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Character, String> e : columns.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(SEP);
+            }
+            sb.append(e.getKey()).append(e.getValue() == null ? "" : e.getValue());
+        }
+        return sb.toString();
+    }
+
+    private static Map<Character, String> decode(String changes) {
+        Map<Character, String> m = new HashMap<>();
+        if (changes == null || changes.isEmpty()) {
+            return m;
+        }
+        int from = 0;
+        while (from <= changes.length()) {
+            int to = changes.indexOf(SEP, from);
+            if (to < 0) {
+                to = changes.length();
+            }
+            if (to > from) {
+                m.put(changes.charAt(from), changes.substring(from + 1, to));
+            }
+            from = to + 1;
+        }
+        return m;
+    }
+
+    private static Appointment toAppointment(int id, Map<Character, String> s, Map<Integer, String> contactNames) {
+        int contactId = Integer.parseInt(s.getOrDefault(CONTACT, "0"));
+        return new Appointment(id, s.get(TITLE), s.get(DESCRIPTION), s.get(LOCATION), s.get(TYPE),
+                fromUtc(LocalDateTime.parse(s.get(START))), fromUtc(LocalDateTime.parse(s.get(END))),
+                Integer.parseInt(s.getOrDefault(CUSTOMER, "0")), Integer.parseInt(s.getOrDefault(USER, "0")),
+                contactId, contactNames.get(contactId));
+    }
+
+    // -------- Helpers --------
+
+    /** Local time to the UTC ISO string stored in history. */
+    static String utc(LocalDateTime local) {
+        return toUtc(local).toString();
+    }
+
+    private static LocalDateTime toUtc(LocalDateTime local) {
+        return local.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC")).toLocalDateTime();
+    }
+
+    private static LocalDateTime fromUtc(LocalDateTime utc) {
+        return utc.atZone(ZoneId.of("UTC")).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private static Map<Integer, String> contactNames() throws SQLException {
+        Map<Integer, String> names = new HashMap<>();
+        for (Contact c : ContactDAO.getAllContacts()) {
+            names.put(c.getId(), c.getName());
+        }
+        return names;
+    }
+
+    private static List<List<Integer>> chunks(Collection<Integer> ids) {
+        List<Integer> list = new ArrayList<>(ids);
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(list.size(), from + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int n) {
+        return String.join(",", Collections.nCopies(n, "?"));
+    }
+
+    /** Binds IDs starting at parameter {@code first}; returns the next parameter index. */
+    private static int bind(PreparedStatement ps, int first, List<Integer> ids) throws SQLException {
+        int p = first;
+        for (int id : ids) {
+            ps.setInt(p++, id);
+        }
+        return p;
+    }
+}
@@ -0,0 +1,103 @@
+package DAO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory interval index of appointments, partitioned by an owner key
+ * (a Customer_ID, Contact_ID or User_ID).
+ * <p>
+ * Each owner's intervals are kept in a {@link TreeMap} ordered by start, together with the
+ * longest interval length seen for that owner. An overlap query for {@code [start, end)}
+ * only has to look at intervals starting in {@code [start - maxLength, end)}, so checks,
+ * inserts and removals are all O(log n + k). Times are plain {@code long}s (epoch seconds).
+ * </p>
+ */
+public class AppointmentIntervalIndex {
+
+    /** One indexed appointment interval. */
+    private static class Interval {
+        final int id;
+        final long start;
+        final long end;
+
+        Interval(int id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /** Intervals of a single owner. */
+    private static class Bucket {
+        final TreeMap<Long, List<Interval>> byStart = new TreeMap<>();
+        long maxLength = 0;
+    }
+
+    /** Owner key -> that owner's intervals. */
+    private final Map<Integer, Bucket> buckets = new HashMap<>();
+
+    /**
+     * Adds an interval.
+     *
+     * @param owner  owner key (e.g. Customer_ID)
+     * @param apptId appointment ID
+     * @param start  start, inclusive
+     * @param end    end, exclusive
+     */
+    public void add(int owner, int apptId, long start, long end) {
+        Bucket b = buckets.computeIfAbsent(owner, k -> new Bucket());
+        b.byStart.computeIfAbsent(start, k -> new ArrayList<>(1)).add(new Interval(apptId, start, end));
+        b.maxLength = Math.max(b.maxLength, end - start);
+    }
+
+    /**
+     * Removes an interval previously added with the same owner, ID and start.
+     *
+     * @param owner  owner key
+     * @param apptId appointment ID
+     * @param start  start the interval was added with
+     */
+    public void remove(int owner, int apptId, long start) {
+        Bucket b = buckets.get(owner);
+        if (b == null) {
+            return;
+        }
+        List<Interval> list = b.byStart.get(start);
+        if (list != null) {
+            list.removeIf(i -> i.id == apptId);
+            if (list.isEmpty()) {
+                b.byStart.remove(start);
+            }
+        }
+    }
+
+    /**
+     * Finds an interval of the owner overlapping {@code [start, end)}.
+     *
+     * @param owner     owner key
+     * @param start     start, inclusive
+     * @param end       end, exclusive
+     * @param excludeId appointment ID to ignore (the one being moved), or 0
+     * @return the ID of an overlapping appointment, or 0 if there is none
+     */
+    public int findOverlap(int owner, long start, long end, int excludeId) {
+        Bucket b = buckets.get(owner);
+        if (b == null) {
+            return 0;
+        }
+        NavigableMap<Long, List<Interval>> candidates = b.byStart.subMap(start - b.maxLength, true, end, false);
+        for (List<Interval> list : candidates.values()) {
+            for (Interval i : list) {
+                if (i.id != excludeId && i.end > start && i.start < end) {
+                    return i.id;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,436 @@
+package DAO;
+
+import Model.Appointment;
+import Model.Contact;
+import Model.ScheduleRequest;
+import Model.ScheduleResult;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Places batches of {@link ScheduleRequest}s into free slots automatically.
+ * <p>
+ * Time is modelled as 15-minute slots within business hours (8:00 a.m. to 10:00 p.m. ET,
+ * 56 slots), so each contact's and each customer's availability for one day fits in a
+ * single {@code long} bitmap and checking a placement is one mask test. Existing
+ * appointments in the requests' window are loaded once into these bitmaps.
+ * </p>
+ * <p>
+ * Several planners then run in parallel, each with a different request order (the first
+ * one most-constrained-first, the others randomized): a greedy first-fit pass, followed by
+ * local search that places a leftover request by moving one blocking request elsewhere.
+ * The plan that places the most requests (earliest slots on ties) is inserted in a single
+ * transaction. That transaction first locks the affected contacts' and customers'
+ * appointments in the window ({@code SELECT ... FOR UPDATE}, whose range locks also keep
+ * others from booking into it) and re-checks every placement against them, so a booking
+ * made by someone else while planning is not double-booked: a placement it blocks moves
+ * to the request's next free slot, or the request is reported as unplaced.
+ * </p>
+ */
+public class AutoScheduler {
+    /** Zone the business hours are defined in. */
+    private static final ZoneId ET = ZoneId.of("America/New_York");
+    /** Start of business hours (ET). */
+    private static final LocalTime OPEN = LocalTime.of(8, 0);
+    /** Slot length in minutes. */
+    private static final int SLOT_MINUTES = 15;
+    /** Number of slots between 8:00 a.m. and 10:00 p.m. */
+    private static final int SLOTS_PER_DAY = 56;
+    /** Slack (hours) when loading existing appointments, for ones starting before the window. */
+    private static final int LOAD_MARGIN_HOURS = 24;
+    /** Upper bound on local-search passes per planner. */
+    private static final int MAX_PASSES = 5;
+
+    /** A candidate position for a request: contact, ET day and first slot. */
+    private static class Placement {
+        final int contactId;
+        final long day;
+        final int slot;
+        final long mask;
+
+        Placement(int contactId, long day, int slot, int length) {
+            this.contactId = contactId;
+            this.day = day;
+            this.slot = slot;
+            this.mask = ((1L << length) - 1) << slot;
+        }
+    }
+
+    /** Busy bitmaps keyed by (owner ID, ET epoch day). */
+    private static class Bitmaps {
+        final Map<Long, Long> contacts = new HashMap<>();
+        final Map<Long, Long> customers = new HashMap<>();
+
+        Bitmaps copy() {
+            Bitmaps b = new Bitmaps();
+            b.contacts.putAll(contacts);
+            b.customers.putAll(customers);
+            return b;
+        }
+    }
+
+    /**
+     * Plans all requests and inserts the resulting appointments in one transaction.
+     *
+     * @param requests the requests to place
+     * @return the appointments created and the requests that could not be placed
+     * @throws SQLException if loading availability or inserting fails (nothing is inserted then)
+     */
+    public static ScheduleResult schedule(List<ScheduleRequest> requests) throws SQLException, InterruptedException {
+        int n = requests.size();
+        List<List<Placement>> candidates = new ArrayList<>(n);
+        for (ScheduleRequest r : requests) {
+            candidates.add(candidates(r));
+        }
+        Bitmaps base = loadBusy(DBConnection.getConnection(), requests, false);
+
+        int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        Placement[] best;
+        try {
+            List<Future<Placement[]>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                long seed = w;
+                futures.add(pool.submit(() -> plan(requests, candidates, base.copy(), seed)));
+            }
+            best = null;
+            for (Future<Placement[]> f : futures) {
+                Placement[] p = f.get();
+                if (best == null || better(p, best)) {
+                    best = p;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (Arrays.stream(best).allMatch(p -> p == null)) {
+            return new ScheduleResult(new ArrayList<>(), new ArrayList<>(requests));
+        }
+        Map<Integer, String> contactNames = new HashMap<>();
+        for (Contact c : ContactDAO.getAllContacts()) {
+            contactNames.put(c.getId(), c.getName());
+        }
+        Placement[] plan = best;
+        List<ScheduleRequest> unscheduled = new ArrayList<>();
+        List<Appointment> scheduled = AppointmentDAO.inTransaction(conn -> {
+            Placement[] placed = recheck(requests, candidates, plan, loadBusy(conn, requests, true));
+            List<Appointment> list = new ArrayList<>();
+            unscheduled.clear();
+            for (int i = 0; i < n; i++) {
+                ScheduleRequest r = requests.get(i);
+                Placement p = placed[i];
+                if (p == null) {
+                    unscheduled.add(r);
+                    continue;
+                }
+                LocalDateTime start = slotStart(p.day, p.slot).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+                list.add(new Appointment(0, r.getTitle(), "Scheduled automatically", "", r.getType(),
+                        start, start.plus(r.getDuration()), r.getCustomerId(), r.getUserId(),
+                        p.contactId, contactNames.get(p.contactId)));
+            }
+            if (!list.isEmpty()) {
+                AppointmentDAO.insertAppointments(conn, list);
+            }
+            return list;
+        });
+        DBConnection.noteWrite();
+        for (Appointment appt : scheduled) {
+            OfflineStore.rememberAppointment(appt);
+        }
+        return new ScheduleResult(scheduled, unscheduled);
+    }
+
+    /**
+     * Checks a plan against the availability read under lock at commit time. Placements that
+     * still fit are kept first; a placement blocked by a booking made since planning falls back
+     * to the request's first candidate that is still free.
+     *
+     * @return the placement of each request (null if unplaced)
+     */
+    private static Placement[] recheck(List<ScheduleRequest> requests, List<List<Placement>> candidates,
+                                       Placement[] plan, Bitmaps busy) {
+        Placement[] placed = new Placement[plan.length];
+        for (int i = 0; i < plan.length; i++) {
+            if (plan[i] != null && fits(requests.get(i), plan[i], busy)) {
+                occupy(requests.get(i), plan[i], busy);
+                placed[i] = plan[i];
+            }
+        }
+        for (int i = 0; i < plan.length; i++) {
+            if (plan[i] != null && placed[i] == null) {
+                placed[i] = firstFit(requests.get(i), candidates.get(i), busy);
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * One planner: greedy first-fit in a seed-dependent order, then local search.
+     *
+     * @return the placement of each request (null if unplaced)
+     */
+    private static Placement[] plan(List<ScheduleRequest> requests, List<List<Placement>> candidates,
+                                    Bitmaps busy, long seed) {
+        int n = requests.size();
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        // Seed 0: most constrained first; other seeds perturb that order
+        Random random = new Random(seed);
+        double[] weight = new double[n];
+        for (int i = 0; i < n; i++) {
+            weight[i] = candidates.get(i).size() * (seed == 0 ? 1.0 : 0.5 + random.nextDouble());
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> weight[i]));
+
+        Placement[] placed = new Placement[n];
+        for (int i : order) {
+            placed[i] = firstFit(requests.get(i), candidates.get(i), busy);
+        }
+
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            boolean improved = false;
+            for (int i : order) {
+                if (placed[i] == null && relocateOne(i, requests, candidates, busy, placed)) {
+                    improved = true;
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * Tries to place request {@code i} by moving exactly one placed request out of the way.
+     *
+     * @return true if request {@code i} is now placed
+     */
+    private static boolean relocateOne(int i, List<ScheduleRequest> requests, List<List<Placement>> candidates,
+                                       Bitmaps busy, Placement[] placed) {
+        ScheduleRequest r = requests.get(i);
+        for (Placement p : candidates.get(i)) {
+            int blocker = -1;
+            boolean single = true;
+            for (int j = 0; j < placed.length && single; j++) {
+                Placement q = placed[j];
+                if (q == null || q.day != p.day || (q.mask & p.mask) == 0) {
+                    continue;
+                }
+                if (q.contactId == p.contactId || requests.get(j).getCustomerId() == r.getCustomerId()) {
+                    single = blocker < 0;
+                    blocker = j;
+                }
+            }
+            if (blocker < 0 || !single) {
+                continue;
+            }
+            ScheduleRequest b = requests.get(blocker);
+            Placement old = placed[blocker];
+            release(b, old, busy);
+            if (!fits(r, p, busy)) {
+                // Blocked by an existing appointment as well
+                occupy(b, old, busy);
+                continue;
+            }
+            occupy(r, p, busy);
+            Placement moved = null;
+            for (Placement q : candidates.get(blocker)) {
+                if (q != old && fits(b, q, busy)) {
+                    moved = q;
+                    break;
+                }
+            }
+            if (moved != null) {
+                occupy(b, moved, busy);
+                placed[blocker] = moved;
+                placed[i] = p;
+                return true;
+            }
+            release(r, p, busy);
+            occupy(b, old, busy);
+        }
+        return false;
+    }
+
+    /** Places a request at its first free candidate, or returns null. */
+    private static Placement firstFit(ScheduleRequest r, List<Placement> candidates, Bitmaps busy) {
+        for (Placement p : candidates) {
+            if (fits(r, p, busy)) {
+                occupy(r, p, busy);
+                return p;
+            }
+        }
+        return null;
+    }
+
+    /** True if both the contact and the customer are free for the placement. */
+    private static boolean fits(ScheduleRequest r, Placement p, Bitmaps busy) {
+        return (busy.contacts.getOrDefault(key(p.contactId, p.day), 0L) & p.mask) == 0
+                && (busy.customers.getOrDefault(key(r.getCustomerId(), p.day), 0L) & p.mask) == 0;
+    }
+
+    private static void occupy(ScheduleRequest r, Placement p, Bitmaps busy) {
+        busy.contacts.merge(key(p.contactId, p.day), p.mask, (a, b) -> a | b);
+        busy.customers.merge(key(r.getCustomerId(), p.day), p.mask, (a, b) -> a | b);
+    }
+
+    private static void release(ScheduleRequest r, Placement p, Bitmaps busy) {
+        busy.contacts.computeIfPresent(key(p.contactId, p.day), (k, v) -> v & ~p.mask);
+        busy.customers.computeIfPresent(key(r.getCustomerId(), p.day), (k, v) -> v & ~p.mask);
+    }
+
+    /** True if plan {@code a} places more requests than {@code b}, or as many in earlier slots. */
+    private static boolean better(Placement[] a, Placement[] b) {
+        int countA = 0, countB = 0;
+        long timeA = 0, timeB = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != null) {
+                countA++;
+                timeA += a[i].day * SLOTS_PER_DAY + a[i].slot;
+            }
+            if (b[i] != null) {
+                countB++;
+                timeB += b[i].day * SLOTS_PER_DAY + b[i].slot;
+            }
+        }
+        return countA != countB ? countA > countB : timeA < timeB;
+    }
+
+    /**
+     * All placements of a request inside its window and business hours, earliest first
+     * (contacts alternate within each start time).
+     */
+    private static List<Placement> candidates(ScheduleRequest r) {
+        int length = (int) ((r.getDuration().toMinutes() + SLOT_MINUTES - 1) / SLOT_MINUTES);
+        List<Placement> list = new ArrayList<>();
+        if (length <= 0 || length > SLOTS_PER_DAY) {
+            return list;
+        }
+        ZonedDateTime from = r.getWindowStart().atZone(ZoneId.systemDefault()).withZoneSameInstant(ET);
+        ZonedDateTime to = r.getWindowEnd().atZone(ZoneId.systemDefault()).withZoneSameInstant(ET);
+        for (LocalDate d = from.toLocalDate(); !d.isAfter(to.toLocalDate()); d = d.plusDays(1)) {
+            long day = d.toEpochDay();
+            for (int slot = 0; slot + length <= SLOTS_PER_DAY; slot++) {
+                ZonedDateTime start = slotStart(day, slot);
+                if (start.isBefore(from) || start.plus(r.getDuration()).isAfter(to)) {
+                    continue;
+                }
+                for (int contactId : r.getContactIds()) {
+                    list.add(new Placement(contactId, day, slot, length));
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Loads the appointments overlapping the requests' windows into busy bitmaps.
+     *
+     * @param conn the connection to read on
+     * @param lock true to read only the requests' contacts and customers and lock their
+     *             appointments in the window until the transaction ends
+     */
+    private static Bitmaps loadBusy(Connection conn, List<ScheduleRequest> requests, boolean lock) throws SQLException {
+        Bitmaps busy = new Bitmaps();
+        if (requests.isEmpty()) {
+            return busy;
+        }
+        LocalDateTime from = requests.stream().map(ScheduleRequest::getWindowStart).min(Comparator.naturalOrder()).get();
+        LocalDateTime to = requests.stream().map(ScheduleRequest::getWindowEnd).max(Comparator.naturalOrder()).get();
+        ZoneId utc = ZoneId.of("UTC");
+        String sql = BulkAppointmentDAO.WINDOW_SQL;
+        List<Integer> owners = new ArrayList<>();
+        if (lock) {
+            Set<Integer> contactIds = new LinkedHashSet<>();
+            Set<Integer> customerIds = new LinkedHashSet<>();
+            for (ScheduleRequest r : requests) {
+                contactIds.addAll(r.getContactIds());
+                customerIds.add(r.getCustomerId());
+            }
+            owners.addAll(contactIds);
+            owners.addAll(customerIds);
+            sql += " AND (Contact_ID IN (%s) OR Customer_ID IN (%s)) FOR UPDATE"
+                    .formatted(placeholders(contactIds.size()), placeholders(customerIds.size()));
+        }
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(from.minusHours(LOAD_MARGIN_HOURS)
+                    .atZone(ZoneId.systemDefault()).withZoneSameInstant(utc).toLocalDateTime()));
+            ps.setTimestamp(2, Timestamp.valueOf(to.atZone(ZoneId.systemDefault()).withZoneSameInstant(utc).toLocalDateTime()));
+            for (int i = 0; i < owners.size(); i++) {
+                ps.setInt(3 + i, owners.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ZonedDateTime start = rs.getTimestamp("Start").toLocalDateTime().atZone(utc).withZoneSameInstant(ET);
+                    ZonedDateTime end = rs.getTimestamp("End").toLocalDateTime().atZone(utc).withZoneSameInstant(ET);
+                    for (LocalDate d = start.toLocalDate(); !d.isAfter(end.toLocalDate()); d = d.plusDays(1)) {
+                        long mask = busyMask(d.toEpochDay(), start, end);
+                        if (mask != 0) {
+                            busy.contacts.merge(key(rs.getInt("Contact_ID"), d.toEpochDay()), mask, (a, b) -> a | b);
+                            busy.customers.merge(key(rs.getInt("Customer_ID"), d.toEpochDay()), mask, (a, b) -> a | b);
+                        }
+                    }
+                }
+            }
+        }
+        return busy;
+    }
+
+    /** A comma-separated list of {@code count} JDBC placeholders. */
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /** Slots of the given ET day that {@code [start, end)} touches. */
+    private static long busyMask(long day, ZonedDateTime start, ZonedDateTime end) {
+        ZonedDateTime open = slotStart(day, 0);
+        long fromMin = Duration.between(open, start).toMinutes();
+        long toMin = Duration.between(open, end).toMinutes();
+        int first = (int) Math.max(0, Math.floorDiv(fromMin, SLOT_MINUTES));
+        int last = (int) Math.min(SLOTS_PER_DAY, Math.floorDiv(toMin + SLOT_MINUTES - 1, SLOT_MINUTES));
+        if (last <= first) {
+            return 0;
+        }
+        return ((1L << (last - first)) - 1) << first;
+    }
+
+    /** Start time of a slot. */
+    private static ZonedDateTime slotStart(long day, int slot) {
+        return LocalDate.ofEpochDay(day).atTime(OPEN).atZone(ET).plusMinutes((long) slot * SLOT_MINUTES);
+    }
+
+    /** Bitmap key for an owner ID and ET epoch day. */
+    private static long key(int id, long day) {
+        return ((long) id << 32) | day;
+    }
+}
@@ -0,0 +1,347 @@
+package DAO;
+
+import Model.Appointment;
+import Model.AppointmentConflict;
+import Model.AppointmentFilter;
+import Model.BulkUpdateResult;
+import Model.Contact;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bulk appointment operations: shift a set of appointments in time, or move them to
+ * another contact or user.
+ * <p>
+ * Each operation selects the affected rows with one query, loads every appointment in
+ * the affected time window into an {@link AppointmentIntervalIndex}, and validates the
+ * proposed changes in memory (overlaps for the owner that changes, and business hours for
+ * shifts). Rows that pass are then written with a few set-based {@code UPDATE ... WHERE
+ * Appointment_ID IN (...)} statements in a single transaction; rows that fail are left
+ * untouched and reported in the {@link BulkUpdateResult}.
+ * </p>
+ * <p>
+ * Bulk operations need the database; they are not journaled by {@link OfflineStore}.
+ * </p>
+ */
+public class BulkAppointmentDAO {
+    /** Max IDs per UPDATE statement. */
+    private static final int CHUNK_SIZE = 1000;
+    /** Slack (seconds) when loading the window, to catch appointments that start before it but run into it. */
+    private static final long WINDOW_MARGIN = Duration.ofDays(1).toSeconds();
+
+    /** Every appointment starting in a time window (the validation window). */
+    static final String WINDOW_SQL = """
+            SELECT Appointment_ID, Start, End, Customer_ID, User_ID, Contact_ID
+              FROM appointments
+             WHERE Start >= ? AND Start < ?
+        """;
+
+    /** Appointment columns needed for validation; times are UTC epoch seconds as stored. */
+    private static class Row {
+        int id, customerId, userId, contactId;
+        long start, end;
+    }
+
+    /**
+     * Moves every matching appointment by the given duration (may be negative).
+     * Appointments that would overlap another appointment of the same customer, or leave
+     * business hours (8:00 a.m. to 10:00 p.m. ET), are skipped.
+     *
+     * @param filter which appointments to move
+     * @param shift  how far to move them
+     * @return the number moved and the rows skipped
+     * @throws SQLException if a database access error occurs (nothing is changed)
+     */
+    public static BulkUpdateResult shiftByDuration(AppointmentFilter filter, Duration shift) throws SQLException {
+        long delta = shift.toSeconds();
+        List<Integer> accepted = new ArrayList<>();
+        BulkUpdateResult result = AppointmentDAO.inTransaction(conn -> {
+            List<Row> selected = select(conn, filter);
+            List<AppointmentConflict> conflicts = new ArrayList<>();
+            Map<Integer, Map<Character, String>> history = new LinkedHashMap<>();
+            if (!selected.isEmpty()) {
+                AppointmentIntervalIndex byCustomer = loadWindow(conn, selected, delta, r -> r.customerId);
+                // Take every selected row out first, so each one is checked against where the
+                // others end up rather than where they are now (back-to-back rows shift together)
+                for (Row r : selected) {
+                    byCustomer.remove(r.customerId, r.id, r.start);
+                }
+                List<Row> pending = new ArrayList<>();
+                for (Row r : selected) {
+                    if (withinBusinessHours(r.start + delta, r.end + delta)) {
+                        pending.add(r);
+                    } else {
+                        byCustomer.add(r.customerId, r.id, r.start, r.end);
+                        conflicts.add(new AppointmentConflict(r.id, 0, "outside business hours"));
+                    }
+                }
+                // A rejected row stays where it is and may block rows accepted before it,
+                // so validate again until no more rows are rejected
+                List<Row> moved = new ArrayList<>();
+                boolean rejected = true;
+                while (rejected) {
+                    rejected = false;
+                    for (Row r : moved) {
+                        byCustomer.remove(r.customerId, r.id, r.start + delta);
+                    }
+                    moved.clear();
+                    for (Iterator<Row> it = pending.iterator(); it.hasNext(); ) {
+                        Row r = it.next();
+                        int other = byCustomer.findOverlap(r.customerId, r.start + delta, r.end + delta, r.id);
+                        if (other != 0) {
+                            it.remove();
+                            byCustomer.add(r.customerId, r.id, r.start, r.end);
+                            conflicts.add(new AppointmentConflict(r.id, other, "customer overlap"));
+                            rejected = true;
+                        } else {
+                            byCustomer.add(r.customerId, r.id, r.start + delta, r.end + delta);
+                            moved.add(r);
+                        }
+                    }
+                }
+                for (Row r : moved) {
+                    long newStart = r.start + delta, newEnd = r.end + delta;
+                    accepted.add(r.id);
+                    history.put(r.id, Map.of(
+                            AppointmentHistory.START, LocalDateTime.ofEpochSecond(newStart, 0, ZoneOffset.UTC).toString(),
+                            AppointmentHistory.END, LocalDateTime.ofEpochSecond(newEnd, 0, ZoneOffset.UTC).toString()));
+                }
+                update(conn, """
+                    UPDATE appointments
+                       SET Start = Start + INTERVAL ? SECOND, End = End + INTERVAL ? SECOND,
+                           Last_Update = UTC_TIMESTAMP()
+                     WHERE Appointment_ID IN (%s)
+                """, accepted, delta, delta);
+                AppointmentHistory.recordChanges(conn, history);
+            }
+            return new BulkUpdateResult(accepted.size(), conflicts);
+        });
+        DBConnection.noteWrite();
+        OfflineStore.updateCachedAppointments(new HashSet<>(accepted), a -> new Appointment(
+                a.getId(), a.getTitle(), a.getDescription(), a.getLocation(), a.getType(),
+                a.getStart().plus(shift), a.getEnd().plus(shift),
+                a.getCustomerId(), a.getUserId(), a.getContactId(), a.getContactName()));
+        return result;
+    }
+
+    /**
+     * Assigns every matching appointment to another contact.
+     * Appointments that would double-book the new contact are skipped.
+     *
+     * @param filter       which appointments to reassign
+     * @param newContactId the contact to assign
+     * @return the number reassigned and the rows skipped
+     * @throws SQLException if a database access error occurs (nothing is changed)
+     */
+    public static BulkUpdateResult reassignContact(AppointmentFilter filter, int newContactId) throws SQLException {
+        String contactName = null;
+        for (Contact c : ContactDAO.getAllContacts()) {
+            if (c.getId() == newContactId) {
+                contactName = c.getName();
+            }
+        }
+        String newName = contactName;
+        return reassign(filter, newContactId, r -> r.contactId, AppointmentHistory.CONTACT, "contact overlap",
+                "UPDATE appointments SET Contact_ID = ?, Last_Update = UTC_TIMESTAMP() WHERE Appointment_ID IN (%s)",
+                a -> new Appointment(a.getId(), a.getTitle(), a.getDescription(), a.getLocation(), a.getType(),
+                        a.getStart(), a.getEnd(), a.getCustomerId(), a.getUserId(), newContactId, newName));
+    }
+
+    /**
+     * Assigns every matching appointment to another user.
+     * Appointments that would double-book the new user are skipped.
+     *
+     * @param filter    which appointments to reassign
+     * @param newUserId the user to assign
+     * @return the number reassigned and the rows skipped
+     * @throws SQLException if a database access error occurs (nothing is changed)
+     */
+    public static BulkUpdateResult reassignUser(AppointmentFilter filter, int newUserId) throws SQLException {
+        return reassign(filter, newUserId, r -> r.userId, AppointmentHistory.USER, "user overlap",
+                "UPDATE appointments SET User_ID = ?, Last_Update = UTC_TIMESTAMP() WHERE Appointment_ID IN (%s)",
+                a -> new Appointment(a.getId(), a.getTitle(), a.getDescription(), a.getLocation(), a.getType(),
+                        a.getStart(), a.getEnd(), a.getCustomerId(), newUserId, a.getContactId(), a.getContactName()));
+    }
+
+    /**
+     * Shared implementation of the reassign operations: the time stays the same,
+     * only the owner given by {@code owner} (history column {@code column}) changes to {@code newOwner}.
+     */
+    private static BulkUpdateResult reassign(AppointmentFilter filter, int newOwner, ToIntFunction<Row> owner,
+                                             char column, String reason, String updateSql,
+                                             UnaryOperator<Appointment> change) throws SQLException {
+        List<Integer> accepted = new ArrayList<>();
+        BulkUpdateResult result = AppointmentDAO.inTransaction(conn -> {
+            List<Row> selected = select(conn, filter);
+            List<AppointmentConflict> conflicts = new ArrayList<>();
+            if (!selected.isEmpty()) {
+                AppointmentIntervalIndex index = loadWindow(conn, selected, 0, owner);
+                // As in shiftByDuration, take every row that changes owner out first and
+                // re-add each one under the owner it ends up with
+                List<Row> moving = new ArrayList<>();
+                for (Row r : selected) {
+                    if (owner.applyAsInt(r) != newOwner) {
+                        index.remove(owner.applyAsInt(r), r.id, r.start);
+                        moving.add(r);
+                    }
+                }
+                for (Row r : moving) {
+                    int other = index.findOverlap(newOwner, r.start, r.end, r.id);
+                    if (other != 0) {
+                        index.add(owner.applyAsInt(r), r.id, r.start, r.end);
+                        conflicts.add(new AppointmentConflict(r.id, other, reason));
+                    } else {
+                        index.add(newOwner, r.id, r.start, r.end);
+                        accepted.add(r.id);
+                    }
+                }
+                update(conn, updateSql, accepted, newOwner);
+                Map<Integer, Map<Character, String>> history = new LinkedHashMap<>();
+                for (int id : accepted) {
+                    history.put(id, Map.of(column, String.valueOf(newOwner)));
+                }
+                AppointmentHistory.recordChanges(conn, history);
+            }
+            return new BulkUpdateResult(accepted.size(), conflicts);
+        });
+        DBConnection.noteWrite();
+        OfflineStore.updateCachedAppointments(new HashSet<>(accepted), change);
+        return result;
+    }
+
+    /**
+     * Selects the rows matching the filter, locking them for the rest of the transaction.
+     */
+    private static List<Row> select(Connection conn, AppointmentFilter filter) throws SQLException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT Appointment_ID, Start, End, Customer_ID, User_ID, Contact_ID FROM appointments WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        if (filter.getContactId() != null) {
+            sql.append(" AND Contact_ID = ?");
+            params.add(filter.getContactId());
+        }
+        if (filter.getUserId() != null) {
+            sql.append(" AND User_ID = ?");
+            params.add(filter.getUserId());
+        }
+        if (filter.getCustomerId() != null) {
+            sql.append(" AND Customer_ID = ?");
+            params.add(filter.getCustomerId());
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND Start >= ?");
+            params.add(toUtc(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND Start < ?");
+            params.add(toUtc(filter.getTo()));
+        }
+        sql.append(" ORDER BY Start FOR UPDATE");
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return readRows(ps);
+        }
+    }
+
+    /**
+     * Indexes every appointment that could overlap the selected rows, before or after
+     * a shift of {@code delta} seconds, by the given owner.
+     */
+    private static AppointmentIntervalIndex loadWindow(Connection conn, List<Row> selected, long delta,
+                                                       ToIntFunction<Row> owner) throws SQLException {
+        long from = Long.MAX_VALUE, to = Long.MIN_VALUE;
+        for (Row r : selected) {
+            from = Math.min(from, Math.min(r.start, r.start + delta));
+            to = Math.max(to, Math.max(r.end, r.end + delta));
+        }
+        String sql = WINDOW_SQL;
+        AppointmentIntervalIndex index = new AppointmentIntervalIndex();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(LocalDateTime.ofEpochSecond(from - WINDOW_MARGIN, 0, ZoneOffset.UTC)));
+            ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.ofEpochSecond(to, 0, ZoneOffset.UTC)));
+            for (Row r : readRows(ps)) {
+                index.add(owner.applyAsInt(r), r.id, r.start, r.end);
+            }
+        }
+        return index;
+    }
+
+    /** Reads validation rows from a query over the appointments table. */
+    private static List<Row> readRows(PreparedStatement ps) throws SQLException {
+        List<Row> rows = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Row r = new Row();
+                r.id = rs.getInt("Appointment_ID");
+                r.start = rs.getTimestamp("Start").toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+                r.end = rs.getTimestamp("End").toLocalDateTime().toEpochSecond(ZoneOffset.UTC);
+                r.customerId = rs.getInt("Customer_ID");
+                r.userId = rs.getInt("User_ID");
+                r.contactId = rs.getInt("Contact_ID");
+                rows.add(r);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Runs {@code sqlTemplate} (with one {@code %s} for the ID list) once per chunk of IDs,
+     * binding {@code leading} before the IDs.
+     */
+    private static void update(Connection conn, String sqlTemplate, List<Integer> ids, Object... leading) throws SQLException {
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE));
+            String sql = String.format(sqlTemplate, String.join(",", Collections.nCopies(chunk.size(), "?")));
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int p = 1;
+                for (Object o : leading) {
+                    ps.setObject(p++, o);
+                }
+                for (int id : chunk) {
+                    ps.setInt(p++, id);
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Checks the 8:00 a.m. – 10:00 p.m. ET rule for a UTC interval (same rule as the appointment form):
+     * both ends within those hours and on the same ET day.
+     */
+    private static boolean withinBusinessHours(long startUtc, long endUtc) {
+        ZoneId est = ZoneId.of("America/New_York");
+        ZonedDateTime zStart = LocalDateTime.ofEpochSecond(startUtc, 0, ZoneOffset.UTC).atZone(ZoneOffset.UTC).withZoneSameInstant(est);
+        ZonedDateTime zEnd = LocalDateTime.ofEpochSecond(endUtc, 0, ZoneOffset.UTC).atZone(ZoneOffset.UTC).withZoneSameInstant(est);
+        LocalTime open = LocalTime.of(8, 0), close = LocalTime.of(22, 0);
+        return !zStart.toLocalTime().isBefore(open) && !zStart.toLocalTime().isAfter(close)
+                && !zEnd.toLocalTime().isBefore(open) && !zEnd.toLocalTime().isAfter(close)
+                && !zEnd.isBefore(zStart) && zStart.toLocalDate().equals(zEnd.toLocalDate());
+    }
+
+    /** Converts a local date-time to the UTC timestamp stored in the database. */
+    private static Timestamp toUtc(LocalDateTime local) {
+        return Timestamp.valueOf(local.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of("UTC")).toLocalDateTime());
+    }
+}
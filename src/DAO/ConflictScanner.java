@@ -0,0 +1,170 @@
+package DAO;
+
+import Model.AppointmentConflict;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Finds every pair of overlapping appointments that share a contact or a user.
+ * <p>
+ * For each dimension the appointments are streamed from the database ordered by
+ * {@code (key, Start)} (served by the {@code (Contact_ID, Start)} and {@code (User_ID, Start)}
+ * indexes) and swept once: a min-heap holds the end times of the appointments still
+ * running for the current key, entries that ended by the next start are popped, and
+ * whatever remains overlaps the new appointment. This is O(n log k) per dimension, where
+ * k is the most appointments running at once for one key, and memory is bounded by k
+ * rather than by the table size.
+ * </p>
+ * <p>
+ * Key ranges are split into partitions that are scanned in parallel, each on its own
+ * connection. Only the hot table is scanned; archived appointments are all in the past.
+ * Intended to be run nightly via {@link #main(String[])}.
+ * </p>
+ */
+public class ConflictScanner {
+    /** Scanned dimensions: key column and the label used in reports. */
+    private static final String[][] DIMENSIONS = {
+            {"Contact_ID", "contact"},
+            {"User_ID", "user"}
+    };
+
+    /**
+     * Scans all contacts and users and prints every conflict, one per line.
+     *
+     * @param args optional number of partitions per dimension (default: available processors)
+     */
+    public static void main(String[] args) throws Exception {
+        int partitions = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long started = System.nanoTime();
+        long found = scan(partitions, c -> {
+            synchronized (System.out) {
+                System.out.println(c);
+            }
+        });
+        System.out.printf("%d conflicts found in %d ms%n", found, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Scans both dimensions and collects the conflicts.
+     *
+     * @param partitions number of key ranges scanned in parallel per dimension
+     * @return every overlapping pair, once per shared contact or user
+     */
+    public static List<AppointmentConflict> scan(int partitions) throws SQLException, InterruptedException {
+        List<AppointmentConflict> list = new ArrayList<>();
+        scan(partitions, c -> {
+            synchronized (list) {
+                list.add(c);
+            }
+        });
+        return list;
+    }
+
+    /**
+     * Scans both dimensions and streams the conflicts to a sink.
+     *
+     * @param partitions number of key ranges scanned in parallel per dimension
+     * @param sink       receives each conflict; called concurrently from worker threads
+     * @return the number of conflicts found
+     */
+    public static long scan(int partitions, Consumer<AppointmentConflict> sink) throws SQLException, InterruptedException {
+        partitions = Math.max(1, partitions);
+        List<long[]> tasks = new ArrayList<>(); // {dimension, from, to}
+        try (Connection conn = DBConnection.openConnection()) {
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                String key = DIMENSIONS[d][0];
+                try (PreparedStatement ps = conn.prepareStatement("SELECT MIN(" + key + "), MAX(" + key + ") FROM appointments");
+                     ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || rs.getObject(1) == null) {
+                        continue; // no appointments
+                    }
+                    long min = rs.getLong(1), max = rs.getLong(2);
+                    long step = Math.max(1, (max - min + partitions) / partitions);
+                    for (long from = min; from <= max; from += step) {
+                        tasks.add(new long[]{d, from, Math.min(max, from + step - 1)});
+                    }
+                }
+            }
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(tasks.size(), 2 * partitions)));
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (long[] t : tasks) {
+                futures.add(pool.submit(() -> sweep((int) t[0], t[1], t[2], sink)));
+            }
+            long total = 0;
+            for (Future<Long> f : futures) {
+                total += f.get();
+            }
+            return total;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Sweeps one key range of one dimension.
+     *
+     * @return the number of conflicts found
+     */
+    private static long sweep(int dimension, long fromKey, long toKey, Consumer<AppointmentConflict> sink) throws SQLException {
+        String key = DIMENSIONS[dimension][0];
+        String label = DIMENSIONS[dimension][1];
+        // Epoch seconds computed on the server, independent of the session time zone
+        String sql = """
+            SELECT %1$s, Appointment_ID,
+                   TIMESTAMPDIFF(SECOND, '1970-01-01', Start) AS S,
+                   TIMESTAMPDIFF(SECOND, '1970-01-01', End) AS E
+              FROM appointments
+             WHERE %1$s BETWEEN ? AND ?
+             ORDER BY %1$s, Start
+        """.formatted(key);
+        // Running appointments of the current key as {end, id}, earliest end first
+        PriorityQueue<long[]> running = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        long found = 0;
+        long currentKey = Long.MIN_VALUE;
+        try (Connection conn = DBConnection.openConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE); // stream rows instead of buffering the result
+            ps.setLong(1, fromKey);
+            ps.setLong(2, toKey);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long k = rs.getLong(1);
+                    int id = rs.getInt(2);
+                    long start = rs.getLong(3);
+                    long end = rs.getLong(4);
+                    if (k != currentKey) {
+                        running.clear();
+                        currentKey = k;
+                    }
+                    while (!running.isEmpty() && running.peek()[0] <= start) {
+                        running.poll();
+                    }
+                    for (long[] r : running) {
+                        sink.accept(new AppointmentConflict((int) r[1], id, label + " " + k + " double-booked"));
+                        found++;
+                    }
+                    running.add(new long[]{end, id});
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -13,22 +13,20 @@ import java.sql.SQLException;
  * Provides methods to fetch contact data from the database.
  */
 public class ContactDAO {
+    /** Contact lookup by name. */
+    static final String ID_BY_NAME_SQL = "SELECT Contact_ID FROM contacts WHERE Contact_Name = ?";
 
     /**
      * Retrieves all contact names from the contacts table.
+     * Served from the {@link OfflineStore} snapshot while offline.
      *
      * @return an ObservableList of contact name Strings
      * @throws SQLException if a database access error occurs
      */
     public static ObservableList<String> getAllContactNames() throws SQLException {
         ObservableList<String> list = FXCollections.observableArrayList();
-        String sql = "SELECT Contact_Name FROM contacts";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                list.add(rs.getString("Contact_Name"));
-            }
+        for (Contact contact : getAllContacts()) {
+            list.add(contact.getName());
         }
         return list;
     }
@@ -36,14 +34,29 @@ public class ContactDAO {
     /**
      * Retrieves all contacts as pairs of Contact_ID and Contact_Name.
      * Useful for mapping a name to an ID when saving appointments.
+     * Refreshes the {@link OfflineStore} snapshot, and is served from it while offline.
      *
      * @return an ObservableList of Contact objects (with id and name)
      * @throws SQLException if a database access error occurs
      */
     public static ObservableList<Contact> getAllContacts() throws SQLException {
+        try {
+            ObservableList<Contact> list = fetchAllContacts();
+            OfflineStore.cacheContacts(list);
+            return list;
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            return OfflineStore.contacts(e);
+        }
+    }
+
+    /**
+     * Retrieves all contacts directly from the database (no offline fallback).
+     */
+    static ObservableList<Contact> fetchAllContacts() throws SQLException {
         ObservableList<Contact> list = FXCollections.observableArrayList();
         String sql = "SELECT Contact_ID, Contact_Name FROM contacts";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
@@ -57,14 +70,14 @@ public class ContactDAO {
 
     /**
      * Gets the Contact_ID for a given Contact_Name.
-     * Returns -1 if not found.
+     * Returns -1 if not found. Served from the {@link OfflineStore} snapshot while offline.
      *
      * @param contactName the name to look up
      * @return the Contact_ID, or -1 if not found
      * @throws SQLException if a database access error occurs
      */
     public static int getContactIdByName(String contactName) throws SQLException {
-        String sql = "SELECT Contact_ID FROM contacts WHERE Contact_Name = ?";
+        String sql = ID_BY_NAME_SQL;
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, contactName);
@@ -73,6 +86,13 @@ public class ContactDAO {
                     return rs.getInt("Contact_ID");
                 }
             }
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            for (Contact contact : OfflineStore.contacts(e)) {
+                if (contact.getName().equals(contactName)) {
+                    return contact.getId();
+                }
+            }
         }
         return -1;
     }
@@ -28,7 +28,7 @@ public class CountryDAO {
         String sql = "SELECT Country_ID, Country FROM countries";
 
         // Try-with-resources to auto-close resources
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             // Execute the query and get the result set
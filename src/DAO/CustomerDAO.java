@@ -1,23 +1,50 @@
 package DAO;
 
 import Model.Customer;
+import Model.Division;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Data Access Object for Customer CRUD and queries.
  * Handles all database operations for the Customer table, including division/country lookups.
  */
 public class CustomerDAO {
+    /** Division lookup by name. */
+    static final String DIVISION_ID_BY_NAME_SQL = "SELECT Division_ID FROM first_level_divisions WHERE Division = ?";
 
     /**
      * Fetches all customers, including their division and country names (for display in TableView).
      *
+     * Refreshes the {@link OfflineStore} snapshot, and is served from it while offline
+     * or while the startup snapshot is still warm.
+     *
      * @return ObservableList of Customer objects (includes divisionName and countryName)
      * @throws SQLException if a database access error occurs
      */
     public static ObservableList<Customer> getAllCustomers() throws SQLException {
+        ObservableList<Customer> warm = OfflineStore.warmCustomers();
+        if (warm != null) {
+            return warm;
+        }
+        try {
+            ObservableList<Customer> list = fetchAllCustomers();
+            OfflineStore.cacheCustomers(list);
+            return list;
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            return OfflineStore.customers(e);
+        }
+    }
+
+    /**
+     * Fetches all customers directly from the database (no offline fallback).
+     */
+    static ObservableList<Customer> fetchAllCustomers() throws SQLException {
         ObservableList<Customer> list = FXCollections.observableArrayList();
         // Join to get readable division and country names
         String sql = """
@@ -27,7 +54,7 @@ public class CustomerDAO {
             JOIN first_level_divisions d ON cu.Division_ID = d.Division_ID
             JOIN countries c ON d.Country_ID = c.Country_ID
         """;
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
@@ -49,13 +76,28 @@ public class CustomerDAO {
 
     /**
      * Adds a new customer to the database.
+     * If the database is unreachable, the insert is journaled by {@link OfflineStore}
+     * and the customer receives a temporary (negative) ID until it is replayed.
      * @param customer The Customer object (ID is ignored/auto-generated)
      * @throws SQLException if a database access error occurs
      */
     public static void addCustomer(Customer customer) throws SQLException {
+        try {
+            insertCustomer(customer);
+            OfflineStore.rememberCustomer(customer);
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            OfflineStore.addCustomer(customer, e);
+        }
+    }
+
+    /**
+     * Inserts a customer directly (no offline fallback) and sets its generated ID.
+     */
+    static void insertCustomer(Customer customer) throws SQLException {
         String sql = """
-            INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Division_ID)
-            VALUES (?, ?, ?, ?, ?)
+            INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Division_ID, Last_Update)
+            VALUES (?, ?, ?, ?, ?, UTC_TIMESTAMP())
         """;
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -65,6 +107,7 @@ public class CustomerDAO {
             ps.setString(4, customer.getPhone());
             ps.setInt(5, customer.getDivisionId());
             ps.executeUpdate();
+            DBConnection.noteWrite();
             // Optionally get generated ID:
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
@@ -76,13 +119,28 @@ public class CustomerDAO {
 
     /**
      * Updates an existing customer record in the database.
+     * Journaled by {@link OfflineStore} if the database is unreachable.
      * @param customer The updated Customer object (ID must be set)
      * @throws SQLException if a database access error occurs
      */
     public static void updateCustomer(Customer customer) throws SQLException {
+        try {
+            writeCustomerUpdate(customer);
+            OfflineStore.rememberCustomer(customer);
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            OfflineStore.updateCustomer(customer, e);
+        }
+    }
+
+    /**
+     * Updates a customer directly (no offline fallback).
+     */
+    static void writeCustomerUpdate(Customer customer) throws SQLException {
         String sql = """
             UPDATE customers SET
-                Customer_Name = ?, Address = ?, Postal_Code = ?, Phone = ?, Division_ID = ?
+                Customer_Name = ?, Address = ?, Postal_Code = ?, Phone = ?, Division_ID = ?,
+                Last_Update = UTC_TIMESTAMP()
             WHERE Customer_ID = ?
         """;
         try (Connection conn = DBConnection.getConnection();
@@ -94,15 +152,30 @@ public class CustomerDAO {
             ps.setInt(5, customer.getDivisionId());
             ps.setInt(6, customer.getId());
             ps.executeUpdate();
+            DBConnection.noteWrite();
         }
     }
 
     /**
      * Deletes a customer record and all related appointments (due to foreign key constraints).
+     * Journaled by {@link OfflineStore} if the database is unreachable.
      * @param customerId The ID of the customer to delete
      * @throws SQLException if a database access error occurs
      */
     public static void deleteCustomer(int customerId) throws SQLException {
+        try {
+            removeCustomer(customerId);
+            OfflineStore.forgetCustomer(customerId);
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            OfflineStore.deleteCustomer(customerId, e);
+        }
+    }
+
+    /**
+     * Deletes a customer and its appointments directly (no offline fallback).
+     */
+    static void removeCustomer(int customerId) throws SQLException {
         // Delete all appointments for this customer first
         AppointmentDAO.deleteByCustomerId(customerId);
         // Then delete the customer
@@ -111,16 +184,104 @@ public class CustomerDAO {
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, customerId);
             ps.executeUpdate();
+            DBConnection.noteWrite();
         }
     }
 
+    /**
+     * Fetches a single customer by ID directly from the database (used for replay conflict checks).
+     *
+     * @return the customer, or null if it no longer exists
+     */
+    static Customer fetchCustomerById(int customerId) throws SQLException {
+        String sql = """
+            SELECT cu.Customer_ID, cu.Customer_Name, cu.Address, cu.Postal_Code, cu.Phone,
+                   cu.Division_ID, d.Division, c.Country
+            FROM customers cu
+            JOIN first_level_divisions d ON cu.Division_ID = d.Division_ID
+            JOIN countries c ON d.Country_ID = c.Country_ID
+            WHERE cu.Customer_ID = ?
+        """;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, customerId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new Customer(
+                            rs.getInt("Customer_ID"),
+                            rs.getString("Customer_Name"),
+                            rs.getString("Address"),
+                            rs.getString("Postal_Code"),
+                            rs.getString("Phone"),
+                            rs.getInt("Division_ID"),
+                            rs.getString("Division"),
+                            rs.getString("Country")
+                    );
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fetches customers inserted or updated after a server time (delta refresh of the local snapshot).
+     *
+     * @param sinceUtc server UTC time of the previous refresh
+     */
+    static ObservableList<Customer> fetchCustomersChangedSince(LocalDateTime sinceUtc) throws SQLException {
+        ObservableList<Customer> list = FXCollections.observableArrayList();
+        String sql = """
+            SELECT cu.Customer_ID, cu.Customer_Name, cu.Address, cu.Postal_Code, cu.Phone,
+                   cu.Division_ID, d.Division, c.Country
+            FROM customers cu
+            JOIN first_level_divisions d ON cu.Division_ID = d.Division_ID
+            JOIN countries c ON d.Country_ID = c.Country_ID
+            WHERE cu.Last_Update > ?
+        """;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(sinceUtc));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new Customer(
+                            rs.getInt("Customer_ID"),
+                            rs.getString("Customer_Name"),
+                            rs.getString("Address"),
+                            rs.getString("Postal_Code"),
+                            rs.getString("Phone"),
+                            rs.getInt("Division_ID"),
+                            rs.getString("Division"),
+                            rs.getString("Country")
+                    ));
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Fetches the IDs of all customers (used to drop deleted rows from the local snapshot).
+     */
+    static Set<Integer> fetchCustomerIds() throws SQLException {
+        Set<Integer> ids = new HashSet<>();
+        String sql = "SELECT Customer_ID FROM customers";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
     /**
      * Returns all unique country names from the database for ComboBox.
      */
     public static ObservableList<String> getAllCountries() throws SQLException {
         ObservableList<String> list = FXCollections.observableArrayList();
         String sql = "SELECT DISTINCT Country FROM countries ORDER BY Country";
-        try (Connection conn = DBConnection.getConnection();
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) {
@@ -156,9 +317,10 @@ public class CustomerDAO {
 
     /**
      * Looks up and returns the division ID for a given division name.
+     * Served from the {@link OfflineStore} snapshot while offline.
      */
     public static int getDivisionIdByName(String divisionName) throws SQLException {
-        String sql = "SELECT Division_ID FROM first_level_divisions WHERE Division = ?";
+        String sql = DIVISION_ID_BY_NAME_SQL;
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, divisionName);
@@ -167,6 +329,13 @@ public class CustomerDAO {
                     return rs.getInt("Division_ID");
                 }
             }
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            for (Division d : OfflineStore.divisions(e)) {
+                if (d.getName().equals(divisionName)) {
+                    return d.getId();
+                }
+            }
         }
         return -1; // Not found
     }
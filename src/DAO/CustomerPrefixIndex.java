@@ -0,0 +1,129 @@
+package DAO;
+
+import Model.Customer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable prefix index over customers for type-ahead lookup.
+ * <p>
+ * Every word of each customer name and the decimal customer ID are stored as lowercase
+ * keys in one sorted array; a prefix query binary-searches the first key at or after the
+ * prefix and walks forward while keys still match, so a lookup costs O(log n + limit)
+ * regardless of how many customers exist. An ID hash map gives O(1) selection by ID.
+ * </p>
+ */
+public class CustomerPrefixIndex {
+    /** Sorted lowercase keys (name words and IDs). */
+    private final String[] keys;
+    /** Customer for each entry of {@link #keys}. */
+    private final Customer[] owners;
+    /** Customer_ID -> customer. */
+    private final Map<Integer, Customer> byId;
+
+    /**
+     * Builds the index. Intended to run off the JavaFX thread for large customer lists.
+     *
+     * @param customers all customers
+     */
+    public CustomerPrefixIndex(List<Customer> customers) {
+        List<Object[]> entries = new ArrayList<>(customers.size() * 3);
+        byId = new HashMap<>(customers.size() * 2);
+        for (Customer c : customers) {
+            byId.put(c.getId(), c);
+            entries.add(new Object[]{String.valueOf(c.getId()), c});
+            if (c.getName() != null) {
+                for (String word : c.getName().toLowerCase(Locale.ROOT).split("\\s+")) {
+                    if (!word.isEmpty()) {
+                        entries.add(new Object[]{word, c});
+                    }
+                }
+            }
+        }
+        Object[][] sorted = entries.toArray(new Object[0][]);
+        Arrays.sort(sorted, Comparator.comparing((Object[] e) -> (String) e[0]));
+        keys = new String[sorted.length];
+        owners = new Customer[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = (String) sorted[i][0];
+            owners[i] = (Customer) sorted[i][1];
+        }
+    }
+
+    /**
+     * Finds customers with a name word or ID starting with every word of the query
+     * (e.g. "jo sm" matches "John Smith"), in key order.
+     *
+     * @param query text typed by the user
+     * @param limit maximum number of results
+     * @return up to {@code limit} matching customers
+     */
+    public List<Customer> search(String query, int limit) {
+        String[] words = query.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        if (words.length == 0 || words[0].isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Drive the scan with the first word; further words filter the candidates
+        Set<Customer> results = new LinkedHashSet<>();
+        for (int i = lowerBound(words[0]); i < keys.length && keys[i].startsWith(words[0]) && results.size() < limit; i++) {
+            if (matchesAll(owners[i], words)) {
+                results.add(owners[i]);
+            }
+        }
+        return new ArrayList<>(results);
+    }
+
+    /**
+     * @param id a Customer_ID
+     * @return the customer with that ID, or null
+     */
+    public Customer get(int id) {
+        return byId.get(id);
+    }
+
+    /** @return the number of customers indexed */
+    public int size() {
+        return byId.size();
+    }
+
+    /** Index of the first key greater than or equal to {@code prefix}. */
+    private int lowerBound(String prefix) {
+        int lo = 0, hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** True if every query word prefixes the customer's ID or one of its name words. */
+    private static boolean matchesAll(Customer c, String[] words) {
+        if (words.length == 1) {
+            return true;
+        }
+        String id = String.valueOf(c.getId());
+        String[] nameWords = c.getName() == null ? new String[0] : c.getName().toLowerCase(Locale.ROOT).split("\\s+");
+        for (String w : words) {
+            boolean found = id.startsWith(w);
+            for (int i = 0; !found && i < nameWords.length; i++) {
+                found = nameWords[i].startsWith(w);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,8 +1,15 @@
 package DAO;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Properties;
 
 /**
  * Manages a singleton JDBC connection to the MySQL database.
@@ -10,29 +17,324 @@ import java.sql.SQLException;
  * to establish and cache a single Connection instance.
  * Subsequent calls to getConnection() will return the
  * existing connection if it’s still open.
+ * <p>
+ * When replica hosts are configured (system property {@code chronomate.db.replicas},
+ * e.g. {@code replica1:3306,replica2:3306}), read-only DAO queries call
+ * {@link #getReadConnection()}, which returns a second singleton opened with a
+ * {@code jdbc:mysql:replication://} URL and switched to read-only once, so they run on a
+ * replica; everything else (writes, and reads that must see them, like the overlap check
+ * on save) uses {@link #getConnection()} and stays on the primary. Keeping the two apart
+ * means a read never flips the mode of a connection a writer is using. Reads also fall
+ * back to the primary right after a write, and whenever the replica reports more than
+ * {@link #MAX_REPLICA_LAG_SECONDS} of lag.
+ * </p>
+ * <p>
+ * Connects give up after {@link #CONNECT_TIMEOUT_MS}. After a failed connect the class is
+ * offline: further connects fail at once with a connection error, so the DAOs fall back to
+ * the {@link OfflineStore} without waiting on the network, until a backoff delay (doubling
+ * from {@link #MIN_RETRY_DELAY_MS} up to {@link #MAX_RETRY_DELAY_MS}) has passed and the
+ * next call tries again.
+ * </p>
  */
 public class DBConnection {
+    /** Host and port of the primary database server. */
+    private static final String HOST = "localhost:3306";
+    /** Schema holding the application tables. */
+    private static final String DATABASE = "client_schedule";
     /** JDBC URL for connecting to the MySQL database. */
-    private static final String URL = "jdbc:mysql://localhost:3306/client_schedule";
+    private static final String URL = "jdbc:mysql://" + HOST + "/" + DATABASE;
     /** Username for the database connection. */
     private static final String USER = "sqlUser";
     /** Password for the database connection. */
     private static final String PASS = "Passw0rd!";
-    /** Cached singleton Connection instance. */
+    /** Comma-separated replica hosts; empty disables read/write splitting. */
+    private static final String REPLICAS = System.getProperty("chronomate.db.replicas", "").trim();
+    /** Socket connect timeout (ms) for every connection the DAO layer opens. */
+    static final int CONNECT_TIMEOUT_MS = 3_000;
+    /** Delay (ms) before the first reconnect attempt after a failed connect. */
+    private static final long MIN_RETRY_DELAY_MS = 1_000;
+    /** Upper bound (ms) of the reconnect delay. */
+    private static final long MAX_RETRY_DELAY_MS = 60_000;
+    /** Replication URL (primary first, then replicas) used when replicas are configured. */
+    private static final String REPLICATION_URL = "jdbc:mysql:replication://" + HOST + "," + REPLICAS
+            + "/" + DATABASE + "?allowReplicaDownConnections=true&readFromSourceWhenNoReplicas=true"
+            + "&connectTimeout=" + CONNECT_TIMEOUT_MS;
+    /** Replica lag (seconds) above which reads go to the primary. */
+    private static final long MAX_REPLICA_LAG_SECONDS = 5;
+    /** How often (ms) the replica lag is re-measured. */
+    private static final long LAG_CHECK_INTERVAL_MS = 10_000;
+    /** How long (ms) after a write reads stay on the primary, so users see their own changes. */
+    private static final long READ_YOUR_WRITES_MS = 2 * LAG_CHECK_INTERVAL_MS;
+    /** Cached singleton Connection instance (primary), guarded by {@link #CONNECT_LOCK}. */
     private static Connection conn = null;
+    /** Serializes opening the singleton, so the class lock is not held during a connect. */
+    private static final Object CONNECT_LOCK = new Object();
+    /** Time (ms) before which connects fail at once; 0 while online. */
+    private static volatile long offlineUntilMillis = 0;
+    /** Current reconnect delay (ms); 0 while online. */
+    private static long retryDelayMillis = 0;
+    /** Cached read-only replication connection, used only when replicas are configured. */
+    private static Connection readConn = null;
+    /** Time (ms) of the last write through the DAO layer. */
+    private static volatile long lastWriteMillis = 0;
+    /** Time (ms) the replica lag was last measured. */
+    private static long lagCheckedMillis = 0;
+    /** Result of the last lag measurement. */
+    private static boolean replicaHealthy = true;
+    /** Connection bound to the current thread by {@link #withOwnConnection}, if any. */
+    private static final ThreadLocal<Connection> OWN_CONNECTION = new ThreadLocal<>();
+
+    /**
+     * Database work run by {@link #withOwnConnection}.
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run() throws SQLException;
+    }
 
     /**
      * Returns a singleton database connection.
      * If no connection exists or the previous one is closed,
-     * a new connection is created via DriverManager.getConnection.
+     * a new connection is opened, unless the class is offline (see above).
      *
      * @return a valid, open Connection to the database
      * @throws SQLException if a database access error occurs or the URL is invalid
      */
     public static Connection getConnection() throws SQLException {
-        if (conn == null || conn.isClosed()) {
-            conn = DriverManager.getConnection(URL, USER, PASS);
+        Connection own = OWN_CONNECTION.get();
+        if (own != null) {
+            return own;
+        }
+        Connection c;
+        boolean reconnected = false;
+        synchronized (CONNECT_LOCK) {
+            if (conn == null || conn.isClosed()) {
+                conn = connect();
+                reconnected = true;
+            }
+            c = conn;
+        }
+        if (reconnected) {
+            // Back online: push any writes journaled while offline (in the background)
+            OfflineStore.onConnected();
+        }
+        return c;
+    }
+
+    /**
+     * Opens a primary connection with {@link #CONNECT_TIMEOUT_MS}, keeping track of the
+     * offline state: fails at once while offline, and enters or extends it on a connection failure.
+     *
+     * @return a new open Connection
+     * @throws SQLException if the class is offline or the connect fails
+     */
+    private static Connection connect() throws SQLException {
+        long wait = offlineUntilMillis - System.currentTimeMillis();
+        if (wait > 0) {
+            throw new SQLTransientConnectionException("Database offline; next connection attempt in " + wait + " ms", "08001");
+        }
+        try {
+            Connection c = openConnection(CONNECT_TIMEOUT_MS);
+            synchronized (DBConnection.class) {
+                retryDelayMillis = 0;
+                offlineUntilMillis = 0;
+            }
+            return c;
+        } catch (SQLException e) {
+            if (isConnectionFailure(e)) {
+                synchronized (DBConnection.class) {
+                    retryDelayMillis = retryDelayMillis == 0 ? MIN_RETRY_DELAY_MS : Math.min(2 * retryDelayMillis, MAX_RETRY_DELAY_MS);
+                    offlineUntilMillis = System.currentTimeMillis() + retryDelayMillis;
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return true while connects fail at once because the last attempt could not reach the database
+     */
+    public static boolean isOffline() {
+        return offlineUntilMillis > System.currentTimeMillis();
+    }
+
+    /**
+     * Opens a new, unshared connection to the primary for background work
+     * (e.g. archival) that must not hold transactions on the UI's singleton connection.
+     * The caller owns and must close it. Gives up after {@link #CONNECT_TIMEOUT_MS}.
+     *
+     * @return a new open Connection
+     * @throws SQLException if a database access error occurs
+     */
+    static Connection openConnection() throws SQLException {
+        return openConnection(CONNECT_TIMEOUT_MS);
+    }
+
+    /**
+     * Like {@link #openConnection()}, but gives up on an unreachable host after
+     * {@code connectTimeoutMillis} instead of the driver's default.
+     *
+     * @param connectTimeoutMillis socket connect timeout in milliseconds
+     * @return a new open Connection
+     * @throws SQLException if a database access error occurs or the timeout expires
+     */
+    static Connection openConnection(int connectTimeoutMillis) throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", USER);
+        props.setProperty("password", PASS);
+        props.setProperty("connectTimeout", String.valueOf(connectTimeoutMillis));
+        return DriverManager.getConnection(URL, props);
+    }
+
+    /**
+     * Runs DAO calls on a new, unshared primary connection instead of the singleton.
+     * Background threads (warm-up refreshes, lookups in a {@code Task}, offline replay) use
+     * this so they never share, or close, the connection the FX thread is working on.
+     * While {@code work} runs, {@link #getConnection()} and {@link #getReadConnection()}
+     * on this thread return that connection; the DAOs' try-with-resources leave it open,
+     * and it is closed once {@code work} returns. Nested calls reuse the outer connection.
+     * If the database cannot be reached, {@code work} still runs, and every statement on the
+     * bound connection fails with that connection failure, so the DAOs' offline fallbacks apply.
+     *
+     * @param work the DAO calls to run
+     * @return the result of {@code work}
+     * @throws SQLException if {@code work} fails
+     */
+    public static <T> T withOwnConnection(SqlWork<T> work) throws SQLException {
+        if (OWN_CONNECTION.get() != null) {
+            return work.run();
+        }
+        Connection own;
+        try {
+            own = connect();
+        } catch (SQLException e) {
+            if (!isConnectionFailure(e)) throw e;
+            own = unreachable(e);
+        }
+        try (Connection c = own) {
+            OWN_CONNECTION.set(keepOpen(c));
+            return work.run();
+        } finally {
+            OWN_CONNECTION.remove();
+        }
+    }
+
+    /** Wraps a connection so that close() is ignored; the owner closes the real one. */
+    private static Connection keepOpen(Connection c) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(c, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /** A stand-in for a connection that could not be opened: every call but close() throws {@code cause}. */
+    private static Connection unreachable(SQLException cause) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        return null;
+                    }
+                    throw new SQLException(cause.getMessage(), cause.getSQLState(), cause.getErrorCode(), cause);
+                });
+    }
+
+    /**
+     * Returns the connection for read-only queries (list views and reports).
+     * With replicas configured, this is the read-only replication connection unless a write
+     * happened recently or the replica is lagging; otherwise this is the primary connection.
+     *
+     * @return an open Connection suitable for read-only statements
+     * @throws SQLException if a database access error occurs
+     */
+    public static Connection getReadConnection() throws SQLException {
+        if (OWN_CONNECTION.get() != null || REPLICAS.isEmpty() || isOffline()
+                || System.currentTimeMillis() - lastWriteMillis < READ_YOUR_WRITES_MS) {
+            return getConnection();
+        }
+        Connection c;
+        boolean healthy;
+        synchronized (DBConnection.class) {
+            if (readConn == null || readConn.isClosed()) {
+                readConn = DriverManager.getConnection(REPLICATION_URL, USER, PASS);
+                readConn.setReadOnly(true);
+            }
+            c = readConn;
+            healthy = replicaHealthy(c);
+        }
+        return healthy ? c : getConnection();
+    }
+
+    /**
+     * Records that the DAO layer just wrote to the primary, pinning reads to it for a while.
+     */
+    static void noteWrite() {
+        lastWriteMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Measures (at most every {@link #LAG_CHECK_INTERVAL_MS}) whether the replica the
+     * connection is currently reading from is within the allowed lag.
+     * A replica whose SQL thread is stopped (NULL lag) counts as unhealthy.
+     * Called with the class lock held.
+     */
+    private static boolean replicaHealthy(Connection replica) {
+        long now = System.currentTimeMillis();
+        if (now - lagCheckedMillis < LAG_CHECK_INTERVAL_MS) {
+            return replicaHealthy;
+        }
+        lagCheckedMillis = now;
+        try {
+            Long lag = replicaLagSeconds(replica, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+            replicaHealthy = lag != null && lag <= MAX_REPLICA_LAG_SECONDS;
+        } catch (SQLException e) {
+            try {
+                // Servers before 8.0.22 only know the old syntax
+                Long lag = replicaLagSeconds(replica, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+                replicaHealthy = lag != null && lag <= MAX_REPLICA_LAG_SECONDS;
+            } catch (SQLException e2) {
+                replicaHealthy = false;
+            }
+        }
+        return replicaHealthy;
+    }
+
+    /**
+     * Runs a replica status statement and returns the lag column.
+     *
+     * @return lag in seconds, 0 if the host is not a replica (e.g. reads fell back to the primary),
+     *         or null if replication is not running
+     */
+    private static Long replicaLagSeconds(Connection c, String sql, String column) throws SQLException {
+        try (Statement st = c.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            if (!rs.next()) {
+                return 0L;
+            }
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    /**
+     * Tells whether an exception means the database could not be reached
+     * (as opposed to a rejected statement), i.e. whether to fall back to offline mode.
+     *
+     * @param e the exception thrown by a DAO call
+     * @return true for connection failures (SQLState class 08 or a connection exception type)
+     */
+    public static boolean isConnectionFailure(SQLException e) {
+        if (e instanceof SQLNonTransientConnectionException || e instanceof SQLTransientConnectionException) {
+            return true;
         }
-        return conn;
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
     }
 }
@@ -52,4 +52,27 @@ public class DivisionDAO {
         // Return the list of divisions (empty if none or on error)
         return divisions;
     }
+
+    /**
+     * Gets all first-level divisions (used to keep the local snapshot complete).
+     *
+     * @return ObservableList<Division> - every division in the database.
+     * @throws SQLException if a database access error occurs
+     */
+    static ObservableList<Division> fetchAllDivisions() throws SQLException {
+        ObservableList<Division> divisions = FXCollections.observableArrayList();
+        String sql = "SELECT Division_ID, Division, Country_ID FROM first_level_divisions";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                divisions.add(new Division(
+                        rs.getInt("Division_ID"),
+                        rs.getString("Division"),
+                        rs.getInt("Country_ID")
+                ));
+            }
+        }
+        return divisions;
+    }
 }
@@ -0,0 +1,127 @@
+package DAO;
+
+import Model.Appointment;
+import Model.Customer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persists the {@link OfflineStore} snapshot between runs so the client is usable
+ * immediately on startup.
+ * <p>
+ * {@link #load()} memory-maps the snapshot written on the previous exit and seeds the
+ * store as "warm" data; {@link #refreshInBackground()} then brings it up to date with a
+ * delta query (rows whose {@code Last_Update} is after the snapshot watermark, plus an ID
+ * scan to drop deleted rows) and {@link #save()} writes it back on exit.
+ * </p>
+ * <p>
+ * The snapshot holds every appointment in the hot table, so warm reads such as
+ * {@link AppointmentDAO#getAllAppointments()} return the same set as the database;
+ * {@link AppointmentArchiver} already keeps that table bounded.
+ * </p>
+ */
+public class LocalSnapshot {
+    /** Logger for load/refresh/save problems (never fatal). */
+    private static final Logger LOGGER = Logger.getLogger(LocalSnapshot.class.getName());
+    /** Snapshot file location. */
+    private static final Path FILE = OfflineStore.DATA_DIR.resolve("snapshot.bin");
+
+    /** Server UTC time the in-memory data is current as of (null until loaded or refreshed). */
+    private static volatile LocalDateTime watermark = null;
+
+    /**
+     * Loads the snapshot from disk, if a valid one exists, and seeds the offline store.
+     */
+    public static void load() {
+        try {
+            SnapshotFile.Data data = SnapshotFile.read(FILE);
+            if (data != null) {
+                OfflineStore.seed(data);
+                watermark = data.watermark;
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable snapshot " + FILE, e);
+        }
+    }
+
+    /**
+     * Starts a daemon thread that refreshes the snapshot from the database
+     * (delta if a snapshot was loaded, full otherwise) and then ends the warm phase.
+     * The refresh runs on its own connection, never the UI's singleton.
+     */
+    public static void refreshInBackground() {
+        Thread t = new Thread(() -> {
+            try {
+                DBConnection.withOwnConnection(() -> {
+                    refresh();
+                    return null;
+                });
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Snapshot refresh failed; keeping local data", e);
+            } finally {
+                OfflineStore.markRefreshed();
+            }
+        }, "snapshot-refresh");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Writes the current snapshot to disk. Called on application exit.
+     */
+    public static void save() {
+        if (watermark == null) {
+            return; // nothing was ever loaded
+        }
+        SnapshotFile.Data data = OfflineStore.export();
+        data.watermark = watermark;
+        try {
+            SnapshotFile.write(FILE, data);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Unable to write snapshot " + FILE, e);
+        }
+    }
+
+    /**
+     * Brings the offline store up to date with the database.
+     */
+    private static void refresh() throws SQLException {
+        // Capture the server clock first so rows changed during the refresh are seen next time
+        LocalDateTime serverNow = serverUtcNow();
+        LocalDateTime since = watermark;
+        if (since == null) {
+            OfflineStore.cacheAppointments(AppointmentDAO.fetchAllAppointments());
+            OfflineStore.cacheCustomers(CustomerDAO.fetchAllCustomers());
+        } else {
+            List<Appointment> changedAppts = AppointmentDAO.fetchAppointmentsChangedSince(since);
+            Set<Integer> liveAppts = AppointmentDAO.fetchAppointmentIds();
+            OfflineStore.mergeAppointments(changedAppts, liveAppts);
+            List<Customer> changedCustomers = CustomerDAO.fetchCustomersChangedSince(since);
+            Set<Integer> liveCustomers = CustomerDAO.fetchCustomerIds();
+            OfflineStore.mergeCustomers(changedCustomers, liveCustomers);
+        }
+        // Reference tables are small; reload them in full
+        OfflineStore.cacheContacts(ContactDAO.fetchAllContacts());
+        OfflineStore.cacheUsers(UserDAO.fetchAllUsers());
+        OfflineStore.cacheDivisions(DivisionDAO.fetchAllDivisions());
+        watermark = serverNow;
+    }
+
+    /** @return the database server's current UTC time */
+    private static LocalDateTime serverUtcNow() throws SQLException {
+        try (PreparedStatement ps = DBConnection.getConnection().prepareStatement("SELECT UTC_TIMESTAMP()");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1).toLocalDateTime();
+        }
+    }
+}
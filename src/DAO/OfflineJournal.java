@@ -0,0 +1,352 @@
+package DAO;
+
+import Model.Appointment;
+import Model.Customer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal for DAO writes made while the database is unreachable.
+ * <p>
+ * Each record is framed as {@code [length][crc32][payload]} so a torn write at the tail
+ * (e.g. the application was killed mid-append) is detected and ignored on the next open.
+ * Records are written straight to a {@link FileChannel}; {@code fsync} is batched and runs
+ * either once {@link #SYNC_BATCH} records are pending or after {@link #SYNC_INTERVAL_MS}.
+ * </p>
+ */
+public class OfflineJournal implements AutoCloseable {
+
+    /** Number of unsynced records that forces an immediate fsync. */
+    private static final int SYNC_BATCH = 32;
+    /** Maximum time (ms) an appended record may stay unsynced. */
+    private static final long SYNC_INTERVAL_MS = 200;
+
+    /** Kind of write captured by a journal record. */
+    public enum Op {
+        ADD_APPOINTMENT, UPDATE_APPOINTMENT, DELETE_APPOINTMENT,
+        ADD_CUSTOMER, UPDATE_CUSTOMER, DELETE_CUSTOMER
+    }
+
+    /**
+     * A single journaled write.
+     * <p>
+     * {@code before} holds the row as the client last saw it (used for conflict detection
+     * on replay); {@code after} holds the row the user wants written. Either may be null
+     * depending on the operation.
+     * </p>
+     */
+    public static class Entry {
+        /** The operation being journaled. */
+        public final Op op;
+        /** Row image before the change (null for inserts). */
+        public final Object before;
+        /** Row image after the change (null for deletes). */
+        public final Object after;
+
+        /**
+         * Creates a journal entry.
+         *
+         * @param op     the operation
+         * @param before the before-image (Appointment/Customer), or null
+         * @param after  the after-image (Appointment/Customer), or null
+         */
+        public Entry(Op op, Object before, Object after) {
+            this.op = op;
+            this.before = before;
+            this.after = after;
+        }
+    }
+
+    /** Location of the journal file. */
+    private final Path path;
+    /** Open channel positioned at the end of the journal. */
+    private FileChannel channel;
+    /** Records appended since the last fsync. */
+    private int unsynced = 0;
+    /** Background task that forces pending records to disk. */
+    private final ScheduledExecutorService syncer;
+
+    /**
+     * Opens (or creates) the journal at the given path.
+     * Any torn record at the tail is truncated away.
+     *
+     * @param path journal file location
+     * @throws IOException if the file cannot be opened
+     */
+    public OfflineJournal(Path path) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // Drop any partially written tail left by a crash
+        channel.truncate(validLength());
+        channel.position(channel.size());
+        this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "offline-journal-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        syncer.scheduleWithFixedDelay(this::syncQuietly, SYNC_INTERVAL_MS, SYNC_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Appends an entry to the journal. The record reaches disk at the next batched fsync.
+     *
+     * @param entry the entry to append
+     * @throws IOException if the write fails
+     */
+    public synchronized void append(Entry entry) throws IOException {
+        byte[] payload = encode(entry);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buf = ByteBuffer.allocate(8 + payload.length);
+        buf.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+        if (++unsynced >= SYNC_BATCH) {
+            sync();
+        }
+    }
+
+    /**
+     * Reads every intact entry in journal order.
+     *
+     * @return the journaled entries, oldest first
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized List<Entry> readAll() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        ByteBuffer all = ByteBuffer.allocate((int) channel.size());
+        channel.read(all, 0);
+        all.flip();
+        byte[] payload;
+        while ((payload = nextPayload(all)) != null) {
+            entries.add(decode(payload));
+        }
+        return entries;
+    }
+
+    /**
+     * Atomically replaces the journal contents with the given entries
+     * (used after a replay to keep only what could not be applied).
+     *
+     * @param remaining entries to keep, oldest first
+     * @throws IOException if the journal cannot be rewritten
+     */
+    public synchronized void rewrite(List<Entry> remaining) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        channel.close();
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Entry e : remaining) {
+                byte[] payload = encode(e);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                ByteBuffer buf = ByteBuffer.allocate(8 + payload.length);
+                buf.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+                while (buf.hasRemaining()) {
+                    out.write(buf);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        unsynced = 0;
+    }
+
+    /**
+     * @return true if the journal holds no entries
+     * @throws IOException if the file size cannot be read
+     */
+    public synchronized boolean isEmpty() throws IOException {
+        return channel.size() == 0;
+    }
+
+    /**
+     * Forces all appended records to disk.
+     *
+     * @throws IOException if the fsync fails
+     */
+    public synchronized void sync() throws IOException {
+        if (unsynced > 0) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+
+    /** Scheduled fsync; failures are retried on the next tick. */
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException ignored) {
+            // Left pending; the next tick or close() retries
+        }
+    }
+
+    /**
+     * Flushes pending records and closes the journal.
+     *
+     * @throws IOException if the final fsync fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        syncer.shutdownNow();
+        sync();
+        channel.close();
+    }
+
+    /**
+     * Scans the file and returns the length of its intact prefix.
+     */
+    private long validLength() throws IOException {
+        ByteBuffer all = ByteBuffer.allocate((int) channel.size());
+        channel.read(all, 0);
+        all.flip();
+        while (nextPayload(all) != null) {
+            // advance over intact records
+        }
+        return all.position();
+    }
+
+    /**
+     * Returns the next record's payload, or null at end of data or on a torn/corrupt record.
+     * The buffer position is only advanced past intact records.
+     */
+    private static byte[] nextPayload(ByteBuffer buf) {
+        if (buf.remaining() < 8) {
+            return null;
+        }
+        int start = buf.position();
+        int len = buf.getInt();
+        int crcValue = buf.getInt();
+        if (len < 0 || len > buf.remaining()) {
+            buf.position(start);
+            return null;
+        }
+        byte[] payload = new byte[len];
+        buf.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != crcValue) {
+            buf.position(start);
+            return null;
+        }
+        return payload;
+    }
+
+    // -------- Record encoding --------
+
+    /** Encodes an entry as {@code op, before, after}. */
+    private static byte[] encode(Entry e) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(e.op.ordinal());
+            writeRow(out, e.before);
+            writeRow(out, e.after);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Decodes an entry produced by {@link #encode(Entry)}. */
+    private static Entry decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new java.io.ByteArrayInputStream(payload))) {
+            Op op = Op.values()[in.readByte()];
+            Object before = readRow(in);
+            Object after = readRow(in);
+            return new Entry(op, before, after);
+        }
+    }
+
+    /** Row tags used in the payload. */
+    private static final int ROW_NONE = 0, ROW_APPOINTMENT = 1, ROW_CUSTOMER = 2;
+
+    private static void writeRow(DataOutputStream out, Object row) throws IOException {
+        if (row instanceof Appointment a) {
+            out.writeByte(ROW_APPOINTMENT);
+            out.writeInt(a.getId());
+            writeString(out, a.getTitle());
+            writeString(out, a.getDescription());
+            writeString(out, a.getLocation());
+            writeString(out, a.getType());
+            writeString(out, a.getStart().toString());
+            writeString(out, a.getEnd().toString());
+            out.writeInt(a.getCustomerId());
+            out.writeInt(a.getUserId());
+            out.writeInt(a.getContactId());
+            writeString(out, a.getContactName());
+        } else if (row instanceof Customer c) {
+            out.writeByte(ROW_CUSTOMER);
+            out.writeInt(c.getId());
+            writeString(out, c.getName());
+            writeString(out, c.getAddress());
+            writeString(out, c.getPostalCode());
+            writeString(out, c.getPhone());
+            out.writeInt(c.getDivisionId());
+            writeString(out, c.getDivisionName());
+            writeString(out, c.getCountryName());
+        } else {
+            out.writeByte(ROW_NONE);
+        }
+    }
+
+    private static Object readRow(DataInputStream in) throws IOException {
+        switch (in.readByte()) {
+            case ROW_APPOINTMENT:
+                return new Appointment(
+                        in.readInt(),
+                        readString(in),
+                        readString(in),
+                        readString(in),
+                        readString(in),
+                        LocalDateTime.parse(readString(in)),
+                        LocalDateTime.parse(readString(in)),
+                        in.readInt(),
+                        in.readInt(),
+                        in.readInt(),
+                        readString(in)
+                );
+            case ROW_CUSTOMER:
+                return new Customer(
+                        in.readInt(),
+                        readString(in),
+                        readString(in),
+                        readString(in),
+                        readString(in),
+                        in.readInt(),
+                        readString(in),
+                        readString(in)
+                );
+            default:
+                return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,831 @@
+package DAO;
+
+import Model.Appointment;
+import Model.Contact;
+import Model.Customer;
+import Model.Division;
+import Model.User;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Offline subsystem for the DAO layer.
+ * <p>
+ * While the database is reachable, successful reads refresh an in-memory snapshot of
+ * appointments, customers and contacts. When a DAO call fails with a connection error,
+ * writes are recorded in the {@link OfflineJournal} and applied to the snapshot, and reads
+ * are served from the snapshot, so the user keeps working at local latency.
+ * </p>
+ * <p>
+ * Once a new connection is established the journal is replayed in order, on a background
+ * thread. Each update or delete carries the row as the client last saw it; if the server
+ * row no longer matches, the entry is reported as a conflict instead of overwriting
+ * someone else's change.
+ * Rows created offline get temporary negative IDs, which are remapped to the generated
+ * keys during replay.
+ * </p>
+ * <p>
+ * The snapshot is persisted across runs by {@link LocalSnapshot}; while it is "warm"
+ * (loaded from disk, not yet refreshed) the list views read it directly.
+ * </p>
+ */
+public class OfflineStore {
+    /** Logger for replay progress and conflicts. */
+    private static final Logger LOGGER = Logger.getLogger(OfflineStore.class.getName());
+    /** Directory holding the local journal. */
+    static final Path DATA_DIR = Paths.get(System.getProperty("user.home"), ".chronomate");
+
+    /** Local journal (opened lazily on first offline write or replay). */
+    private static OfflineJournal journal;
+    /** Snapshot of appointments, keyed by ID (temp IDs are negative). */
+    private static Map<Integer, Appointment> appointments = null;
+    /** Snapshot of customers, keyed by ID (temp IDs are negative). */
+    private static Map<Integer, Customer> customers = null;
+    /** Snapshot of contacts, keyed by name. */
+    private static Map<String, Contact> contacts = null;
+    /** Snapshot of users. */
+    private static List<User> users = null;
+    /** Snapshot of first-level divisions. */
+    private static List<Division> divisions = null;
+    /**
+     * True while the snapshot was loaded from disk at startup and has not yet been
+     * refreshed from the database; view reads are then served locally without a round trip.
+     */
+    private static boolean warm = false;
+    /** Callbacks run after a background refresh replaces warm data. */
+    private static final List<Runnable> refreshListeners = new ArrayList<>();
+    /** Next temporary ID handed to a row created offline. */
+    private static int nextTempId = -1;
+    /** Guards against re-entrant replay (replay itself opens connections). */
+    private static boolean replaying = false;
+    /** Background thread that replays the journal after a reconnect. */
+    private static final ExecutorService REPLAYER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "offline-replay");
+        t.setDaemon(true);
+        return t;
+    });
+    /** Conflicts found by the most recent replays, oldest first. */
+    private static final List<String> conflicts = new ArrayList<>();
+
+    // -------- Snapshot maintenance (called after successful online reads) --------
+
+    /**
+     * Replaces the appointment snapshot with a fresh server result.
+     *
+     * @param list all appointments as just read from the database
+     */
+    static synchronized void cacheAppointments(List<Appointment> list) {
+        appointments = new LinkedHashMap<>();
+        for (Appointment a : list) {
+            appointments.put(a.getId(), a);
+        }
+    }
+
+    /**
+     * Replaces the customer snapshot with a fresh server result.
+     *
+     * @param list all customers as just read from the database
+     */
+    static synchronized void cacheCustomers(List<Customer> list) {
+        customers = new LinkedHashMap<>();
+        for (Customer c : list) {
+            customers.put(c.getId(), c);
+        }
+    }
+
+    /**
+     * Replaces the contact snapshot with a fresh server result.
+     *
+     * @param list all contacts as just read from the database
+     */
+    static synchronized void cacheContacts(List<Contact> list) {
+        contacts = new LinkedHashMap<>();
+        for (Contact c : list) {
+            contacts.put(c.getName(), c);
+        }
+    }
+
+    /**
+     * Replaces the user snapshot with a fresh server result.
+     *
+     * @param list all users as just read from the database
+     */
+    static synchronized void cacheUsers(List<User> list) {
+        users = new ArrayList<>(list);
+    }
+
+    /**
+     * Replaces the division snapshot with a fresh server result.
+     *
+     * @param list all divisions as just read from the database
+     */
+    static synchronized void cacheDivisions(List<Division> list) {
+        divisions = new ArrayList<>(list);
+    }
+
+    /**
+     * Applies a delta refresh to the appointment snapshot.
+     * Rows created offline (negative IDs) are kept until they are replayed.
+     *
+     * @param changed appointments inserted or updated since the last refresh
+     * @param liveIds IDs of every appointment still present in the snapshot's range
+     */
+    static synchronized void mergeAppointments(List<Appointment> changed, Set<Integer> liveIds) {
+        if (appointments == null) {
+            cacheAppointments(changed);
+            return;
+        }
+        appointments.keySet().removeIf(id -> id > 0 && !liveIds.contains(id));
+        for (Appointment a : changed) {
+            appointments.put(a.getId(), a);
+        }
+    }
+
+    /**
+     * Applies a delta refresh to the customer snapshot.
+     * Rows created offline (negative IDs) are kept until they are replayed.
+     *
+     * @param changed customers inserted or updated since the last refresh
+     * @param liveIds IDs of every customer still present
+     */
+    static synchronized void mergeCustomers(List<Customer> changed, Set<Integer> liveIds) {
+        if (customers == null) {
+            cacheCustomers(changed);
+            return;
+        }
+        customers.keySet().removeIf(id -> id > 0 && !liveIds.contains(id));
+        for (Customer c : changed) {
+            customers.put(c.getId(), c);
+        }
+    }
+
+    /**
+     * Applies a successful online insert/update to the appointment snapshot.
+     *
+     * @param appt the appointment as written
+     */
+    static synchronized void rememberAppointment(Appointment appt) {
+        if (appointments != null) {
+            appointments.put(appt.getId(), appt);
+        }
+    }
+
+    /**
+     * Applies a successful online bulk update to the appointment snapshot.
+     *
+     * @param ids    IDs of the appointments that were changed
+     * @param change how each cached appointment changed
+     */
+    static synchronized void updateCachedAppointments(Set<Integer> ids, UnaryOperator<Appointment> change) {
+        if (appointments != null) {
+            appointments.replaceAll((id, a) -> ids.contains(id) ? change.apply(a) : a);
+        }
+    }
+
+    /**
+     * Applies a successful online delete to the appointment snapshot.
+     *
+     * @param apptId the deleted appointment's ID
+     */
+    static synchronized void forgetAppointment(int apptId) {
+        if (appointments != null) {
+            appointments.remove(apptId);
+        }
+    }
+
+    /**
+     * Applies a successful online insert/update to the customer snapshot.
+     *
+     * @param customer the customer as written
+     */
+    static synchronized void rememberCustomer(Customer customer) {
+        if (customers != null) {
+            customers.put(customer.getId(), customer);
+        }
+    }
+
+    /**
+     * Applies a successful online delete to the customer snapshot, including the customer's appointments.
+     *
+     * @param customerId the deleted customer's ID
+     */
+    static synchronized void forgetCustomer(int customerId) {
+        if (customers != null) {
+            customers.remove(customerId);
+        }
+        if (appointments != null) {
+            appointments.values().removeIf(a -> a.getCustomerId() == customerId);
+        }
+    }
+
+    // -------- Warm start (see LocalSnapshot) --------
+
+    /**
+     * Seeds every snapshot from a persisted snapshot file and marks the data as warm.
+     *
+     * @param data contents of the snapshot file
+     */
+    static synchronized void seed(SnapshotFile.Data data) {
+        cacheCustomers(data.customers);
+        cacheContacts(data.contacts);
+        cacheUsers(data.users);
+        cacheDivisions(data.divisions);
+        cacheAppointments(data.appointments);
+        warm = true;
+    }
+
+    /**
+     * Copies the current snapshot for persisting; sections never loaded are left empty.
+     *
+     * @return the snapshot contents
+     */
+    static synchronized SnapshotFile.Data export() {
+        SnapshotFile.Data data = new SnapshotFile.Data();
+        if (customers != null) data.customers.addAll(customers.values());
+        if (contacts != null) data.contacts.addAll(contacts.values());
+        if (users != null) data.users.addAll(users);
+        if (divisions != null) data.divisions.addAll(divisions);
+        if (appointments != null) data.appointments.addAll(appointments.values());
+        return data;
+    }
+
+    /**
+     * Ends the warm phase after the background refresh and notifies listeners.
+     */
+    static void markRefreshed() {
+        List<Runnable> listeners;
+        synchronized (OfflineStore.class) {
+            warm = false;
+            listeners = new ArrayList<>(refreshListeners);
+        }
+        listeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Registers a callback run (on the refresh thread) once warm data has been refreshed.
+     *
+     * @param listener the callback
+     */
+    public static synchronized void addRefreshListener(Runnable listener) {
+        refreshListeners.add(listener);
+    }
+
+    /**
+     * @return all appointments if the warm snapshot may be used, otherwise null
+     */
+    static synchronized ObservableList<Appointment> warmAppointments() {
+        return warm ? FXCollections.observableArrayList(appointments.values()) : null;
+    }
+
+    /**
+     * @return all customers if the warm snapshot may be used, otherwise null
+     */
+    static synchronized ObservableList<Customer> warmCustomers() {
+        return warm ? FXCollections.observableArrayList(customers.values()) : null;
+    }
+
+    /**
+     * @return all contacts if the warm snapshot may be used, otherwise null
+     */
+    static synchronized ObservableList<Contact> warmContacts() {
+        return warm ? FXCollections.observableArrayList(contacts.values()) : null;
+    }
+
+    /**
+     * @return all users if the warm snapshot may be used, otherwise null
+     */
+    static synchronized ObservableList<User> warmUsers() {
+        return warm ? FXCollections.observableArrayList(users) : null;
+    }
+
+    // -------- Offline reads --------
+
+    /**
+     * Serves appointments from the snapshot.
+     *
+     * @param filter which appointments to return
+     * @param cause  the connection failure that forced the offline read
+     * @return matching appointments
+     * @throws SQLException {@code cause} if no snapshot has been taken yet
+     */
+    static synchronized ObservableList<Appointment> appointments(Predicate<Appointment> filter, SQLException cause) throws SQLException {
+        if (appointments == null) {
+            throw cause;
+        }
+        ObservableList<Appointment> list = FXCollections.observableArrayList();
+        appointments.values().stream().filter(filter).forEach(list::add);
+        return list;
+    }
+
+    /**
+     * Serves customers from the snapshot.
+     *
+     * @param cause the connection failure that forced the offline read
+     * @return all known customers
+     * @throws SQLException {@code cause} if no snapshot has been taken yet
+     */
+    static synchronized ObservableList<Customer> customers(SQLException cause) throws SQLException {
+        if (customers == null) {
+            throw cause;
+        }
+        return FXCollections.observableArrayList(customers.values());
+    }
+
+    /**
+     * Serves contacts from the snapshot.
+     *
+     * @param cause the connection failure that forced the offline read
+     * @return all known contacts
+     * @throws SQLException {@code cause} if no snapshot has been taken yet
+     */
+    static synchronized ObservableList<Contact> contacts(SQLException cause) throws SQLException {
+        if (contacts == null) {
+            throw cause;
+        }
+        return FXCollections.observableArrayList(contacts.values());
+    }
+
+    /**
+     * Serves users from the snapshot.
+     *
+     * @param cause the connection failure that forced the offline read
+     * @return all known users
+     * @throws SQLException {@code cause} if no snapshot has been taken yet
+     */
+    static synchronized ObservableList<User> users(SQLException cause) throws SQLException {
+        if (users == null) {
+            throw cause;
+        }
+        return FXCollections.observableArrayList(users);
+    }
+
+    /**
+     * Serves divisions from the snapshot.
+     *
+     * @param cause the connection failure that forced the offline read
+     * @return all known divisions
+     * @throws SQLException {@code cause} if no snapshot has been taken yet
+     */
+    static synchronized List<Division> divisions(SQLException cause) throws SQLException {
+        if (divisions == null) {
+            throw cause;
+        }
+        return new ArrayList<>(divisions);
+    }
+
+    // -------- Offline writes --------
+
+    /**
+     * Journals a new appointment and adds it to the snapshot under a temporary ID.
+     *
+     * @param appt  the appointment to add (its ID is set to the temporary ID)
+     * @param cause the connection failure that forced the offline write
+     * @throws SQLException {@code cause} if the write cannot be journaled
+     */
+    static synchronized void addAppointment(Appointment appt, SQLException cause) throws SQLException {
+        appt.setId(nextTempId--);
+        journal(new OfflineJournal.Entry(OfflineJournal.Op.ADD_APPOINTMENT, null, appt), cause);
+        if (appointments != null) {
+            appointments.put(appt.getId(), appt);
+        }
+    }
+
+    /**
+     * Journals an appointment update and applies it to the snapshot.
+     *
+     * @param appt  the updated appointment
+     * @param cause the connection failure that forced the offline write
+     * @throws SQLException {@code cause} if the write cannot be journaled
+     */
+    static synchronized void updateAppointment(Appointment appt, SQLException cause) throws SQLException {
+        Appointment before = appointments == null ? null : appointments.get(appt.getId());
+        journal(new OfflineJournal.Entry(OfflineJournal.Op.UPDATE_APPOINTMENT, before, appt), cause);
+        if (appointments != null) {
+            appointments.put(appt.getId(), appt);
+        }
+    }
+
+    /**
+     * Journals an appointment delete and removes it from the snapshot.
+     *
+     * @param apptId the appointment ID
+     * @param cause  the connection failure that forced the offline write
+     * @throws SQLException {@code cause} if the write cannot be journaled
+     */
+    static synchronized void deleteAppointment(int apptId, SQLException cause) throws SQLException {
+        Appointment before = appointments == null ? null : appointments.get(apptId);
+        if (before == null) {
+            // Nothing the client knows about; the delete cannot be checked for conflicts
+            before = new Appointment(apptId, null, null, null, null,
+                    java.time.LocalDateTime.MIN, java.time.LocalDateTime.MIN, 0, 0, 0, null);
+        }
+        journal(new OfflineJournal.Entry(OfflineJournal.Op.DELETE_APPOINTMENT, before, null), cause);
+        if (appointments != null) {
+            appointments.remove(apptId);
+        }
+    }
+
+    /**
+     * Journals a new customer and adds it to the snapshot under a temporary ID.
+     *
+     * @param customer the customer to add (its ID is set to the temporary ID)
+     * @param cause    the connection failure that forced the offline write
+     * @throws SQLException {@code cause} if the write cannot be journaled
+     */
+    static synchronized void addCustomer(Customer customer, SQLException cause) throws SQLException {
+        customer.setId(nextTempId--);
+        journal(new OfflineJournal.Entry(OfflineJournal.Op.ADD_CUSTOMER, null, customer), cause);
+        if (customers != null) {
+            customers.put(customer.getId(), customer);
+        }
+    }
+
+    /**
+     * Journals a customer update and applies it to the snapshot.
+     *
+     * @param customer the updated customer
+     * @param cause    the connection failure that forced the offline write
+     * @throws SQLException {@code cause} if the write cannot be journaled
+     */
+    static synchronized void updateCustomer(Customer customer, SQLException cause) throws SQLException {
+        Customer before = customers == null ? null : customers.get(customer.getId());
+        journal(new OfflineJournal.Entry(OfflineJournal.Op.UPDATE_CUSTOMER, before, customer), cause);
+        if (customers != null) {
+            customers.put(customer.getId(), customer);
+        }
+    }
+
+    /**
+     * Journals a customer delete and removes the customer and its appointments from the snapshot.
+     *
+     * @param customerId the customer ID
+     * @param cause      the connection failure that forced the offline write
+     * @throws SQLException {@code cause} if the write cannot be journaled
+     */
+    static synchronized void deleteCustomer(int customerId, SQLException cause) throws SQLException {
+        Customer before = customers == null ? null : customers.get(customerId);
+        if (before == null) {
+            before = new Customer(customerId, null, null, null, null, 0, null, null);
+        }
+        journal(new OfflineJournal.Entry(OfflineJournal.Op.DELETE_CUSTOMER, before, null), cause);
+        if (customers != null) {
+            customers.remove(customerId);
+        }
+        if (appointments != null) {
+            appointments.values().removeIf(a -> a.getCustomerId() == customerId);
+        }
+    }
+
+    /** Appends to the journal, surfacing I/O failures as the original SQL error. */
+    private static void journal(OfflineJournal.Entry entry, SQLException cause) throws SQLException {
+        try {
+            openJournal().append(entry);
+        } catch (IOException io) {
+            cause.addSuppressed(io);
+            throw cause;
+        }
+    }
+
+    /** Opens the journal on first use and seeds the temp-ID counter from it. */
+    private static OfflineJournal openJournal() throws IOException {
+        if (journal == null) {
+            journal = new OfflineJournal(DATA_DIR.resolve("journal.log"));
+            for (OfflineJournal.Entry e : journal.readAll()) {
+                if (e.after instanceof Appointment a) {
+                    nextTempId = Math.min(nextTempId, a.getId() - 1);
+                } else if (e.after instanceof Customer c) {
+                    nextTempId = Math.min(nextTempId, c.getId() - 1);
+                }
+            }
+        }
+        return journal;
+    }
+
+    // -------- Replay --------
+
+    /**
+     * @return true if journaled writes are waiting to be replayed
+     */
+    public static synchronized boolean hasPendingWrites() {
+        try {
+            if (journal == null) {
+                // Avoid opening the journal just to find out it is empty
+                Path file = DATA_DIR.resolve("journal.log");
+                return Files.exists(file) && Files.size(file) > 0;
+            }
+            return !journal.isEmpty();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the conflicts reported by replays so far and clears the list.
+     *
+     * @return human-readable conflict descriptions, oldest first
+     */
+    public static synchronized List<String> drainConflicts() {
+        List<String> copy = new ArrayList<>(conflicts);
+        conflicts.clear();
+        return copy;
+    }
+
+    /**
+     * Called by {@link DBConnection} whenever a new connection is opened.
+     * Starts replaying any journaled writes in order on {@link #REPLAYER}, so the caller
+     * (usually the FX thread) does not wait for it.
+     */
+    static void onConnected() {
+        synchronized (OfflineStore.class) {
+            if (replaying || !hasPendingWrites()) {
+                return;
+            }
+            replaying = true;
+        }
+        REPLAYER.execute(OfflineStore::replayInBackground);
+    }
+
+    /** Runs a replay started by {@link #onConnected()}. */
+    private static void replayInBackground() {
+        try {
+            // Replay on a connection of its own: the replayed DAO calls close whatever
+            // getConnection() hands them, which must not be the caller's singleton
+            DBConnection.withOwnConnection(() -> {
+                replay();
+                return null;
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Unable to open a connection for offline replay", e);
+        } finally {
+            synchronized (OfflineStore.class) {
+                replaying = false;
+            }
+        }
+    }
+
+    /**
+     * Applies journaled entries in order. Conflicting entries are reported and dropped;
+     * if the connection fails again the unapplied tail stays in the journal.
+     * The store lock is only held to read and rewrite the journal and to update the snapshot,
+     * not during database I/O, so offline writes made meanwhile are not blocked; they are
+     * appended after the entries being replayed and kept for the next replay.
+     */
+    private static void replay() {
+        List<OfflineJournal.Entry> entries;
+        synchronized (OfflineStore.class) {
+            try {
+                entries = openJournal().readAll();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Unable to read offline journal", e);
+                return;
+            }
+        }
+        Map<Integer, Integer> idMap = new HashMap<>();
+        int applied = 0;
+        try {
+            for (OfflineJournal.Entry e : entries) {
+                String conflict = apply(e, idMap);
+                if (conflict != null) {
+                    synchronized (OfflineStore.class) {
+                        conflicts.add(conflict);
+                    }
+                    LOGGER.warning("Offline replay conflict: " + conflict);
+                }
+                applied++;
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Offline replay interrupted after " + applied + " entries", e);
+        }
+        synchronized (OfflineStore.class) {
+            finishReplay(applied, idMap);
+        }
+    }
+
+    /**
+     * Drops the applied entries from the journal and resolves temp IDs, called with the store lock held.
+     *
+     * @param applied how many entries at the head of the journal were applied or reported
+     * @param idMap   temp IDs mapped to the generated keys
+     */
+    private static void finishReplay(int applied, Map<Integer, Integer> idMap) {
+        try {
+            // Keep the unapplied tail and whatever was journaled during the replay,
+            // with temp IDs already resolved where possible
+            List<OfflineJournal.Entry> current = journal.readAll();
+            List<OfflineJournal.Entry> remaining = new ArrayList<>();
+            for (OfflineJournal.Entry e : current.subList(Math.min(applied, current.size()), current.size())) {
+                remaining.add(new OfflineJournal.Entry(e.op, remap(e.before, idMap), remap(e.after, idMap)));
+            }
+            journal.rewrite(remaining);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Unable to compact offline journal", e);
+        }
+        // Remap temp IDs in the snapshot so later offline edits refer to real rows
+        if (appointments != null) {
+            List<Appointment> list = appointments.values().stream().map(a -> (Appointment) remap(a, idMap)).toList();
+            cacheAppointments(list);
+        }
+        if (customers != null) {
+            List<Customer> list = customers.values().stream().map(c -> (Customer) remap(c, idMap)).toList();
+            cacheCustomers(list);
+        }
+    }
+
+    /**
+     * Applies one entry against the server.
+     *
+     * @return a conflict description, or null if the entry was applied cleanly
+     * @throws SQLException if the database is unreachable (replay should stop)
+     */
+    private static String apply(OfflineJournal.Entry e, Map<Integer, Integer> idMap) throws SQLException {
+        String orphan = orphanedTempId(e, idMap);
+        if (orphan != null) {
+            return orphan;
+        }
+        try {
+            switch (e.op) {
+                case ADD_APPOINTMENT: {
+                    Appointment a = (Appointment) remap(e.after, idMap);
+                    int tempId = a.getId();
+                    for (Appointment other : AppointmentDAO.fetchAppointmentsByCustomer(a.getCustomerId())) {
+                        if (a.getStart().isBefore(other.getEnd()) && a.getEnd().isAfter(other.getStart())) {
+                            return "Appointment '" + a.getTitle() + "' overlaps appointment " + other.getId()
+                                    + " for customer " + a.getCustomerId();
+                        }
+                    }
+                    AppointmentDAO.insertAppointment(a);
+                    idMap.put(tempId, a.getId());
+                    return null;
+                }
+                case UPDATE_APPOINTMENT: {
+                    Appointment a = (Appointment) remap(e.after, idMap);
+                    if (e.before != null && ((Appointment) e.before).getId() >= 0) {
+                        Appointment server = AppointmentDAO.fetchAppointmentById(a.getId());
+                        if (server == null) {
+                            return "Appointment " + a.getId() + " was deleted on the server";
+                        }
+                        if (!sameAppointment(server, (Appointment) e.before)) {
+                            return "Appointment " + a.getId() + " was changed on the server";
+                        }
+                    }
+                    AppointmentDAO.writeAppointmentUpdate(a);
+                    return null;
+                }
+                case DELETE_APPOINTMENT: {
+                    Appointment before = (Appointment) remap(e.before, idMap);
+                    Appointment server = AppointmentDAO.fetchAppointmentById(before.getId());
+                    if (server == null) {
+                        return null; // already gone
+                    }
+                    if (before.getTitle() != null && ((Appointment) e.before).getId() >= 0
+                            && !sameAppointment(server, before)) {
+                        return "Appointment " + before.getId() + " was changed on the server; not deleted";
+                    }
+                    AppointmentDAO.removeAppointment(before.getId());
+                    return null;
+                }
+                case ADD_CUSTOMER: {
+                    Customer c = (Customer) remap(e.after, idMap);
+                    int tempId = c.getId();
+                    CustomerDAO.insertCustomer(c);
+                    idMap.put(tempId, c.getId());
+                    return null;
+                }
+                case UPDATE_CUSTOMER: {
+                    Customer c = (Customer) remap(e.after, idMap);
+                    if (e.before != null && ((Customer) e.before).getId() >= 0) {
+                        Customer server = CustomerDAO.fetchCustomerById(c.getId());
+                        if (server == null) {
+                            return "Customer " + c.getId() + " was deleted on the server";
+                        }
+                        if (!sameCustomer(server, (Customer) e.before)) {
+                            return "Customer " + c.getId() + " was changed on the server";
+                        }
+                    }
+                    CustomerDAO.writeCustomerUpdate(c);
+                    return null;
+                }
+                case DELETE_CUSTOMER: {
+                    Customer before = (Customer) remap(e.before, idMap);
+                    Customer server = CustomerDAO.fetchCustomerById(before.getId());
+                    if (server == null) {
+                        return null;
+                    }
+                    if (before.getName() != null && ((Customer) e.before).getId() >= 0
+                            && !sameCustomer(server, before)) {
+                        return "Customer " + before.getId() + " was changed on the server; not deleted";
+                    }
+                    CustomerDAO.removeCustomer(before.getId());
+                    return null;
+                }
+                default:
+                    return null;
+            }
+        } catch (SQLException ex) {
+            if (DBConnection.isConnectionFailure(ex)) {
+                throw ex;
+            }
+            return e.op + " rejected by the server: " + ex.getMessage();
+        }
+    }
+
+    /**
+     * Entries are applied in journal order, so a temporary ID that is still unmapped when a
+     * later entry refers to it belongs to an offline add that was rejected on replay.
+     * Such entries would run against {@code WHERE id = <negative>} and match nothing.
+     *
+     * @return a conflict description if the entry refers to a row that was never created, else null
+     */
+    private static String orphanedTempId(OfflineJournal.Entry e, Map<Integer, Integer> idMap) {
+        Object row = remap(e.after != null ? e.after : e.before, idMap);
+        switch (e.op) {
+            case ADD_APPOINTMENT:
+                return ((Appointment) row).getCustomerId() < 0
+                        ? "Appointment '" + ((Appointment) row).getTitle()
+                                + "' belongs to a customer that could not be added; not added"
+                        : null;
+            case UPDATE_APPOINTMENT:
+            case DELETE_APPOINTMENT:
+                Appointment a = (Appointment) row;
+                if (a.getId() < 0) {
+                    return "Appointment " + (a.getTitle() != null ? "'" + a.getTitle() + "'" : a.getId())
+                            + " was created offline but could not be added; " + e.op + " dropped";
+                }
+                return a.getCustomerId() < 0
+                        ? "Appointment " + a.getId() + " refers to a customer that could not be added; "
+                                + e.op + " dropped"
+                        : null;
+            case UPDATE_CUSTOMER:
+            case DELETE_CUSTOMER:
+                Customer c = (Customer) row;
+                return c.getId() < 0
+                        ? "Customer " + (c.getName() != null ? "'" + c.getName() + "'" : c.getId())
+                                + " was created offline but could not be added; " + e.op + " dropped"
+                        : null;
+            default:
+                return null;
+        }
+    }
+
+    /** Returns a copy of the row with temporary IDs (its own and foreign keys) replaced by real ones. */
+    private static Object remap(Object row, Map<Integer, Integer> idMap) {
+        if (row instanceof Appointment a) {
+            return new Appointment(
+                    idMap.getOrDefault(a.getId(), a.getId()),
+                    a.getTitle(), a.getDescription(), a.getLocation(), a.getType(),
+                    a.getStart(), a.getEnd(),
+                    idMap.getOrDefault(a.getCustomerId(), a.getCustomerId()),
+                    a.getUserId(), a.getContactId(), a.getContactName());
+        }
+        if (row instanceof Customer c) {
+            return new Customer(
+                    idMap.getOrDefault(c.getId(), c.getId()),
+                    c.getName(), c.getAddress(), c.getPostalCode(), c.getPhone(),
+                    c.getDivisionId(), c.getDivisionName(), c.getCountryName());
+        }
+        return row;
+    }
+
+    /** Compares the stored columns of two appointments. */
+    private static boolean sameAppointment(Appointment a, Appointment b) {
+        return a.getId() == b.getId()
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && Objects.equals(a.getLocation(), b.getLocation())
+                && Objects.equals(a.getType(), b.getType())
+                && Objects.equals(a.getStart(), b.getStart())
+                && Objects.equals(a.getEnd(), b.getEnd())
+                && a.getCustomerId() == b.getCustomerId()
+                && a.getUserId() == b.getUserId()
+                && a.getContactId() == b.getContactId();
+    }
+
+    /** Compares the stored columns of two customers. */
+    private static boolean sameCustomer(Customer a, Customer b) {
+        return a.getId() == b.getId()
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getAddress(), b.getAddress())
+                && Objects.equals(a.getPostalCode(), b.getPostalCode())
+                && Objects.equals(a.getPhone(), b.getPhone())
+                && a.getDivisionId() == b.getDivisionId();
+    }
+}
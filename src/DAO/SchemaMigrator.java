@@ -0,0 +1,290 @@
+package DAO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Applies the versioned SQL scripts in {@code src/Migration} and verifies that the
+ * DAO access paths are indexed.
+ * <p>
+ * Scripts are named {@code V<version>__<description>.sql} and listed in {@link #SCRIPTS};
+ * each one is applied once and recorded in {@code schema_version}. Statements end with
+ * {@code ;} outside quotes and comments; like the {@code mysql} client, a
+ * {@code DELIMITER} line changes the terminator (for routine bodies that contain {@code ;}). Statements that fail
+ * only because their object already exists (duplicate index or table) are skipped, so a
+ * script can be re-run safely against a database that was partly set up by hand.
+ * </p>
+ * <p>
+ * After migrating, every query in {@link #CHECKED_QUERIES} is run through {@code EXPLAIN}.
+ * A query whose plan scans a table without any usable index ({@code type = ALL} and no
+ * {@code possible_keys}) fails startup with an {@link IllegalStateException}. A full scan
+ * the optimizer picks despite an available index (normal on tiny tables) is only logged.
+ * Verification can be turned off with {@code -Dchronomate.schema.verify=false}.
+ * </p>
+ */
+public class SchemaMigrator {
+    /** Logger for applied scripts and plan warnings. */
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+    /** Migration scripts in the order they are applied. */
+    private static final List<String> SCRIPTS = List.of(
+            "V001__archive_tables.sql",
+            "V002__dao_indexes.sql",
+            "V003__appointment_history.sql"
+    );
+    /** MySQL errors meaning the object a DDL statement creates already exists. */
+    private static final Set<Integer> ALREADY_EXISTS = Set.of(
+            1050, // ER_TABLE_EXISTS_ERROR
+            1060, // ER_DUP_FIELDNAME
+            1061  // ER_DUP_KEYNAME
+    );
+    /** Connect timeout (ms) for the startup migration, so an unreachable host does not hold up the UI. */
+    private static final int STARTUP_CONNECT_TIMEOUT_MS =
+            Integer.getInteger("chronomate.schema.connectTimeoutMs", 3000);
+    /** Whether EXPLAIN verification runs after migrating. */
+    private static final boolean VERIFY = Boolean.parseBoolean(System.getProperty("chronomate.schema.verify", "true"));
+
+    /** A DAO query checked with EXPLAIN, with sample parameters to bind. */
+    private static class CheckedQuery {
+        final String name;
+        final String sql;
+        final Object[] params;
+
+        CheckedQuery(String name, String sql, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    /** The indexed DAO access paths. Queries that are meant to read whole tables are not listed. */
+    private static final List<CheckedQuery> CHECKED_QUERIES = List.of(
+            new CheckedQuery("AppointmentDAO.byCustomer",
+                    AppointmentDAO.BY_CUSTOMER_SQL.formatted("appointments"), 1),
+            new CheckedQuery("AppointmentDAO.byUser",
+                    AppointmentDAO.BY_USER_SQL.formatted("appointments"), 1),
+            new CheckedQuery("AppointmentDAO.changedSince",
+                    AppointmentDAO.CHANGED_SINCE_SQL, sampleTime(0)),
+            new CheckedQuery("BulkAppointmentDAO.window",
+                    BulkAppointmentDAO.WINDOW_SQL, sampleTime(0), sampleTime(1)),
+            new CheckedQuery("ContactDAO.idByName",
+                    ContactDAO.ID_BY_NAME_SQL, "Anika Costa"),
+            new CheckedQuery("CustomerDAO.divisionIdByName",
+                    CustomerDAO.DIVISION_ID_BY_NAME_SQL, "Ohio"),
+            new CheckedQuery("AppointmentHistory.asOf",
+                    AppointmentHistory.AS_OF_SQL, 1, sampleTime(0), 1, sampleTime(0)),
+            new CheckedQuery("AppointmentHistory.dayCandidates",
+                    AppointmentHistory.DAY_CANDIDATES_SQL, sampleTime(-1), sampleTime(1), sampleTime(0), sampleTime(0))
+    );
+
+    /** True once migrations ran successfully in this process. */
+    private static volatile boolean migrated = false;
+
+    /**
+     * Applies pending migrations and verifies the query plans. Called from {@code Main} on startup.
+     * The connection attempt gives up after {@link #STARTUP_CONNECT_TIMEOUT_MS}; the client
+     * then starts offline and {@link #ensureMigrated()} catches up later.
+     *
+     * @throws SQLException          if the database cannot be reached or a script fails
+     * @throws IllegalStateException if a checked query would scan a table without an index
+     */
+    public static void migrate() throws SQLException {
+        try (Connection conn = DBConnection.openConnection(STARTUP_CONNECT_TIMEOUT_MS)) {
+            applyScripts(conn);
+            if (VERIFY) {
+                verifyPlans(conn);
+            }
+        }
+    }
+
+    /**
+     * Makes sure migrations have been applied before a DAO touches a table they create
+     * (for sessions that started offline). Plans are not re-verified here.
+     */
+    static void ensureMigrated() throws SQLException {
+        if (migrated) {
+            return;
+        }
+        try (Connection conn = DBConnection.openConnection()) {
+            applyScripts(conn);
+        }
+    }
+
+    /** Applies every script not yet recorded in {@code schema_version}. */
+    private static synchronized void applyScripts(Connection conn) throws SQLException {
+        if (migrated) {
+            return;
+        }
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS schema_version (
+                    Version    INT          NOT NULL PRIMARY KEY,
+                    Script     VARCHAR(255) NOT NULL,
+                    Applied_At DATETIME     NOT NULL
+                )
+            """);
+        }
+        Set<Integer> applied = new HashSet<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT Version FROM schema_version")) {
+            while (rs.next()) {
+                applied.add(rs.getInt(1));
+            }
+        }
+        for (String script : SCRIPTS) {
+            int version = Integer.parseInt(script.substring(1, script.indexOf("__")));
+            if (applied.contains(version)) {
+                continue;
+            }
+            for (String sql : statements(script)) {
+                try (Statement st = conn.createStatement()) {
+                    st.executeUpdate(sql);
+                } catch (SQLException e) {
+                    if (!ALREADY_EXISTS.contains(e.getErrorCode())) {
+                        throw new SQLException("Migration " + script + " failed: " + sql, e.getSQLState(), e.getErrorCode(), e);
+                    }
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO schema_version (Version, Script, Applied_At) VALUES (?, ?, UTC_TIMESTAMP())")) {
+                ps.setInt(1, version);
+                ps.setString(2, script);
+                ps.executeUpdate();
+            }
+            LOGGER.info("Applied migration " + script);
+        }
+        migrated = true;
+    }
+
+    /**
+     * Reads a script from the classpath and splits it into statements (see {@link #split}).
+     */
+    private static List<String> statements(String script) throws SQLException {
+        String text;
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream("/Migration/" + script)) {
+            if (in == null) {
+                throw new SQLException("Missing migration script " + script);
+            }
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Unable to read migration script " + script, e);
+        }
+        return split(text);
+    }
+
+    /**
+     * Splits a script into statements. A statement ends at the current delimiter
+     * ({@code ;} unless changed by a {@code DELIMITER} line) when it is outside quoted
+     * strings, quoted identifiers and comments. Line comments ({@code --}, {@code #}) and
+     * block comments are dropped, except MySQL version comments ({@code /*!}), which are
+     * kept for the server.
+     *
+     * @param text the script
+     * @return the non-empty statements, trimmed and without their delimiters
+     */
+    static List<String> split(String text) {
+        List<String> list = new ArrayList<>();
+        String delimiter = ";";
+        StringBuilder sql = new StringBuilder();
+        int i = 0, n = text.length();
+        boolean lineStart = true;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (lineStart && sql.toString().isBlank()) {
+                int eol = text.indexOf('\n', i);
+                String line = text.substring(i, eol < 0 ? n : eol).trim();
+                if (line.regionMatches(true, 0, "DELIMITER ", 0, 10)) {
+                    delimiter = line.substring(10).trim();
+                    sql.setLength(0);
+                    i = eol < 0 ? n : eol + 1;
+                    continue;
+                }
+            }
+            lineStart = c == '\n';
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = i + 1;
+                while (end < n) {
+                    char q = text.charAt(end);
+                    if (q == '\\' && c != '`') {
+                        end += 2;
+                    } else if (q == c && end + 1 < n && text.charAt(end + 1) == c) {
+                        end += 2; // doubled quote
+                    } else if (q == c) {
+                        break;
+                    } else {
+                        end++;
+                    }
+                }
+                end = Math.min(end + 1, n);
+                sql.append(text, i, end);
+                i = end;
+            } else if (c == '#' || (c == '-' && text.startsWith("--", i)
+                    && (i + 2 == n || Character.isWhitespace(text.charAt(i + 2))))) {
+                int eol = text.indexOf('\n', i);
+                i = eol < 0 ? n : eol;
+            } else if (text.startsWith("/*", i) && !text.startsWith("/*!", i)) {
+                int end = text.indexOf("*/", i + 2);
+                i = end < 0 ? n : end + 2;
+                sql.append(' ');
+            } else if (text.startsWith(delimiter, i)) {
+                if (!sql.toString().isBlank()) {
+                    list.add(sql.toString().trim());
+                }
+                sql.setLength(0);
+                i += delimiter.length();
+            } else {
+                sql.append(c);
+                i++;
+            }
+        }
+        if (!sql.toString().isBlank()) {
+            list.add(sql.toString().trim());
+        }
+        return list;
+    }
+
+    /** Runs EXPLAIN on every checked query and fails on unindexed full scans. */
+    private static void verifyPlans(Connection conn) throws SQLException {
+        List<String> failures = new ArrayList<>();
+        for (CheckedQuery q : CHECKED_QUERIES) {
+            try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + q.sql)) {
+                for (int i = 0; i < q.params.length; i++) {
+                    ps.setObject(i + 1, q.params[i]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (!"ALL".equals(rs.getString("type"))) {
+                            continue;
+                        }
+                        String table = rs.getString("table");
+                        if (rs.getString("possible_keys") == null) {
+                            failures.add(q.name + " scans " + table);
+                        } else {
+                            LOGGER.warning(q.name + " scans " + table + " although an index exists (small table?)");
+                        }
+                    }
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Unindexed DAO queries: " + String.join("; ", failures));
+        }
+    }
+
+    /** Sample timestamp {@code days} from now, for binding range parameters. */
+    private static Timestamp sampleTime(int days) {
+        return Timestamp.valueOf(LocalDateTime.now().plusDays(days));
+    }
+}
@@ -0,0 +1,301 @@
+package DAO;
+
+import Model.Appointment;
+import Model.Contact;
+import Model.Customer;
+import Model.Division;
+import Model.User;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary snapshot of reference data and appointments.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ *   header:  magic "CMSN" | version (short) | section count (short) | watermark (long) | header CRC32 (int)
+ *   section: type (byte) | row count (int) | payload length (int) | payload CRC32 (int) | payload
+ * </pre>
+ * Strings are stored as an int byte length (-1 for null) followed by UTF-8 bytes, and
+ * date-times as epoch seconds of the local date-time. The file is memory-mapped for reading;
+ * a wrong magic, unknown version or any checksum mismatch rejects the whole snapshot.
+ * </p>
+ */
+public class SnapshotFile {
+    /** File magic ("CMSN"). */
+    private static final int MAGIC = 0x434D534E;
+    /** Current format version; bump whenever the section layout changes. */
+    static final short VERSION = 2;
+
+    /** Section type tags. */
+    private static final byte CUSTOMERS = 1, CONTACTS = 2, USERS = 3, DIVISIONS = 4, APPOINTMENTS = 5;
+
+    /**
+     * In-memory contents of a snapshot.
+     */
+    public static class Data {
+        /** Server UTC time at which the data was known to be current (for delta refresh). */
+        public LocalDateTime watermark;
+        /** All customers. */
+        public List<Customer> customers = new ArrayList<>();
+        /** All contacts. */
+        public List<Contact> contacts = new ArrayList<>();
+        /** All users. */
+        public List<User> users = new ArrayList<>();
+        /** All first-level divisions. */
+        public List<Division> divisions = new ArrayList<>();
+        /** All appointments in the hot table. */
+        public List<Appointment> appointments = new ArrayList<>();
+    }
+
+    /**
+     * Writes a snapshot atomically (temp file + rename).
+     *
+     * @param path target file
+     * @param data contents to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, Data data) throws IOException {
+        List<ByteBuffer> sections = new ArrayList<>();
+        sections.add(section(CUSTOMERS, data.customers.size(), w -> {
+            for (Customer c : data.customers) {
+                w.putInt(c.getId());
+                w.putString(c.getName());
+                w.putString(c.getAddress());
+                w.putString(c.getPostalCode());
+                w.putString(c.getPhone());
+                w.putInt(c.getDivisionId());
+                w.putString(c.getDivisionName());
+                w.putString(c.getCountryName());
+            }
+        }));
+        sections.add(section(CONTACTS, data.contacts.size(), w -> {
+            for (Contact c : data.contacts) {
+                w.putInt(c.getId());
+                w.putString(c.getName());
+            }
+        }));
+        sections.add(section(USERS, data.users.size(), w -> {
+            for (User u : data.users) {
+                w.putInt(u.getId());
+                w.putString(u.getName());
+            }
+        }));
+        sections.add(section(DIVISIONS, data.divisions.size(), w -> {
+            for (Division d : data.divisions) {
+                w.putInt(d.getId());
+                w.putString(d.getName());
+                w.putInt(d.getCountryId());
+            }
+        }));
+        sections.add(section(APPOINTMENTS, data.appointments.size(), w -> {
+            for (Appointment a : data.appointments) {
+                w.putInt(a.getId());
+                w.putString(a.getTitle());
+                w.putString(a.getDescription());
+                w.putString(a.getLocation());
+                w.putString(a.getType());
+                w.putLong(a.getStart().toEpochSecond(ZoneOffset.UTC));
+                w.putLong(a.getEnd().toEpochSecond(ZoneOffset.UTC));
+                w.putInt(a.getCustomerId());
+                w.putInt(a.getUserId());
+                w.putInt(a.getContactId());
+                w.putString(a.getContactName());
+            }
+        }));
+
+        ByteBuffer header = ByteBuffer.allocate(20);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) sections.size())
+                .putLong(data.watermark.toEpochSecond(ZoneOffset.UTC));
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 0, 16);
+        header.putInt((int) crc.getValue()).flip();
+
+        Files.createDirectories(path.getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            for (ByteBuffer s : sections) {
+                while (s.hasRemaining()) {
+                    out.write(s);
+                }
+            }
+            out.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Memory-maps and decodes a snapshot.
+     *
+     * @param path snapshot file
+     * @return the decoded contents, or null if the file is missing, from another version, or corrupt
+     * @throws IOException if the file exists but cannot be mapped
+     */
+    public static Data read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.remaining() < 20 || buf.getInt(0) != MAGIC || buf.getShort(4) != VERSION) {
+                return null;
+            }
+            byte[] head = new byte[16];
+            buf.get(head);
+            CRC32 crc = new CRC32();
+            crc.update(head);
+            if ((int) crc.getValue() != buf.getInt()) {
+                return null;
+            }
+            Data data = new Data();
+            data.watermark = LocalDateTime.ofEpochSecond(ByteBuffer.wrap(head).getLong(8), 0, ZoneOffset.UTC);
+            int sectionCount = ByteBuffer.wrap(head).getShort(6);
+            for (int i = 0; i < sectionCount; i++) {
+                if (buf.remaining() < 13) {
+                    return null;
+                }
+                byte type = buf.get();
+                int rows = buf.getInt();
+                int length = buf.getInt();
+                int expectedCrc = buf.getInt();
+                if (length < 0 || length > buf.remaining()) {
+                    return null;
+                }
+                ByteBuffer payload = buf.slice();
+                payload.limit(length);
+                buf.position(buf.position() + length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != expectedCrc) {
+                    return null;
+                }
+                readSection(type, rows, payload, data);
+            }
+            return data;
+        }
+    }
+
+    /** Decodes one section's rows into {@code data}. Unknown section types are skipped. */
+    private static void readSection(byte type, int rows, ByteBuffer in, Data data) {
+        for (int r = 0; r < rows; r++) {
+            switch (type) {
+                case CUSTOMERS:
+                    data.customers.add(new Customer(in.getInt(), getString(in), getString(in), getString(in),
+                            getString(in), in.getInt(), getString(in), getString(in)));
+                    break;
+                case CONTACTS:
+                    data.contacts.add(new Contact(in.getInt(), getString(in)));
+                    break;
+                case USERS:
+                    data.users.add(new User(in.getInt(), getString(in)));
+                    break;
+                case DIVISIONS:
+                    data.divisions.add(new Division(in.getInt(), getString(in), in.getInt()));
+                    break;
+                case APPOINTMENTS:
+                    data.appointments.add(new Appointment(
+                            in.getInt(),
+                            getString(in),
+                            getString(in),
+                            getString(in),
+                            getString(in),
+                            LocalDateTime.ofEpochSecond(in.getLong(), 0, ZoneOffset.UTC),
+                            LocalDateTime.ofEpochSecond(in.getLong(), 0, ZoneOffset.UTC),
+                            in.getInt(),
+                            in.getInt(),
+                            in.getInt(),
+                            getString(in)
+                    ));
+                    break;
+                default:
+                    return;
+            }
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        int len = in.getInt();
+        if (len < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[len];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // -------- Section encoding --------
+
+    /** Callback that writes a section's rows. */
+    private interface SectionBody {
+        void write(Writer w);
+    }
+
+    /** Builds a complete section (header + payload) ready to be written. */
+    private static ByteBuffer section(byte type, int rows, SectionBody body) {
+        Writer w = new Writer();
+        body.write(w);
+        ByteBuffer payload = w.buffer();
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        ByteBuffer out = ByteBuffer.allocate(13 + payload.remaining());
+        out.put(type).putInt(rows).putInt(payload.remaining()).putInt((int) crc.getValue()).put(payload).flip();
+        return out;
+    }
+
+    /** Growable big-endian buffer for section payloads. */
+    private static class Writer {
+        private ByteBuffer buf = ByteBuffer.allocate(4096);
+
+        private void ensure(int n) {
+            if (buf.remaining() < n) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + n));
+                buf.flip();
+                bigger.put(buf);
+                buf = bigger;
+            }
+        }
+
+        void putInt(int v) {
+            ensure(4);
+            buf.putInt(v);
+        }
+
+        void putLong(long v) {
+            ensure(8);
+            buf.putLong(v);
+        }
+
+        void putString(String s) {
+            if (s == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            ensure(4 + bytes.length);
+            buf.putInt(bytes.length).put(bytes);
+        }
+
+        ByteBuffer buffer() {
+            ByteBuffer out = buf.duplicate();
+            out.flip();
+            return out;
+        }
+    }
+}
@@ -16,16 +16,36 @@ public class UserDAO {
 
     /**
      * Fetches all users for populating user combo boxes.
+     * Refreshes the {@link OfflineStore} snapshot, and is served from it while offline
+     * or while the startup snapshot is still warm.
      *
      * @return an ObservableList of User objects representing all users
      * @throws SQLException if a database access error occurs
      */
     public static ObservableList<User> getAllUsers() throws SQLException {
+        ObservableList<User> warm = OfflineStore.warmUsers();
+        if (warm != null) {
+            return warm;
+        }
+        try {
+            ObservableList<User> list = fetchAllUsers();
+            OfflineStore.cacheUsers(list);
+            return list;
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            return OfflineStore.users(e);
+        }
+    }
+
+    /**
+     * Fetches all users directly from the database (no offline fallback).
+     */
+    static ObservableList<User> fetchAllUsers() throws SQLException {
         ObservableList<User> list = FXCollections.observableArrayList();
         String sql = "SELECT User_ID, User_Name FROM users";
 
         try (
-                Connection conn = DBConnection.getConnection();
+                Connection conn = DBConnection.getReadConnection();
                 PreparedStatement ps = conn.prepareStatement(sql);
                 ResultSet rs = ps.executeQuery()
         ) {
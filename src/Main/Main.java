@@ -1,5 +1,9 @@
 package Main;
 
+import DAO.AppointmentArchiver;
+import DAO.DBConnection;
+import DAO.LocalSnapshot;
+import DAO.SchemaMigrator;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -8,6 +12,7 @@ import javafx.scene.control.Alert;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.sql.SQLException;
 import java.util.Locale;
 import java.util.ResourceBundle;
 import java.util.logging.Level;
@@ -38,6 +43,40 @@ public class Main extends Application {
     /** Preferred height of the main window. */
     private static final int WINDOW_HEIGHT = 600;
 
+    /**
+     * Loads the local snapshot from the previous run so the first views render without
+     * waiting for the database, then starts refreshing it in the background.
+     * Past appointments are archived in the background as well.
+     * <p>
+     * Schema migrations are applied first; startup fails if one fails or if a DAO query
+     * would run as an unindexed full scan. The migration connection uses a short connect
+     * timeout, so if the database is unreachable the client starts offline after a few
+     * seconds and migrations are applied later, on first use.
+     * </p>
+     *
+     * @throws SQLException if a migration fails
+     */
+    @Override
+    public void init() throws SQLException {
+        try {
+            SchemaMigrator.migrate();
+        } catch (SQLException e) {
+            if (!DBConnection.isConnectionFailure(e)) throw e;
+            LOGGER.log(Level.WARNING, "Database unreachable; skipping schema migration", e);
+        }
+        LocalSnapshot.load();
+        LocalSnapshot.refreshInBackground();
+        AppointmentArchiver.archiveInBackground();
+    }
+
+    /**
+     * Persists the local snapshot for the next startup.
+     */
+    @Override
+    public void stop() {
+        LocalSnapshot.save();
+    }
+
     /**
      * JavaFX application start method.
      * <p>
@@ -0,0 +1,10 @@
+-- Archive and report-summary tables used by AppointmentArchiver.
+CREATE TABLE IF NOT EXISTS appointments_archive LIKE appointments;
+
+CREATE TABLE IF NOT EXISTS appointment_summary (
+    Type         VARCHAR(50) NOT NULL,
+    Month_Start  DATE        NOT NULL,
+    Customer_ID  INT         NOT NULL,
+    Appointments INT         NOT NULL,
+    PRIMARY KEY (Type, Month_Start, Customer_ID)
+);
@@ -0,0 +1,24 @@
+-- Indexes for the DAO access paths. Re-running a CREATE INDEX whose name
+-- already exists is ignored by the migrator, so this script is idempotent.
+
+-- Customer overlap check and customer appointment lists
+CREATE INDEX idx_appointments_customer_start_end ON appointments (Customer_ID, Start, End);
+-- Upcoming-appointment alerts per user, bulk reassignment per user
+CREATE INDEX idx_appointments_user_start ON appointments (User_ID, Start);
+-- Contact schedules and bulk reassignment per contact
+CREATE INDEX idx_appointments_contact_start ON appointments (Contact_ID, Start);
+-- Bulk-operation validation window
+CREATE INDEX idx_appointments_start ON appointments (Start);
+-- Archival (End < horizon)
+CREATE INDEX idx_appointments_end ON appointments (End);
+-- Snapshot delta refresh
+CREATE INDEX idx_appointments_last_update ON appointments (Last_Update);
+CREATE INDEX idx_customers_last_update ON customers (Last_Update);
+
+-- Archived rows are read by customer and user only
+CREATE INDEX idx_archive_customer_start_end ON appointments_archive (Customer_ID, Start, End);
+CREATE INDEX idx_archive_user_start ON appointments_archive (User_ID, Start);
+
+-- Lookups by name from the forms
+CREATE INDEX idx_contacts_name ON contacts (Contact_Name);
+CREATE INDEX idx_divisions_division ON first_level_divisions (Division);
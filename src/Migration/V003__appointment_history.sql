@@ -0,0 +1,15 @@
+-- Append-only appointment change history used by AppointmentHistory.
+-- Kind: F = full image (insert or periodic snapshot), U = column diff, D = delete.
+-- Start/End hold the post-image times (UTC) on rows that set them, for day lookups.
+CREATE TABLE IF NOT EXISTS appointment_history (
+    History_ID     BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    Appointment_ID INT         NOT NULL,
+    Version        INT         NOT NULL,
+    Kind           CHAR(1)     NOT NULL,
+    Changed_At     DATETIME(6) NOT NULL,
+    Start          DATETIME    NULL,
+    End            DATETIME    NULL,
+    Changes        TEXT        NOT NULL,
+    UNIQUE KEY uq_history_appointment_version (Appointment_ID, Version),
+    KEY idx_history_start (Start)
+);
@@ -0,0 +1,59 @@
+package Model;
+
+/**
+ * Describes why an appointment could not be placed or changed.
+ * Used by bulk operations and conflict reports; {@code conflictingId} is the other
+ * appointment involved in an overlap, or 0 when the problem is not an overlap.
+ */
+public class AppointmentConflict {
+    /** The appointment that was rejected or is double-booked. */
+    private final int appointmentId;
+    /** The appointment it overlaps with (0 if not an overlap). */
+    private final int conflictingId;
+    /** Human-readable reason (e.g., "customer overlap"). */
+    private final String reason;
+
+    /**
+     * Constructs an AppointmentConflict.
+     *
+     * @param appointmentId the rejected or double-booked appointment ID
+     * @param conflictingId the overlapping appointment ID, or 0
+     * @param reason        a short description of the conflict
+     */
+    public AppointmentConflict(int appointmentId, int conflictingId, String reason) {
+        this.appointmentId = appointmentId;
+        this.conflictingId = conflictingId;
+        this.reason = reason;
+    }
+
+    /**
+     * @return the rejected or double-booked appointment ID
+     */
+    public int getAppointmentId() {
+        return appointmentId;
+    }
+
+    /**
+     * @return the overlapping appointment ID, or 0
+     */
+    public int getConflictingId() {
+        return conflictingId;
+    }
+
+    /**
+     * @return the reason for the conflict
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * @return a one-line description for logs and alerts
+     */
+    @Override
+    public String toString() {
+        return conflictingId == 0
+                ? "Appointment " + appointmentId + ": " + reason
+                : "Appointment " + appointmentId + " / " + conflictingId + ": " + reason;
+    }
+}
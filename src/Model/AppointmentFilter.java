@@ -0,0 +1,49 @@
+package Model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Selects a set of appointments for bulk operations.
+ * Every criterion is optional; null means "any".
+ */
+public class AppointmentFilter {
+    /** Only appointments with this Contact_ID. */
+    private final Integer contactId;
+    /** Only appointments with this User_ID. */
+    private final Integer userId;
+    /** Only appointments with this Customer_ID. */
+    private final Integer customerId;
+    /** Only appointments starting at or after this local time. */
+    private final LocalDateTime from;
+    /** Only appointments starting before this local time. */
+    private final LocalDateTime to;
+
+    /**
+     * Constructs an AppointmentFilter.
+     *
+     * @param contactId  contact to match, or null
+     * @param userId     user to match, or null
+     * @param customerId customer to match, or null
+     * @param from       inclusive lower bound on start (local), or null
+     * @param to         exclusive upper bound on start (local), or null
+     */
+    public AppointmentFilter(Integer contactId, Integer userId, Integer customerId,
+                             LocalDateTime from, LocalDateTime to) {
+        this.contactId = contactId;
+        this.userId = userId;
+        this.customerId = customerId;
+        this.from = from;
+        this.to = to;
+    }
+
+    /** @return the contact to match, or null */
+    public Integer getContactId() { return contactId; }
+    /** @return the user to match, or null */
+    public Integer getUserId() { return userId; }
+    /** @return the customer to match, or null */
+    public Integer getCustomerId() { return customerId; }
+    /** @return the inclusive lower bound on start, or null */
+    public LocalDateTime getFrom() { return from; }
+    /** @return the exclusive upper bound on start, or null */
+    public LocalDateTime getTo() { return to; }
+}
@@ -0,0 +1,39 @@
+package Model;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk appointment operation: how many rows were changed and
+ * which rows were left untouched because of conflicts.
+ */
+public class BulkUpdateResult {
+    /** Number of appointments updated. */
+    private final int updated;
+    /** Appointments skipped, with the reason for each. */
+    private final List<AppointmentConflict> conflicts;
+
+    /**
+     * Constructs a BulkUpdateResult.
+     *
+     * @param updated   the number of appointments updated
+     * @param conflicts the appointments skipped and why
+     */
+    public BulkUpdateResult(int updated, List<AppointmentConflict> conflicts) {
+        this.updated = updated;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * @return the number of appointments updated
+     */
+    public int getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return the appointments skipped, with reasons
+     */
+    public List<AppointmentConflict> getConflicts() {
+        return conflicts;
+    }
+}
@@ -0,0 +1,69 @@
+package Model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A request to book a customer with any of several contacts within a time window,
+ * placed automatically by the auto-scheduler.
+ */
+public class ScheduleRequest {
+    /** Customer to book. */
+    private final int customerId;
+    /** User recorded as the appointment's owner. */
+    private final int userId;
+    /** Contacts that may take the appointment (any one of them). */
+    private final List<Integer> contactIds;
+    /** Length of the appointment. */
+    private final Duration duration;
+    /** Earliest allowed start (local time). */
+    private final LocalDateTime windowStart;
+    /** Latest allowed end (local time). */
+    private final LocalDateTime windowEnd;
+    /** Title of the appointment to create. */
+    private final String title;
+    /** Type of the appointment to create. */
+    private final String type;
+
+    /**
+     * Constructs a ScheduleRequest.
+     *
+     * @param customerId  the customer to book
+     * @param userId      the user the appointment is recorded under
+     * @param contactIds  the allowed contacts
+     * @param duration    the appointment length
+     * @param windowStart earliest allowed start (local)
+     * @param windowEnd   latest allowed end (local)
+     * @param title       the appointment title
+     * @param type        the appointment type
+     */
+    public ScheduleRequest(int customerId, int userId, List<Integer> contactIds, Duration duration,
+                           LocalDateTime windowStart, LocalDateTime windowEnd, String title, String type) {
+        this.customerId = customerId;
+        this.userId = userId;
+        this.contactIds = contactIds;
+        this.duration = duration;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.title = title;
+        this.type = type;
+    }
+
+    /** @return the customer to book */
+    public int getCustomerId() { return customerId; }
+    /** @return the user the appointment is recorded under */
+    public int getUserId() { return userId; }
+    /** @return the allowed contacts */
+    public List<Integer> getContactIds() { return contactIds; }
+    /** @return the appointment length */
+    public Duration getDuration() { return duration; }
+    /** @return the earliest allowed start (local) */
+    public LocalDateTime getWindowStart() { return windowStart; }
+    /** @return the latest allowed end (local) */
+    public LocalDateTime getWindowEnd() { return windowEnd; }
+    /** @return the appointment title */
+    public String getTitle() { return title; }
+    /** @return the appointment type */
+    public String getType() { return type; }
+}
@@ -0,0 +1,39 @@
+package Model;
+
+import java.util.List;
+
+/**
+ * Outcome of an auto-scheduling run: the appointments created and the
+ * requests that could not be placed.
+ */
+public class ScheduleResult {
+    /** Appointments created, with their generated IDs. */
+    private final List<Appointment> scheduled;
+    /** Requests for which no conflict-free slot was found. */
+    private final List<ScheduleRequest> unscheduled;
+
+    /**
+     * Constructs a ScheduleResult.
+     *
+     * @param scheduled   the appointments created
+     * @param unscheduled the requests left unplaced
+     */
+    public ScheduleResult(List<Appointment> scheduled, List<ScheduleRequest> unscheduled) {
+        this.scheduled = scheduled;
+        this.unscheduled = unscheduled;
+    }
+
+    /**
+     * @return the appointments created
+     */
+    public List<Appointment> getScheduled() {
+        return scheduled;
+    }
+
+    /**
+     * @return the requests left unplaced
+     */
+    public List<ScheduleRequest> getUnscheduled() {
+        return unscheduled;
+    }
+}